@@ -13,12 +13,15 @@
 package org.openhab.binding.bluetooth.roaming.internal;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -32,28 +35,53 @@ import org.openhab.binding.bluetooth.BluetoothDeviceListener;
 import org.openhab.binding.bluetooth.DelegateBluetoothDevice;
 import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
 import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.openhab.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link RoamingBluetoothDevice} acts as a roaming device by delegating
  * its operations to actual adapters.
  *
+ * The adapter receiving the device best is kept as current delegate and only re-evaluated when its backing devices
+ * report new RSSI values or connection states, so routing an event is a single reference comparison. Another adapter
+ * only takes over if its RSSI is better by at least {@link #RSSI_HYSTERESIS} or the current adapter has not received
+ * the device for {@link #STALE_TIMEOUT_MS}.
+ *
  * @author Connor Petty - Initial contribution
  */
 @NonNullByDefault
 public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
 
+    static final int RSSI_HYSTERESIS = 6;
+    static final long STALE_TIMEOUT_MS = 30000;
+
+    private final Logger logger = LoggerFactory.getLogger(RoamingBluetoothDevice.class);
+
     private final Map<BluetoothDevice, Listener> devices = new ConcurrentHashMap<>();
 
+    private final AtomicLong delegateChanges = new AtomicLong();
+
     private final List<BluetoothDeviceListener> eventListeners = new CopyOnWriteArrayList<>();
 
     private final AtomicReference<@Nullable BluetoothDevice> currentDelegateRef = new AtomicReference<>();
 
-    protected RoamingBluetoothDevice(RoamingBridgeHandler roamingAdapter, BluetoothAddress address) {
+    private final LongSupplier clock;
+
+    protected RoamingBluetoothDevice(RoamingBluetoothAdapter roamingAdapter, BluetoothAddress address) {
+        this(roamingAdapter, address, System::currentTimeMillis);
+    }
+
+    RoamingBluetoothDevice(RoamingBluetoothAdapter roamingAdapter, BluetoothAddress address, LongSupplier clock) {
         super(roamingAdapter, address);
+        this.clock = clock;
     }
 
     public void addBluetoothDevice(BluetoothDevice device) {
         device.addListener(Objects.requireNonNull(devices.computeIfAbsent(device, Listener::new)));
+        if (currentDelegateRef.get() == null) {
+            selectDelegate();
+        }
     }
 
     public void removeBluetoothDevice(BluetoothDevice device) {
@@ -61,6 +89,28 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
         if (listener != null) {
             device.removeListener(listener);
         }
+        if (currentDelegateRef.get() == device) {
+            selectDelegate();
+        }
+    }
+
+    /**
+     * Returns the number of events forwarded from each adapter.
+     *
+     * @return map of adapter UID to routed events
+     */
+    public Map<ThingUID, Long> getRoutedEvents() {
+        Map<ThingUID, Long> routedEvents = new HashMap<>();
+        devices.values().forEach(listener -> routedEvents.merge(listener.device.getAdapter().getUID(),
+                listener.routedEvents.get(), Long::sum));
+        return routedEvents;
+    }
+
+    /**
+     * Returns how often the adapter used for this device has changed.
+     */
+    public long getDelegateChanges() {
+        return delegateChanges.get();
     }
 
     @Override
@@ -70,6 +120,14 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
 
     @Override
     protected @Nullable BluetoothDevice getDelegate() {
+        BluetoothDevice delegate = currentDelegateRef.get();
+        return delegate != null ? delegate : selectDelegate();
+    }
+
+    /**
+     * Chooses the delegate from all backing devices: a connected device or otherwise the one with the best RSSI.
+     */
+    private @Nullable BluetoothDevice selectDelegate() {
         BluetoothDevice newDelegate = null;
         int newRssi = Integer.MIN_VALUE;
         for (BluetoothDevice device : devices.keySet()) {
@@ -86,11 +144,57 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
         }
         BluetoothDevice oldDelegate = currentDelegateRef.getAndSet(newDelegate);
         if (oldDelegate != newDelegate) { // using reference comparison is valid in this case
-            notifyListeners(BluetoothEventType.ADAPTER_CHANGED, getAdapter(newDelegate));
+            delegateChanged(oldDelegate, newDelegate);
         }
         return newDelegate;
     }
 
+    /**
+     * Re-evaluates the delegate after a backing device has received an advertisement.
+     */
+    private void updateDelegate(Listener candidate) {
+        BluetoothDevice current = currentDelegateRef.get();
+        if (current == null) {
+            selectDelegate();
+            return;
+        }
+        if (current == candidate.device || isConnected(current)) {
+            return;
+        }
+        Integer rssi = candidate.device.getRssi();
+        if (rssi == null) {
+            return;
+        }
+        Listener currentListener = devices.get(current);
+        Integer currentRssi = current.getRssi();
+        boolean stale = currentListener == null
+                || clock.getAsLong() - currentListener.lastSeen > STALE_TIMEOUT_MS;
+        if (stale || currentRssi == null || rssi >= currentRssi + RSSI_HYSTERESIS) {
+            setDelegate(current, candidate.device);
+        }
+    }
+
+    private void setDelegate(@Nullable BluetoothDevice oldDelegate, BluetoothDevice newDelegate) {
+        if (currentDelegateRef.compareAndSet(oldDelegate, newDelegate)) {
+            delegateChanged(oldDelegate, newDelegate);
+        }
+    }
+
+    private void delegateChanged(@Nullable BluetoothDevice oldDelegate, @Nullable BluetoothDevice newDelegate) {
+        delegateChanges.incrementAndGet();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Device {} is now handled by adapter {} (was {})", address,
+                    newDelegate != null ? newDelegate.getAdapter().getUID() : null,
+                    oldDelegate != null ? oldDelegate.getAdapter().getUID() : null);
+        }
+        notifyListeners(BluetoothEventType.ADAPTER_CHANGED, getAdapter(newDelegate));
+    }
+
+    private static boolean isConnected(BluetoothDevice device) {
+        ConnectionState state = device.getConnectionState();
+        return state == ConnectionState.CONNECTING || state == ConnectionState.CONNECTED;
+    }
+
     private BluetoothAdapter getAdapter(@Nullable BluetoothDevice delegate) {
         if (delegate != null) {
             return delegate.getAdapter();
@@ -106,22 +210,43 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
 
     private class Listener implements BluetoothDeviceListener {
 
-        private BluetoothDevice device;
+        private final BluetoothDevice device;
+        private final AtomicLong routedEvents = new AtomicLong();
+        private volatile long lastSeen = clock.getAsLong();
 
         public Listener(BluetoothDevice device) {
             this.device = device;
         }
 
+        private boolean isDelegate() {
+            if (device == getDelegate()) {
+                routedEvents.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
         @Override
         public void onScanRecordReceived(BluetoothScanNotification scanNotification) {
-            if (device == getDelegate()) {
+            lastSeen = clock.getAsLong();
+            if (scanNotification.getRssi() != Integer.MIN_VALUE) {
+                updateDelegate(this);
+            }
+            if (isDelegate()) {
                 notifyListeners(BluetoothEventType.SCAN_RECORD, scanNotification);
             }
         }
 
         @Override
         public void onConnectionStateChange(BluetoothConnectionStatusNotification connectionNotification) {
-            if (device == getDelegate()) {
+            BluetoothDevice oldDelegate = getDelegate();
+            if (isConnected(device)) {
+                // a connected adapter always handles the device
+                setDelegate(oldDelegate, device);
+            } else if (device == oldDelegate) {
+                selectDelegate();
+            }
+            if (isDelegate() || device == oldDelegate) {
                 notifyListeners(BluetoothEventType.CONNECTION_STATE, connectionNotification);
             }
         }
@@ -129,7 +254,7 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
         @Override
         public void onServicesDiscovered() {
             device.getServices().forEach(RoamingBluetoothDevice.this::addService);
-            if (device == getDelegate()) {
+            if (isDelegate()) {
                 notifyListeners(BluetoothEventType.SERVICES_DISCOVERED);
             }
         }
@@ -137,7 +262,7 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
         @Override
         public void onCharacteristicReadComplete(BluetoothCharacteristic characteristic,
                 BluetoothCompletionStatus status) {
-            if (device == getDelegate()) {
+            if (isDelegate()) {
                 notifyListeners(BluetoothEventType.CHARACTERISTIC_READ_COMPLETE, characteristic, status);
             }
         }
@@ -145,21 +270,21 @@ public class RoamingBluetoothDevice extends DelegateBluetoothDevice {
         @Override
         public void onCharacteristicWriteComplete(BluetoothCharacteristic characteristic,
                 BluetoothCompletionStatus status) {
-            if (device == getDelegate()) {
+            if (isDelegate()) {
                 notifyListeners(BluetoothEventType.CHARACTERISTIC_WRITE_COMPLETE, characteristic);
             }
         }
 
         @Override
         public void onCharacteristicUpdate(BluetoothCharacteristic characteristic) {
-            if (device == getDelegate()) {
+            if (isDelegate()) {
                 notifyListeners(BluetoothEventType.CHARACTERISTIC_UPDATED, characteristic);
             }
         }
 
         @Override
         public void onDescriptorUpdate(BluetoothDescriptor bluetoothDescriptor) {
-            if (device == getDelegate()) {
+            if (isDelegate()) {
                 notifyListeners(BluetoothEventType.DESCRIPTOR_UPDATED, bluetoothDescriptor);
             }
         }
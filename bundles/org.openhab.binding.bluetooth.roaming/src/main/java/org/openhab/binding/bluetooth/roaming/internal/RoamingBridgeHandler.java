@@ -16,7 +16,11 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -33,16 +37,25 @@ import org.openhab.core.thing.ThingStatusDetail;
 import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.BaseBridgeHandler;
 import org.openhab.core.types.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link RoamingBridgeHandler} is responsible for handling commands, which are
  * sent to one of the channels.
  *
+ * The number of events routed through each adapter and the number of adapter changes of the devices are published
+ * as properties of the bridge once per minute.
+ *
  * @author Connor Petty - Initial contribution
  */
 @NonNullByDefault
 public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBluetoothAdapter {
 
+    private static final long STATISTICS_INTERVAL_S = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(RoamingBridgeHandler.class);
+
     private final Set<BluetoothAdapter> adapters = new CopyOnWriteArraySet<>();
 
     /*
@@ -51,6 +64,7 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
      */
     private Map<BluetoothAddress, RoamingBluetoothDevice> devices = new HashMap<>();
     private ThingUID[] groupUIDs = new ThingUID[0];
+    private @Nullable ScheduledFuture<?> statisticsJob;
 
     public RoamingBridgeHandler(Bridge bridge) {
         super(bridge);
@@ -72,6 +86,21 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                     "No Physical Bluetooth adapters found");
         }
+
+        statisticsJob = scheduler.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_INTERVAL_S,
+                STATISTICS_INTERVAL_S, TimeUnit.SECONDS);
+    }
+
+    private void updateStatistics() {
+        Map<ThingUID, Long> routedEvents = new TreeMap<>((a, b) -> a.toString().compareTo(b.toString()));
+        routedEvents.putAll(getRoutingStatistics());
+        String routed = routedEvents.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", "));
+        long adapterChanges = getAdapterChanges();
+        logger.debug("Roaming adapter {}: {} adapter changes, routed events: {}", getThing().getUID(),
+                adapterChanges, routed);
+        updateProperty(RoamingBindingConstants.PROPERTY_ADAPTER_CHANGES, String.valueOf(adapterChanges));
+        updateProperty(RoamingBindingConstants.PROPERTY_ROUTED_EVENTS, routed);
     }
 
     private void updateStatus() {
@@ -85,7 +114,11 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
 
     @Override
     public void dispose() {
-        // nothing that needs to be done here.
+        ScheduledFuture<?> job = statisticsJob;
+        if (job != null) {
+            job.cancel(false);
+            statisticsJob = null;
+        }
         // Listener cleanup will be performed by the discovery participant anyway.
     }
 
@@ -227,6 +260,30 @@ public class RoamingBridgeHandler extends BaseBridgeHandler implements RoamingBl
         }
     }
 
+    /**
+     * Returns the number of device events routed through each adapter.
+     *
+     * @return map of adapter UID to routed events
+     */
+    public Map<ThingUID, Long> getRoutingStatistics() {
+        Map<ThingUID, Long> statistics = new HashMap<>();
+        synchronized (devices) {
+            for (RoamingBluetoothDevice roamingDevice : devices.values()) {
+                roamingDevice.getRoutedEvents().forEach((uid, count) -> statistics.merge(uid, count, Long::sum));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns how often the devices of this roaming adapter have changed their adapter.
+     */
+    public long getAdapterChanges() {
+        synchronized (devices) {
+            return devices.values().stream().mapToLong(RoamingBluetoothDevice::getDelegateChanges).sum();
+        }
+    }
+
     @Override
     public boolean hasHandlerForDevice(BluetoothAddress address) {
         String addrStr = address.toString();
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth.roaming.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.BaseBluetoothDevice;
+import org.openhab.binding.bluetooth.BluetoothAdapter;
+import org.openhab.binding.bluetooth.BluetoothAddress;
+import org.openhab.binding.bluetooth.BluetoothCharacteristic;
+import org.openhab.binding.bluetooth.BluetoothDescriptor;
+import org.openhab.binding.bluetooth.notification.BluetoothConnectionStatusNotification;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests the selection of the adapter used by a {@link RoamingBluetoothDevice}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RoamingBluetoothDeviceTest {
+
+    private static final BluetoothAddress ADDRESS = new BluetoothAddress("12:34:56:78:9A:BC");
+
+    private long now = 1000000;
+    private @NonNullByDefault({}) RoamingBluetoothDevice roamingDevice;
+    private @NonNullByDefault({}) TestDevice near;
+    private @NonNullByDefault({}) TestDevice far;
+
+    @BeforeEach
+    public void setUp() {
+        roamingDevice = new RoamingBluetoothDevice(mock(RoamingBluetoothAdapter.class), ADDRESS, () -> now);
+        near = new TestDevice("near");
+        far = new TestDevice("far");
+    }
+
+    @Test
+    public void testFirstAddedAdapterIsKeptUntilScan() {
+        far.setRssi(-80);
+        near.setRssi(-60);
+        roamingDevice.addBluetoothDevice(far);
+        roamingDevice.addBluetoothDevice(near);
+
+        // the first device with an RSSI is used until another one is better by the hysteresis
+        assertThat(roamingDevice.getAdapter(), is(far.getAdapter()));
+        near.scan(-60);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+        assertThat(roamingDevice.getDelegateChanges(), is(2L));
+    }
+
+    @Test
+    public void testBetterRssiSwitchesAdapter() {
+        far.setRssi(-80);
+        roamingDevice.addBluetoothDevice(far);
+        roamingDevice.addBluetoothDevice(near);
+        far.scan(-80);
+        assertThat(roamingDevice.getAdapter(), is(far.getAdapter()));
+
+        near.scan(-80 + RoamingBluetoothDevice.RSSI_HYSTERESIS + 10);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+        assertThat(roamingDevice.getDelegateChanges(), is(2L));
+
+        // a worse RSSI of the previous adapter does not switch back
+        far.scan(-85);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+        assertThat(roamingDevice.getDelegateChanges(), is(2L));
+    }
+
+    @Test
+    public void testHysteresis() {
+        far.setRssi(-70);
+        roamingDevice.addBluetoothDevice(far);
+        roamingDevice.addBluetoothDevice(near);
+
+        near.scan(-70 + RoamingBluetoothDevice.RSSI_HYSTERESIS - 1);
+        assertThat(roamingDevice.getAdapter(), is(far.getAdapter()));
+
+        near.scan(-70 + RoamingBluetoothDevice.RSSI_HYSTERESIS);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+
+        // switching back needs the hysteresis as well
+        far.scan(-64 + RoamingBluetoothDevice.RSSI_HYSTERESIS - 1);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+    }
+
+    @Test
+    public void testStaleAdapterIsReplaced() {
+        near.setRssi(-50);
+        roamingDevice.addBluetoothDevice(near);
+        roamingDevice.addBluetoothDevice(far);
+        near.scan(-50);
+
+        far.scan(-90);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+
+        now += RoamingBluetoothDevice.STALE_TIMEOUT_MS;
+        far.scan(-90);
+        assertThat(roamingDevice.getAdapter(), is(near.getAdapter()));
+
+        now += 1;
+        far.scan(-90);
+        assertThat(roamingDevice.getAdapter(), is(far.getAdapter()));
+    }
+
+    @Test
+    public void testConnectedAdapterIsKept() {
+        far.setRssi(-90);
+        roamingDevice.addBluetoothDevice(near);
+        roamingDevice.addBluetoothDevice(far);
+        far.connected();
+        assertThat(roamingDevice.getAdapter(), is(far.getAdapter()));
+
+        near.scan(-30);
+        now += 2 * RoamingBluetoothDevice.STALE_TIMEOUT_MS;
+        near.scan(-30);
+        assertThat(roamingDevice.getAdapter(), is(far.getAdapter()));
+    }
+
+    private static class TestDevice extends BaseBluetoothDevice {
+
+        TestDevice(String adapterId) {
+            super(createAdapter(adapterId), ADDRESS);
+        }
+
+        private static BluetoothAdapter createAdapter(String adapterId) {
+            BluetoothAdapter adapter = mock(BluetoothAdapter.class);
+            when(adapter.getUID()).thenReturn(new ThingUID("bluetooth", "test", adapterId));
+            return adapter;
+        }
+
+        void scan(int rssi) {
+            setRssi(rssi);
+            BluetoothScanNotification notification = new BluetoothScanNotification();
+            notification.setRssi(rssi);
+            notifyListeners(BluetoothEventType.SCAN_RECORD, notification);
+        }
+
+        void connected() {
+            connectionState = ConnectionState.CONNECTED;
+            notifyListeners(BluetoothEventType.CONNECTION_STATE,
+                    new BluetoothConnectionStatusNotification(ConnectionState.CONNECTED));
+        }
+
+        @Override
+        public boolean connect() {
+            return false;
+        }
+
+        @Override
+        public boolean disconnect() {
+            return false;
+        }
+
+        @Override
+        public boolean discoverServices() {
+            return false;
+        }
+
+        @Override
+        public boolean readCharacteristic(BluetoothCharacteristic characteristic) {
+            return false;
+        }
+
+        @Override
+        public boolean writeCharacteristic(BluetoothCharacteristic characteristic) {
+            return false;
+        }
+
+        @Override
+        public boolean enableNotifications(BluetoothCharacteristic characteristic) {
+            return false;
+        }
+
+        @Override
+        public boolean disableNotifications(BluetoothCharacteristic characteristic) {
+            return false;
+        }
+
+        @Override
+        public boolean enableNotifications(BluetoothDescriptor descriptor) {
+            return false;
+        }
+
+        @Override
+        public boolean disableNotifications(BluetoothDescriptor descriptor) {
+            return false;
+        }
+    }
+}
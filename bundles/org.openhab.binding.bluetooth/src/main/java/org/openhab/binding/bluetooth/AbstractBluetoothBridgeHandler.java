@@ -54,6 +54,9 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     // This contains the devices from the most recent scan
     private final Map<BluetoothAddress, BD> devices = new ConcurrentHashMap<>();
 
+    // Filter for repeated advertisements of the devices
+    private final BluetoothAdvertisementFilter advertisementFilter = new BluetoothAdvertisementFilter();
+
     // Actual discovery status.
     protected volatile boolean activeScanEnabled = false;
 
@@ -114,6 +117,9 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     }
 
     private void removeInactiveDevices() {
+        logger.debug("{} advertisements received, {} forwarded to device listeners",
+                advertisementFilter.getReceivedCount(), advertisementFilter.getForwardedCount());
+
         // clean up orphaned entries
         synchronized (devices) {
             for (BD device : devices.values()) {
@@ -130,6 +136,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         synchronized (devices) {
             devices.remove(device.getAddress());
         }
+        advertisementFilter.remove(device.getAddress());
         discoveryListeners.forEach(listener -> listener.deviceRemoved(device));
     }
 
@@ -173,7 +180,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     protected void refreshDiscoveredDevices() {
         logger.debug("Refreshing Bluetooth device list...");
         synchronized (devices) {
-            devices.values().forEach(this::deviceDiscovered);
+            devices.values().forEach(this::notifyDeviceDiscovered);
         }
     }
 
@@ -187,10 +194,23 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     @Override
     public BD getDevice(BluetoothAddress address) {
         synchronized (devices) {
-            return Objects.requireNonNull(devices.computeIfAbsent(address, this::createDevice));
+            return Objects.requireNonNull(devices.computeIfAbsent(address, addr -> {
+                BD device = createDevice(addr);
+                device.setAdvertisementFilter(advertisementFilter);
+                return device;
+            }));
         }
     }
 
+    /**
+     * Returns the filter for repeated advertisements of the devices of this adapter.
+     *
+     * @return the advertisement filter
+     */
+    public BluetoothAdvertisementFilter getAdvertisementFilter() {
+        return advertisementFilter;
+    }
+
     protected abstract BD createDevice(BluetoothAddress address);
 
     @Override
@@ -210,7 +230,22 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         return false;
     }
 
+    /**
+     * Notifies the discovery listeners about a device. This is called for every advertisement, so a device is
+     * reported at most once per duplicate window of the {@link BluetoothAdvertisementFilter}.
+     *
+     * @param device the device an advertisement was received from
+     */
     public void deviceDiscovered(BluetoothDevice device) {
+        if (!config.backgroundDiscovery && !activeScanEnabled) {
+            return;
+        }
+        if (advertisementFilter.filterDiscovery(device.getAddress())) {
+            notifyDeviceDiscovered(device);
+        }
+    }
+
+    private void notifyDeviceDiscovered(BluetoothDevice device) {
         if (hasHandlerForDevice(device.getAddress())) {
             // no point in discovering a device that already has a handler
             return;
@@ -22,6 +22,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +81,11 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
      */
     private final Set<BluetoothDeviceListener> eventListeners = new CopyOnWriteArraySet<>();
 
+    /**
+     * The filter for repeated scan notifications of the adapter
+     */
+    private @Nullable BluetoothAdvertisementFilter advertisementFilter;
+
     /**
      * Construct a Bluetooth device taking the Bluetooth address
      *
@@ -108,6 +114,15 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
         lastSeenTime = ZonedDateTime.now();
     }
 
+    /**
+     * Sets the filter used to drop repeated scan notifications before they are passed to the listeners.
+     *
+     * @param advertisementFilter the filter of the adapter
+     */
+    public void setAdvertisementFilter(BluetoothAdvertisementFilter advertisementFilter) {
+        this.advertisementFilter = advertisementFilter;
+    }
+
     /**
      * Returns the name of the Bluetooth device.
      *
@@ -262,6 +277,16 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
     protected void notifyListeners(BluetoothEventType event, Object... args) {
         switch (event) {
             case SCAN_RECORD:
+                updateLastSeenTime();
+                if (eventListeners.isEmpty()) {
+                    // nobody is interested in this device
+                    return;
+                }
+                BluetoothAdvertisementFilter filter = advertisementFilter;
+                if (filter != null && !filter.filterScanRecord(address, (BluetoothScanNotification) args[0])) {
+                    return;
+                }
+                break;
             case CHARACTERISTIC_UPDATED:
             case DESCRIPTOR_UPDATED:
             case SERVICES_DISCOVERED:
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification.BluetoothBeaconType;
+
+/**
+ * The {@link BluetoothAdvertisementFilter} thins out the advertisements received by an adapter before they are passed
+ * to the device listeners and the discovery service.
+ * <ul>
+ * <li>An advertisement with the same content as the last forwarded one of the same address is dropped within the
+ * duplicate window.</li>
+ * <li>Advertisements carrying only a new RSSI value are forwarded at most once per RSSI interval.</li>
+ * <li>A device is reported as discovered at most once per duplicate window.</li>
+ * </ul>
+ * The filter does not take any locks, concurrent advertisements of the same address may both be forwarded.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BluetoothAdvertisementFilter {
+
+    public static final long DEFAULT_DUPLICATE_WINDOW_MS = 5000;
+    public static final long DEFAULT_RSSI_INTERVAL_MS = 1000;
+
+    private final Map<BluetoothAddress, AddressState> states = new ConcurrentHashMap<>();
+    private final long duplicateWindow;
+    private final long rssiInterval;
+    private final LongSupplier clock;
+
+    private final LongAdder receivedCount = new LongAdder();
+    private final LongAdder forwardedCount = new LongAdder();
+
+    public BluetoothAdvertisementFilter() {
+        this(DEFAULT_DUPLICATE_WINDOW_MS, DEFAULT_RSSI_INTERVAL_MS, System::nanoTime);
+    }
+
+    /**
+     * @param duplicateWindowMs time in milliseconds in which equal advertisements are dropped
+     * @param rssiIntervalMs minimum time in milliseconds between two forwarded RSSI updates
+     * @param clock source of the current time in nanoseconds
+     */
+    BluetoothAdvertisementFilter(long duplicateWindowMs, long rssiIntervalMs, LongSupplier clock) {
+        this.duplicateWindow = TimeUnit.MILLISECONDS.toNanos(duplicateWindowMs);
+        this.rssiInterval = TimeUnit.MILLISECONDS.toNanos(rssiIntervalMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a scan notification of a device has to be passed to its listeners.
+     *
+     * @param address the address of the device
+     * @param notification the received scan notification
+     * @return true if the notification has to be forwarded, false if it can be dropped
+     */
+    public boolean filterScanRecord(BluetoothAddress address, BluetoothScanNotification notification) {
+        receivedCount.increment();
+        long now = clock.getAsLong();
+        AddressState state = getState(address, now);
+
+        byte[] data = notification.getData();
+        byte[] manufacturerData = notification.getManufacturerData();
+        String name = notification.getDeviceName();
+        int rssi = notification.getRssi();
+        boolean hasContent = data != null || manufacturerData != null || !name.isEmpty();
+
+        boolean forward;
+        if (hasContent) {
+            Advertisement last = state.lastAdvertisement;
+            forward = last == null || now - last.time >= duplicateWindow
+                    || !last.matches(data, manufacturerData, name, notification.getBeaconType());
+            if (forward) {
+                state.lastAdvertisement = new Advertisement(now, data, manufacturerData, name,
+                        notification.getBeaconType());
+            }
+        } else {
+            // notifications without any content are not filtered
+            forward = rssi == Integer.MIN_VALUE;
+        }
+        if (rssi != Integer.MIN_VALUE) {
+            if (!forward) {
+                forward = now - state.lastRssiTime >= rssiInterval;
+            }
+            if (forward) {
+                state.lastRssiTime = now;
+            }
+        }
+
+        if (forward) {
+            forwardedCount.increment();
+        }
+        return forward;
+    }
+
+    /**
+     * Checks whether the discovery listeners have to be notified about a device.
+     *
+     * @param address the address of the device
+     * @return true if the device has not been reported within the duplicate window
+     */
+    public boolean filterDiscovery(BluetoothAddress address) {
+        long now = clock.getAsLong();
+        AddressState state = getState(address, now);
+        if (now - state.lastDiscoveryTime < duplicateWindow) {
+            return false;
+        }
+        state.lastDiscoveryTime = now;
+        return true;
+    }
+
+    /**
+     * Forgets the state of a device, e.g. after the device has been removed from the adapter.
+     *
+     * @param address the address of the device
+     */
+    public void remove(BluetoothAddress address) {
+        states.remove(address);
+    }
+
+    /**
+     * Returns the number of scan notifications passed to this filter.
+     */
+    public long getReceivedCount() {
+        return receivedCount.sum();
+    }
+
+    /**
+     * Returns the number of scan notifications forwarded to the device listeners.
+     */
+    public long getForwardedCount() {
+        return forwardedCount.sum();
+    }
+
+    private AddressState getState(BluetoothAddress address, long now) {
+        AddressState state = states.get(address);
+        if (state == null) {
+            AddressState newState = new AddressState(now - Math.max(duplicateWindow, rssiInterval));
+            state = states.putIfAbsent(address, newState);
+            if (state == null) {
+                state = newState;
+            }
+        }
+        return state;
+    }
+
+    private static class AddressState {
+        private volatile @Nullable Advertisement lastAdvertisement;
+        private volatile long lastRssiTime;
+        private volatile long lastDiscoveryTime;
+
+        private AddressState(long initialTime) {
+            this.lastRssiTime = initialTime;
+            this.lastDiscoveryTime = initialTime;
+        }
+    }
+
+    private static class Advertisement {
+        private final long time;
+        private final byte @Nullable [] data;
+        private final byte @Nullable [] manufacturerData;
+        private final String name;
+        private final BluetoothBeaconType beaconType;
+
+        private Advertisement(long time, byte @Nullable [] data, byte @Nullable [] manufacturerData, String name,
+                BluetoothBeaconType beaconType) {
+            this.time = time;
+            this.data = data == null ? null : data.clone();
+            this.manufacturerData = manufacturerData == null ? null : manufacturerData.clone();
+            this.name = name;
+            this.beaconType = beaconType;
+        }
+
+        private boolean matches(byte @Nullable [] data, byte @Nullable [] manufacturerData, String name,
+                BluetoothBeaconType beaconType) {
+            return this.beaconType == beaconType && this.name.equals(name) && Arrays.equals(this.data, data)
+                    && Arrays.equals(this.manufacturerData, manufacturerData);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+
+/**
+ * Tests {@link BluetoothAdvertisementFilter}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BluetoothAdvertisementFilterTest {
+
+    private long now = 1000;
+    private final BluetoothAdvertisementFilter filter = new BluetoothAdvertisementFilter(5000, 1000,
+            () -> TimeUnit.MILLISECONDS.toNanos(now));
+    private final BluetoothAddress address = TestUtils.randomAddress();
+
+    @Test
+    public void testDuplicateAdvertisementIsDropped() {
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1, 2, 3 }, Integer.MIN_VALUE)));
+        now += 100;
+        assertFalse(filter.filterScanRecord(address, advertisement(new byte[] { 1, 2, 3 }, Integer.MIN_VALUE)));
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1, 2, 4 }, Integer.MIN_VALUE)));
+
+        now += 5000;
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1, 2, 4 }, Integer.MIN_VALUE)));
+
+        assertEquals(4, filter.getReceivedCount());
+        assertEquals(3, filter.getForwardedCount());
+    }
+
+    @Test
+    public void testRssiUpdatesAreRateLimited() {
+        assertTrue(filter.filterScanRecord(address, advertisement(null, -70)));
+        now += 300;
+        assertFalse(filter.filterScanRecord(address, advertisement(null, -60)));
+        // a duplicate advertisement is forwarded again as soon as its RSSI is due
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1 }, -60)));
+        now += 300;
+        assertFalse(filter.filterScanRecord(address, advertisement(new byte[] { 1 }, -65)));
+        now += 1000;
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1 }, -65)));
+    }
+
+    @Test
+    public void testAddressesAreFilteredIndependently() {
+        BluetoothAddress other = TestUtils.randomAddress();
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1 }, Integer.MIN_VALUE)));
+        assertTrue(filter.filterScanRecord(other, advertisement(new byte[] { 1 }, Integer.MIN_VALUE)));
+
+        filter.remove(address);
+        assertTrue(filter.filterScanRecord(address, advertisement(new byte[] { 1 }, Integer.MIN_VALUE)));
+        assertFalse(filter.filterScanRecord(other, advertisement(new byte[] { 1 }, Integer.MIN_VALUE)));
+    }
+
+    @Test
+    public void testDiscoveryIsReportedOncePerWindow() {
+        assertTrue(filter.filterDiscovery(address));
+        now += 4000;
+        assertFalse(filter.filterDiscovery(address));
+        now += 1000;
+        assertTrue(filter.filterDiscovery(address));
+    }
+
+    private static BluetoothScanNotification advertisement(byte @Nullable [] manufacturerData, int rssi) {
+        BluetoothScanNotification notification = new BluetoothScanNotification();
+        if (manufacturerData != null) {
+            notification.setManufacturerData(manufacturerData);
+        }
+        notification.setRssi(rssi);
+        return notification;
+    }
+}
@@ -408,6 +408,9 @@ public class EnOceanBindingConstants {
     public static final String PROPERTY_API_VERSION = "API Version";
     public static final String PROPERTY_CHIP_ID = "Chip ID";
     public static final String PROPERTY_DESCRIPTION = "Description";
+    public static final String PROPERTY_RECEIVED_FRAMES = "Received Frames";
+    public static final String PROPERTY_CRC_ERRORS = "CRC Errors";
+    public static final String PROPERTY_DISCARDED_BYTES = "Discarded Bytes";
 
     // Thing properties
     public static final String PROPERTY_ENOCEAN_ID = "enoceanId";
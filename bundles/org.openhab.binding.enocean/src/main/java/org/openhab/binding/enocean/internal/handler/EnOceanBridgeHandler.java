@@ -172,6 +172,8 @@ public class EnOceanBridgeHandler extends ConfigStatusBridgeHandler implements T
                     public void run() {
                         if (thing.getStatus() != ThingStatus.ONLINE) {
                             initTransceiver();
+                        } else {
+                            updateStatistics();
                         }
                     }
                 }, 0, 60, TimeUnit.SECONDS);
@@ -265,6 +267,15 @@ public class EnOceanBridgeHandler extends ConfigStatusBridgeHandler implements T
         }
     }
 
+    private synchronized void updateStatistics() {
+        if (transceiver instanceof EnOceanESP3Transceiver) {
+            EnOceanESP3Transceiver esp3Transceiver = (EnOceanESP3Transceiver) transceiver;
+            updateProperty(PROPERTY_RECEIVED_FRAMES, Long.toString(esp3Transceiver.getFrameCount()));
+            updateProperty(PROPERTY_CRC_ERRORS, Long.toString(esp3Transceiver.getCrcErrorCount()));
+            updateProperty(PROPERTY_DISCARDED_BYTES, Long.toString(esp3Transceiver.getDiscardedBytes()));
+        }
+    }
+
     @Override
     public synchronized void dispose() {
         if (transceiver != null) {
@@ -113,8 +113,12 @@ public class ESP3Packet {
     }
 
     public static boolean checkCRC8(byte data[], int length, byte crc8) {
+        return checkCRC8(data, 0, length, crc8);
+    }
+
+    public static boolean checkCRC8(byte data[], int offset, int length, byte crc8) {
         byte output = 0;
-        for (int i = 0; i < length; i++) {
+        for (int i = offset; i < offset + length; i++) {
             int index = (output ^ data[i]) & 0xff;
             output = crc8_table[index];
         }
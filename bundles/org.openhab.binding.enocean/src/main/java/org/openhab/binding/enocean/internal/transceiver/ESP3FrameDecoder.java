@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.enocean.internal.transceiver;
+
+import org.openhab.binding.enocean.internal.messages.ESP3Packet;
+
+/**
+ * Assembles ESP3 frames from the blocks read from the gateway. The blocks are collected in a reusable buffer, every
+ * complete frame is checked (header and data CRC) and handed to the {@link FrameListener} in one pass.
+ * If a CRC check fails, decoding is resumed at the next sync byte after the start of the broken frame. A sync byte
+ * without a valid header is a stray byte and only counted as discarded, a frame with a valid header but a broken data
+ * CRC is counted as CRC error.
+ *
+ * @author agent - Initial contribution
+ */
+public class ESP3FrameDecoder {
+
+    /**
+     * Receives the frames with valid CRCs.
+     */
+    public interface FrameListener {
+        /**
+         * @param dataLength length of the data
+         * @param optionalLength length of the optional data
+         * @param packetType ESP3 packet type
+         * @param payload data followed by the optional data, starting at index 0. The array is reused for the next
+         *            frame, so it must be copied if it is needed after the call.
+         */
+        void frameReceived(int dataLength, int optionalLength, byte packetType, byte[] payload);
+    }
+
+    // sync byte, header and header crc
+    private static final int FRAME_HEADER_LENGTH = 1 + ESP3Packet.ESP3_HEADER_LENGTH + 1;
+
+    private final byte[] buffer = new byte[FRAME_HEADER_LENGTH + EnOceanTransceiver.ENOCEAN_MAX_DATA + 1];
+    private final byte[] payload = new byte[EnOceanTransceiver.ENOCEAN_MAX_DATA];
+    private int length = 0;
+
+    private long frameCount = 0;
+    private long crcErrorCount = 0;
+    private long discardedBytes = 0;
+
+    /**
+     * Decodes a block of received bytes. Incomplete frames are kept until the next block is decoded.
+     *
+     * @param data the received bytes
+     * @param offset start of the received bytes in data
+     * @param count number of received bytes
+     * @param listener receives the complete frames
+     */
+    public void decode(byte[] data, int offset, int count, FrameListener listener) {
+        int position = offset;
+        int remaining = count;
+        while (remaining > 0) {
+            int n = Math.min(remaining, buffer.length - length);
+            System.arraycopy(data, position, buffer, length, n);
+            length += n;
+            position += n;
+            remaining -= n;
+
+            int consumed = decodeFrames(listener);
+            if (consumed > 0) {
+                length -= consumed;
+                System.arraycopy(buffer, consumed, buffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Decodes all complete frames in the buffer.
+     *
+     * @return the number of bytes at the start of the buffer that are not needed any more
+     */
+    private int decodeFrames(FrameListener listener) {
+        int start = 0;
+        while (true) {
+            while (start < length && buffer[start] != ESP3Packet.ESP3_SYNC_BYTE) {
+                start++;
+                discardedBytes++;
+            }
+            if (length - start < FRAME_HEADER_LENGTH) {
+                return start;
+            }
+
+            int dataLength = ((buffer[start + 1] & 0xFF) << 8) | (buffer[start + 2] & 0xFF);
+            int optionalLength = buffer[start + 3] & 0xFF;
+            byte packetType = buffer[start + 4];
+            int payloadLength = dataLength + optionalLength;
+            if (!ESP3Packet.checkCRC8(buffer, start + 1, ESP3Packet.ESP3_HEADER_LENGTH, buffer[start + 5])
+                    || payloadLength == 0) {
+                // not a frame start, search the next sync byte
+                start++;
+                discardedBytes++;
+                continue;
+            }
+
+            int frameLength = FRAME_HEADER_LENGTH + payloadLength + 1;
+            if (length - start < frameLength) {
+                return start;
+            }
+            if (!ESP3Packet.checkCRC8(buffer, start + FRAME_HEADER_LENGTH, payloadLength,
+                    buffer[start + frameLength - 1])) {
+                crcErrorCount++;
+                start++;
+                discardedBytes++;
+                continue;
+            }
+
+            System.arraycopy(buffer, start + FRAME_HEADER_LENGTH, payload, 0, payloadLength);
+            frameCount++;
+            listener.frameReceived(dataLength, optionalLength, packetType, payload);
+            start += frameLength;
+        }
+    }
+
+    /**
+     * Drops a partially received frame, e.g. after the connection to the gateway has been reset.
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * Number of frames with valid CRCs
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Number of frames with a valid header but a broken data CRC
+     */
+    public long getCrcErrorCount() {
+        return crcErrorCount;
+    }
+
+    /**
+     * Number of bytes skipped while searching the start of a frame
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+}
@@ -15,11 +15,12 @@ package org.openhab.binding.enocean.internal.transceiver;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.TooManyListenersException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
@@ -49,6 +50,7 @@ import org.slf4j.LoggerFactory;
 public abstract class EnOceanTransceiver implements SerialPortEventListener {
 
     public static final int ENOCEAN_MAX_DATA = 65790;
+    private static final int READ_BUFFER_SIZE = 1024;
 
     // Thread management
     protected Future<?> readingTask = null;
@@ -137,8 +139,9 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
     RequestQueue requestQueue;
     Request currentRequest = null;
 
-    protected Map<Long, HashSet<PacketListener>> listeners;
-    protected PacketListener teachInListener;
+    // read by the receiving thread, changed by the handlers
+    protected Map<Long, Set<PacketListener>> listeners;
+    protected volatile PacketListener teachInListener;
 
     protected InputStream inputStream;
     protected OutputStream outputStream;
@@ -150,7 +153,7 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
             SerialPortManager serialPortManager) {
         requestQueue = new RequestQueue(scheduler);
 
-        listeners = new HashMap<>();
+        listeners = new ConcurrentHashMap<>();
         teachInListener = null;
 
         this.errorListener = errorListener;
@@ -246,17 +249,24 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
     }
 
     private void receivePackets() {
-        byte[] buffer = new byte[1];
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
 
         while (readingTask != null && !readingTask.isCancelled()) {
-            int bytesRead = read(buffer, 1);
+            // blocks until at least one byte has been received or the receive timeout has expired
+            int bytesRead = read(buffer, buffer.length);
             if (bytesRead > 0) {
-                processMessage(buffer[0]);
+                processData(buffer, bytesRead);
             }
         }
     }
 
-    protected abstract void processMessage(byte firstByte);
+    /**
+     * Processes a block of bytes received from the gateway. The buffer is reused for the next block.
+     *
+     * @param buffer the received bytes
+     * @param length the number of received bytes
+     */
+    protected abstract void processData(byte[] buffer, int length);
 
     protected int read(byte[] buffer, int length) {
         try {
@@ -291,8 +301,7 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
                     }
                 }
 
-                long s = Long.parseLong(HexUtils.bytesToHex(senderId), 16);
-                HashSet<PacketListener> pl = listeners.get(s);
+                Set<PacketListener> pl = listeners.get(senderIdToLong(senderId));
                 if (pl != null) {
                     pl.forEach(l -> l.packetReceived(msg));
                 }
@@ -302,6 +311,17 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
         }
     }
 
+    /**
+     * Converts a sender id to the key of the listeners, the same as parsing its hex string.
+     */
+    static long senderIdToLong(byte[] senderId) {
+        long id = 0;
+        for (byte b : senderId) {
+            id = (id << 8) | (b & 0xFF);
+        }
+        return id;
+    }
+
     protected void handleResponse(Response response) throws IOException {
         if (currentRequest != null) {
             if (currentRequest.ResponseListener != null) {
@@ -339,19 +359,23 @@ public abstract class EnOceanTransceiver implements SerialPortEventListener {
     protected abstract byte[] serializePacket(BasePacket packet) throws EnOceanException;
 
     public void addPacketListener(PacketListener listener, long senderIdToListenTo) {
-        if (listeners.computeIfAbsent(senderIdToListenTo, k -> new HashSet<>()).add(listener)) {
+        boolean[] added = new boolean[1];
+        // compute is atomic, a concurrent removal cannot drop the set the listener is added to
+        listeners.compute(senderIdToListenTo, (k, pl) -> {
+            Set<PacketListener> set = pl != null ? pl : new CopyOnWriteArraySet<>();
+            added[0] = set.add(listener);
+            return set;
+        });
+        if (added[0]) {
             logger.debug("Listener added: {}", senderIdToListenTo);
         }
     }
 
     public void removePacketListener(PacketListener listener, long senderIdToListenTo) {
-        HashSet<PacketListener> pl = listeners.get(senderIdToListenTo);
-        if (pl != null) {
+        listeners.computeIfPresent(senderIdToListenTo, (k, pl) -> {
             pl.remove(listener);
-            if (pl.isEmpty()) {
-                listeners.remove(senderIdToListenTo);
-            }
-        }
+            return pl.isEmpty() ? null : pl;
+        });
     }
 
     public void startDiscovery(PacketListener teachInListener) {
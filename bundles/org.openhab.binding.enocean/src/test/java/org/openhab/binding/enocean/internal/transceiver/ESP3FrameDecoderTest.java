@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.enocean.internal.transceiver;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.enocean.internal.messages.ESP3Packet;
+
+/**
+ * Tests the {@link ESP3FrameDecoder}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ESP3FrameDecoderTest {
+
+    private static final byte PACKET_TYPE_RADIO = 0x01;
+    private static final byte PACKET_TYPE_RESPONSE = 0x02;
+
+    private final ESP3FrameDecoder decoder = new ESP3FrameDecoder();
+    private final List<byte[]> frames = new ArrayList<>();
+    private final List<Byte> packetTypes = new ArrayList<>();
+
+    private final byte[] radio = frame(PACKET_TYPE_RADIO,
+            new byte[] { (byte) 0xF6, 0x50, 0x01, 0x02, 0x03, 0x04, 0x30 },
+            new byte[] { 0x01, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x2D, 0x00 });
+    private final byte[] response = frame(PACKET_TYPE_RESPONSE, new byte[] { 0x00 }, new byte[0]);
+
+    @BeforeEach
+    public void setUp() {
+        frames.clear();
+        packetTypes.clear();
+    }
+
+    @Test
+    public void testCompleteFrames() {
+        decode(concat(radio, response));
+
+        assertThat(frames.size(), is(2));
+        assertThat(frames.get(0), is(Arrays.copyOfRange(radio, 6, radio.length - 1)));
+        assertThat(packetTypes.get(0), is(PACKET_TYPE_RADIO));
+        assertThat(frames.get(1), is(new byte[] { 0x00 }));
+        assertThat(packetTypes.get(1), is(PACKET_TYPE_RESPONSE));
+        assertThat(decoder.getFrameCount(), is(2L));
+        assertThat(decoder.getCrcErrorCount(), is(0L));
+        assertThat(decoder.getDiscardedBytes(), is(0L));
+    }
+
+    @Test
+    public void testSplitFrames() {
+        byte[] data = concat(radio, response);
+        // every possible split, including the split in the header and before the data CRC
+        for (int split = 1; split < data.length; split++) {
+            setUp();
+            ESP3FrameDecoder splitDecoder = new ESP3FrameDecoder();
+            splitDecoder.decode(data, 0, split, this::frameReceived);
+            splitDecoder.decode(data, split, data.length - split, this::frameReceived);
+            assertThat("split at " + split, frames.size(), is(2));
+            assertThat(frames.get(0), is(Arrays.copyOfRange(radio, 6, radio.length - 1)));
+        }
+
+        setUp();
+        for (int i = 0; i < data.length; i++) {
+            decoder.decode(data, i, 1, this::frameReceived);
+        }
+        assertThat(frames.size(), is(2));
+        assertThat(decoder.getFrameCount(), is(2L));
+    }
+
+    @Test
+    public void testLeadingGarbage() {
+        // a stray sync byte without a valid header is no CRC error
+        byte[] garbage = new byte[] { 0x00, 0x12, ESP3Packet.ESP3_SYNC_BYTE, 0x34, ESP3Packet.ESP3_SYNC_BYTE, 0x00,
+                0x01, 0x00, 0x01, 0x00, 0x7F };
+        decode(concat(garbage, radio));
+
+        assertThat(frames.size(), is(1));
+        assertThat(frames.get(0), is(Arrays.copyOfRange(radio, 6, radio.length - 1)));
+        assertThat(decoder.getCrcErrorCount(), is(0L));
+        assertThat(decoder.getDiscardedBytes(), is((long) garbage.length));
+    }
+
+    @Test
+    public void testBadHeaderCrc() {
+        byte[] broken = radio.clone();
+        broken[5]++;
+        decode(concat(broken, response));
+
+        // the broken frame is skipped without counting a CRC error, the next frame is found
+        assertThat(frames.size(), is(1));
+        assertThat(packetTypes.get(0), is(PACKET_TYPE_RESPONSE));
+        assertThat(decoder.getCrcErrorCount(), is(0L));
+        assertThat(decoder.getDiscardedBytes(), is((long) broken.length));
+    }
+
+    @Test
+    public void testBadDataCrc() {
+        byte[] broken = radio.clone();
+        broken[broken.length - 1]++;
+        decode(concat(broken, response));
+
+        assertThat(frames.size(), is(1));
+        assertThat(packetTypes.get(0), is(PACKET_TYPE_RESPONSE));
+        assertThat(decoder.getCrcErrorCount(), is(1L));
+        assertThat(decoder.getDiscardedBytes(), is((long) broken.length));
+    }
+
+    @Test
+    public void testResetDropsPartialFrame() {
+        decoder.decode(radio, 0, 10, this::frameReceived);
+        decoder.reset();
+        decode(response);
+
+        assertThat(frames.size(), is(1));
+        assertThat(packetTypes.get(0), is(PACKET_TYPE_RESPONSE));
+    }
+
+    private void decode(byte[] data) {
+        decoder.decode(data, 0, data.length, this::frameReceived);
+    }
+
+    private void frameReceived(int dataLength, int optionalLength, byte packetType, byte[] payload) {
+        frames.add(Arrays.copyOf(payload, dataLength + optionalLength));
+        packetTypes.add(packetType);
+    }
+
+    private static byte[] frame(byte packetType, byte[] data, byte[] optionalData) {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(ESP3Packet.ESP3_SYNC_BYTE);
+        frame.write(data.length >> 8);
+        frame.write(data.length);
+        frame.write(optionalData.length);
+        frame.write(packetType);
+        byte[] header = frame.toByteArray();
+        frame.write(crc8(header, 1, ESP3Packet.ESP3_HEADER_LENGTH));
+        byte[] payload = concat(data, optionalData);
+        frame.write(payload, 0, payload.length);
+        frame.write(crc8(payload, 0, payload.length));
+        return frame.toByteArray();
+    }
+
+    private static byte crc8(byte[] data, int offset, int length) {
+        for (int crc = 0; crc < 256; crc++) {
+            if (ESP3Packet.checkCRC8(data, offset, length, (byte) crc)) {
+                return (byte) crc;
+            }
+        }
+        throw new IllegalStateException("No CRC found");
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
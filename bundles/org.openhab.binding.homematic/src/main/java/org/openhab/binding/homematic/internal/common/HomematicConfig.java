@@ -59,6 +59,7 @@ public class HomematicConfig {
     private boolean unpairOnDeletion = false;
     private boolean factoryResetOnDeletion = false;
     private int bufferSize = 2048;
+    private boolean metadataCache = true;
 
     private HmGatewayInfo gatewayInfo;
 
@@ -389,6 +390,13 @@ public class HomematicConfig {
         return bufferSize;
     }
 
+    /**
+     * Returns true, if device and paramset descriptions are cached between restarts.
+     */
+    public boolean isMetadataCache() {
+        return metadataCache;
+    }
+
     /**
      * Returns true, if the configured gatewayType is CCU.
      */
@@ -412,7 +420,7 @@ public class HomematicConfig {
                 .append("rfPort", getRfPort()).append("wiredPort", getWiredPort()).append("hmIpPort", getHmIpPort())
                 .append("cuxdPort", getCuxdPort()).append("groupPort", getGroupPort()).append("timeout", timeout)
                 .append("discoveryTimeToLive", discoveryTimeToLive).append("installModeDuration", installModeDuration)
-                .append("socketMaxAlive", socketMaxAlive);
+                .append("socketMaxAlive", socketMaxAlive).append("metadataCache", metadataCache);
         return tsb.toString();
     }
 }
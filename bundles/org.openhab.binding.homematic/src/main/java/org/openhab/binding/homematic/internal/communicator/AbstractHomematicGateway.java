@@ -14,12 +14,14 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -76,6 +78,7 @@ import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.internal.model.HmRssiInfo;
 import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +93,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final long METADATA_REVALIDATION_DELAY_SECONDS = 60;
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
@@ -110,6 +114,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
+    private DeviceMetadataCache metadataCache;
+    private boolean useCachedDeviceDescriptions;
+    private ScheduledFuture<?> metadataRevalidationFuture;
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME);
 
     static {
@@ -188,6 +195,14 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             sb.setLength(sb.length() - 2);
         }
         logger.debug("Used Homematic transfer modes: {}", sb.toString());
+
+        if (config.isMetadataCache()) {
+            File cacheFolder = new File(OpenHAB.getUserDataFolder(), "homematic");
+            metadataCache = new DeviceMetadataCache(new File(cacheFolder, id + ".json"));
+            metadataCache.load();
+            useCachedDeviceDescriptions = metadataCache.hasDevices();
+        }
+
         startClients();
         startServers();
 
@@ -209,6 +224,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             enableNewDeviceFuture.cancel(true);
         }
         newDeviceEventsEnabled = false;
+        if (metadataRevalidationFuture != null) {
+            metadataRevalidationFuture.cancel(true);
+            metadataRevalidationFuture = null;
+        }
+        metadataCache = null;
+        useCachedDeviceDescriptions = false;
         stopWatchdogs();
         sendDelayedExecutor.stop();
         receiveDelayedExecutor.stop();
@@ -368,8 +389,10 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     @Override
     public void loadAllDeviceMetadata() throws IOException {
         cancelLoadAllMetadata = false;
-        // load all device descriptions
-        List<HmDevice> deviceDescriptions = getDeviceDescriptions();
+        // load all device descriptions, from the metadata cache on the first load after initialization
+        boolean fromCache = useCachedDeviceDescriptions;
+        useCachedDeviceDescriptions = false;
+        List<HmDevice> deviceDescriptions = fromCache ? getCachedDeviceDescriptions() : getDeviceDescriptions();
 
         // loading datapoints for all channels
         Set<String> loadedDevices = new HashSet<>();
@@ -377,40 +400,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         for (HmDevice device : deviceDescriptions) {
             if (!cancelLoadAllMetadata) {
                 try {
-                    logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(),
-                            device.getType());
-                    if (device.isGatewayExtras()) {
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
-                        loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
-                    } else {
-                        for (HmChannel channel : device.getChannels()) {
-                            logger.trace("  Loading channel {}", channel);
-                            // speed up metadata generation a little bit for equal channels in the gateway devices
-                            if ((DEVICE_TYPE_VIRTUAL.equals(device.getType())
-                                    || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType())) && channel.getNumber() > 1) {
-                                HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
-                                cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
-                            } else {
-                                String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
-                                        channel.getDevice().getFirmware(), channel.getNumber());
-                                Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
-                                if (cachedDatapoints != null) {
-                                    // clone all datapoints
-                                    cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
-                                } else {
-                                    logger.trace("    Loading datapoints into channel {}", channel);
-                                    addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                    addChannelDatapoints(channel, HmParamsetType.VALUES);
-
-                                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
-                                    // the data point set might change depending on the selected mode.
-                                    if (!channel.isReconfigurable()) {
-                                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
-                                    }
-                                }
-                            }
-                        }
-                    }
+                    loadDeviceMetadata(device, datapointsByChannelIdCache);
                     prepareDevice(device);
                     loadedDevices.add(device.getAddress());
                     gatewayAdapter.onDeviceLoaded(device);
@@ -422,8 +412,209 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         }
         if (!cancelLoadAllMetadata) {
             devices.keySet().retainAll(loadedDevices);
+            if (metadataCache != null) {
+                if (!fromCache) {
+                    metadataCache.putDevices(deviceDescriptions);
+                }
+                metadataCache.save();
+            }
         }
         initialized = true;
+
+        if (fromCache && !cancelLoadAllMetadata) {
+            logger.debug("Loaded {} devices from the metadata cache of gateway '{}', revalidating in {} seconds",
+                    loadedDevices.size(), id, METADATA_REVALIDATION_DELAY_SECONDS);
+            metadataRevalidationFuture = scheduler.schedule(this::revalidateDeviceMetadata,
+                    METADATA_REVALIDATION_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Loads the datapoints of all channels of the device. Paramset descriptions are taken from the given cache of the
+     * current run, from the persistent metadata cache or from the gateway, in this order.
+     */
+    private void loadDeviceMetadata(HmDevice device, Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache)
+            throws IOException {
+        logger.trace("Loading metadata for device '{}' of type '{}'", device.getAddress(), device.getType());
+        if (device.isGatewayExtras()) {
+            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_VARIABLE));
+            loadChannelValues(device.getChannel(HmChannel.CHANNEL_NUMBER_SCRIPT));
+        } else {
+            for (HmChannel channel : device.getChannels()) {
+                logger.trace("  Loading channel {}", channel);
+                // speed up metadata generation a little bit for equal channels in the gateway devices
+                if ((DEVICE_TYPE_VIRTUAL.equals(device.getType()) || DEVICE_TYPE_VIRTUAL_WIRED.equals(device.getType()))
+                        && channel.getNumber() > 1) {
+                    HmChannel previousChannel = device.getChannel(channel.getNumber() - 1);
+                    cloneAllDatapointsIntoChannel(channel, previousChannel.getDatapoints());
+                } else {
+                    String channelId = DeviceMetadataCache.getChannelKey(channel);
+                    Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                    if (cachedDatapoints != null) {
+                        // clone all datapoints
+                        cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
+                        continue;
+                    }
+                    Collection<HmDatapoint> persistedDatapoints = metadataCache == null ? null
+                            : metadataCache.getDatapoints(channelId);
+                    if (persistedDatapoints != null) {
+                        logger.trace("    Restoring cached datapoints into channel {}", channel);
+                        for (HmDatapoint dp : persistedDatapoints) {
+                            channel.addDatapoint(dp);
+                        }
+                    } else {
+                        logger.trace("    Loading datapoints into channel {}", channel);
+                        addChannelDatapoints(channel, HmParamsetType.MASTER);
+                        addChannelDatapoints(channel, HmParamsetType.VALUES);
+                    }
+
+                    // Make sure to only cache non-reconfigurable channels. For reconfigurable channels,
+                    // the data point set might change depending on the selected mode.
+                    if (!channel.isReconfigurable()) {
+                        datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                        if (metadataCache != null && persistedDatapoints == null) {
+                            metadataCache.putDatapoints(channelId, channel.getDatapoints());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the devices from the metadata cache with the devices currently available on the gateway. New and
+     * changed devices and devices with changed paramset descriptions are reloaded, removed devices are deleted.
+     */
+    private void revalidateDeviceMetadata() {
+        DeviceMetadataCache cache = metadataCache;
+        if (cache == null || !initialized) {
+            return;
+        }
+        try {
+            logger.debug("Revalidating metadata cache of gateway '{}'", id);
+            List<HmDevice> gatewayDevices = listGatewayDevices();
+            Map<String, HmDevice> gatewayDevicesByAddress = new LinkedHashMap<>();
+            for (HmDevice device : gatewayDevices) {
+                gatewayDevicesByAddress.put(device.getAddress(), device);
+            }
+
+            Map<String, HmDevice> changedDevices = new LinkedHashMap<>();
+            List<HmDevice> knownDevices;
+            synchronized (devices) {
+                knownDevices = new ArrayList<>(devices.values());
+            }
+            for (HmDevice device : gatewayDevices) {
+                HmDevice knownDevice = devices.get(device.getAddress());
+                if (knownDevice == null || !isSameDeviceDescription(knownDevice, device)) {
+                    changedDevices.put(device.getAddress(), device);
+                }
+            }
+
+            // check the paramset descriptions of one channel per cached key, one after the other
+            Set<String> usedChannelKeys = new HashSet<>();
+            Set<String> changedChannelKeys = new HashSet<>();
+            for (HmDevice knownDevice : knownDevices) {
+                if (knownDevice.isGatewayExtras() || !gatewayDevicesByAddress.containsKey(knownDevice.getAddress())) {
+                    continue;
+                }
+                for (HmChannel channel : knownDevice.getChannels()) {
+                    String channelKey = DeviceMetadataCache.getChannelKey(channel);
+                    if (!initialized) {
+                        return;
+                    } else if (usedChannelKeys.add(channelKey) && cache.getDatapoints(channelKey) != null) {
+                        HmChannel probeChannel = new HmChannel(channel.getType(), channel.getNumber());
+                        probeChannel.setDevice(knownDevice);
+                        addChannelDatapoints(probeChannel, HmParamsetType.MASTER);
+                        addChannelDatapoints(probeChannel, HmParamsetType.VALUES);
+                        if (!probeChannel.isReconfigurable()
+                                && cache.putDatapoints(channelKey, probeChannel.getDatapoints())) {
+                            logger.debug("Paramset descriptions of '{}' changed on gateway '{}'", channelKey, id);
+                            changedChannelKeys.add(channelKey);
+                        }
+                    }
+                }
+            }
+            for (HmDevice knownDevice : knownDevices) {
+                for (HmChannel channel : knownDevice.getChannels()) {
+                    if (gatewayDevicesByAddress.containsKey(knownDevice.getAddress())
+                            && changedChannelKeys.contains(DeviceMetadataCache.getChannelKey(channel))) {
+                        changedDevices.putIfAbsent(knownDevice.getAddress(),
+                                gatewayDevicesByAddress.get(knownDevice.getAddress()));
+                    }
+                }
+            }
+
+            for (HmDevice knownDevice : knownDevices) {
+                if (!knownDevice.isGatewayExtras() && !gatewayDevicesByAddress.containsKey(knownDevice.getAddress())) {
+                    logger.debug("Cached device '{}' no longer available on gateway '{}'", knownDevice.getAddress(),
+                            id);
+                    devices.remove(knownDevice.getAddress());
+                    gatewayAdapter.onDeviceDeleted(knownDevice);
+                }
+            }
+
+            if (!changedDevices.isEmpty()) {
+                List<HmDevice> reloadDevices = new ArrayList<>(changedDevices.values());
+                loadDeviceNames(reloadDevices);
+                Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
+                for (HmDevice device : reloadDevices) {
+                    if (!initialized) {
+                        return;
+                    }
+                    boolean isNew = !devices.containsKey(device.getAddress());
+                    logger.debug("Reloading {} device '{}' on gateway '{}'", isNew ? "new" : "changed",
+                            device.getAddress(), id);
+                    loadDeviceMetadata(device, datapointsByChannelIdCache);
+                    prepareDevice(device);
+                    if (isNew) {
+                        gatewayAdapter.onNewDevice(device);
+                    } else {
+                        gatewayAdapter.onDeviceLoaded(device);
+                    }
+                }
+            }
+
+            cache.putDevices(gatewayDevices);
+            cache.retainChannels(usedChannelKeys);
+            cache.save();
+            logger.debug("Revalidated metadata cache of gateway '{}', {} devices reloaded", id, changedDevices.size());
+        } catch (IOException ex) {
+            logger.debug("Can't revalidate metadata cache of gateway '{}': {}", id, ex.getMessage());
+        } finally {
+            metadataRevalidationFuture = null;
+        }
+    }
+
+    /**
+     * Returns true, if both devices have the same type, firmware and channels.
+     */
+    private boolean isSameDeviceDescription(HmDevice device1, HmDevice device2) {
+        if (!StringUtils.equals(device1.getType(), device2.getType())
+                || !StringUtils.equals(device1.getFirmware(), device2.getFirmware())
+                || device1.getHmInterface() != device2.getHmInterface()
+                || device1.getChannels().size() != device2.getChannels().size()) {
+            return false;
+        }
+        for (HmChannel channel : device2.getChannels()) {
+            HmChannel knownChannel = device1.getChannel(channel.getNumber());
+            if (knownChannel == null || !StringUtils.equals(knownChannel.getType(), channel.getType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the currently loaded devices in the metadata cache.
+     */
+    private void updateMetadataCache() {
+        DeviceMetadataCache cache = metadataCache;
+        if (cache != null) {
+            synchronized (devices) {
+                cache.putDevices(new ArrayList<>(devices.values()));
+            }
+            cache.save();
+        }
     }
 
     /**
@@ -443,10 +634,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
      * Loads all device descriptions from the gateway.
      */
     private List<HmDevice> getDeviceDescriptions() throws IOException {
-        List<HmDevice> deviceDescriptions = new ArrayList<>();
-        for (HmInterface hmInterface : availableInterfaces.keySet()) {
-            deviceDescriptions.addAll(getRpcClient(hmInterface).listDevices(hmInterface));
-        }
+        List<HmDevice> deviceDescriptions = listGatewayDevices();
         if (!cancelLoadAllMetadata) {
             deviceDescriptions.add(createGatewayDevice());
             loadDeviceNames(deviceDescriptions);
@@ -454,6 +642,32 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         return deviceDescriptions;
     }
 
+    /**
+     * Loads all device descriptions from the metadata cache.
+     */
+    private List<HmDevice> getCachedDeviceDescriptions() throws IOException {
+        List<HmDevice> deviceDescriptions = new ArrayList<>();
+        for (HmDevice device : metadataCache.getDevices(config.getGatewayInfo().getId())) {
+            if (availableInterfaces.containsKey(device.getHmInterface())) {
+                deviceDescriptions.add(device);
+            }
+        }
+        deviceDescriptions.add(createGatewayDevice());
+        loadDeviceNames(deviceDescriptions);
+        return deviceDescriptions;
+    }
+
+    /**
+     * Lists the devices of all available interfaces of the gateway.
+     */
+    private List<HmDevice> listGatewayDevices() throws IOException {
+        List<HmDevice> deviceDescriptions = new ArrayList<>();
+        for (HmInterface hmInterface : availableInterfaces.keySet()) {
+            deviceDescriptions.addAll(getRpcClient(hmInterface).listDevices(hmInterface));
+        }
+        return deviceDescriptions;
+    }
+
     /**
      * Clones all datapoints into the given channel.
      */
@@ -758,10 +972,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     List<HmDevice> deviceDescriptions = getDeviceDescriptions();
                     for (HmDevice device : deviceDescriptions) {
                         if (device.getAddress().equals(address)) {
-                            for (HmChannel channel : device.getChannels()) {
-                                addChannelDatapoints(channel, HmParamsetType.MASTER);
-                                addChannelDatapoints(channel, HmParamsetType.VALUES);
-                            }
+                            loadDeviceMetadata(device, new HashMap<>());
                             prepareDevice(device);
                             gatewayAdapter.onNewDevice(device);
                         }
@@ -770,6 +981,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     logger.error("{}", ex.getMessage(), ex);
                 }
             }
+            updateMetadataCache();
         }
     }
 
@@ -783,6 +995,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                     gatewayAdapter.onDeviceDeleted(device);
                 }
             }
+            updateMetadataCache();
         }
     }
 
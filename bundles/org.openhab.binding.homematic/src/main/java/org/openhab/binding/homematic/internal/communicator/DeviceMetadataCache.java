@@ -0,0 +1,374 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Persistent cache for the device descriptions and paramset descriptions of a Homematic gateway. The paramset
+ * descriptions are keyed by device type, firmware and channel number, so they can be shared by all devices of the
+ * same kind and stay valid until the firmware of a device changes.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCache {
+    private final Logger logger = LoggerFactory.getLogger(DeviceMetadataCache.class);
+
+    /**
+     * Must be increased whenever the structure of the cached data changes, older cache files are discarded.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private final Gson gson = new GsonBuilder().create();
+    private final File cacheFile;
+    private CacheData data = new CacheData();
+    private boolean dirty;
+
+    public DeviceMetadataCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Returns the key of the paramset descriptions of the given channel.
+     */
+    public static String getChannelKey(HmChannel channel) {
+        return String.format("%s:%s:%s", channel.getDevice().getType(), channel.getDevice().getFirmware(),
+                channel.getNumber());
+    }
+
+    /**
+     * Loads the cache from disk, an unreadable or outdated cache file is ignored.
+     */
+    public synchronized void load() {
+        data = new CacheData();
+        dirty = false;
+        if (!cacheFile.exists()) {
+            logger.debug("No metadata cache found at '{}'", cacheFile);
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            CacheData loaded = gson.fromJson(reader, CacheData.class);
+            if (loaded == null || loaded.version != FORMAT_VERSION || loaded.devices == null
+                    || loaded.channels == null) {
+                logger.debug("Ignoring metadata cache '{}' with incompatible format", cacheFile);
+            } else {
+                data = loaded;
+                logger.debug("Loaded metadata cache '{}' with {} devices and {} channel descriptions", cacheFile,
+                        data.devices.size(), data.channels.size());
+            }
+        } catch (IOException | JsonParseException ex) {
+            logger.warn("Can't read metadata cache '{}', ignoring it: {}", cacheFile, ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the cache to disk if it has been changed since it was loaded or last saved.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            File parent = cacheFile.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Can't create directory " + parent);
+            }
+            File tempFile = new File(cacheFile.getPath() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                gson.toJson(data, writer);
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            dirty = false;
+            logger.debug("Saved metadata cache '{}' with {} devices and {} channel descriptions", cacheFile,
+                    data.devices.size(), data.channels.size());
+        } catch (IOException ex) {
+            logger.warn("Can't write metadata cache '{}': {}", cacheFile, ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns true, if device descriptions are available in the cache.
+     */
+    public synchronized boolean hasDevices() {
+        return !data.devices.isEmpty();
+    }
+
+    /**
+     * Creates new device objects with channels but without datapoints from the cached device descriptions.
+     */
+    public synchronized List<HmDevice> getDevices(String gatewayId) {
+        List<HmDevice> devices = new ArrayList<>();
+        for (CachedDevice cd : data.devices) {
+            HmDevice device = new HmDevice(cd.address, cd.hmInterface, cd.type, gatewayId, cd.homegearId, cd.firmware);
+            for (CachedChannel cc : cd.channels) {
+                device.addChannel(new HmChannel(cc.type, cc.number));
+            }
+            devices.add(device);
+        }
+        return devices;
+    }
+
+    /**
+     * Replaces the cached device descriptions, the gateway extras device is never cached.
+     */
+    public synchronized void putDevices(Collection<HmDevice> devices) {
+        List<CachedDevice> cachedDevices = new ArrayList<>();
+        for (HmDevice device : devices) {
+            if (!device.isGatewayExtras()) {
+                CachedDevice cd = new CachedDevice();
+                cd.address = device.getAddress();
+                cd.hmInterface = device.getHmInterface();
+                cd.type = device.getType();
+                cd.homegearId = device.getHomegearId();
+                cd.firmware = device.getFirmware();
+                for (HmChannel channel : device.getChannels()) {
+                    CachedChannel cc = new CachedChannel();
+                    cc.type = channel.getType();
+                    cc.number = channel.getNumber();
+                    cd.channels.add(cc);
+                }
+                cachedDevices.add(cd);
+            }
+        }
+        data.devices = cachedDevices;
+        dirty = true;
+    }
+
+    /**
+     * Returns new datapoints created from the cached paramset descriptions or null, if the channel is not cached.
+     */
+    public synchronized Collection<HmDatapoint> getDatapoints(String channelKey) {
+        List<CachedDatapoint> cachedDatapoints = data.channels.get(channelKey);
+        if (cachedDatapoints == null) {
+            return null;
+        }
+        List<HmDatapoint> datapoints = new ArrayList<>(cachedDatapoints.size());
+        for (CachedDatapoint cdp : cachedDatapoints) {
+            datapoints.add(cdp.toDatapoint());
+        }
+        return datapoints;
+    }
+
+    /**
+     * Stores the paramset descriptions of the given datapoints, virtual datapoints are skipped.
+     *
+     * @return true, if the cached descriptions for the channel have been changed
+     */
+    public synchronized boolean putDatapoints(String channelKey, Collection<HmDatapoint> datapoints) {
+        List<CachedDatapoint> cachedDatapoints = new ArrayList<>();
+        for (HmDatapoint dp : datapoints) {
+            if (!dp.isVirtual()) {
+                cachedDatapoints.add(new CachedDatapoint(dp));
+            }
+        }
+        cachedDatapoints.sort((dp1, dp2) -> {
+            int result = dp1.paramsetType.compareTo(dp2.paramsetType);
+            return result != 0 ? result : dp1.name.compareTo(dp2.name);
+        });
+        if (cachedDatapoints.equals(data.channels.get(channelKey))) {
+            return false;
+        }
+        data.channels.put(channelKey, cachedDatapoints);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Removes all paramset descriptions which are not in the given set of keys.
+     */
+    public synchronized void retainChannels(Collection<String> channelKeys) {
+        if (data.channels.keySet().retainAll(channelKeys)) {
+            dirty = true;
+        }
+    }
+
+    private static class CacheData {
+        private int version = FORMAT_VERSION;
+        private List<CachedDevice> devices = new ArrayList<>();
+        private Map<String, List<CachedDatapoint>> channels = new HashMap<>();
+    }
+
+    private static class CachedDevice {
+        private String address;
+        private HmInterface hmInterface;
+        private String type;
+        private String homegearId;
+        private String firmware;
+        private List<CachedChannel> channels = new ArrayList<>();
+    }
+
+    private static class CachedChannel {
+        private String type;
+        private Integer number;
+    }
+
+    private static class CachedDatapoint {
+        private String name;
+        private String description;
+        private HmValueType type;
+        private HmParamsetType paramsetType;
+        private CachedValue defaultValue;
+        private CachedValue minValue;
+        private CachedValue maxValue;
+        private CachedValue step;
+        private String[] options;
+        private boolean readOnly;
+        private boolean readable;
+        private String info;
+        private String unit;
+
+        @SuppressWarnings("unused")
+        private CachedDatapoint() {
+            // used by Gson
+        }
+
+        private CachedDatapoint(HmDatapoint dp) {
+            name = dp.getName();
+            description = dp.getDescription();
+            type = dp.getType();
+            paramsetType = dp.getParamsetType();
+            defaultValue = CachedValue.of(dp.getDefaultValue());
+            minValue = CachedValue.of(dp.getMinValue());
+            maxValue = CachedValue.of(dp.getMaxValue());
+            step = CachedValue.of(dp.getStep());
+            options = dp.getOptions();
+            readOnly = dp.isReadOnly();
+            readable = dp.isReadable();
+            info = dp.getInfo();
+            unit = dp.getUnit();
+        }
+
+        private HmDatapoint toDatapoint() {
+            HmDatapoint dp = new HmDatapoint();
+            dp.setName(name);
+            dp.setDescription(description);
+            dp.setType(type);
+            dp.setParamsetType(paramsetType);
+            dp.setDefaultValue(CachedValue.toObject(defaultValue));
+            dp.setMinValue((Number) CachedValue.toObject(minValue));
+            dp.setMaxValue((Number) CachedValue.toObject(maxValue));
+            dp.setStep((Number) CachedValue.toObject(step));
+            dp.setOptions(options);
+            dp.setReadOnly(readOnly);
+            dp.setReadable(readable);
+            dp.setInfo(info);
+            dp.setUnit(unit);
+            dp.setValue(dp.getDefaultValue());
+            return dp;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CachedDatapoint)) {
+                return false;
+            }
+            CachedDatapoint other = (CachedDatapoint) obj;
+            return Objects.equals(name, other.name) && Objects.equals(description, other.description)
+                    && type == other.type && paramsetType == other.paramsetType
+                    && Objects.equals(defaultValue, other.defaultValue) && Objects.equals(minValue, other.minValue)
+                    && Objects.equals(maxValue, other.maxValue) && Objects.equals(step, other.step)
+                    && Arrays.equals(options, other.options) && readOnly == other.readOnly
+                    && readable == other.readable && Objects.equals(info, other.info)
+                    && Objects.equals(unit, other.unit);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, type, paramsetType);
+        }
+    }
+
+    /**
+     * Keeps the java type of a metadata value, a plain JSON value would turn every number into a double.
+     */
+    private static class CachedValue {
+        private String javaType;
+        private String value;
+
+        private static CachedValue of(Object object) {
+            if (object == null) {
+                return null;
+            }
+            CachedValue cv = new CachedValue();
+            cv.javaType = object.getClass().getSimpleName();
+            cv.value = object.toString();
+            return cv;
+        }
+
+        private static Object toObject(CachedValue cv) {
+            if (cv == null) {
+                return null;
+            }
+            switch (cv.javaType) {
+                case "Integer":
+                    return Integer.valueOf(cv.value);
+                case "Long":
+                    return Long.valueOf(cv.value);
+                case "Double":
+                    return Double.valueOf(cv.value);
+                case "Float":
+                    return Float.valueOf(cv.value);
+                case "BigInteger":
+                    return new BigInteger(cv.value);
+                case "BigDecimal":
+                    return new BigDecimal(cv.value);
+                case "Boolean":
+                    return Boolean.valueOf(cv.value);
+                default:
+                    return cv.value;
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CachedValue)) {
+                return false;
+            }
+            CachedValue other = (CachedValue) obj;
+            return Objects.equals(javaType, other.javaType) && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(javaType, value);
+        }
+    }
+}
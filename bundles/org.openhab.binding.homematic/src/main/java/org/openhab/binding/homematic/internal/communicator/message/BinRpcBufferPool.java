@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of heap {@link ByteBuffer}s used for encoding and decoding BIN-RPC messages. Buffers larger than
+ * {@link #MAX_POOLED_CAPACITY} are allocated on demand and never pooled, so a single huge message (e.g. listDevices)
+ * does not pin its memory forever.
+ *
+ * @author agent - Initial contribution
+ */
+public final class BinRpcBufferPool {
+    public static final int DEFAULT_CAPACITY = 8 * 1024;
+    public static final int MAX_POOLED_CAPACITY = 256 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 32;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+    private BinRpcBufferPool() {
+        // utility class
+    }
+
+    /**
+     * Returns a cleared buffer with at least the given capacity.
+     */
+    public static ByteBuffer acquire(int minCapacity) {
+        if (minCapacity <= MAX_POOLED_CAPACITY) {
+            ByteBuffer buffer;
+            while ((buffer = POOL.poll()) != null) {
+                POOL_SIZE.decrementAndGet();
+                if (buffer.capacity() >= minCapacity) {
+                    buffer.clear();
+                    return buffer;
+                }
+                // too small for this request, drop it and let the pool refill with larger buffers
+            }
+        }
+        return ByteBuffer.allocate(Math.max(minCapacity, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Returns a buffer with the content of the given buffer and at least the given capacity, the given buffer is
+     * released.
+     */
+    public static ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+        ByteBuffer grown = acquire(Math.max(minCapacity, buffer.capacity() * 2));
+        buffer.flip();
+        grown.put(buffer);
+        release(buffer);
+        return grown;
+    }
+
+    /**
+     * Puts the buffer back into the pool, if there is space left.
+     */
+    public static void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.hasArray() || buffer.capacity() > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        if (POOL_SIZE.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            buffer.clear();
+            POOL.offer(buffer);
+        } else {
+            POOL_SIZE.decrementAndGet();
+        }
+    }
+}
@@ -19,41 +19,48 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Handles BIN-RPC request and response messages to communicate with a Homematic gateway.
+ * Handles BIN-RPC request and response messages to communicate with a Homematic gateway. Messages are decoded
+ * directly from a {@link ByteBuffer} and encoded into pooled buffers, see {@link BinRpcBufferPool}.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
 
+    /**
+     * Size of the BIN-RPC header, the signature "Bin" followed by the message type and the payload length.
+     */
+    public static final int HEADER_LENGTH = 8;
+
     public enum TYPE {
         REQUEST,
         RESPONSE
     }
 
     private Object[] messageData;
-    private byte binRpcData[];
-    private int offset;
+    private final List<Object> arguments = new ArrayList<>();
+    private byte[] encodedMessage;
+    private ByteBuffer buffer;
 
     private String methodName;
     private TYPE type;
-    private int args;
-    private String encoding;
+    private Charset charset;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -65,44 +72,37 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
-        createHeader();
+        this.charset = toCharset(encoding);
     }
 
     /**
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
-        int length = is.read(sig, 0, 4);
+        this.charset = toCharset(encoding);
+        byte header[] = new byte[HEADER_LENGTH];
+        int length = readFully(is, header, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
         }
-        validateBinXSignature(sig);
-        length = is.read(sig, 4, 4);
+        length = readFully(is, header, 4, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
-        int currentLength;
-
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
-            offset += currentLength;
-        }
-        if (offset != datasize) {
-            throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
-                    + datasize + " bytes");
-        }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
-    }
+        int datasize = getPayloadLength(ByteBuffer.wrap(header));
 
-    private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
-        if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
-            throw new UnsupportedEncodingException("No BinX signature");
+        ByteBuffer message = BinRpcBufferPool.acquire(HEADER_LENGTH + datasize);
+        try {
+            message.put(header);
+            int offset = readFully(is, message.array(), message.arrayOffset() + HEADER_LENGTH, datasize);
+            if (offset != datasize) {
+                throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
+                        + datasize + " bytes");
+            }
+            message.position(0).limit(HEADER_LENGTH + datasize);
+            decodeMessage(message, methodHeader);
+        } finally {
+            BinRpcBufferPool.release(message);
         }
     }
 
@@ -110,51 +110,82 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
-            throw new EOFException("Only " + message.length + " bytes received");
-        }
-        validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        this(ByteBuffer.wrap(message), methodHeader, encoding);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
-
-        offset = 8;
+    /**
+     * Decodes a complete BIN-RPC message from the remaining bytes of the given buffer. The content of the buffer is
+     * not retained, so the buffer can be reused after this constructor returns.
+     */
+    public BinRpcMessage(ByteBuffer message, boolean methodHeader, String encoding) throws IOException {
+        this.charset = toCharset(encoding);
+        if (message.remaining() < HEADER_LENGTH) {
+            throw new EOFException("Only " + message.remaining() + " bytes received");
+        }
+        decodeMessage(message.slice(), methodHeader);
+    }
 
-        if (methodHeader) {
-            methodName = readString();
-            readInt();
+    /**
+     * Validates the signature at the current position of the buffer and returns the payload length of the message.
+     * The position of the buffer is advanced by {@link #HEADER_LENGTH}.
+     */
+    public static int getPayloadLength(ByteBuffer header) throws IOException {
+        if (header.get() != 'B' || header.get() != 'i' || header.get() != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+        header.get(); // message type
+        int datasize = header.getInt();
+        if (datasize < 0) {
+            throw new IOException("Invalid BIN-RPC message length " + datasize);
         }
-        generateResponseData();
+        return datasize;
     }
 
-    public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+    private static int readFully(InputStream is, byte[] data, int offset, int length) throws IOException {
+        int read = 0;
+        int currentLength;
+        while (read < length && (currentLength = is.read(data, offset + read, length - read)) != -1) {
+            read += currentLength;
+        }
+        return read;
     }
 
-    private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
-        List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
+    private static Charset toCharset(String encoding) {
+        try {
+            return Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            return Charset.defaultCharset();
         }
-        messageData = values.toArray();
-        values.clear();
     }
 
-    private void createHeader() {
-        binRpcData = new byte[256];
-        addString("Bin ");
-        setType(type);
-        addInt(0); // placeholder content length
-        if (methodName != null) {
-            addInt(methodName.length());
-            addString(methodName);
-            addInt(0); // placeholder arguments
+    private void decodeMessage(ByteBuffer message, boolean methodHeader) throws IOException {
+        buffer = message;
+        try {
+            int datasize = getPayloadLength(buffer);
+            if (buffer.remaining() < datasize) {
+                throw new EOFException("Only " + buffer.remaining() + " bytes received while reading message payload, "
+                        + "expected " + datasize + " bytes");
+            }
+            buffer.limit(HEADER_LENGTH + datasize);
+            if (methodHeader) {
+                methodName = readString();
+                readInt();
+            }
+            List<Object> values = new ArrayList<>();
+            while (buffer.hasRemaining()) {
+                values.add(readRpcValue());
+            }
+            messageData = values.toArray();
+        } catch (BufferUnderflowException ex) {
+            throw new EOFException("Truncated BIN-RPC message");
+        } finally {
+            buffer = null;
         }
-        setInt(4, offset - 8);
+    }
+
+    public void setType(TYPE type) {
+        this.type = type;
+        encodedMessage = null;
     }
 
     /**
@@ -162,16 +193,12 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      */
     @Override
     public void addArg(Object argument) {
-        addObject(argument);
-        setInt(4, offset - 8);
-
-        if (methodName != null) {
-            setInt(12 + methodName.length(), ++args);
-        }
+        arguments.add(argument);
+        encodedMessage = null;
     }
 
     public int getArgCount() {
-        return args;
+        return arguments.size();
     }
 
     @Override
@@ -181,14 +208,34 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public byte[] createMessage() {
-        trimBinRpcData();
-        return binRpcData;
+        if (encodedMessage == null) {
+            buffer = BinRpcBufferPool.acquire(BinRpcBufferPool.DEFAULT_CAPACITY);
+            try {
+                encodeMessage();
+                encodedMessage = new byte[buffer.position()];
+                buffer.flip();
+                buffer.get(encodedMessage);
+            } finally {
+                BinRpcBufferPool.release(buffer);
+                buffer = null;
+            }
+        }
+        return encodedMessage;
     }
 
-    private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+    private void encodeMessage() {
+        ensureCapacity(HEADER_LENGTH);
+        buffer.put((byte) 'B').put((byte) 'i').put((byte) 'n');
+        buffer.put(type == TYPE.RESPONSE ? (byte) 1 : (byte) 0);
+        buffer.putInt(0); // placeholder content length
+        if (methodName != null) {
+            addString(methodName);
+            addInt(arguments.size());
+        }
+        for (Object argument : arguments) {
+            addObject(argument);
+        }
+        buffer.putInt(4, buffer.position() - HEADER_LENGTH);
     }
 
     @Override
@@ -198,23 +245,28 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     // read rpc values
     private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
+        return buffer.getInt();
     }
 
     private long readInt64() {
-        byte bi[] = new byte[8];
-        System.arraycopy(binRpcData, offset, bi, 0, 8);
-        offset += 8;
-        return (new BigInteger(bi)).longValue();
+        return buffer.getLong();
     }
 
-    private String readString() throws UnsupportedEncodingException {
+    private String readString() throws IOException {
         int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
+        if (len < 0 || len > buffer.remaining()) {
+            throw new EOFException("Invalid string length " + len);
+        }
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), len, charset);
+            buffer.position(buffer.position() + len);
+        } else {
+            byte data[] = new byte[len];
+            buffer.get(data);
+            string = new String(data, charset);
+        }
+        return string;
     }
 
     private Object readRpcValue() throws IOException {
@@ -223,7 +275,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             case 1:
                 return Integer.valueOf(readInt());
             case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
+                return buffer.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
                 return readString();
             case 4:
@@ -232,18 +284,18 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
                 return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(readInt() * 1000L);
             case 0xD1:
                 // Int64
                 return Long.valueOf(readInt64());
             case 0x100:
                 // Array
                 int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                Object[] array = new Object[numElements];
+                for (int i = 0; i < numElements; i++) {
+                    array[i] = readRpcValue();
                 }
-                return array.toArray();
+                return array;
             case 0x101:
                 // Struct
                 numElements = readInt();
@@ -255,34 +307,32 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
+                if (logger.isInfoEnabled()) {
+                    ByteBuffer dump = buffer.duplicate();
+                    dump.position(0);
+                    while (dump.hasRemaining()) {
+                        byte b = dump.get();
+                        logger.info("{} {}", Integer.toHexString(b), (char) b);
+                    }
                 }
                 throw new IOException("Unknown data type " + type);
         }
     }
 
-    private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() < length) {
+            buffer = BinRpcBufferPool.grow(buffer, buffer.position() + length);
+        }
     }
 
     private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
-        }
-        binRpcData[offset++] = b;
+        ensureCapacity(1);
+        buffer.put(b);
     }
 
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        buffer.putInt(value);
     }
 
     private void addDouble(double value) {
@@ -307,16 +357,14 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         addInt(exp);
     }
 
+    /**
+     * Adds the length of the encoded string followed by the encoded string.
+     */
     private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+        byte sd[] = string.getBytes(charset);
+        ensureCapacity(4 + sd.length);
+        buffer.putInt(sd.length);
+        buffer.put(sd);
     }
 
     private void addList(Collection<?> collection) {
@@ -328,9 +376,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private void addObject(Object object) {
         if (object.getClass() == String.class) {
             addInt(3);
-            String string = (String) object;
-            addInt(string.length());
-            addString(string);
+            addString((String) object);
         } else if (object.getClass() == Boolean.class) {
             addInt(2);
             addByte(((Boolean) object).booleanValue() ? (byte) 1 : (byte) 0);
@@ -352,7 +398,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             addDouble(((BigInteger) object).doubleValue());
         } else if (object.getClass() == Date.class) {
             addInt(5);
-            addInt((int) ((Date) object).getTime() / 1000);
+            addInt((int) (((Date) object).getTime() / 1000));
         } else if (object instanceof List<?>) {
             Collection<?> list = (Collection<?>) object;
             addInt(0x100);
@@ -365,9 +411,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 String key = (String) entry.getKey();
                 if (key != null) {
-                    addInt(key.length());
                     addString(key);
-                    addList(Collections.singleton(entry.getValue()));
+                    addObject(entry.getValue());
                 }
             }
         }
@@ -379,12 +424,6 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public String toString() {
-        try {
-            trimBinRpcData();
-            generateResponseData();
-            return RpcUtils.dumpRpcMessage(methodName, messageData);
-        } catch (Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
-        }
+        return RpcUtils.dumpRpcMessage(methodName, messageData != null ? messageData : arguments.toArray());
     }
 }
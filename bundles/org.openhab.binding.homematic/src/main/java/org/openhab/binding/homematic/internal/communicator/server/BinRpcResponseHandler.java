@@ -14,61 +14,174 @@ package org.openhab.binding.homematic.internal.communicator.server;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcBufferPool;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Reads a BIN-RPC message from the socket and handles the method call.
+ * Reads BIN-RPC messages from a non blocking connection and handles the method calls. All methods except the method
+ * call itself are executed on the selector thread of the {@link BinRpcNetworkService}. Reading is suspended while a
+ * method call is handled, so the responses are sent in the order of the requests.
  *
  * @author Gerhard Riegler - Initial contribution
  */
-public class BinRpcResponseHandler implements Runnable {
+public class BinRpcResponseHandler {
     private final Logger logger = LoggerFactory.getLogger(BinRpcResponseHandler.class);
 
-    private Socket socket;
-    private RpcResponseHandler<byte[]> rpcResponseHandler;
-    private HomematicConfig config;
-    private long created;
+    private final BinRpcNetworkService networkService;
+    private final SelectionKey key;
+    private final SocketChannel channel;
+    private final RpcResponseHandler<byte[]> rpcResponseHandler;
+    private final HomematicConfig config;
+    private final long created;
+    private ByteBuffer readBuffer;
+    private ByteBuffer writeBuffer;
+    private boolean closed;
 
-    public BinRpcResponseHandler(Socket socket, RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
-        this.socket = socket;
+    public BinRpcResponseHandler(BinRpcNetworkService networkService, SelectionKey key,
+            RpcResponseHandler<byte[]> rpcResponseHandler, HomematicConfig config) {
+        this.networkService = networkService;
+        this.key = key;
+        this.channel = (SocketChannel) key.channel();
         this.rpcResponseHandler = rpcResponseHandler;
         this.config = config;
         this.created = System.currentTimeMillis();
+        this.readBuffer = BinRpcBufferPool.acquire(BinRpcBufferPool.DEFAULT_CAPACITY);
     }
 
     /**
-     * Reads the event from the Homematic gateway and handles the method call.
+     * Reads the available data from the connection and handles the next complete message.
      */
-    @Override
-    public void run() {
+    void onReadable() {
         try {
-            boolean isMaxAliveReached;
-            do {
-                BinRpcMessage message = new BinRpcMessage(socket.getInputStream(), true, config.getEncoding());
-                logger.trace("Event BinRpcMessage: {}", message);
-                byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
+            if (!readBuffer.hasRemaining()) {
+                readBuffer = BinRpcBufferPool.grow(readBuffer, readBuffer.capacity() * 2);
+            }
+            if (channel.read(readBuffer) == -1) {
+                close();
+                return;
+            }
+            processNextMessage();
+        } catch (EOFException eof) {
+            close();
+        } catch (IOException ex) {
+            logger.warn("{}", ex.getMessage(), ex);
+            close();
+        }
+    }
+
+    /**
+     * Continues writing a pending response.
+     */
+    void onWritable() {
+        try {
+            writeResponse();
+        } catch (IOException ex) {
+            logger.debug("Can't send BIN-RPC response: {}", ex.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Decodes the next message, if it has been received completely, and hands it over to a worker thread.
+     */
+    private void processNextMessage() throws IOException {
+        if (readBuffer.position() < BinRpcMessage.HEADER_LENGTH) {
+            return;
+        }
+        ByteBuffer frame = readBuffer.duplicate();
+        frame.flip();
+        int frameLength = BinRpcMessage.HEADER_LENGTH + BinRpcMessage.getPayloadLength(frame.duplicate());
+        if (frameLength > readBuffer.capacity()) {
+            readBuffer = BinRpcBufferPool.grow(readBuffer, frameLength);
+            return;
+        }
+        if (readBuffer.position() < frameLength) {
+            return;
+        }
+
+        frame.limit(frameLength);
+        final BinRpcMessage message = new BinRpcMessage(frame, true, config.getEncoding());
+        readBuffer.flip();
+        readBuffer.position(frameLength);
+        readBuffer.compact();
+        logger.trace("Event BinRpcMessage: {}", message);
+
+        key.interestOps(0);
+        networkService.getWorkerPool().execute(() -> {
+            byte[] returnValue = null;
+            try {
+                returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
                         message.getResponseData());
-                if (returnValue != null) {
-                    socket.getOutputStream().write(returnValue);
-                }
-                isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
-            } while (!isMaxAliveReached);
+            } catch (Exception ex) {
+                logger.warn("{}", ex.getMessage(), ex);
+            }
+            final byte[] response = returnValue;
+            networkService.executeOnSelector(() -> sendResponse(response));
+        });
+    }
 
-        } catch (EOFException eof) {
-            // ignore
-        } catch (Exception e) {
-            logger.warn("{}", e.getMessage(), e);
-        } finally {
+    private void sendResponse(byte[] response) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (response != null) {
+                writeBuffer = ByteBuffer.wrap(response);
+                writeResponse();
+            } else {
+                responseFinished();
+            }
+        } catch (IOException ex) {
+            logger.debug("Can't send BIN-RPC response: {}", ex.getMessage());
+            close();
+        }
+    }
+
+    private void writeResponse() throws IOException {
+        channel.write(writeBuffer);
+        if (writeBuffer.hasRemaining()) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            writeBuffer = null;
+            responseFinished();
+        }
+    }
+
+    /**
+     * Closes the connection if the max alive time has been reached, otherwise continues with the next message.
+     */
+    private void responseFinished() throws IOException {
+        boolean isMaxAliveReached = System.currentTimeMillis() - created > (config.getSocketMaxAlive() * 1000);
+        if (isMaxAliveReached) {
+            close();
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+            processNextMessage();
+        }
+    }
+
+    /**
+     * Closes the connection and releases the buffers.
+     */
+    void close() {
+        if (!closed) {
+            closed = true;
+            key.cancel();
             try {
-                socket.close();
+                channel.close();
             } catch (IOException ioe) {
                 // ignore
             }
+            BinRpcBufferPool.release(readBuffer);
+            readBuffer = null;
+            writeBuffer = null;
         }
     }
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link DeviceMetadataCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceMetadataCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File cacheFile;
+    private HmDevice device;
+
+    @BeforeEach
+    public void setup() {
+        cacheFile = tempDir.resolve("gateway.json").toFile();
+        device = new HmDevice("ABC1234567", HmInterface.RF, "HM-LC-Dim1T-Pl", "ccu", null, "2.9");
+        device.addChannel(new HmChannel("MAINTENANCE", 0));
+        device.addChannel(new HmChannel("DIMMER", 1));
+    }
+
+    @Test
+    public void testDevicesSurviveRestart() {
+        DeviceMetadataCache cache = new DeviceMetadataCache(cacheFile);
+        cache.putDevices(Collections.singletonList(device));
+        cache.save();
+
+        DeviceMetadataCache restored = new DeviceMetadataCache(cacheFile);
+        restored.load();
+        assertThat(restored.hasDevices(), is(true));
+
+        List<HmDevice> devices = restored.getDevices("ccu");
+        assertThat(devices.size(), is(1));
+        HmDevice restoredDevice = devices.get(0);
+        assertThat(restoredDevice.getAddress(), is("ABC1234567"));
+        assertThat(restoredDevice.getHmInterface(), is(HmInterface.RF));
+        assertThat(restoredDevice.getFirmware(), is("2.9"));
+        assertThat(restoredDevice.getChannels().size(), is(2));
+        assertThat(restoredDevice.getChannel(1).getType(), is("DIMMER"));
+        assertThat(restoredDevice.getChannel(1).getDevice(), is(restoredDevice));
+    }
+
+    @Test
+    public void testDatapointValueTypesArePreserved() {
+        HmChannel channel = device.getChannel(1);
+        HmDatapoint level = new HmDatapoint("LEVEL", "LEVEL", HmValueType.FLOAT, 0.0, false, HmParamsetType.VALUES);
+        level.setDefaultValue(0.0);
+        level.setMinValue(0.0);
+        level.setMaxValue(1.005);
+        HmDatapoint rampTime = new HmDatapoint("RAMP_TIME", "RAMP_TIME", HmValueType.INTEGER, 0, false,
+                HmParamsetType.MASTER);
+        rampTime.setMinValue(0);
+        rampTime.setMaxValue(85825945);
+        channel.addDatapoint(level);
+        channel.addDatapoint(rampTime);
+
+        String channelKey = DeviceMetadataCache.getChannelKey(channel);
+        assertThat(channelKey, is("HM-LC-Dim1T-Pl:2.9:1"));
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(cacheFile);
+        assertThat(cache.putDatapoints(channelKey, channel.getDatapoints()), is(true));
+        assertThat(cache.putDatapoints(channelKey, channel.getDatapoints()), is(false));
+        cache.save();
+
+        DeviceMetadataCache restored = new DeviceMetadataCache(cacheFile);
+        restored.load();
+        Collection<HmDatapoint> datapoints = restored.getDatapoints(channelKey);
+        assertThat(datapoints.size(), is(2));
+        for (HmDatapoint dp : datapoints) {
+            if ("LEVEL".equals(dp.getName())) {
+                assertThat(dp.getMaxValue(), is(instanceOf(Double.class)));
+                assertThat(dp.getMaxValue().doubleValue(), is(1.005));
+                assertThat(dp.getDefaultValue(), is(instanceOf(Double.class)));
+            } else {
+                assertThat(dp.getName(), is("RAMP_TIME"));
+                assertThat(dp.getMaxValue(), is(instanceOf(Integer.class)));
+                assertThat(dp.getParamsetType(), is(HmParamsetType.MASTER));
+            }
+        }
+        assertThat(restored.getDatapoints("HM-LC-Dim1T-Pl:3.0:1"), is(nullValue()));
+    }
+
+    @Test
+    public void testIncompatibleCacheIsIgnored() throws Exception {
+        Files.write(cacheFile.toPath(), "{\"version\":0,\"devices\":[{}]}".getBytes());
+
+        DeviceMetadataCache cache = new DeviceMetadataCache(cacheFile);
+        cache.load();
+        assertThat(cache.hasDevices(), is(false));
+    }
+}
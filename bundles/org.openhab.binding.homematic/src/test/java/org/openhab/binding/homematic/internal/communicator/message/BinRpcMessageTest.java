@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BinRpcMessage}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "ISO-8859-1";
+
+    /**
+     * system.multicall with three events (LEVEL, WORKING, RSSI_DEVICE) as sent by a CCU.
+     */
+    private static final String CAPTURED_MULTICALL = "42696e00000001820000001073797374656d2e6d756c746963616c6c"
+            + "00000001000001000000000300000101000000020000000a6d6574686f644e616d6500000003000000056576656e7400000006"
+            + "706172616d730000010000000004000000030000000d426964436f732d52462d636375000000030000000c4e455130313233"
+            + "3435363a3100000003000000054c4556454c00000004200000000000000000000101000000020000000a6d6574686f644e61"
+            + "6d6500000003000000056576656e7400000006706172616d730000010000000004000000030000000d426964436f732d5246"
+            + "2d636375000000030000000c4e4551303132333435363a310000000300000007574f524b494e4700000002000000010100"
+            + "0000020000000a6d6574686f644e616d6500000003000000056576656e7400000006706172616d73000001000000000400"
+            + "0000030000000d426964436f732d52462d636375000000030000000c4e4551303132333435363a30000000030000000b52"
+            + "5353495f44455649434500000001ffffffbf";
+
+    @Test
+    public void testDecodeCapturedMulticallFromStream() throws Exception {
+        BinRpcMessage message = new BinRpcMessage(new ByteArrayInputStream(hexToBytes(CAPTURED_MULTICALL)), true,
+                ENCODING);
+
+        assertThat(message.getMethodName(), is("system.multicall"));
+        Object[] calls = (Object[]) message.getResponseData()[0];
+        assertThat(calls.length, is(3));
+
+        Object[] level = (Object[]) ((Map<?, ?>) calls[0]).get("params");
+        assertThat(((Map<?, ?>) calls[0]).get("methodName"), is("event"));
+        assertThat(level[1], is("NEQ0123456:1"));
+        assertThat(level[2], is("LEVEL"));
+        assertThat(level[3], is(0.5));
+
+        Object[] working = (Object[]) ((Map<?, ?>) calls[1]).get("params");
+        assertThat(working[3], is(Boolean.FALSE));
+
+        Object[] rssi = (Object[]) ((Map<?, ?>) calls[2]).get("params");
+        assertThat(rssi[3], is(-65));
+    }
+
+    @Test
+    public void testDecodeFromBufferWithFollowingMessage() throws Exception {
+        byte[] frame = hexToBytes(CAPTURED_MULTICALL);
+        ByteBuffer buffer = ByteBuffer.allocate(frame.length * 2);
+        buffer.put(frame).put(frame).flip();
+
+        int frameLength = BinRpcMessage.HEADER_LENGTH + BinRpcMessage.getPayloadLength(buffer.duplicate());
+        assertThat(frameLength, is(frame.length));
+
+        ByteBuffer first = buffer.duplicate();
+        first.limit(frameLength);
+        BinRpcMessage message = new BinRpcMessage(first, true, ENCODING);
+        assertThat(((Object[]) message.getResponseData()[0]).length, is(3));
+        assertThat(buffer.position(), is(0));
+    }
+
+    @Test
+    public void testEncodeDecodeRoundTrip() throws Exception {
+        Map<String, Object> struct = new HashMap<>();
+        struct.put("ADDRESS", "NEQ0123456:1");
+        struct.put("VALUE", 21.5);
+
+        BinRpcMessage request = new BinRpcMessage("putParamset", ENCODING);
+        request.addArg("NEQ0123456:1");
+        request.addArg(4711);
+        request.addArg(Boolean.TRUE);
+        request.addArg(Arrays.asList("a", "b"));
+        request.addArg(struct);
+        assertThat(request.getArgCount(), is(5));
+
+        byte[] encoded = request.createMessage();
+        assertThat(encoded.length - BinRpcMessage.HEADER_LENGTH,
+                is(BinRpcMessage.getPayloadLength(ByteBuffer.wrap(encoded))));
+
+        BinRpcMessage decoded = new BinRpcMessage(encoded, true, ENCODING);
+        assertThat(decoded.getMethodName(), is("putParamset"));
+        Object[] data = decoded.getResponseData();
+        assertThat(data.length, is(5));
+        assertThat(data[0], is("NEQ0123456:1"));
+        assertThat(data[1], is(4711));
+        assertThat(data[2], is(Boolean.TRUE));
+        assertThat(Arrays.asList((Object[]) data[3]), is(Arrays.asList((Object) "a", "b")));
+        assertThat(((Map<?, ?>) data[4]).get("VALUE"), is(21.5));
+    }
+
+    @Test
+    public void testEncodeLargeMessage() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < BinRpcBufferPool.DEFAULT_CAPACITY; i++) {
+            sb.append('x');
+        }
+        BinRpcMessage request = new BinRpcMessage("setValue", ENCODING);
+        request.addArg(sb.toString());
+        request.addArg(sb.toString());
+
+        BinRpcMessage decoded = new BinRpcMessage(request.createMessage(), true, ENCODING);
+        assertThat(decoded.getResponseData()[1], is(sb.toString()));
+    }
+
+    @Test
+    public void testTruncatedMessage() {
+        byte[] frame = hexToBytes(CAPTURED_MULTICALL);
+        byte[] truncated = Arrays.copyOf(frame, frame.length - 10);
+
+        assertThrows(EOFException.class,
+                () -> new BinRpcMessage(new ByteArrayInputStream(truncated), true, ENCODING));
+        assertThrows(EOFException.class, () -> new BinRpcMessage(truncated, true, ENCODING));
+    }
+
+    private static byte[] hexToBytes(String hex) {
+        byte[] data = new byte[hex.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return data;
+    }
+}
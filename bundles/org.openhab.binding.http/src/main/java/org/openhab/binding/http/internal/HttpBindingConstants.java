@@ -27,4 +27,6 @@ public class HttpBindingConstants {
     private static final String BINDING_ID = "http";
 
     public static final ThingTypeUID THING_TYPE_URL = new ThingTypeUID(BINDING_ID, "url");
+
+    public static final String PROPERTY_CACHE_STATISTICS = "cacheStatistics";
 }
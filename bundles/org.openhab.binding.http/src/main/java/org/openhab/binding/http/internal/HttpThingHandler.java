@@ -12,13 +12,17 @@
  */
 package org.openhab.binding.http.internal;
 
+import static org.openhab.binding.http.internal.HttpBindingConstants.PROPERTY_CACHE_STATISTICS;
+
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -62,6 +66,7 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class HttpThingHandler extends BaseThingHandler {
     private static final Set<Character> URL_PART_DELIMITER = Set.of('/', '?', '&');
+    private static final int STATISTICS_INTERVAL = 60;
 
     private final Logger logger = LoggerFactory.getLogger(HttpThingHandler.class);
     private final ValueTransformationProvider valueTransformationProvider;
@@ -69,21 +74,25 @@ public class HttpThingHandler extends BaseThingHandler {
     private HttpClient httpClient;
     private RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry;
 
     private HttpThingConfig config = new HttpThingConfig();
     private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
     private final Map<ChannelUID, ItemValueConverter> channels = new HashMap<>();
     private final Map<ChannelUID, String> channelUrls = new HashMap<>();
+    private @Nullable ScheduledFuture<?> statisticsJob;
 
     public HttpThingHandler(Thing thing, HttpClientProvider httpClientProvider,
             ValueTransformationProvider valueTransformationProvider,
-            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider) {
+            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider,
+            RefreshingUrlCacheRegistry urlCacheRegistry) {
         super(thing);
         this.httpClientProvider = httpClientProvider;
         this.httpClient = httpClientProvider.getSecureClient();
         this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClient, scheduler);
         this.valueTransformationProvider = valueTransformationProvider;
         this.httpDynamicStateDescriptionProvider = httpDynamicStateDescriptionProvider;
+        this.urlCacheRegistry = urlCacheRegistry;
     }
 
     @Override
@@ -186,13 +195,22 @@ public class HttpThingHandler extends BaseThingHandler {
         // create channels
         thing.getChannels().forEach(this::createChannel);
 
+        statisticsJob = scheduler.scheduleWithFixedDelay(this::updateStatistics, STATISTICS_INTERVAL,
+                STATISTICS_INTERVAL, TimeUnit.SECONDS);
+
         updateStatus(ThingStatus.ONLINE);
     }
 
     @Override
     public void dispose() {
-        // stop update tasks
-        urlHandlers.values().forEach(RefreshingUrlCache::stop);
+        ScheduledFuture<?> statisticsJob = this.statisticsJob;
+        if (statisticsJob != null) {
+            statisticsJob.cancel(false);
+            this.statisticsJob = null;
+        }
+
+        // stop update tasks, the caches are shared with other things
+        urlCacheRegistry.removeConsumers(thing.getUID());
         rateLimitedHttpClient.shutdown();
 
         // clear lists
@@ -206,6 +224,17 @@ public class HttpThingHandler extends BaseThingHandler {
         super.dispose();
     }
 
+    /**
+     * publish the statistics of the caches used by this thing as property
+     */
+    private void updateStatistics() {
+        Map<String, String> statistics = urlCacheRegistry.getStatistics(thing.getUID());
+        if (!statistics.isEmpty()) {
+            updateProperty(PROPERTY_CACHE_STATISTICS, statistics.entrySet().stream()
+                    .map(entry -> entry.getKey() + ": " + entry.getValue()).collect(Collectors.joining("; ")));
+        }
+    }
+
     /**
      * create all necessary information to handle every channel
      *
@@ -273,10 +302,8 @@ public class HttpThingHandler extends BaseThingHandler {
         channels.put(channelUID, itemValueConverter);
         if (channelConfig.mode != HttpChannelMode.WRITEONLY) {
             channelUrls.put(channelUID, stateUrl);
-            urlHandlers
-                    .computeIfAbsent(stateUrl,
-                            url -> new RefreshingUrlCache(scheduler, rateLimitedHttpClient, url, config))
-                    .addConsumer(itemValueConverter::process);
+            urlHandlers.put(stateUrl, urlCacheRegistry.addConsumer(stateUrl, config, thing.getUID(),
+                    rateLimitedHttpClient, itemValueConverter::process));
         }
 
         StateDescription stateDescription = StateDescriptionFragmentBuilder.create()
@@ -340,6 +367,9 @@ public class HttpThingHandler extends BaseThingHandler {
                 }
                 return null;
             });
+            // the next refresh updates the channels even if the content did not change, this corrects the state
+            // of the channel if the command was not applied
+            f.whenComplete((content, e) -> urlCacheRegistry.invalidate(thing.getUID()));
             request.send(new HttpResponseListener(f, null, config.bufferSize));
         } catch (IllegalArgumentException | URISyntaxException | MalformedURLException e) {
             logger.warn("Creating request for '{}' failed: {}", commandUrl, e.getMessage());
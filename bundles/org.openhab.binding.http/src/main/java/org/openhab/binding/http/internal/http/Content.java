@@ -28,10 +28,23 @@ public class Content {
     private final byte[] rawContent;
     private final Charset encoding;
     private final @Nullable String mediaType;
+    private final @Nullable String eTag;
+    private final @Nullable String lastModified;
 
     public Content(byte[] rawContent, String encoding, @Nullable String mediaType) {
+        this(rawContent, encoding, mediaType, null, null);
+    }
+
+    /**
+     * @param eTag the value of the ETag header of the response (null if not present)
+     * @param lastModified the value of the Last-Modified header of the response (null if not present)
+     */
+    public Content(byte[] rawContent, String encoding, @Nullable String mediaType, @Nullable String eTag,
+            @Nullable String lastModified) {
         this.rawContent = rawContent;
         this.mediaType = mediaType;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
 
         Charset finalEncoding = StandardCharsets.UTF_8;
         try {
@@ -52,4 +65,12 @@ public class Content {
     public @Nullable String getMediaType() {
         return mediaType;
     }
+
+    public @Nullable String getETag() {
+        return eTag;
+    }
+
+    public @Nullable String getLastModified() {
+        return lastModified;
+    }
 }
@@ -13,19 +13,26 @@
 package org.openhab.binding.http.internal.http;
 
 import java.net.*;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.api.Authentication;
 import org.eclipse.jetty.client.api.AuthenticationStore;
+import org.eclipse.jetty.http.HttpHeader;
 import org.openhab.binding.http.internal.Util;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.core.thing.ThingUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +40,11 @@ import org.slf4j.LoggerFactory;
  * The {@link RefreshingUrlCache} is responsible for requesting from a single URL and passing the content to the
  * channels
  *
+ * The cache is shared by all things requesting the URL with the same configuration, it is refreshed with the shortest
+ * refresh interval of these things. Conditional requests are used if the server provides an ETag or Last-Modified
+ * header, the consumers are only called if the content has changed or a thing has sent a command (see
+ * {@link #invalidate()}).
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
@@ -40,27 +52,31 @@ public class RefreshingUrlCache {
     private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCache.class);
 
     private final String url;
-    private final RateLimitedHttpClient httpClient;
     private final int timeout;
     private final int bufferSize;
     private final @Nullable String fallbackEncoding;
-    private final Set<Consumer<Content>> consumers = ConcurrentHashMap.newKeySet();
+    private final Map<ThingUID, Subscriber> subscribers = new LinkedHashMap<>();
     private final List<String> headers;
 
-    private final ScheduledFuture<?> future;
-    private @Nullable Content lastContent;
+    private final ScheduledExecutorService executor;
+    private @Nullable ScheduledFuture<?> future;
+    private int refreshInterval;
+    private volatile @Nullable Content lastContent;
+    private volatile boolean dispatchPending;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder deduplicatedRequests = new LongAdder();
+    private final LongAdder notModifiedResponses = new LongAdder();
+    private final LongAdder unchangedResponses = new LongAdder();
+    private final LongAdder savedBytes = new LongAdder();
 
-    public RefreshingUrlCache(ScheduledExecutorService executor, RateLimitedHttpClient httpClient, String url,
-            HttpThingConfig thingConfig) {
-        this.httpClient = httpClient;
+    public RefreshingUrlCache(ScheduledExecutorService executor, String url, HttpThingConfig thingConfig) {
+        this.executor = executor;
         this.url = url;
         this.timeout = thingConfig.timeout;
         this.bufferSize = thingConfig.bufferSize;
-        this.headers = thingConfig.headers;
+        this.headers = List.copyOf(thingConfig.headers);
         fallbackEncoding = thingConfig.encoding;
-
-        future = executor.scheduleWithFixedDelay(this::refresh, 1, thingConfig.refresh, TimeUnit.SECONDS);
-        logger.trace("Started refresh task for URL '{}' with interval {}s", url, thingConfig.refresh);
     }
 
     private void refresh() {
@@ -68,9 +84,16 @@ public class RefreshingUrlCache {
     }
 
     private void refresh(boolean isRetry) {
-        if (consumers.isEmpty()) {
-            // do not refresh if we don't have listeners
-            return;
+        final RateLimitedHttpClient httpClient;
+        final int subscriberCount;
+        synchronized (this) {
+            if (subscribers.isEmpty()) {
+                // do not refresh if we don't have listeners
+                return;
+            }
+            // the requests are rate-limited by the first thing requesting the URL
+            httpClient = subscribers.values().iterator().next().httpClient;
+            subscriberCount = subscribers.size();
         }
 
         // format URL
@@ -81,6 +104,21 @@ public class RefreshingUrlCache {
             httpClient.newRequest(uri).thenAccept(request -> {
                 request.timeout(timeout, TimeUnit.MILLISECONDS);
 
+                final Content cachedContent = lastContent;
+                // the flag is consumed by this request, commands sent afterwards set it again
+                final boolean forceDispatch = dispatchPending;
+                dispatchPending = false;
+                if (cachedContent != null) {
+                    String eTag = cachedContent.getETag();
+                    if (eTag != null) {
+                        request.header(HttpHeader.IF_NONE_MATCH, eTag);
+                    }
+                    String lastModified = cachedContent.getLastModified();
+                    if (lastModified != null) {
+                        request.header(HttpHeader.IF_MODIFIED_SINCE, lastModified);
+                    }
+                }
+
                 headers.forEach(header -> {
                     String[] keyValuePair = header.split("=", 2);
                     if (keyValuePair.length == 2) {
@@ -108,13 +146,15 @@ public class RefreshingUrlCache {
                         }
                     }
                     return null;
-                }).thenAccept(this::processResult);
+                }).thenAccept(content -> processResult(content, forceDispatch));
 
                 if (logger.isTraceEnabled()) {
                     logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
                 }
 
-                request.send(new HttpResponseListener(response, fallbackEncoding, bufferSize));
+                requests.increment();
+                deduplicatedRequests.add(subscriberCount - 1);
+                request.send(new HttpResponseListener(response, fallbackEncoding, bufferSize, cachedContent));
             }).exceptionally(e -> {
                 if (e instanceof CancellationException) {
                     logger.debug("Request to URL {} was cancelled by thing handler.", uri);
@@ -128,15 +168,84 @@ public class RefreshingUrlCache {
         }
     }
 
-    public void stop() {
+    public synchronized void stop() {
         // clearing all listeners to prevent further updates
-        consumers.clear();
-        future.cancel(false);
+        subscribers.clear();
+        stopRefresh();
         logger.trace("Stopped refresh task for URL '{}'", url);
     }
 
-    public void addConsumer(Consumer<Content> consumer) {
-        consumers.add(consumer);
+    /**
+     * Adds a consumer of the content. The consumer is called with the current content, if there is any.
+     *
+     * @param thingUID the thing of the consumer
+     * @param httpClient the client of the thing
+     * @param refresh the refresh interval of the thing in s
+     * @param consumer the consumer
+     */
+    public synchronized void addConsumer(ThingUID thingUID, RateLimitedHttpClient httpClient, int refresh,
+            Consumer<Content> consumer) {
+        subscribers.computeIfAbsent(thingUID, uid -> new Subscriber(httpClient, refresh)).consumers.add(consumer);
+        updateRefreshInterval();
+
+        final Content content = lastContent;
+        if (content != null) {
+            // the consumers are only called on changes, the new consumer would not get the content otherwise
+            executor.execute(() -> process(consumer, content));
+        }
+    }
+
+    /**
+     * Removes all consumers of a thing.
+     *
+     * @param thingUID the thing of the consumers
+     * @return true if there are no consumers left
+     */
+    public synchronized boolean removeConsumers(ThingUID thingUID) {
+        subscribers.remove(thingUID);
+        if (subscribers.isEmpty()) {
+            stopRefresh();
+        } else {
+            updateRefreshInterval();
+        }
+        return subscribers.isEmpty();
+    }
+
+    /**
+     * Checks if a thing consumes the content
+     *
+     * @param thingUID the thing
+     * @return true if the thing has consumers of the content
+     */
+    public synchronized boolean hasConsumers(ThingUID thingUID) {
+        return subscribers.containsKey(thingUID);
+    }
+
+    private void updateRefreshInterval() {
+        int interval = subscribers.values().stream().mapToInt(subscriber -> subscriber.refresh).min()
+                .orElse(refreshInterval);
+        if (interval != refreshInterval || future == null) {
+            stopRefresh();
+            refreshInterval = interval;
+            future = executor.scheduleWithFixedDelay(this::refresh, 1, interval, TimeUnit.SECONDS);
+            logger.trace("Started refresh task for URL '{}' with interval {}s", url, interval);
+        }
+    }
+
+    private void stopRefresh() {
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+            this.future = null;
+        }
+    }
+
+    /**
+     * Passes the content of the next refresh to all consumers, even if it has not changed. This is called after a
+     * command has been sent, the state of a channel set by the command is corrected if the device did not apply it.
+     */
+    public void invalidate() {
+        dispatchPending = true;
     }
 
     public Optional<Content> get() {
@@ -148,16 +257,67 @@ public class RefreshingUrlCache {
         }
     }
 
-    private void processResult(@Nullable Content content) {
+    /**
+     * Returns the statistics of the cache, e.g. the number of requests served for more than one thing and the bytes
+     * that have not been transferred because the content was not modified.
+     */
+    public String getStatistics() {
+        return String.format(
+                "%d requests, %d deduplicated, %d not modified, %d unchanged, %d bytes saved, %d things",
+                requests.sum(), deduplicatedRequests.sum(), notModifiedResponses.sum(), unchangedResponses.sum(),
+                savedBytes.sum(), getSubscriberCount());
+    }
+
+    private synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void processResult(@Nullable Content content, boolean forceDispatch) {
         if (content != null) {
-            for (Consumer<Content> consumer : consumers) {
-                try {
-                    consumer.accept(content);
-                } catch (IllegalArgumentException | IllegalStateException e) {
-                    logger.warn("Failed processing result for URL {}: {}", url, e.getMessage());
+            final Content cachedContent = lastContent;
+            if (content == cachedContent) {
+                // answer to a conditional request
+                notModifiedResponses.increment();
+                savedBytes.add(content.getRawContent().length);
+                if (!forceDispatch) {
+                    return;
+                }
+            } else {
+                lastContent = content;
+                if (cachedContent != null && Arrays.equals(cachedContent.getRawContent(), content.getRawContent())) {
+                    unchangedResponses.increment();
+                    if (!forceDispatch) {
+                        return;
+                    }
                 }
             }
+            final Set<Consumer<Content>> consumers;
+            synchronized (this) {
+                consumers = subscribers.values().stream().flatMap(subscriber -> subscriber.consumers.stream())
+                        .collect(Collectors.toSet());
+            }
+            consumers.forEach(consumer -> process(consumer, content));
+        } else {
+            lastContent = null;
+        }
+    }
+
+    private void process(Consumer<Content> consumer, Content content) {
+        try {
+            consumer.accept(content);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            logger.warn("Failed processing result for URL {}: {}", url, e.getMessage());
+        }
+    }
+
+    private static class Subscriber {
+        private final RateLimitedHttpClient httpClient;
+        private final int refresh;
+        private final Set<Consumer<Content>> consumers = ConcurrentHashMap.newKeySet();
+
+        private Subscriber(RateLimitedHttpClient httpClient, int refresh) {
+            this.httpClient = httpClient;
+            this.refresh = refresh;
         }
-        lastContent = content;
     }
 }
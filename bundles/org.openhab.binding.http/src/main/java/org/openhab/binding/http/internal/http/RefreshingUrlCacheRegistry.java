@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.http.internal.config.HttpAuthMode;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RefreshingUrlCacheRegistry} holds the {@link RefreshingUrlCache}s of all things, so that a URL is only
+ * requested once if several things request it with the same configuration (headers, authentication, timeout, buffer
+ * size and encoding).
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistry {
+    private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCacheRegistry.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<CacheKey, RefreshingUrlCache> caches = new HashMap<>();
+
+    public RefreshingUrlCacheRegistry(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Adds a consumer for the content of a URL
+     *
+     * @param url the URL
+     * @param thingConfig the configuration of the thing
+     * @param thingUID the thing
+     * @param httpClient the client of the thing
+     * @param consumer the consumer of the content
+     * @return the cache of the URL
+     */
+    public synchronized RefreshingUrlCache addConsumer(String url, HttpThingConfig thingConfig, ThingUID thingUID,
+            RateLimitedHttpClient httpClient, Consumer<Content> consumer) {
+        RefreshingUrlCache cache = caches.computeIfAbsent(new CacheKey(url, thingConfig),
+                key -> new RefreshingUrlCache(scheduler, url, thingConfig));
+        cache.addConsumer(thingUID, httpClient, thingConfig.refresh, consumer);
+        return cache;
+    }
+
+    /**
+     * Removes all consumers of a thing, the caches without consumers are stopped
+     *
+     * @param thingUID the thing
+     */
+    public synchronized void removeConsumers(ThingUID thingUID) {
+        for (Iterator<Map.Entry<CacheKey, RefreshingUrlCache>> it = caches.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<CacheKey, RefreshingUrlCache> entry = it.next();
+            RefreshingUrlCache cache = entry.getValue();
+            if (cache.removeConsumers(thingUID)) {
+                logger.debug("Stopping cache for URL '{}': {}", entry.getKey().url, cache.getStatistics());
+                cache.stop();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Passes the content of the next refresh of all caches of a thing to their consumers, even if it has not changed
+     *
+     * @param thingUID the thing
+     */
+    public synchronized void invalidate(ThingUID thingUID) {
+        caches.values().stream().filter(cache -> cache.hasConsumers(thingUID)).forEach(RefreshingUrlCache::invalidate);
+    }
+
+    /**
+     * Returns the statistics of all caches of a thing
+     *
+     * @param thingUID the thing
+     * @return the statistics by URL
+     */
+    public synchronized Map<String, String> getStatistics(ThingUID thingUID) {
+        Map<String, String> statistics = new TreeMap<>();
+        caches.forEach((key, cache) -> {
+            if (cache.hasConsumers(thingUID)) {
+                statistics.put(key.url, cache.getStatistics());
+            }
+        });
+        return statistics;
+    }
+
+    private static class CacheKey {
+        private final String url;
+        private final List<String> headers;
+        private final boolean ignoreSSLErrors;
+        private final HttpAuthMode authMode;
+        private final String username;
+        private final String password;
+        private final int timeout;
+        private final int bufferSize;
+        private final @Nullable String encoding;
+
+        private CacheKey(String url, HttpThingConfig thingConfig) {
+            this.url = url;
+            this.headers = List.copyOf(thingConfig.headers);
+            this.ignoreSSLErrors = thingConfig.ignoreSSLErrors;
+            this.authMode = thingConfig.authMode;
+            this.username = thingConfig.username;
+            this.password = thingConfig.password;
+            this.timeout = thingConfig.timeout;
+            this.bufferSize = thingConfig.bufferSize;
+            this.encoding = thingConfig.encoding;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return url.equals(other.url) && headers.equals(other.headers) && ignoreSSLErrors == other.ignoreSSLErrors
+                    && authMode == other.authMode && username.equals(other.username)
+                    && password.equals(other.password) && timeout == other.timeout && bufferSize == other.bufferSize
+                    && Objects.equals(encoding, other.encoding);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, headers, ignoreSSLErrors, authMode, username, password, timeout, bufferSize,
+                    encoding);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link RefreshingUrlCacheRegistryTest} is a test class for the sharing of {@link RefreshingUrlCache}s
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistryTest {
+    private static final String URL = "http://127.0.0.1/state";
+    private static final ThingUID THING_1 = new ThingUID("http", "url", "thing1");
+    private static final ThingUID THING_2 = new ThingUID("http", "url", "thing2");
+
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    private @NonNullByDefault({}) ScheduledFuture<?> future;
+    private @NonNullByDefault({}) RateLimitedHttpClient httpClient;
+    private @NonNullByDefault({}) RefreshingUrlCacheRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = mock(ScheduledExecutorService.class);
+        future = mock(ScheduledFuture.class);
+        doReturn(future).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        httpClient = mock(RateLimitedHttpClient.class);
+        registry = new RefreshingUrlCacheRegistry(scheduler);
+    }
+
+    @Test
+    public void equalConfigurationSharesCache() {
+        RefreshingUrlCache cache1 = registry.addConsumer(URL, config(30), THING_1, httpClient, content -> {
+        });
+        RefreshingUrlCache cache2 = registry.addConsumer(URL, config(30), THING_2, httpClient, content -> {
+        });
+
+        assertSame(cache1, cache2);
+        assertTrue(cache1.hasConsumers(THING_1));
+        assertTrue(cache1.hasConsumers(THING_2));
+        verify(scheduler, times(1)).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void differentConfigurationUsesOwnCache() {
+        HttpThingConfig otherConfig = config(30);
+        otherConfig.headers.add("Accept=application/json");
+
+        RefreshingUrlCache cache1 = registry.addConsumer(URL, config(30), THING_1, httpClient, content -> {
+        });
+        RefreshingUrlCache cache2 = registry.addConsumer(URL, otherConfig, THING_2, httpClient, content -> {
+        });
+        RefreshingUrlCache cache3 = registry.addConsumer(URL + "2", config(30), THING_2, httpClient, content -> {
+        });
+
+        assertNotSame(cache1, cache2);
+        assertNotSame(cache1, cache3);
+        assertFalse(cache1.hasConsumers(THING_2));
+    }
+
+    @Test
+    public void shortestIntervalIsUsed() {
+        registry.addConsumer(URL, config(30), THING_1, httpClient, content -> {
+        });
+        verify(scheduler).scheduleWithFixedDelay(any(), eq(1L), eq(30L), eq(TimeUnit.SECONDS));
+
+        registry.addConsumer(URL, config(10), THING_2, httpClient, content -> {
+        });
+        verify(scheduler).scheduleWithFixedDelay(any(), eq(1L), eq(10L), eq(TimeUnit.SECONDS));
+        verify(future, times(1)).cancel(false);
+
+        // the remaining thing refreshes with its own interval
+        registry.removeConsumers(THING_2);
+        verify(scheduler, times(2)).scheduleWithFixedDelay(any(), eq(1L), eq(30L), eq(TimeUnit.SECONDS));
+        verify(future, times(2)).cancel(false);
+    }
+
+    @Test
+    public void cacheIsStoppedWithoutConsumers() {
+        RefreshingUrlCache cache = registry.addConsumer(URL, config(30), THING_1, httpClient, content -> {
+        });
+        registry.addConsumer(URL, config(30), THING_2, httpClient, content -> {
+        });
+
+        registry.removeConsumers(THING_1);
+        assertFalse(cache.hasConsumers(THING_1));
+        assertTrue(registry.getStatistics(THING_1).isEmpty());
+        assertEquals(1, registry.getStatistics(THING_2).size());
+        verify(future, never()).cancel(anyBoolean());
+
+        registry.removeConsumers(THING_2);
+        verify(future).cancel(false);
+        assertTrue(registry.getStatistics(THING_2).isEmpty());
+
+        // a new consumer gets a new cache
+        assertNotSame(cache, registry.addConsumer(URL, config(30), THING_1, httpClient, content -> {
+        }));
+    }
+
+    private HttpThingConfig config(int refresh) {
+        HttpThingConfig config = new HttpThingConfig();
+        config.refresh = refresh;
+        return config;
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link RefreshingUrlCacheTest} is a test class for the dispatching of the {@link RefreshingUrlCache}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheTest {
+    private static final String URL = "http://127.0.0.1/state";
+    private static final ThingUID THING_UID = new ThingUID("http", "url", "test");
+
+    private @NonNullByDefault({}) ScheduledExecutorService executor;
+    private @NonNullByDefault({}) RateLimitedHttpClient httpClient;
+    private @NonNullByDefault({}) Request request;
+    private @NonNullByDefault({}) RefreshingUrlCache cache;
+    private @NonNullByDefault({}) Runnable refreshTask;
+    private final List<String> received = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        executor = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+        httpClient = mock(RateLimitedHttpClient.class);
+        request = mock(Request.class);
+        when(request.timeout(anyLong(), any())).thenReturn(request);
+        when(request.header(any(HttpHeader.class), anyString())).thenReturn(request);
+        when(httpClient.newRequest(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(request));
+
+        cache = new RefreshingUrlCache(executor, URL, new HttpThingConfig());
+        cache.addConsumer(THING_UID, httpClient, 30, content -> received.add(content.getAsString()));
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleWithFixedDelay(captor.capture(), eq(1L), eq(30L), eq(TimeUnit.SECONDS));
+        refreshTask = captor.getValue();
+    }
+
+    @Test
+    public void changedContentIsDispatched() {
+        refresh(HttpStatus.OK_200, "first", null);
+        refresh(HttpStatus.OK_200, "second", null);
+
+        assertEquals(List.of("first", "second"), received);
+        assertEquals("second", cache.get().get().getAsString());
+    }
+
+    @Test
+    public void unchangedContentIsSkipped() {
+        refresh(HttpStatus.OK_200, "value", null);
+        refresh(HttpStatus.OK_200, "value", null);
+
+        assertEquals(List.of("value"), received);
+        assertTrue(cache.getStatistics().contains("1 unchanged"));
+    }
+
+    @Test
+    public void notModifiedIsSkipped() {
+        refresh(HttpStatus.OK_200, "value", "\"1\"");
+        refresh(HttpStatus.NOT_MODIFIED_304, null, null);
+
+        verify(request).header(HttpHeader.IF_NONE_MATCH, "\"1\"");
+        assertEquals(List.of("value"), received);
+        assertEquals("value", cache.get().get().getAsString());
+        assertTrue(cache.getStatistics().contains("1 not modified, 0 unchanged, 5 bytes saved"));
+    }
+
+    @Test
+    public void invalidatedContentIsDispatchedOnce() {
+        refresh(HttpStatus.OK_200, "value", "\"1\"");
+        cache.invalidate();
+        refresh(HttpStatus.NOT_MODIFIED_304, null, null);
+        cache.invalidate();
+        refresh(HttpStatus.OK_200, "value", "\"1\"");
+        refresh(HttpStatus.NOT_MODIFIED_304, null, null);
+
+        assertEquals(List.of("value", "value", "value"), received);
+    }
+
+    @Test
+    public void newConsumerReceivesCurrentContent() {
+        refresh(HttpStatus.OK_200, "value", null);
+        List<String> other = new ArrayList<>();
+        cache.addConsumer(new ThingUID("http", "url", "other"), httpClient, 30,
+                content -> other.add(content.getAsString()));
+
+        assertEquals(List.of("value"), other);
+    }
+
+    private void refresh(int status, @Nullable String content, @Nullable String eTag) {
+        ArgumentCaptor<Response.CompleteListener> captor = ArgumentCaptor.forClass(Response.CompleteListener.class);
+        clearInvocations(request);
+        refreshTask.run();
+        verify(request).send(captor.capture());
+        HttpResponseListener listener = (HttpResponseListener) captor.getValue();
+
+        HttpFields headers = new HttpFields();
+        if (eTag != null) {
+            headers.put(HttpHeader.ETAG, eTag);
+        }
+        Response response = mock(Response.class);
+        when(response.getStatus()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        Request sentRequest = mock(Request.class);
+        when(sentRequest.getURI()).thenReturn(URI.create(URL));
+        Result result = mock(Result.class);
+        when(result.getResponse()).thenReturn(response);
+        when(result.getRequest()).thenReturn(sentRequest);
+
+        if (content != null) {
+            listener.onContent(response, ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        }
+        listener.onComplete(result);
+    }
+}
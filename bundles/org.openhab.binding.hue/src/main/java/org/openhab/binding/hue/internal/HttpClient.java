@@ -134,7 +134,8 @@ public class HttpClient {
                 while ((length = in.read(buffer)) != -1) {
                     result.write(buffer, 0, length);
                 }
-                return new Result(result.toString(StandardCharsets.UTF_8.name()), conn.getResponseCode());
+                return new Result(result.toString(StandardCharsets.UTF_8.name()), conn.getResponseCode(),
+                        result.size());
             }
         } finally {
             conn.disconnect();
@@ -144,10 +145,16 @@ public class HttpClient {
     public static class Result {
         private final String body;
         private final int responseCode;
+        private final int contentLength;
 
         public Result(String body, int responseCode) {
+            this(body, responseCode, body.length());
+        }
+
+        public Result(String body, int responseCode, int contentLength) {
             this.body = body;
             this.responseCode = responseCode;
+            this.contentLength = contentLength;
         }
 
         public String getBody() {
@@ -157,6 +164,10 @@ public class HttpClient {
         public int getResponseCode() {
             return responseCode;
         }
+
+        public int getContentLength() {
+            return contentLength;
+        }
     }
 
     public final class AsyncPutParameters {
@@ -74,6 +74,8 @@ public class HueBridge {
     private final Gson gson = new GsonBuilder().setDateFormat(DATE_FORMAT).create();
     private HttpClient http = new HttpClient();
     private final ScheduledExecutorService scheduler;
+    private final LightStateTracker lightStateTracker = new LightStateTracker();
+    private final HueCommandQueue commandQueue;
 
     @Nullable
     private Config cachedConfig;
@@ -97,6 +99,7 @@ public class HueBridge {
         }
         this.baseUrl = baseUrl;
         this.scheduler = scheduler;
+        this.commandQueue = createCommandQueue();
     }
 
     /**
@@ -126,6 +129,12 @@ public class HueBridge {
         this.username = username;
         this.scheduler = scheduler;
         this.http = http;
+        this.commandQueue = createCommandQueue();
+    }
+
+    private HueCommandQueue createCommandQueue() {
+        return new HueCommandQueue((address, body) -> http.put(address, body),
+                groupId -> getRelativeURL("groups/" + enc(groupId) + "/action"), scheduler);
     }
 
     /**
@@ -137,6 +146,31 @@ public class HueBridge {
         http.setTimeout(timeout);
     }
 
+    /**
+     * Set the maximum number of light and group commands sent to the bridge per second.
+     *
+     * @param commandRate commands per second
+     */
+    public void setCommandRate(int commandRate) {
+        commandQueue.setCommandRate(commandRate);
+    }
+
+    /**
+     * Returns the queue of the light and group state updates, e.g. to read its statistics.
+     *
+     * @return the command queue of this bridge
+     */
+    public HueCommandQueue getCommandQueue() {
+        return commandQueue;
+    }
+
+    /**
+     * Stops sending the queued light and group state updates.
+     */
+    public void dispose() {
+        commandQueue.stop();
+    }
+
     /**
      * Returns the IP address of the bridge.
      *
@@ -200,6 +234,37 @@ public class HueBridge {
         }
     }
 
+    /**
+     * Returns the lights whose state has changed since the last call. Only the changed lights are deserialized, the
+     * caller has to accept every handled light and complete the returned changes.
+     * Requires an API version supporting full lights, see {@link ApiVersionUtils#supportsFullLights(ApiVersion)}.
+     *
+     * @return the changed lights and the ids of all known lights
+     * @throws UnauthorizedException thrown if the user no longer exists
+     */
+    public LightStateTracker.Changes getChangedFullLights() throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("lights"));
+
+        handleErrors(result);
+
+        try {
+            return lightStateTracker.diff(result.getBody(), result.getContentLength(), gson);
+        } catch (JsonParseException e) {
+            throw new ApiException("API returned unexpected result: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the tracker used by {@link #getChangedFullLights()}, e.g. to read its statistics.
+     *
+     * @return the light state tracker of this bridge
+     */
+    public LightStateTracker getLightStateTracker() {
+        return lightStateTracker;
+    }
+
     /**
      * Returns a list of lights known to the bridge.
      *
@@ -369,6 +434,7 @@ public class HueBridge {
 
     /**
      * Changes the state of a light.
+     * The update is queued and may be merged with other pending updates, see {@link HueCommandQueue}.
      *
      * @param light light
      * @param update changes to the state
@@ -380,9 +446,8 @@ public class HueBridge {
     public CompletableFuture<Result> setLightState(FullLight light, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("lights/" + enc(light.getId()) + "/state"), body, update.getMessageDelay(),
-                scheduler);
+        return commandQueue.enqueueLightUpdate(light.getId(),
+                getRelativeURL("lights/" + enc(light.getId()) + "/state"), update);
     }
 
     /**
@@ -398,9 +463,7 @@ public class HueBridge {
     public CompletableFuture<Result> setSensorState(FullSensor sensor, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/state"), body,
-                update.getMessageDelay(), scheduler);
+        return commandQueue.enqueueSensorUpdate(getRelativeURL("sensors/" + enc(sensor.getId()) + "/state"), update);
     }
 
     /**
@@ -415,9 +478,7 @@ public class HueBridge {
     public CompletableFuture<Result> updateSensorConfig(FullSensor sensor, ConfigUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/config"), body,
-                update.getMessageDelay(), scheduler);
+        return commandQueue.enqueueSensorUpdate(getRelativeURL("sensors/" + enc(sensor.getId()) + "/config"), update);
     }
 
     /**
@@ -462,6 +523,7 @@ public class HueBridge {
             group.setId(id);
             groupList.add(group);
         });
+        commandQueue.setGroups(groupList);
 
         return groupList;
     }
@@ -633,6 +695,7 @@ public class HueBridge {
 
     /**
      * Changes the state of a group.
+     * The update is queued and may be merged with other pending updates, see {@link HueCommandQueue}.
      *
      * @param group group
      * @param update changes to the state
@@ -642,9 +705,7 @@ public class HueBridge {
     public CompletableFuture<Result> setGroupState(Group group, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("groups/" + enc(group.getId()) + "/action"), body, update.getMessageDelay(),
-                scheduler);
+        return commandQueue.enqueueGroupUpdate(getRelativeURL("groups/" + enc(group.getId()) + "/action"), update);
     }
 
     /**
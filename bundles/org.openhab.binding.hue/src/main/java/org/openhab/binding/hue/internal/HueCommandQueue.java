@@ -0,0 +1,413 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Send queue for the light, group and sensor updates of a single bridge.
+ *
+ * <ul>
+ * <li>A state update of a light or group that is still waiting in the queue is merged with the new update, so
+ * only the latest values are sent. Updates containing other commands than on, brightness, color, effect and transition
+ * time (e.g. alerts or scenes) are never merged.</li>
+ * <li>Requests are paced to the configured number of commands per second, a command is never sent faster than
+ * recommended by {@link ConfigUpdate#getMessageDelay()}.</li>
+ * <li>If the same state is queued for all lights of a group with at least {@link #MIN_LIGHTS_FOR_GROUP_COMMAND}
+ * lights, a single group command is sent instead. The bridge handles about one group command per second. This is
+ * only done if the state is the first queued update of every light, the updates of a light are always sent in the
+ * order they have been queued.</li>
+ * </ul>
+ *
+ * The requests are sent one after another by a thread of the scheduler. The {@link Sender} blocks this thread until
+ * the bridge has answered, i.e. at most for the timeout of the HTTP client of the bridge.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HueCommandQueue {
+
+    public static final int DEFAULT_COMMAND_RATE = 10;
+    static final int MIN_LIGHTS_FOR_GROUP_COMMAND = 3;
+    private static final long GROUP_COMMAND_INTERVAL = 1000;
+
+    private static final Set<String> MERGEABLE_COMMANDS = Set.of("on", "bri", "hue", "sat", "xy", "ct", "effect",
+            "transitiontime");
+    private static final List<Set<String>> COLOR_MODES = List.of(Set.of("hue", "sat"), Set.of("xy"), Set.of("ct"));
+
+    /**
+     * Sends a PUT request to the bridge, blocking until the response has been received.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        Result put(String address, String body) throws IOException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(HueCommandQueue.class);
+
+    private final Sender sender;
+    private final Function<String, String> groupAddressProvider;
+    private final ScheduledExecutorService scheduler;
+
+    private final LinkedList<Entry> queue = new LinkedList<>();
+    private Map<String, Set<String>> groupLights = Map.of();
+    private long minInterval = 1000 / DEFAULT_COMMAND_RATE;
+    private long nextSendTime;
+    private @Nullable ScheduledFuture<?> job;
+    private boolean stopped;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong mergedCount = new AtomicLong();
+    private final AtomicLong groupCommandCount = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong latencyCount = new AtomicLong();
+    private volatile long maxLatency;
+    private volatile long lastLatency;
+
+    /**
+     * @param sender sends the requests to the bridge
+     * @param groupAddressProvider returns the address of the action of the group with the given id
+     * @param scheduler scheduler to send the requests
+     */
+    public HueCommandQueue(Sender sender, Function<String, String> groupAddressProvider,
+            ScheduledExecutorService scheduler) {
+        this.sender = sender;
+        this.groupAddressProvider = groupAddressProvider;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the maximum number of commands sent to the bridge per second.
+     *
+     * @param commandRate commands per second
+     */
+    public synchronized void setCommandRate(int commandRate) {
+        minInterval = 1000 / Math.max(1, commandRate);
+    }
+
+    /**
+     * Sets the groups known to the bridge, used to replace equal light updates by a group command.
+     *
+     * @param groups the groups of the bridge
+     */
+    public synchronized void setGroups(Collection<FullGroup> groups) {
+        Map<String, Set<String>> lights = new HashMap<>();
+        for (FullGroup group : groups) {
+            if (group.getLightIds().size() >= MIN_LIGHTS_FOR_GROUP_COMMAND) {
+                lights.put(group.getId(), new HashSet<>(group.getLightIds()));
+            }
+        }
+        groupLights = lights;
+    }
+
+    /**
+     * Queues a state update for a light.
+     *
+     * @param lightId id of the light
+     * @param address address of the state of the light
+     * @param update the state update
+     * @return the result of the request which has sent the update
+     */
+    public CompletableFuture<Result> enqueueLightUpdate(String lightId, String address, StateUpdate update) {
+        return enqueue(lightId, address, update);
+    }
+
+    /**
+     * Queues a state update for a group.
+     *
+     * @param address address of the action of the group
+     * @param update the state update
+     * @return the result of the request which has sent the update
+     */
+    public CompletableFuture<Result> enqueueGroupUpdate(String address, StateUpdate update) {
+        return enqueue(null, address, update);
+    }
+
+    /**
+     * Queues a state or config update for a sensor. Sensor updates are never merged.
+     *
+     * @param address address of the state or config of the sensor
+     * @param update the update
+     * @return the result of the request which has sent the update
+     */
+    public CompletableFuture<Result> enqueueSensorUpdate(String address, ConfigUpdate update) {
+        return enqueue(null, address, update, false);
+    }
+
+    private CompletableFuture<Result> enqueue(@Nullable String lightId, String address, StateUpdate update) {
+        return enqueue(lightId, address, update, true);
+    }
+
+    private synchronized CompletableFuture<Result> enqueue(@Nullable String lightId, String address,
+            ConfigUpdate update, boolean allowMerge) {
+        Map<String, Object> commands = new LinkedHashMap<>();
+        update.commands.forEach(command -> commands.put(command.key, command.value));
+        boolean mergeable = allowMerge && MERGEABLE_COMMANDS.containsAll(commands.keySet());
+
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        if (stopped) {
+            future.completeExceptionally(new IOException("The command queue has been stopped"));
+            return future;
+        }
+        Entry pending = mergeable ? findPendingEntry(address) : null;
+        if (pending != null) {
+            pending.merge(commands);
+            pending.futures.add(future);
+            mergedCount.incrementAndGet();
+            logger.trace("Merged state update for {} into pending update {}", address, pending.getBody());
+        } else {
+            queue.add(new Entry(lightId, address, commands, mergeable, future));
+        }
+
+        ScheduledFuture<?> localJob = job;
+        if (localJob == null || localJob.isDone()) {
+            job = scheduler.schedule(this::sendNext, Math.max(0, nextSendTime - System.currentTimeMillis()),
+                    TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private @Nullable Entry findPendingEntry(String address) {
+        for (Iterator<Entry> it = queue.descendingIterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.address.equals(address)) {
+                return entry.mergeable ? entry : null;
+            }
+        }
+        return null;
+    }
+
+    private void sendNext() {
+        List<Entry> entries;
+        String address;
+        String body;
+        long interval;
+        synchronized (this) {
+            Entry head = queue.poll();
+            if (head == null) {
+                return;
+            }
+            entries = new ArrayList<>();
+            entries.add(head);
+            body = head.getBody();
+            address = head.address;
+            interval = Math.max(minInterval, head.commands.size() * 40L);
+
+            String headLightId = head.lightId;
+            Map<String, Entry> equalEntries = headLightId != null && head.mergeable
+                    ? findEqualFirstEntries(headLightId, body)
+                    : Map.of();
+            String groupId = headLightId != null ? findGroupForEqualUpdates(headLightId, equalEntries.keySet()) : null;
+            if (groupId != null) {
+                for (String lightId : groupLights.getOrDefault(groupId, Set.of())) {
+                    Entry entry = equalEntries.get(lightId);
+                    if (entry != null) {
+                        entries.add(entry);
+                        queue.remove(entry);
+                    }
+                }
+                address = groupAddressProvider.apply(groupId);
+                interval = Math.max(interval, GROUP_COMMAND_INTERVAL);
+                groupCommandCount.incrementAndGet();
+                logger.debug("Sending state {} of {} lights as command to group {}", body, entries.size(), groupId);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (Entry entry : entries) {
+            long latency = now - entry.enqueued;
+            totalLatency.addAndGet(latency);
+            latencyCount.incrementAndGet();
+            lastLatency = latency;
+            if (latency > maxLatency) {
+                maxLatency = latency;
+            }
+        }
+        sentCount.incrementAndGet();
+
+        try {
+            logger.debug("Sending put to address: {} body: {}", address, body);
+            Result result = sender.put(address, body);
+            entries.forEach(entry -> entry.futures.forEach(future -> future.complete(result)));
+        } catch (IOException | RuntimeException e) {
+            entries.forEach(entry -> entry.futures.forEach(future -> future.completeExceptionally(e)));
+        }
+
+        synchronized (this) {
+            nextSendTime = System.currentTimeMillis() + interval;
+            job = queue.isEmpty() || stopped ? null
+                    : scheduler.schedule(this::sendNext, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops sending the queued updates, e.g. when the bridge handler is disposed. The futures of the updates still
+     * waiting in the queue are completed exceptionally, later updates are rejected.
+     */
+    public void stop() {
+        List<Entry> pending;
+        synchronized (this) {
+            stopped = true;
+            ScheduledFuture<?> localJob = job;
+            if (localJob != null) {
+                localJob.cancel(false);
+                job = null;
+            }
+            pending = new ArrayList<>(queue);
+            queue.clear();
+        }
+        IOException e = new IOException("The command queue has been stopped");
+        pending.forEach(entry -> entry.futures.forEach(future -> future.completeExceptionally(e)));
+        logger.debug("Stopped command queue, {} pending updates discarded", pending.size());
+    }
+
+    /**
+     * Returns the first queued entries of the lights which are waiting for the given state. A light is skipped if its
+     * first queued entry has another state, sending a later entry of the light first would reorder its commands. The
+     * search ends at the first group update, which may change the state of any light.
+     */
+    private Map<String, Entry> findEqualFirstEntries(String headLightId, String body) {
+        Map<String, Entry> equalEntries = new HashMap<>();
+        Set<String> seenLightIds = new HashSet<>();
+        seenLightIds.add(headLightId);
+        for (Entry entry : queue) {
+            String entryLightId = entry.lightId;
+            if (entryLightId == null) {
+                break;
+            }
+            if (seenLightIds.add(entryLightId) && entry.mergeable && body.equals(entry.getBody())) {
+                equalEntries.put(entryLightId, entry);
+            }
+        }
+        return equalEntries;
+    }
+
+    /**
+     * Returns the largest group whose lights are all waiting for the same state as the given light.
+     */
+    private @Nullable String findGroupForEqualUpdates(String lightId, Set<String> equalLightIds) {
+        if (equalLightIds.size() + 1 < MIN_LIGHTS_FOR_GROUP_COMMAND) {
+            return null;
+        }
+        Set<String> lightIds = new HashSet<>(equalLightIds);
+        lightIds.add(lightId);
+
+        String bestGroupId = null;
+        int bestSize = 0;
+        for (Map.Entry<String, Set<String>> group : groupLights.entrySet()) {
+            Set<String> lights = group.getValue();
+            if (lights.size() > bestSize && lights.contains(lightId) && lightIds.containsAll(lights)) {
+                bestGroupId = group.getKey();
+                bestSize = lights.size();
+            }
+        }
+        return bestGroupId;
+    }
+
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getMergedCount() {
+        return mergedCount.get();
+    }
+
+    public long getGroupCommandCount() {
+        return groupCommandCount.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds the updates have been waiting in the queue.
+     */
+    public long getAverageLatency() {
+        long count = latencyCount.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    public long getLastLatency() {
+        return lastLatency;
+    }
+
+    private static class Entry {
+        private final @Nullable String lightId;
+        private final String address;
+        private final Map<String, Object> commands;
+        private final boolean mergeable;
+        private final List<CompletableFuture<Result>> futures = new ArrayList<>();
+        private final long enqueued = System.currentTimeMillis();
+        private @Nullable String body;
+
+        Entry(@Nullable String lightId, String address, Map<String, Object> commands, boolean mergeable,
+                CompletableFuture<Result> future) {
+            this.lightId = lightId;
+            this.address = address;
+            this.commands = commands;
+            this.mergeable = mergeable;
+            futures.add(future);
+        }
+
+        void merge(Map<String, Object> newCommands) {
+            // a new color replaces the color of the other color modes, the bridge would prefer xy over ct over hs
+            for (Set<String> colorMode : COLOR_MODES) {
+                if (colorMode.stream().anyMatch(newCommands::containsKey)) {
+                    COLOR_MODES.stream().filter(mode -> mode != colorMode)
+                            .forEach(mode -> commands.keySet().removeAll(mode));
+                }
+            }
+            commands.putAll(newCommands);
+            body = null;
+        }
+
+        String getBody() {
+            String localBody = body;
+            if (localBody == null) {
+                localBody = commands.entrySet().stream().map(e -> new Command(e.getKey(), e.getValue()).toJson())
+                        .collect(joining(",", "{", "}"));
+                body = localBody;
+            }
+            return localBody;
+        }
+    }
+}
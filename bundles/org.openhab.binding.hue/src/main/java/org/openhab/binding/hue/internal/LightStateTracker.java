@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Remembers the raw JSON of every light returned by <code>GET /lights</code>, so only the lights whose JSON has changed
+ * since the last poll have to be deserialized and dispatched. A light is only remembered after its update has been
+ * accepted, a rejected update is therefore detected as change again on the next poll.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class LightStateTracker {
+
+    private final Map<String, JsonElement> knownStates = new HashMap<>();
+    private @Nullable String lastPayload;
+
+    private final AtomicLong pollCount = new AtomicLong();
+    private final AtomicLong totalPayloadBytes = new AtomicLong();
+    private final AtomicLong totalDispatchedUpdates = new AtomicLong();
+    private volatile int lastPayloadBytes;
+    private volatile int lastLightCount;
+    private volatile int lastDispatchedUpdates;
+
+    /**
+     * Compares the given <code>GET /lights</code> response with the known light states.
+     *
+     * @param payload the response body
+     * @param payloadBytes the size of the response in bytes
+     * @param gson the Gson instance used to deserialize the changed lights
+     * @return the changed lights and the ids of all lights in the response
+     * @throws JsonParseException if the payload is no valid light list
+     */
+    public synchronized Changes diff(String payload, int payloadBytes, Gson gson) throws JsonParseException {
+        pollCount.incrementAndGet();
+        totalPayloadBytes.addAndGet(payloadBytes);
+        lastPayloadBytes = payloadBytes;
+
+        if (payload.equals(lastPayload)) {
+            // nothing changed at all, no need to parse the payload
+            lastDispatchedUpdates = 0;
+            return new Changes(payload, new HashSet<>(knownStates.keySet()), Collections.emptyMap(),
+                    Collections.emptyList());
+        }
+
+        JsonElement root = new JsonParser().parse(payload);
+        if (!root.isJsonObject()) {
+            throw new JsonParseException("Expected a JSON object but was " + root);
+        }
+        JsonObject lights = root.getAsJsonObject();
+
+        Set<String> lightIds = new HashSet<>();
+        Map<String, JsonElement> changedStates = new HashMap<>();
+        List<FullLight> changedLights = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> entry : lights.entrySet()) {
+            String lightId = entry.getKey();
+            JsonElement state = entry.getValue();
+            lightIds.add(lightId);
+
+            if (state.equals(knownStates.get(lightId))) {
+                continue;
+            }
+            FullLight light = gson.fromJson(state, FullLight.class);
+            if (light != null) {
+                light.setId(lightId);
+                changedStates.put(lightId, state);
+                changedLights.add(light);
+            }
+        }
+        knownStates.keySet().retainAll(lightIds);
+
+        lastLightCount = lightIds.size();
+        lastDispatchedUpdates = changedLights.size();
+        totalDispatchedUpdates.addAndGet(changedLights.size());
+        return new Changes(payload, lightIds, changedStates, changedLights);
+    }
+
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    public long getTotalPayloadBytes() {
+        return totalPayloadBytes.get();
+    }
+
+    public long getTotalDispatchedUpdates() {
+        return totalDispatchedUpdates.get();
+    }
+
+    public int getLastPayloadBytes() {
+        return lastPayloadBytes;
+    }
+
+    public int getLastLightCount() {
+        return lastLightCount;
+    }
+
+    public int getLastDispatchedUpdates() {
+        return lastDispatchedUpdates;
+    }
+
+    private synchronized void accept(String lightId, @Nullable JsonElement state) {
+        if (state != null) {
+            knownStates.put(lightId, state);
+        }
+    }
+
+    private synchronized void complete(String payload, boolean allAccepted) {
+        lastPayload = allAccepted ? payload : null;
+    }
+
+    /**
+     * The result of a poll. Every changed light has to be either accepted or left alone, {@link #complete()} must be
+     * called after all lights have been handled.
+     */
+    public class Changes {
+        private final String payload;
+        private final Set<String> lightIds;
+        private final Map<String, JsonElement> changedStates;
+        private final List<FullLight> changedLights;
+        private int acceptedCount;
+
+        private Changes(String payload, Set<String> lightIds, Map<String, JsonElement> changedStates,
+                List<FullLight> changedLights) {
+            this.payload = payload;
+            this.lightIds = lightIds;
+            this.changedStates = changedStates;
+            this.changedLights = changedLights;
+        }
+
+        /**
+         * Returns the ids of all lights known to the bridge.
+         */
+        public Set<String> getLightIds() {
+            return lightIds;
+        }
+
+        /**
+         * Returns the lights whose state has changed since the last accepted update.
+         */
+        public List<FullLight> getChangedLights() {
+            return changedLights;
+        }
+
+        /**
+         * Marks the update of the given light as handled, the light is not dispatched again until its state changes.
+         */
+        public void accept(FullLight light) {
+            String lightId = light.getId();
+            LightStateTracker.this.accept(lightId, changedStates.get(lightId));
+            acceptedCount++;
+        }
+
+        /**
+         * Finishes the poll.
+         */
+        public void complete() {
+            LightStateTracker.this.complete(payload, acceptedCount == changedLights.size());
+        }
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.binding.hue.internal.config;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.hue.internal.HueCommandQueue;
 import org.openhab.binding.hue.internal.handler.HueBridgeHandler;
 
 /**
@@ -32,6 +33,8 @@ public class HueBridgeConfig {
     private @Nullable String userName;
     private int pollingInterval = 10;
     private int sensorPollingInterval = 500;
+    private boolean differentialPolling = true;
+    private int commandRate = HueCommandQueue.DEFAULT_COMMAND_RATE;
 
     public @Nullable String getIpAddress() {
         return ipAddress;
@@ -81,4 +84,20 @@ public class HueBridgeConfig {
     public void setSensorPollingInterval(int sensorPollingInterval) {
         this.sensorPollingInterval = sensorPollingInterval;
     }
+
+    public boolean isDifferentialPolling() {
+        return differentialPolling;
+    }
+
+    public void setDifferentialPolling(boolean differentialPolling) {
+        this.differentialPolling = differentialPolling;
+    }
+
+    public int getCommandRate() {
+        return commandRate;
+    }
+
+    public void setCommandRate(int commandRate) {
+        this.commandRate = commandRate;
+    }
 }
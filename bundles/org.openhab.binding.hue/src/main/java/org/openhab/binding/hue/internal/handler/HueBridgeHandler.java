@@ -41,7 +41,9 @@ import org.openhab.binding.hue.internal.FullGroup;
 import org.openhab.binding.hue.internal.FullLight;
 import org.openhab.binding.hue.internal.FullSensor;
 import org.openhab.binding.hue.internal.HueBridge;
+import org.openhab.binding.hue.internal.HueCommandQueue;
 import org.openhab.binding.hue.internal.HueConfigStatusMessage;
+import org.openhab.binding.hue.internal.LightStateTracker;
 import org.openhab.binding.hue.internal.Scene;
 import org.openhab.binding.hue.internal.State;
 import org.openhab.binding.hue.internal.StateUpdate;
@@ -233,35 +235,37 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         private void updateLights() throws IOException, ApiException {
             Map<String, FullLight> lastLightStateCopy = new HashMap<>(lastLightStates);
 
-            List<FullLight> lights;
-            if (ApiVersionUtils.supportsFullLights(hueBridge.getVersion())) {
-                lights = hueBridge.getFullLights();
-            } else {
-                lights = hueBridge.getFullConfig().getLights();
-            }
-
-            final HueDeviceDiscoveryService discovery = discoveryService;
-
-            for (final FullLight fullLight : lights) {
-                final String lightId = fullLight.getId();
-
-                final LightStatusListener lightStatusListener = lightStatusListeners.get(lightId);
-                if (lightStatusListener == null) {
-                    logger.trace("Hue light '{}' added.", lightId);
-
-                    if (discovery != null && !lastLightStateCopy.containsKey(lightId)) {
-                        discovery.addLightDiscovery(fullLight);
+            final boolean supportsFullLights = ApiVersionUtils.supportsFullLights(hueBridge.getVersion());
+            if (supportsFullLights && hueBridgeConfig.isDifferentialPolling()) {
+                // Only the lights whose JSON has changed are dispatched, all others are left untouched
+                LightStateTracker.Changes changes = hueBridge.getChangedFullLights();
+                for (final FullLight fullLight : changes.getChangedLights()) {
+                    if (updateLight(fullLight, lastLightStateCopy)) {
+                        changes.accept(fullLight);
                     }
+                }
+                changes.complete();
+                lastLightStateCopy.keySet().removeAll(changes.getLightIds());
 
-                    lastLightStates.put(lightId, fullLight);
+                LightStateTracker tracker = hueBridge.getLightStateTracker();
+                logger.trace("Polled {} lights ({} bytes), dispatched {} changed lights.", tracker.getLastLightCount(),
+                        tracker.getLastPayloadBytes(), tracker.getLastDispatchedUpdates());
+            } else {
+                List<FullLight> lights;
+                if (supportsFullLights) {
+                    lights = hueBridge.getFullLights();
                 } else {
-                    if (lightStatusListener.onLightStateChanged(fullLight)) {
-                        lastLightStates.put(lightId, fullLight);
-                    }
+                    lights = hueBridge.getFullConfig().getLights();
+                }
+
+                for (final FullLight fullLight : lights) {
+                    updateLight(fullLight, lastLightStateCopy);
+                    lastLightStateCopy.remove(fullLight.getId());
                 }
-                lastLightStateCopy.remove(lightId);
             }
 
+            final HueDeviceDiscoveryService discovery = discoveryService;
+
             // Check for removed lights
             lastLightStateCopy.forEach((lightId, light) -> {
                 logger.trace("Hue light '{}' removed.", lightId);
@@ -278,6 +282,32 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             });
         }
 
+        /**
+         * Dispatches the light to its listener or to the discovery service.
+         *
+         * @return true if the light state has been taken over
+         */
+        private boolean updateLight(FullLight fullLight, Map<String, FullLight> lastLightStateCopy) {
+            final String lightId = fullLight.getId();
+
+            final LightStatusListener lightStatusListener = lightStatusListeners.get(lightId);
+            if (lightStatusListener == null) {
+                logger.trace("Hue light '{}' added.", lightId);
+
+                final HueDeviceDiscoveryService discovery = discoveryService;
+                if (discovery != null && !lastLightStateCopy.containsKey(lightId)) {
+                    discovery.addLightDiscovery(fullLight);
+                }
+
+                lastLightStates.put(lightId, fullLight);
+                return true;
+            } else if (lightStatusListener.onLightStateChanged(fullLight)) {
+                lastLightStates.put(lightId, fullLight);
+                return true;
+            }
+            return false;
+        }
+
         private void updateGroups() throws IOException, ApiException {
             Map<String, FullGroup> lastGroupStateCopy = new HashMap<>(lastGroupStates);
 
@@ -669,6 +699,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         stopSensorPolling();
         stopScenePolling();
         if (hueBridge != null) {
+            hueBridge.dispose();
             hueBridge = null;
         }
     }
@@ -686,6 +717,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             if (hueBridge == null) {
                 hueBridge = new HueBridge(ip, hueBridgeConfig.getPort(), hueBridgeConfig.getProtocol(), scheduler);
                 hueBridge.setTimeout(5000);
+                hueBridge.setCommandRate(hueBridgeConfig.getCommandRate());
 
                 // Try a first connection that will fail, then try to authenticate,
                 // and finally change the bridge status to ONLINE
@@ -1028,6 +1060,28 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         return consoleScenesList;
     }
 
+    public List<String> listStatisticsForConsole() {
+        final HueBridge bridge = hueBridge;
+        if (bridge == null) {
+            return List.of();
+        }
+        final LightStateTracker tracker = bridge.getLightStateTracker();
+        final long pollCount = Math.max(tracker.getPollCount(), 1);
+        final HueCommandQueue queue = bridge.getCommandQueue();
+        return List.of("Differential polling: " + (hueBridgeConfig.isDifferentialPolling() ? "enabled" : "disabled"),
+                "Light polls: " + tracker.getPollCount(),
+                String.format("Last poll: %d lights, %d bytes, %d dispatched updates", tracker.getLastLightCount(),
+                        tracker.getLastPayloadBytes(), tracker.getLastDispatchedUpdates()),
+                String.format("Average per poll: %d bytes, %.2f dispatched updates",
+                        tracker.getTotalPayloadBytes() / pollCount,
+                        (double) tracker.getTotalDispatchedUpdates() / pollCount),
+                String.format("Command queue: %d waiting, %d sent, %d merged, %d sent as group command",
+                        queue.getQueueLength(), queue.getSentCount(), queue.getMergedCount(),
+                        queue.getGroupCommandCount()),
+                String.format("Command queue latency: last %d ms, average %d ms, max %d ms", queue.getLastLatency(),
+                        queue.getAverageLatency(), queue.getMaxLatency()));
+    }
+
     @Override
     public Collection<ConfigStatusMessage> getConfigStatus() {
         // The bridge IP address to be used for checks
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
@@ -68,6 +69,63 @@ public class HueBridgeTest {
         assertThat(scenes.get(2).getId(), is("id2"));
     }
 
+    @Test
+    public void testGetChangedFullLightsDispatchesOnlyChangedLights() throws IOException, ApiException {
+        HttpClient mockHttpClient = Mockito.mock(HttpClient.class);
+
+        HueBridge hueBridge = new HueBridge("ip", "baseUrl", "username", Executors.newScheduledThreadPool(1),
+                mockHttpClient);
+
+        String initial = "{" + createMockLightJson("1", true, 100) + "," + createMockLightJson("2", false, 50) + "}";
+        String changed = "{" + createMockLightJson("1", true, 100) + "," + createMockLightJson("2", true, 50) + "}";
+        String removed = "{" + createMockLightJson("2", true, 50) + "}";
+        when(mockHttpClient.get("baseUrl/username/lights")).thenReturn(new Result(initial, 200),
+                new Result(initial, 200), new Result(changed, 200), new Result(changed, 200), new Result(removed, 200));
+
+        // first poll dispatches all lights, the update of light 2 is rejected
+        LightStateTracker.Changes changes = hueBridge.getChangedFullLights();
+        assertThat(changes.getChangedLights().size(), is(2));
+        changes.getChangedLights().stream().filter(light -> "1".equals(light.getId())).forEach(changes::accept);
+        changes.complete();
+
+        // unchanged payload, but the rejected light is dispatched again
+        changes = hueBridge.getChangedFullLights();
+        assertThat(changes.getChangedLights().size(), is(1));
+        assertThat(changes.getChangedLights().get(0).getId(), is("2"));
+        changes.getChangedLights().forEach(changes::accept);
+        changes.complete();
+
+        // light 2 has been switched on
+        changes = hueBridge.getChangedFullLights();
+        assertThat(changes.getChangedLights().size(), is(1));
+        assertThat(changes.getChangedLights().get(0).getState().isOn(), is(true));
+        changes.getChangedLights().forEach(changes::accept);
+        changes.complete();
+
+        // nothing changed at all
+        changes = hueBridge.getChangedFullLights();
+        assertThat(changes.getChangedLights().isEmpty(), is(true));
+        assertThat(changes.getLightIds(), is(Set.of("1", "2")));
+        changes.complete();
+
+        // light 1 has been removed
+        changes = hueBridge.getChangedFullLights();
+        assertThat(changes.getChangedLights().isEmpty(), is(true));
+        assertThat(changes.getLightIds(), is(Set.of("2")));
+        changes.complete();
+
+        LightStateTracker tracker = hueBridge.getLightStateTracker();
+        assertThat(tracker.getPollCount(), is(5L));
+        assertThat(tracker.getTotalDispatchedUpdates(), is(4L));
+        assertThat(tracker.getLastPayloadBytes(), is(removed.length()));
+    }
+
+    private static String createMockLightJson(String id, boolean on, int bri) {
+        return String.format("\"%s\": {\"state\": {\"on\": %s, \"bri\": %d, \"reachable\": true}, "
+                + "\"type\": \"Dimmable light\", \"name\": \"Light %s\", \"modelid\": \"LWB006\", "
+                + "\"swversion\": \"5.38.1.14378\"}", id, on, bri, id);
+    }
+
     private static String createMockResponse(List<Scene> scenes) {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("{");
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.openhab.binding.hue.internal.State.AlertMode;
+
+/**
+ * Tests for {@link HueCommandQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HueCommandQueueTest {
+
+    private final List<String> requests = new ArrayList<>();
+    private final LinkedList<Runnable> scheduledTasks = new LinkedList<>();
+    private final List<ScheduledFuture<?>> scheduledFutures = new ArrayList<>();
+    private @NonNullByDefault({}) HueCommandQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            scheduledFutures.add(future);
+            return future;
+        });
+        queue = new HueCommandQueue((address, body) -> {
+            requests.add(address + " " + body);
+            return new Result("[]", 200);
+        }, groupId -> "groups/" + groupId + "/action", scheduler);
+    }
+
+    @Test
+    public void testPendingLightUpdatesAreMerged() {
+        CompletableFuture<Result> first = queue.enqueueLightUpdate("1", "lights/1/state",
+                new StateUpdate().setOn(true).setBrightness(10));
+        CompletableFuture<Result> second = queue.enqueueLightUpdate("1", "lights/1/state",
+                new StateUpdate().setBrightness(20).setHue(1000).setSat(100));
+        CompletableFuture<Result> third = queue.enqueueLightUpdate("1", "lights/1/state",
+                new StateUpdate().setXY(0.5f, 0.4f));
+        runScheduledTasks();
+
+        assertThat(requests.size(), is(1));
+        assertThat(requests.get(0), is("lights/1/state {\"on\":true,\"bri\":20,\"xy\":[0.5,0.4]}"));
+        assertThat(first.isDone() && second.isDone() && third.isDone(), is(true));
+        assertThat(queue.getMergedCount(), is(2L));
+    }
+
+    @Test
+    public void testAlertIsNotMerged() {
+        queue.enqueueLightUpdate("1", "lights/1/state", new StateUpdate().setBrightness(10));
+        queue.enqueueLightUpdate("1", "lights/1/state", new StateUpdate().setAlert(AlertMode.SELECT));
+        queue.enqueueLightUpdate("1", "lights/1/state", new StateUpdate().setAlert(AlertMode.SELECT));
+        runScheduledTasks();
+
+        assertThat(requests.size(), is(3));
+        assertThat(queue.getMergedCount(), is(0L));
+    }
+
+    @Test
+    public void testEqualLightUpdatesAreSentAsGroupCommand() {
+        queue.setGroups(List.of(createGroup("1", "1", "2", "3"), createGroup("2", "1", "2", "3", "4")));
+
+        queue.enqueueLightUpdate("1", "lights/1/state", new StateUpdate().setOn(false));
+        queue.enqueueLightUpdate("5", "lights/5/state", new StateUpdate().setOn(true));
+        queue.enqueueLightUpdate("2", "lights/2/state", new StateUpdate().setOn(false));
+        CompletableFuture<Result> third = queue.enqueueLightUpdate("3", "lights/3/state",
+                new StateUpdate().setOn(false));
+        runScheduledTasks();
+
+        // light 4 did not get the update, group 2 must not be used
+        assertThat(requests.size(), is(2));
+        assertThat(requests.get(0), is("groups/1/action {\"on\":false}"));
+        assertThat(requests.get(1), is("lights/5/state {\"on\":true}"));
+        assertThat(third.isDone(), is(true));
+        assertThat(queue.getGroupCommandCount(), is(1L));
+    }
+
+    @Test
+    public void testGroupCommandKeepsOrderOfLightUpdates() {
+        queue.setGroups(List.of(createGroup("1", "1", "2", "3")));
+
+        queue.enqueueLightUpdate("1", "lights/1/state", new StateUpdate().setOn(false));
+        queue.enqueueLightUpdate("2", "lights/2/state", new StateUpdate().setAlert(AlertMode.SELECT));
+        queue.enqueueLightUpdate("2", "lights/2/state", new StateUpdate().setOn(false));
+        queue.enqueueLightUpdate("3", "lights/3/state", new StateUpdate().setOn(false));
+        runScheduledTasks();
+
+        // the alert of light 2 is queued before its update, no group command must be sent ahead of it
+        assertThat(requests.size(), is(4));
+        assertThat(requests.get(0), is("lights/1/state {\"on\":false}"));
+        assertThat(requests.get(1), is("lights/2/state {\"alert\":\"select\"}"));
+        assertThat(queue.getGroupCommandCount(), is(0L));
+    }
+
+    @Test
+    public void testSensorUpdatesAreQueuedWithoutMerging() {
+        SensorConfigUpdate update = new SensorConfigUpdate();
+        update.setOn(true);
+        queue.enqueueLightUpdate("1", "lights/1/state", new StateUpdate().setOn(true));
+        CompletableFuture<Result> first = queue.enqueueSensorUpdate("sensors/1/config", update);
+        CompletableFuture<Result> second = queue.enqueueSensorUpdate("sensors/1/config", update);
+        runScheduledTasks();
+
+        assertThat(requests.size(), is(3));
+        assertThat(requests.get(1), is("sensors/1/config {\"on\":true}"));
+        assertThat(first.isDone() && second.isDone(), is(true));
+        assertThat(queue.getMergedCount(), is(0L));
+    }
+
+    @Test
+    public void testStopFailsPendingUpdates() {
+        CompletableFuture<Result> first = queue.enqueueLightUpdate("1", "lights/1/state",
+                new StateUpdate().setOn(true));
+        queue.stop();
+        CompletableFuture<Result> second = queue.enqueueLightUpdate("2", "lights/2/state",
+                new StateUpdate().setOn(true));
+        runScheduledTasks();
+
+        assertThat(requests.isEmpty(), is(true));
+        assertThat(first.isCompletedExceptionally(), is(true));
+        assertThat(second.isCompletedExceptionally(), is(true));
+        assertThat(queue.getQueueLength(), is(0));
+        verify(scheduledFutures.get(0)).cancel(false);
+    }
+
+    private void runScheduledTasks() {
+        Runnable task;
+        while ((task = scheduledTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static FullGroup createGroup(String id, String... lightIds) {
+        return new FullGroup(id, "Group " + id, "LightGroup", new State(), List.of(lightIds), new State());
+    }
+}
@@ -440,6 +440,10 @@ public class InsteonBinding {
                 Poller.instance().getSizeOfQueue(), messagesReceived);
         logger.debug("{}", msg);
         messagesReceived = 0;
+        RequestQueueManager requestQueueManager = RequestQueueManager.instance();
+        if (requestQueueManager != null) {
+            logger.debug("request queues: {}", requestQueueManager.getStatistics());
+        }
         for (InsteonDevice dev : devices.values()) {
             if (dev.isModem()) {
                 continue;
@@ -26,6 +26,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.insteon.internal.config.InsteonChannelConfiguration;
 import org.openhab.binding.insteon.internal.device.DeviceType.FeatureGroup;
 import org.openhab.binding.insteon.internal.device.GroupMessageStateMachine.GroupMessage;
+import org.openhab.binding.insteon.internal.device.RequestQueueManager.Priority;
 import org.openhab.binding.insteon.internal.driver.Driver;
 import org.openhab.binding.insteon.internal.message.FieldException;
 import org.openhab.binding.insteon.internal.message.InvalidMessageTypeException;
@@ -248,11 +249,23 @@ public class InsteonDevice {
     /**
      * Execute poll on this device: create an array of messages,
      * add them to the request queue, and schedule the queue
-     * for processing.
+     * for processing. The poll is meant to refresh the status
+     * after some change, use doPoll(delay, Priority.POLL) for the
+     * periodic polling.
      *
      * @param delay scheduling delay (in milliseconds)
      */
     public void doPoll(long delay) {
+        doPoll(delay, Priority.STATUS);
+    }
+
+    /**
+     * Execute poll on this device with a given priority
+     *
+     * @param delay scheduling delay (in milliseconds)
+     * @param priority priority of the poll messages
+     */
+    public void doPoll(long delay, Priority priority) {
         long now = System.currentTimeMillis();
         List<QEntry> l = new ArrayList<>();
         synchronized (features) {
@@ -261,7 +274,7 @@ public class InsteonDevice {
                 if (i.hasListeners()) {
                     Msg m = i.makePollMsg();
                     if (m != null) {
-                        l.add(new QEntry(i, m, now + delay + spacing));
+                        l.add(new QEntry(i, m, now + delay + spacing, priority));
                         spacing += TIME_BETWEEN_POLL_MESSAGES;
                     }
                 }
@@ -277,7 +290,7 @@ public class InsteonDevice {
         }
         RequestQueueManager instance = RequestQueueManager.instance();
         if (instance != null) {
-            instance.addQueue(this, now + delay);
+            instance.addQueue(this, now + delay, priority);
         } else {
             logger.warn("request queue manager is null");
         }
@@ -358,10 +371,10 @@ public class InsteonDevice {
         } else {
             addr = getAddress();
         }
-        m.setAddress("toAddress", addr);
-        m.setByte("messageFlags", f);
-        m.setByte("command1", cmd1);
-        m.setByte("command2", cmd2);
+        m.setToAddress(addr);
+        m.setMessageFlags(f);
+        m.setCommand1(cmd1);
+        m.setCommand2(cmd2);
         return m;
     }
 
@@ -402,10 +415,10 @@ public class InsteonDevice {
     public Msg makeExtendedMessage(byte flags, byte cmd1, byte cmd2, byte[] data)
             throws FieldException, InvalidMessageTypeException {
         Msg m = Msg.makeMessage("SendExtendedMessage");
-        m.setAddress("toAddress", getAddress());
-        m.setByte("messageFlags", (byte) (((flags & 0xff) | 0x10) & 0xff));
-        m.setByte("command1", cmd1);
-        m.setByte("command2", cmd2);
+        m.setToAddress(getAddress());
+        m.setMessageFlags((byte) (((flags & 0xff) | 0x10) & 0xff));
+        m.setCommand1(cmd1);
+        m.setCommand2(cmd2);
         m.setUserData(data);
         m.setCRC();
         return m;
@@ -425,22 +438,56 @@ public class InsteonDevice {
     public Msg makeExtendedMessageCRC2(byte flags, byte cmd1, byte cmd2, byte[] data)
             throws FieldException, InvalidMessageTypeException {
         Msg m = Msg.makeMessage("SendExtendedMessage");
-        m.setAddress("toAddress", getAddress());
-        m.setByte("messageFlags", (byte) (((flags & 0xff) | 0x10) & 0xff));
-        m.setByte("command1", cmd1);
-        m.setByte("command2", cmd2);
+        m.setToAddress(getAddress());
+        m.setMessageFlags((byte) (((flags & 0xff) | 0x10) & 0xff));
+        m.setCommand1(cmd1);
+        m.setCommand2(cmd2);
         m.setUserData(data);
         m.setCRC2();
         return m;
     }
 
+    /**
+     * Get the priority of the request queue: the highest priority of the
+     * requests that are due, or the priority of the next request if none is due.
+     *
+     * @param timeNow the current time
+     * @return the priority with which the queue should be processed
+     */
+    public Priority getRequestPriority(long timeNow) {
+        synchronized (mrequestQueue) {
+            QEntry qe = findNextEntry(timeNow);
+            return qe == null ? Priority.POLL : qe.getPriority();
+        }
+    }
+
+    /**
+     * Finds the request to send next: the due request with the highest priority,
+     * or the request that is due next if none is due yet.
+     *
+     * @param timeNow the current time
+     * @return the request, or null if the queue is empty
+     */
+    private @Nullable QEntry findNextEntry(long timeNow) {
+        QEntry next = mrequestQueue.peek();
+        for (QEntry qe : mrequestQueue) {
+            if (qe != null && next != null && qe.getExpirationTime() <= timeNow
+                    && (qe.getPriority().compareTo(next.getPriority()) < 0
+                            || (qe.getPriority() == next.getPriority() && qe.compareTo(next) < 0))) {
+                next = qe;
+            }
+        }
+        return next;
+    }
+
     /**
      * Called by the RequestQueueManager when the queue has expired
      *
+     * @param manager the request queue manager, to report the sent message to
      * @param timeNow
      * @return time when to schedule the next message (timeNow + quietTime)
      */
-    public long processRequestQueue(long timeNow) {
+    public long processRequestQueue(RequestQueueManager manager, long timeNow) {
         synchronized (mrequestQueue) {
             if (mrequestQueue.isEmpty()) {
                 return 0L;
@@ -458,10 +505,11 @@ public class InsteonDevice {
                     logger.debug("gave up waiting for query reply from device {}", address);
                 }
             }
-            QEntry qe = mrequestQueue.poll(); // take it off the queue!
+            QEntry qe = findNextEntry(timeNow);
             if (qe == null) {
                 return 0L;
             }
+            mrequestQueue.remove(qe); // take it off the queue!
             if (!qe.getMsg().isBroadcast()) {
                 logger.debug("qe taken off direct: {} {}", qe.getFeature(), qe.getMsg());
                 lastQueryTime = timeNow;
@@ -473,9 +521,10 @@ public class InsteonDevice {
                 logger.debug("qe taken off bcast: {} {}", qe.getFeature(), qe.getMsg());
             }
             long quietTime = qe.getMsg().getQuietTime();
-            qe.getMsg().setQuietTime(500L); // rate limiting downstream!
+            qe.getMsg().setQuietTime(0L); // rate limiting is done by the request queue manager
             try {
                 writeMessage(qe.getMsg());
+                manager.messageSent(qe.getPriority(), timeNow - qe.getExpirationTime());
             } catch (IOException e) {
                 logger.warn("message write failed for msg {}", qe.getMsg(), e);
             }
@@ -498,6 +547,17 @@ public class InsteonDevice {
         enqueueDelayedMessage(m, f, 0);
     }
 
+    /**
+     * Enqueues message with a given priority to be sent at the next possible time
+     *
+     * @param m message to be sent
+     * @param f device feature that sent this message (so we can associate the response message with it)
+     * @param priority priority of the message
+     */
+    public void enqueueMessage(Msg m, DeviceFeature f, Priority priority) {
+        enqueueDelayedMessage(m, f, 0, priority);
+    }
+
     /**
      * Enqueues message to be sent after a delay
      *
@@ -506,9 +566,21 @@ public class InsteonDevice {
      * @param d time (in milliseconds)to delay before enqueuing message
      */
     public void enqueueDelayedMessage(Msg m, DeviceFeature f, long delay) {
+        enqueueDelayedMessage(m, f, delay, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Enqueues message with a given priority to be sent after a delay
+     *
+     * @param m message to be sent
+     * @param f device feature that sent this message (so we can associate the response message with it)
+     * @param d time (in milliseconds)to delay before enqueuing message
+     * @param priority priority of the message
+     */
+    public void enqueueDelayedMessage(Msg m, DeviceFeature f, long delay, Priority priority) {
         long now = System.currentTimeMillis();
         synchronized (mrequestQueue) {
-            mrequestQueue.add(new QEntry(f, m, now + delay));
+            mrequestQueue.add(new QEntry(f, m, now + delay, priority));
         }
         if (!m.isBroadcast()) {
             m.setQuietTime(QUIET_TIME_DIRECT_MESSAGE);
@@ -516,7 +588,7 @@ public class InsteonDevice {
         logger.trace("enqueing direct message with delay {}", delay);
         RequestQueueManager instance = RequestQueueManager.instance();
         if (instance != null) {
-            instance.addQueue(this, now + delay);
+            instance.addQueue(this, now + delay, priority);
         } else {
             logger.warn("request queue manger instance is null");
         }
@@ -628,6 +700,7 @@ public class InsteonDevice {
         private DeviceFeature feature;
         private Msg msg;
         private long expirationTime;
+        private Priority priority;
 
         public DeviceFeature getFeature() {
             return feature;
@@ -641,15 +714,20 @@ public class InsteonDevice {
             return expirationTime;
         }
 
-        QEntry(DeviceFeature f, Msg m, long t) {
+        public Priority getPriority() {
+            return priority;
+        }
+
+        QEntry(DeviceFeature f, Msg m, long t, Priority p) {
             feature = f;
             msg = m;
             expirationTime = t;
+            priority = p;
         }
 
         @Override
         public int compareTo(QEntry a) {
-            return (int) (expirationTime - a.expirationTime);
+            return Long.compare(expirationTime, a.expirationTime);
         }
     }
 }
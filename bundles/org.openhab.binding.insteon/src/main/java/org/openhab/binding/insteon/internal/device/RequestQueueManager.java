@@ -12,7 +12,9 @@
  */
 package org.openhab.binding.insteon.internal.device;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
@@ -24,29 +26,56 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Class that manages all the per-device request queues using a single thread.
+ * Class that schedules all traffic of the Insteon network using a single thread.
  *
- * - Each device has its own request queue, and the RequestQueueManager keeps a
- * queue of queues.
- * - Each entry in m_requestQueues corresponds to a single device's request queue.
- * A device should never be more than once in m_requestQueues.
- * - A hash map (m_requestQueueHash) is kept in sync with m_requestQueues for
- * faster lookup in case a request queue is modified and needs to be
- * rescheduled.
+ * - Each device has its own request queue. The RequestQueueManager keeps the times at which
+ * the device request queues and other tasks (like the polling of the devices) are due, ordered by deadline.
+ * - Device request queues that are due are processed by priority class: interactive requests (commands from
+ * the user) are sent before status requests, and status requests before polls. So a command does not have to wait
+ * behind the poll traffic.
+ * - Only one message is handed to the modem per pacing interval. The pacing interval adapts to the modem: it is
+ * doubled whenever the modem does not acknowledge a message, and shortened by a quarter for every message it does
+ * acknowledge.
+ * - The time between the deadline of a request and the time it has actually been sent is recorded per priority.
  *
  * @author Bernd Pfrommer - Initial contribution
  * @author Rob Nielsen - Port to openHAB 2 insteon binding
  */
 @NonNullByDefault
 public class RequestQueueManager {
+    /**
+     * Priority classes of the requests, highest priority first
+     */
+    public enum Priority {
+        INTERACTIVE,
+        STATUS,
+        POLL
+    }
+
+    private static final long MIN_PACING_MSEC = 250L;
+    private static final long MAX_PACING_MSEC = 4000L;
+    private static final long INITIAL_PACING_MSEC = 500L;
+    private static final long PACING_RECOVERY_NUMERATOR = 3L;
+    private static final long PACING_RECOVERY_DENOMINATOR = 4L;
+
     private static @Nullable RequestQueueManager instance = null;
     private final Logger logger = LoggerFactory.getLogger(RequestQueueManager.class);
     private @Nullable Thread queueThread = null;
-    private Queue<RequestQueue> requestQueues = new PriorityQueue<>();
-    private Map<InsteonDevice, RequestQueue> requestQueueHash = new HashMap<>();
+    private Queue<Timer> timers = new PriorityQueue<>();
+    private Queue<DeviceQueue> readyQueues = new PriorityQueue<>();
+    private Map<InsteonDevice, DeviceQueue> deviceQueues = new HashMap<>();
+    private long timerCount = 0L;
+    private long pacing = INITIAL_PACING_MSEC;
+    private long nextDispatchTime = 0L;
+    private long acks = 0L;
+    private long nacks = 0L;
+    private LatencyStatistics[] latencies = new LatencyStatistics[Priority.values().length];
     private boolean keepRunning = true;
 
     private RequestQueueManager() {
+        for (Priority p : Priority.values()) {
+            latencies[p.ordinal()] = new LatencyStatistics();
+        }
         queueThread = new Thread(new RequestQueueReader());
         setParamsAndStart(queueThread);
     }
@@ -64,31 +93,114 @@ public class RequestQueueManager {
      *
      * @param dev the device to add
      * @param time the time when the queue should be processed
+     * @param priority the priority of the request that has been added to the device queue
      */
-    public void addQueue(InsteonDevice dev, long time) {
-        synchronized (requestQueues) {
-            RequestQueue q = requestQueueHash.get(dev);
+    public void addQueue(InsteonDevice dev, long time, Priority priority) {
+        synchronized (timers) {
+            DeviceQueue q = deviceQueues.get(dev);
             if (q == null) {
+                q = new DeviceQueue(dev);
+                deviceQueues.put(dev, q);
+            }
+            if (q.ready) {
+                // already due, but the new request may raise the priority of the queue
+                if (priority.compareTo(q.priority) < 0) {
+                    readyQueues.remove(q);
+                    q.priority = priority;
+                    readyQueues.add(q);
+                    timers.notify();
+                }
+                return;
+            }
+            if (q.scheduledTime == 0L || q.scheduledTime > time) {
                 logger.trace("scheduling request for device {} in {} msec", dev.getAddress(),
                         time - System.currentTimeMillis());
-                q = new RequestQueue(dev, time);
+                q.scheduledTime = time;
+                // an earlier timer of this queue becomes stale, it is skipped when it expires
+                timers.add(new Timer(time, timerCount++, q, null));
+                timers.notify();
             } else {
                 logger.trace("queue for dev {} is already scheduled in {} msec", dev.getAddress(),
-                        q.getExpirationTime() - System.currentTimeMillis());
-                if (!requestQueues.remove(q)) {
-                    logger.warn("queue for {} should be there, report as bug!", dev);
+                        q.scheduledTime - System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * Schedules a task, like the poll of a device. The task is run by the request queue thread.
+     * It must not block, and must not send messages directly, but add them to the request queue of the device.
+     *
+     * @param task the task to run
+     * @param time the time when the task should run
+     */
+    public void schedule(Runnable task, long time) {
+        synchronized (timers) {
+            timers.add(new Timer(time, timerCount++, null, task));
+            timers.notify();
+        }
+    }
+
+    /**
+     * Called by the device when it has sent a message from its request queue.
+     *
+     * @param priority the priority of the message
+     * @param latency the time (in milliseconds) the message has been sent after its deadline
+     */
+    void messageSent(Priority priority, long latency) {
+        synchronized (timers) {
+            latencies[priority.ordinal()].record(Math.max(0L, latency));
+            nextDispatchTime = System.currentTimeMillis() + pacing;
+        }
+    }
+
+    /**
+     * Called by the port for every reply of the modem to a message written to it.
+     *
+     * @param acked true if the modem acknowledged the message, false if it must be retransmitted
+     */
+    public void modemReplied(boolean acked) {
+        synchronized (timers) {
+            long oldPacing = pacing;
+            if (acked) {
+                acks++;
+                pacing = Math.max(MIN_PACING_MSEC, pacing * PACING_RECOVERY_NUMERATOR / PACING_RECOVERY_DENOMINATOR);
+                if (pacing != oldPacing) {
+                    logger.debug("modem acknowledged message, pacing changed from {} to {} msec", oldPacing, pacing);
                 }
-                requestQueueHash.remove(dev);
+            } else {
+                nacks++;
+                pacing = Math.min(MAX_PACING_MSEC, pacing * 2);
+                logger.debug("modem did not acknowledge message, pacing changed from {} to {} msec", oldPacing,
+                        pacing);
             }
-            long expTime = q.getExpirationTime();
-            if (expTime > time) {
-                q.setExpirationTime(time);
+        }
+    }
+
+    /**
+     * Get the current time between messages handed to the modem
+     *
+     * @return the pacing interval in milliseconds
+     */
+    public long getPacing() {
+        synchronized (timers) {
+            return pacing;
+        }
+    }
+
+    /**
+     * Get the statistics of the scheduler, for logging purposes
+     *
+     * @return the queue latency per priority, the modem replies and the pacing
+     */
+    public String getStatistics() {
+        synchronized (timers) {
+            StringBuilder buf = new StringBuilder();
+            for (Priority p : Priority.values()) {
+                buf.append(p.name().toLowerCase()).append(": ").append(latencies[p.ordinal()]).append(", ");
             }
-            // add the queue back in after (maybe) having modified
-            // the expiration time
-            requestQueues.add(q);
-            requestQueueHash.put(dev, q);
-            requestQueues.notify();
+            buf.append("ready queues: ").append(readyQueues.size()).append(", modem acks: ").append(acks)
+                    .append(", nacks: ").append(nacks).append(", pacing: ").append(pacing).append(" msec");
+            return buf.toString();
         }
     }
 
@@ -99,9 +211,9 @@ public class RequestQueueManager {
         logger.debug("stopping thread");
         Thread queueThread = this.queueThread;
         if (queueThread != null) {
-            synchronized (requestQueues) {
+            synchronized (timers) {
                 keepRunning = false;
-                requestQueues.notifyAll();
+                timers.notifyAll();
             }
             try {
                 logger.debug("waiting for thread to join");
@@ -118,80 +230,181 @@ public class RequestQueueManager {
         @Override
         public void run() {
             logger.debug("starting request queue thread");
-            synchronized (requestQueues) {
-                while (keepRunning) {
-                    try {
-                        RequestQueue q;
-                        while (keepRunning && (q = requestQueues.peek()) != null) {
-                            long now = System.currentTimeMillis();
-                            long expTime = q.getExpirationTime();
-                            InsteonDevice dev = q.getDevice();
-                            if (expTime > now) {
-                                //
-                                // The head of the queue is not up for processing yet, wait().
-                                //
-                                logger.trace("request queue head: {} must wait for {} msec", dev.getAddress(),
-                                        expTime - now);
-                                requestQueues.wait(expTime - now);
-                                //
-                                // note that the wait() can also return because of changes to
-                                // the queue, not just because the time expired!
-                                //
-                                continue;
+            List<Runnable> tasks = new ArrayList<>();
+            while (true) {
+                DeviceQueue q;
+                long now;
+                try {
+                    synchronized (timers) {
+                        while (true) {
+                            if (!keepRunning) {
+                                logger.debug("exiting request queue thread!");
+                                return;
+                            }
+                            now = System.currentTimeMillis();
+                            q = null;
+                            expireTimers(now, tasks);
+                            if (!tasks.isEmpty()) {
+                                break;
                             }
-                            //
-                            // The head of the queue has expired and can be processed!
-                            //
-                            q = requestQueues.poll(); // remove front element
-                            requestQueueHash.remove(dev); // and remove from hash map
-                            long nextExp = dev.processRequestQueue(now);
-                            if (nextExp > 0) {
-                                q = new RequestQueue(dev, nextExp);
-                                requestQueues.add(q);
-                                requestQueueHash.put(dev, q);
-                                logger.trace("device queue for {} rescheduled in {} msec", dev.getAddress(),
-                                        nextExp - now);
-                            } else {
-                                // remove from hash since queue is no longer scheduled
-                                logger.debug("device queue for {} is empty!", dev.getAddress());
+                            if (!readyQueues.isEmpty() && now >= nextDispatchTime) {
+                                q = readyQueues.poll();
+                                if (q != null) {
+                                    q.ready = false;
+                                    break;
+                                }
                             }
+                            waitForWork(now);
                         }
-                        logger.trace("waiting for request queues to fill");
-                        requestQueues.wait();
-                    } catch (InterruptedException e) {
-                        logger.warn("request queue thread got interrupted, breaking..", e);
-                        break;
                     }
+                } catch (InterruptedException e) {
+                    logger.warn("request queue thread got interrupted, breaking..", e);
+                    break;
+                }
+                // the tasks and the devices take their own locks, don't hold ours
+                for (Runnable task : tasks) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        logger.warn("scheduled task failed", e);
+                    }
+                }
+                tasks.clear();
+                if (q != null) {
+                    processQueue(q, now);
                 }
             }
             logger.debug("exiting request queue thread!");
         }
+
+        /**
+         * Moves all device queues whose time has come to the ready queues, and collects all tasks that are due.
+         */
+        private void expireTimers(long now, List<Runnable> tasks) {
+            Timer t;
+            while ((t = timers.peek()) != null && t.time <= now) {
+                timers.poll();
+                Runnable task = t.task;
+                DeviceQueue q = t.queue;
+                if (task != null) {
+                    tasks.add(task);
+                } else if (q != null && !q.ready && q.scheduledTime == t.time) {
+                    q.scheduledTime = 0L;
+                    q.ready = true;
+                    q.readyTime = t.time;
+                    q.priority = q.device.getRequestPriority(now);
+                    readyQueues.add(q);
+                }
+            }
+        }
+
+        private void waitForWork(long now) throws InterruptedException {
+            long wakeUp = Long.MAX_VALUE;
+            Timer t = timers.peek();
+            if (t != null) {
+                wakeUp = t.time;
+            }
+            if (!readyQueues.isEmpty()) {
+                wakeUp = Math.min(wakeUp, nextDispatchTime);
+            }
+            //
+            // note that the wait() can also return because of changes to
+            // the queues, not just because the time expired!
+            //
+            if (wakeUp == Long.MAX_VALUE) {
+                logger.trace("waiting for request queues to fill");
+                timers.wait();
+            } else {
+                timers.wait(Math.max(1L, wakeUp - now));
+            }
+        }
+
+        private void processQueue(DeviceQueue q, long now) {
+            InsteonDevice dev = q.device;
+            long nextExp = 0L;
+            try {
+                nextExp = dev.processRequestQueue(RequestQueueManager.this, now);
+            } catch (RuntimeException e) {
+                logger.warn("processing request queue of device {} failed", dev.getAddress(), e);
+            }
+            if (nextExp > 0) {
+                logger.trace("device queue for {} rescheduled in {} msec", dev.getAddress(), nextExp - now);
+                addQueue(dev, nextExp, Priority.POLL);
+            } else {
+                synchronized (timers) {
+                    // a request may have been added in the meantime
+                    if (!q.ready && q.scheduledTime == 0L) {
+                        logger.debug("device queue for {} is empty!", dev.getAddress());
+                        deviceQueues.remove(dev);
+                    }
+                }
+            }
+        }
     }
 
-    public static class RequestQueue implements Comparable<RequestQueue> {
-        private InsteonDevice device;
-        private long expirationTime;
+    /**
+     * The request queue of a single device, as seen by the RequestQueueManager.
+     * It is either scheduled (waiting for its time), ready (waiting for its turn to send) or being processed.
+     */
+    private static class DeviceQueue implements Comparable<DeviceQueue> {
+        private final InsteonDevice device;
+        private long scheduledTime = 0L;
+        private boolean ready = false;
+        private long readyTime = 0L;
+        private Priority priority = Priority.POLL;
+
+        DeviceQueue(InsteonDevice device) {
+            this.device = device;
+        }
 
-        RequestQueue(InsteonDevice dev, long expirationTime) {
-            this.device = dev;
-            this.expirationTime = expirationTime;
+        @Override
+        public int compareTo(DeviceQueue q) {
+            int c = priority.compareTo(q.priority);
+            return c != 0 ? c : Long.compare(readyTime, q.readyTime);
         }
+    }
+
+    /**
+     * A deadline of a device request queue or of a task.
+     */
+    private static class Timer implements Comparable<Timer> {
+        private final long time;
+        private final long sequence;
+        private final @Nullable DeviceQueue queue;
+        private final @Nullable Runnable task;
 
-        public InsteonDevice getDevice() {
-            return device;
+        Timer(long time, long sequence, @Nullable DeviceQueue queue, @Nullable Runnable task) {
+            this.time = time;
+            this.sequence = sequence;
+            this.queue = queue;
+            this.task = task;
         }
 
-        public long getExpirationTime() {
-            return expirationTime;
+        @Override
+        public int compareTo(Timer t) {
+            int c = Long.compare(time, t.time);
+            return c != 0 ? c : Long.compare(sequence, t.sequence);
         }
+    }
+
+    /**
+     * Statistics of the time requests of one priority class have waited to be sent
+     */
+    private static class LatencyStatistics {
+        private long count = 0L;
+        private long total = 0L;
+        private long max = 0L;
 
-        public void setExpirationTime(long t) {
-            expirationTime = t;
+        void record(long latency) {
+            count++;
+            total += latency;
+            max = Math.max(max, latency);
         }
 
         @Override
-        public int compareTo(RequestQueue a) {
-            return (int) (expirationTime - a.expirationTime);
+        public String toString() {
+            return String.format("%d sent, avg latency %d msec, max %d msec", count, count == 0 ? 0 : total / count,
+                    max);
         }
     }
 
@@ -202,11 +415,15 @@ public class RequestQueueManager {
         return instance;
     }
 
-    public static synchronized void destroyInstance() {
-        RequestQueueManager instance = RequestQueueManager.instance;
+    public static void destroyInstance() {
+        RequestQueueManager instance;
+        // don't hold the lock while waiting for the thread, the scheduled tasks may need it
+        synchronized (RequestQueueManager.class) {
+            instance = RequestQueueManager.instance;
+            RequestQueueManager.instance = null;
+        }
         if (instance != null) {
             instance.stopThread();
-            RequestQueueManager.instance = null;
         }
     }
 }
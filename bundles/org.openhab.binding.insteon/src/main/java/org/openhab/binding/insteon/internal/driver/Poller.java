@@ -18,9 +18,9 @@ import java.util.SortedSet;
 import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
-import org.eclipse.jdt.annotation.Nullable;
-import org.openhab.binding.insteon.internal.InsteonBindingConstants;
 import org.openhab.binding.insteon.internal.device.InsteonDevice;
+import org.openhab.binding.insteon.internal.device.RequestQueueManager;
+import org.openhab.binding.insteon.internal.device.RequestQueueManager.Priority;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,10 +33,12 @@ import org.slf4j.LoggerFactory;
  * - An entry in the poll queue corresponds to a single device, i.e. each device should
  * have exactly one entry in the poll queue. That entry is created when startPolling()
  * is called, and then re-enqueued whenever it expires.
+ * - The Poller has no thread of its own. Every entry is scheduled with the RequestQueueManager,
+ * which schedules all traffic of the Insteon network.
  * - When a device comes up for polling, its doPoll() method is called, which in turn
  * puts an entry into that devices request queue. So the Poller class actually never
  * sends out messages directly. That is done by the device itself via its request
- * queue. The poller just reminds the device to poll.
+ * queue, with the lowest priority. The poller just reminds the device to poll.
  *
  * @author Bernd Pfrommer - Initial contribution
  * @author Rob Nielsen - Port to openHAB 2 insteon binding
@@ -48,9 +50,8 @@ public class Poller {
     private final Logger logger = LoggerFactory.getLogger(Poller.class);
     private static Poller poller = new Poller(); // for singleton
 
-    private @Nullable Thread pollThread = null;
     private TreeSet<PQEntry> pollQueue = new TreeSet<>();
-    private boolean keepRunning = true;
+    private long entryCount = 0L;
 
     /**
      * Constructor
@@ -63,7 +64,7 @@ public class Poller {
      *
      * @return number of devices being polled
      */
-    public int getSizeOfQueue() {
+    public synchronized int getSizeOfQueue() {
         return (pollQueue.size());
     }
 
@@ -73,16 +74,13 @@ public class Poller {
      * @param d device to register for polling
      * @param aNumDev approximate number of total devices
      */
-    public void startPolling(InsteonDevice d, int aNumDev) {
+    public synchronized void startPolling(InsteonDevice d, int aNumDev) {
         logger.debug("start polling device {}", d);
-        synchronized (pollQueue) {
-            // try to spread out the scheduling when
-            // starting up
-            int n = pollQueue.size();
-            long pollDelay = n * d.getPollInterval() / (aNumDev > 0 ? aNumDev : 1);
-            addToPollQueue(d, System.currentTimeMillis() + pollDelay);
-            pollQueue.notify();
-        }
+        // try to spread out the scheduling when
+        // starting up
+        int n = pollQueue.size();
+        long pollDelay = n * d.getPollInterval() / (aNumDev > 0 ? aNumDev : 1);
+        addToPollQueue(d, System.currentTimeMillis() + pollDelay);
     }
 
     /**
@@ -90,55 +88,21 @@ public class Poller {
      *
      * @param d reference to the device to be polled
      */
-    public void stopPolling(InsteonDevice d) {
-        synchronized (pollQueue) {
-            for (Iterator<PQEntry> i = pollQueue.iterator(); i.hasNext();) {
-                if (i.next().getDevice().getAddress().equals(d.getAddress())) {
-                    i.remove();
-                    logger.debug("stopped polling device {}", d);
-                }
+    public synchronized void stopPolling(InsteonDevice d) {
+        for (Iterator<PQEntry> i = pollQueue.iterator(); i.hasNext();) {
+            if (i.next().getDevice().getAddress().equals(d.getAddress())) {
+                i.remove();
+                logger.debug("stopped polling device {}", d);
             }
         }
     }
 
     /**
-     * Starts the poller thread
-     */
-    public void start() {
-        if (pollThread == null) {
-            pollThread = new Thread(new PollQueueReader());
-            setParamsAndStart(pollThread);
-        }
-    }
-
-    private void setParamsAndStart(@Nullable Thread thread) {
-        if (thread != null) {
-            thread.setName("OH-binding-" + InsteonBindingConstants.BINDING_ID + "-pollQueueReader");
-            thread.setDaemon(true);
-            thread.start();
-        }
-    }
-
-    /**
-     * Stops the poller thread
+     * Stops polling all devices
      */
-    public void stop() {
+    public synchronized void stop() {
         logger.debug("stopping poller!");
-        synchronized (pollQueue) {
-            pollQueue.clear();
-            keepRunning = false;
-            pollQueue.notify();
-        }
-        try {
-            Thread pollThread = this.pollThread;
-            if (pollThread != null) {
-                pollThread.join();
-                this.pollThread = null;
-            }
-            keepRunning = true;
-        } catch (InterruptedException e) {
-            logger.debug("got interrupted on exit: {}", e.getMessage());
-        }
+        pollQueue.clear();
     }
 
     /**
@@ -152,9 +116,15 @@ public class Poller {
 
     private void addToPollQueue(InsteonDevice d, long time) {
         long texp = findNextExpirationTime(d, time);
-        PQEntry ne = new PQEntry(d, texp);
+        PQEntry ne = new PQEntry(d, texp, entryCount++);
         logger.trace("added entry {} originally aimed at time {}", ne, String.format("%tc", new Date(time)));
         pollQueue.add(ne);
+        RequestQueueManager instance = RequestQueueManager.instance();
+        if (instance != null) {
+            instance.schedule(() -> poll(ne), texp);
+        } else {
+            logger.warn("request queue manager is null");
+        }
     }
 
     /**
@@ -170,7 +140,7 @@ public class Poller {
     private long findNextExpirationTime(InsteonDevice d, long aTime) {
         long expTime = aTime;
         // tailSet finds all those that expire after aTime - buffer
-        SortedSet<PQEntry> ts = pollQueue.tailSet(new PQEntry(d, aTime - MIN_MSEC_BETWEEN_POLLS));
+        SortedSet<PQEntry> ts = pollQueue.tailSet(new PQEntry(d, aTime - MIN_MSEC_BETWEEN_POLLS, -1L));
         if (ts.isEmpty()) {
             // all entries in the poll queue are ahead of the new element,
             // go ahead and simply add it to the end
@@ -201,66 +171,23 @@ public class Poller {
         return expTime;
     }
 
-    private class PollQueueReader implements Runnable {
-        @Override
-        public void run() {
-            logger.debug("starting poll thread.");
-            synchronized (pollQueue) {
-                while (keepRunning) {
-                    try {
-                        readPollQueue();
-                    } catch (InterruptedException e) {
-                        logger.warn("poll queue reader thread interrupted!");
-                        break;
-                    }
-                }
-            }
-            logger.debug("poll thread exiting");
-        }
-
-        /**
-         * Waits for first element of poll queue to become current,
-         * then process it.
-         *
-         * @throws InterruptedException
-         */
-        private void readPollQueue() throws InterruptedException {
-            while (pollQueue.isEmpty() && keepRunning) {
-                pollQueue.wait();
-            }
-            if (!keepRunning) {
+    /**
+     * Called by the RequestQueueManager when a poll queue entry has expired. Polls the corresponding
+     * device, and puts the device back into the poll queue to be polled again later.
+     *
+     * @param pqe the expired entry
+     */
+    private void poll(PQEntry pqe) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (!pollQueue.remove(pqe)) {
+                // the device is not polled any more
                 return;
             }
-            // something is in the queue
-            long now = System.currentTimeMillis();
-            PQEntry pqe = pollQueue.first();
-            long tfirst = pqe.getExpirationTime();
-            long dt = tfirst - now;
-            if (dt > 0) { // must wait for this item to expire
-                logger.trace("waiting for {} msec until {} comes due", dt, pqe);
-                pollQueue.wait(dt);
-            } else { // queue entry has expired, process it!
-                logger.trace("entry {} expired at time {}", pqe, now);
-                processQueue(now);
-            }
-        }
-
-        /**
-         * Takes first element off the poll queue, polls the corresponding device,
-         * and puts the device back into the poll queue to be polled again later.
-         *
-         * @param now the current time
-         */
-        private void processQueue(long now) {
-            processQueue(now, pollQueue.pollFirst());
-        }
-
-        private void processQueue(long now, @Nullable PQEntry pqe) {
-            if (pqe != null) {
-                pqe.getDevice().doPoll(0);
-                addToPollQueue(pqe.getDevice(), now + pqe.getDevice().getPollInterval());
-            }
+            logger.trace("entry {} expired at time {}", pqe, now);
+            addToPollQueue(pqe.getDevice(), now + pqe.getDevice().getPollInterval());
         }
+        pqe.getDevice().doPoll(0, Priority.POLL);
     }
 
     /**
@@ -273,10 +200,12 @@ public class Poller {
     private static class PQEntry implements Comparable<PQEntry> {
         private InsteonDevice dev;
         private long expirationTime;
+        private long sequence;
 
-        PQEntry(InsteonDevice dev, long time) {
+        PQEntry(InsteonDevice dev, long time, long sequence) {
             this.dev = dev;
             this.expirationTime = time;
+            this.sequence = sequence;
         }
 
         long getExpirationTime() {
@@ -289,7 +218,8 @@ public class Poller {
 
         @Override
         public int compareTo(PQEntry b) {
-            return (int) (expirationTime - b.expirationTime);
+            int c = Long.compare(expirationTime, b.expirationTime);
+            return c != 0 ? c : Long.compare(sequence, b.sequence);
         }
 
         @Override
@@ -304,7 +234,6 @@ public class Poller {
      * @return the poller instance
      */
     public static synchronized Poller instance() {
-        poller.start();
         return (poller);
     }
 }
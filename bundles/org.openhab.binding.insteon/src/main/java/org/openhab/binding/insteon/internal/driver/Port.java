@@ -27,6 +27,7 @@ import org.openhab.binding.insteon.internal.device.DeviceTypeLoader;
 import org.openhab.binding.insteon.internal.device.InsteonAddress;
 import org.openhab.binding.insteon.internal.device.InsteonDevice;
 import org.openhab.binding.insteon.internal.device.ModemDBBuilder;
+import org.openhab.binding.insteon.internal.device.RequestQueueManager;
 import org.openhab.binding.insteon.internal.handler.InsteonDeviceHandler;
 import org.openhab.binding.insteon.internal.message.FieldException;
 import org.openhab.binding.insteon.internal.message.InvalidMessageTypeException;
@@ -440,11 +441,12 @@ public class Port {
                         synchronized (reader.getRequestReplyLock()) {
                             ioStream.write(msg.getData());
                             while (reader.waitForReply()) {
+                                modemReplied(false);
                                 Thread.sleep(WAIT_TIME);
                                 logger.trace("retransmitting msg: {}", msg);
                                 ioStream.write(msg.getData());
                             }
-
+                            modemReplied(true);
                         }
                         // if rate limited, need to sleep now.
                         if (msg.getQuietTime() > 0) {
@@ -462,6 +464,16 @@ public class Port {
             }
             logger.debug("writer thread exiting!");
         }
+
+        /**
+         * Lets the request queue manager adapt the pace of the messages to the modem
+         */
+        private void modemReplied(boolean acked) {
+            RequestQueueManager instance = RequestQueueManager.instance();
+            if (instance != null) {
+                instance.modemReplied(acked);
+            }
+        }
     }
 
     /**
@@ -486,7 +498,7 @@ public class Port {
                 if (msg.isPureNack()) {
                     return;
                 }
-                if (msg.getByte("Cmd") == 0x60) {
+                if (msg.getCmd() == 0x60) {
                     // add the modem to the device list
                     InsteonAddress a = new InsteonAddress(msg.getAddress("IMAddress"));
                     DeviceTypeLoader instance = DeviceTypeLoader.instance();
@@ -15,10 +15,8 @@ package org.openhab.binding.insteon.internal.message;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeSet;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -114,8 +112,8 @@ public class Msg {
     public Msg(Msg m) {
         headerLength = m.headerLength;
         data = m.data.clone();
-        // the message definition usually doesn't change, but just to be sure...
-        definition = new MsgDefinition(m.definition);
+        // the compiled message definition cannot change, it is shared by all messages of the same type
+        definition = m.definition;
         direction = m.direction;
     }
 
@@ -187,11 +185,11 @@ public class Msg {
         if (getLength() < 2) {
             return false;
         }
-        if (!definition.containsField("messageFlags")) {
+        if (!definition.hasMessageFlags()) {
             return (false);
         }
         try {
-            byte flags = getByte("messageFlags");
+            byte flags = getMessageFlags();
             return ((flags & 0x10) == 0x10);
         } catch (FieldException e) {
             // do nothing
@@ -202,7 +200,7 @@ public class Msg {
     public boolean isUnsolicited() {
         // if the message has an ACK/NACK, it is in response to our message,
         // otherwise it is out-of-band, i.e. unsolicited
-        return !definition.containsField("ACK/NACK");
+        return !definition.hasAckNack();
     }
 
     public boolean isEcho() {
@@ -211,7 +209,7 @@ public class Msg {
 
     public boolean isOfType(MsgType mt) {
         try {
-            MsgType t = MsgType.fromValue(getByte("messageFlags"));
+            MsgType t = MsgType.fromValue(getMessageFlags());
             return (t == mt);
         } catch (FieldException e) {
             return false;
@@ -240,7 +238,7 @@ public class Msg {
 
     public boolean isX10() {
         try {
-            int cmd = getByte("Cmd") & 0xff;
+            int cmd = getCmd() & 0xff;
             if (cmd == 0x63 || cmd == 0x52) {
                 return true;
             }
@@ -273,7 +271,7 @@ public class Msg {
     }
 
     public int getHopsLeft() throws FieldException {
-        int hops = (getByte("messageFlags") & 0x0c) >> 2;
+        int hops = (getMessageFlags() & 0x0c) >> 2;
         return hops;
     }
 
@@ -320,6 +318,51 @@ public class Msg {
         return (definition.getField(key).getByte(data));
     }
 
+    /**
+     * Fetches the modem command of the message, without looking up the field by name
+     *
+     * @return the modem command
+     */
+    public byte getCmd() throws FieldException {
+        return definition.getCmdField().getByte(data);
+    }
+
+    public byte getMessageFlags() throws FieldException {
+        return definition.getMessageFlagsField().getByte(data);
+    }
+
+    public void setMessageFlags(byte value) throws FieldException {
+        definition.getMessageFlagsField().setByte(data, value);
+    }
+
+    public byte getCommand1() throws FieldException {
+        return definition.getCommand1Field().getByte(data);
+    }
+
+    public void setCommand1(byte value) throws FieldException {
+        definition.getCommand1Field().setByte(data, value);
+    }
+
+    public byte getCommand2() throws FieldException {
+        return definition.getCommand2Field().getByte(data);
+    }
+
+    public void setCommand2(byte value) throws FieldException {
+        definition.getCommand2Field().setByte(data, value);
+    }
+
+    public InsteonAddress getFromAddress() throws FieldException {
+        return definition.getFromAddressField().getAddress(data);
+    }
+
+    public InsteonAddress getToAddress() throws FieldException {
+        return definition.getToAddressField().getAddress(data);
+    }
+
+    public void setToAddress(InsteonAddress adr) throws FieldException {
+        definition.getToAddressField().setAddress(data, adr);
+    }
+
     /**
      * Will fetch a byte array starting at a certain field
      *
@@ -401,7 +444,7 @@ public class Msg {
     public int setCRC() {
         int crc;
         try {
-            crc = getByte("command1") + getByte("command2");
+            crc = getCommand1() + getCommand2();
             byte[] bytes = getBytes("userData1", 13); // skip userData14!
             for (byte b : bytes) {
                 crc += b;
@@ -455,35 +498,26 @@ public class Msg {
 
     @Override
     public String toString() {
-        String s = (direction == Direction.TO_MODEM) ? "OUT:" : "IN:";
-        // need to first sort the fields by offset
-        Comparator<Field> cmp = new Comparator<Field>() {
-            @Override
-            public int compare(Field f1, Field f2) {
-                return f1.getOffset() - f2.getOffset();
-            }
-        };
-        TreeSet<Field> fields = new TreeSet<>(cmp);
-        for (Field f : definition.getFields().values()) {
-            fields.add(f);
-        }
-        for (Field f : fields) {
-            if (f.getName().equals("messageFlags")) {
+        StringBuilder s = new StringBuilder((direction == Direction.TO_MODEM) ? "OUT:" : "IN:");
+        // the compiled definition has the fields sorted by offset
+        for (Field f : definition.getFieldsByOffset()) {
+            if (f.getName().equals(MsgDefinition.FIELD_MESSAGE_FLAGS)) {
                 byte b;
                 try {
                     b = f.getByte(data);
                     MsgType t = MsgType.fromValue(b);
-                    s += f.toString(data) + "=" + t.toString() + ":" + (b & 0x03) + ":" + ((b & 0x0c) >> 2) + "|";
+                    s.append(f.toString(data)).append('=').append(t.toString()).append(':').append(b & 0x03)
+                            .append(':').append((b & 0x0c) >> 2).append('|');
                 } catch (FieldException e) {
                     logger.warn("toString error: ", e);
                 } catch (IllegalArgumentException e) {
                     logger.warn("toString msg type error: ", e);
                 }
             } else {
-                s += f.toString(data) + "|";
+                s.append(f.toString(data)).append('|');
             }
         }
-        return s;
+        return s.toString();
     }
 
     /**
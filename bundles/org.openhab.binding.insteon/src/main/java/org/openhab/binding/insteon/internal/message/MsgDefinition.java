@@ -12,6 +12,9 @@
  */
 package org.openhab.binding.insteon.internal.message;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,37 +26,95 @@ import org.eclipse.jdt.annotation.Nullable;
  * For more info, see the public Insteon Developer's Guide, 2nd edition,
  * and the Insteon Modem Developer's Guide.
  *
+ * A definition is compiled once it has been read from the message definition file. The compiled definition cannot
+ * be changed any more, so all messages of the same type share it. The fields that are read for every message are
+ * resolved at compile time and accessed without looking them up by name.
+ *
  * @author Daniel Pfrommer - Initial contribution
  * @author Rob Nielsen - Port to openHAB 2 insteon binding
  */
 @NonNullByDefault
 public class MsgDefinition {
+    public static final String FIELD_CMD = "Cmd";
+    public static final String FIELD_ACK_NACK = "ACK/NACK";
+    public static final String FIELD_MESSAGE_FLAGS = "messageFlags";
+    public static final String FIELD_COMMAND1 = "command1";
+    public static final String FIELD_COMMAND2 = "command2";
+    public static final String FIELD_FROM_ADDRESS = "fromAddress";
+    public static final String FIELD_TO_ADDRESS = "toAddress";
+
+    private static final Field[] NO_FIELDS = new Field[0];
+
     private Map<String, Field> fields = new HashMap<>();
+    private boolean compiled = false;
+    private Field[] fieldsByOffset = NO_FIELDS;
+    private @Nullable Field cmd;
+    private @Nullable Field ackNack;
+    private @Nullable Field messageFlags;
+    private @Nullable Field command1;
+    private @Nullable Field command2;
+    private @Nullable Field fromAddress;
+    private @Nullable Field toAddress;
 
     MsgDefinition() {
     }
 
-    /*
-     * Copy constructor, needed to make a copy of a message
-     *
-     * @param m the definition to copy
-     */
-    MsgDefinition(MsgDefinition m) {
-        fields = new HashMap<>(m.fields);
-    }
-
     public Map<String, Field> getFields() {
-        return fields;
+        return Collections.unmodifiableMap(fields);
     }
 
     public boolean containsField(String name) {
         return fields.containsKey(name);
     }
 
+    /**
+     * Adds a field to the definition
+     *
+     * @param field the field to add
+     * @throws IllegalStateException if the definition has already been compiled
+     */
     public void addField(Field field) {
+        if (compiled) {
+            throw new IllegalStateException("cannot add field " + field.getName() + " to a compiled definition");
+        }
         fields.put(field.getName(), field);
     }
 
+    /**
+     * Compiles the definition: sorts the fields by offset and resolves the frequently used fields.
+     * The definition cannot be changed afterwards.
+     */
+    void compile() {
+        fieldsByOffset = fields.values().toArray(NO_FIELDS);
+        Arrays.sort(fieldsByOffset, Comparator.comparingInt(Field::getOffset));
+        cmd = fields.get(FIELD_CMD);
+        ackNack = fields.get(FIELD_ACK_NACK);
+        messageFlags = fields.get(FIELD_MESSAGE_FLAGS);
+        command1 = fields.get(FIELD_COMMAND1);
+        command2 = fields.get(FIELD_COMMAND2);
+        fromAddress = fields.get(FIELD_FROM_ADDRESS);
+        toAddress = fields.get(FIELD_TO_ADDRESS);
+        compiled = true;
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Returns the fields sorted by their offset
+     *
+     * @return the sorted fields, not to be modified
+     */
+    Field[] getFieldsByOffset() {
+        if (compiled) {
+            return fieldsByOffset;
+        }
+        Field[] sorted = fields.values().toArray(NO_FIELDS);
+        Arrays.sort(sorted, Comparator.comparingInt(Field::getOffset));
+        return sorted;
+    }
+
     /**
      * Finds field of a given name
      *
@@ -69,4 +130,44 @@ public class MsgDefinition {
         }
         return f;
     }
+
+    boolean hasAckNack() {
+        return compiled ? ackNack != null : fields.containsKey(FIELD_ACK_NACK);
+    }
+
+    boolean hasMessageFlags() {
+        return compiled ? messageFlags != null : fields.containsKey(FIELD_MESSAGE_FLAGS);
+    }
+
+    Field getCmdField() throws FieldException {
+        return resolve(cmd, FIELD_CMD);
+    }
+
+    Field getMessageFlagsField() throws FieldException {
+        return resolve(messageFlags, FIELD_MESSAGE_FLAGS);
+    }
+
+    Field getCommand1Field() throws FieldException {
+        return resolve(command1, FIELD_COMMAND1);
+    }
+
+    Field getCommand2Field() throws FieldException {
+        return resolve(command2, FIELD_COMMAND2);
+    }
+
+    Field getFromAddressField() throws FieldException {
+        return resolve(fromAddress, FIELD_FROM_ADDRESS);
+    }
+
+    Field getToAddressField() throws FieldException {
+        return resolve(toAddress, FIELD_TO_ADDRESS);
+    }
+
+    private Field resolve(@Nullable Field field, String name) throws FieldException {
+        if (field != null) {
+            return field;
+        }
+        // not compiled yet, or the message has no such field
+        return getField(name);
+    }
 }
@@ -177,6 +177,8 @@ public class XMLMessageReader {
                 msg.addField(f);
             }
         }
+        // resolve the field offsets once, all messages of this type share the compiled definition
+        msg.getDefinition().compile();
         return msg;
     }
 }
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * The {@link IpCameraEventLoops} holds the Netty event loops and the scheduler that are shared by all cameras and
+ * groups of the binding, instead of each camera creating its own threads.
+ * The client event loops handle the connections to the cameras, the server event loops handle the stream servers.
+ * The size of the scheduler is set with the openHAB thread pool configuration of the pool named "ipcamera".
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class IpCameraEventLoops {
+    public static final String CONFIG_CLIENT_THREADS = "clientThreads";
+    public static final String CONFIG_SERVER_THREADS = "serverThreads";
+    public static final int DEFAULT_CLIENT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_SERVER_THREADS = 2;
+    public static final String THREADPOOL_NAME = "ipcamera";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final int clientThreads;
+    private final int serverThreads;
+    private final EventLoopGroup clientGroup;
+    private final EventLoopGroup serverGroup;
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME);
+
+    public IpCameraEventLoops(int clientThreads, int serverThreads) {
+        this.clientThreads = Math.max(1, clientThreads);
+        this.serverThreads = Math.max(1, serverThreads);
+        clientGroup = new NioEventLoopGroup(this.clientThreads, new DefaultThreadFactory("ipcamera-client", true));
+        serverGroup = new NioEventLoopGroup(this.serverThreads, new DefaultThreadFactory("ipcamera-server", true));
+        logger.debug("Using {} client and {} server event loop threads for all cameras", this.clientThreads,
+                this.serverThreads);
+    }
+
+    /**
+     * Creates the event loops with the sizes of the binding configuration.
+     *
+     * @param config the binding configuration
+     */
+    public static IpCameraEventLoops fromConfig(Map<String, Object> config) {
+        return new IpCameraEventLoops(getInt(config, CONFIG_CLIENT_THREADS, DEFAULT_CLIENT_THREADS),
+                getInt(config, CONFIG_SERVER_THREADS, DEFAULT_SERVER_THREADS));
+    }
+
+    private static int getInt(Map<String, Object> config, String key, int defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Event loops for the connections to the cameras.
+     */
+    public EventLoopGroup getClientGroup() {
+        return clientGroup;
+    }
+
+    /**
+     * Event loops for the stream servers of the cameras and groups.
+     */
+    public EventLoopGroup getServerGroup() {
+        return serverGroup;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    public int getClientThreads() {
+        return clientThreads;
+    }
+
+    public int getServerThreads() {
+        return serverThreads;
+    }
+
+    /**
+     * Stops the event loops, only to be called when no camera uses them any more.
+     */
+    public void shutdown() {
+        clientGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+        serverGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+    }
+}
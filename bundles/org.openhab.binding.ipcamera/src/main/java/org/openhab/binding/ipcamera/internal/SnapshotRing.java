@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SnapshotRing} keeps the last snapshots of a camera for the GIF preroll. Once the ring is full, a new
+ * snapshot replaces the oldest one, without allocating anything per snapshot.
+ * The snapshots are not copied, they must not be changed after they have been added. The ring is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SnapshotRing {
+    private byte[][] snapshots;
+    private int next = 0;
+    private int size = 0;
+
+    public SnapshotRing(int capacity) {
+        snapshots = new byte[Math.max(1, capacity)][];
+    }
+
+    /**
+     * Changes the number of snapshots kept, the newest snapshots are kept if the ring gets smaller.
+     */
+    public void setCapacity(int capacity) {
+        int newCapacity = Math.max(1, capacity);
+        if (newCapacity == snapshots.length) {
+            return;
+        }
+        List<byte[]> kept = toList();
+        snapshots = new byte[newCapacity][];
+        next = 0;
+        size = 0;
+        for (byte[] snapshot : kept.subList(Math.max(0, kept.size() - newCapacity), kept.size())) {
+            add(snapshot);
+        }
+    }
+
+    public void add(byte[] snapshot) {
+        snapshots[next] = snapshot;
+        next = (next + 1) % snapshots.length;
+        if (size < snapshots.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Returns the snapshots, the oldest first.
+     */
+    public List<byte[]> toList() {
+        List<byte[]> list = new ArrayList<>(size);
+        int index = (next - size + snapshots.length) % snapshots.length;
+        for (int i = 0; i < size; i++) {
+            list.add(snapshots[(index + i) % snapshots.length]);
+        }
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of all snapshots in the ring.
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (byte[] snapshot : toList()) {
+            bytes += snapshot.length;
+        }
+        return bytes;
+    }
+}
@@ -26,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -57,9 +58,8 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
     private IpCameraHandler ipCameraHandler;
     private boolean handlingMjpeg = false; // used to remove ctx from group when handler is removed.
     private boolean handlingSnapshotStream = false; // used to remove ctx from group when handler is removed.
-    private byte[] incomingJpeg = new byte[0];
+    private @Nullable ByteBuf incomingJpeg = null;
     private String whiteList = "";
-    private int recievedBytes = 0;
     private boolean updateSnapshot = false;
     private boolean onvifEvent = false;
 
@@ -107,8 +107,15 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
                                 return;
                             }
                             // Allow files to be created, or you get old m3u8 from the last time this ran.
-                            TimeUnit.MILLISECONDS.sleep(4500);
-                            sendFile(ctx, httpRequest.uri(), "application/x-mpegurl");
+                            // The event loop is shared by all cameras, so the answer is scheduled instead of waiting.
+                            String uri = httpRequest.uri();
+                            ctx.executor().schedule(() -> {
+                                try {
+                                    sendFile(ctx, uri, "application/x-mpegurl");
+                                } catch (IOException e) {
+                                    logger.debug("Sending {} failed: {}", uri, e.getMessage());
+                                }
+                            }, 4500, TimeUnit.MILLISECONDS);
                             return;
                         case "/ipcamera.mpd":
                             sendFile(ctx, httpRequest.uri(), "application/dash+xml");
@@ -176,27 +183,31 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
             }
             if (msg instanceof HttpContent) {
                 HttpContent content = (HttpContent) msg;
-                if (recievedBytes == 0) {
-                    incomingJpeg = new byte[content.content().readableBytes()];
-                    content.content().getBytes(0, incomingJpeg, 0, content.content().readableBytes());
-                } else {
-                    byte[] temp = incomingJpeg;
-                    incomingJpeg = new byte[recievedBytes + content.content().readableBytes()];
-                    System.arraycopy(temp, 0, incomingJpeg, 0, temp.length);
-                    content.content().getBytes(0, incomingJpeg, temp.length, content.content().readableBytes());
+                // the parts of a picture are collected in a pooled buffer
+                ByteBuf localJpeg = incomingJpeg;
+                if (localJpeg == null) {
+                    localJpeg = ctx.alloc().buffer(content.content().readableBytes());
+                    incomingJpeg = localJpeg;
                 }
-                recievedBytes = incomingJpeg.length;
+                ipCameraHandler.countCopiedBytes(content.content().readableBytes());
+                localJpeg.writeBytes(content.content());
                 if (content instanceof LastHttpContent) {
-                    if (updateSnapshot) {
-                        ipCameraHandler.processSnapshot(incomingJpeg);
-                    } else if (onvifEvent) {
-                        ipCameraHandler.onvifCamera.eventRecieved(new String(incomingJpeg, StandardCharsets.UTF_8));
-                    } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
-                        if (recievedBytes > 1000) {
-                            ipCameraHandler.sendMjpegFrame(incomingJpeg, ipCameraHandler.mjpegChannelGroup);
+                    incomingJpeg = null;
+                    try {
+                        if (updateSnapshot) {
+                            ipCameraHandler.countCopiedBytes(localJpeg.readableBytes());
+                            ipCameraHandler.processSnapshot(ByteBufUtil.getBytes(localJpeg));
+                        } else if (onvifEvent) {
+                            ipCameraHandler.onvifCamera.eventRecieved(localJpeg.toString(StandardCharsets.UTF_8));
+                        } else { // handles the snapshots that make up mjpeg from rtsp to ffmpeg conversions.
+                            if (localJpeg.readableBytes() > 1000) {
+                                ipCameraHandler.countFrame();
+                                ipCameraHandler.sendMjpegFrame(localJpeg.retain(), ipCameraHandler.mjpegChannelGroup);
+                            }
                         }
+                    } finally {
+                        localJpeg.release();
                     }
-                    recievedBytes = 0;
                 }
             }
         } finally {
@@ -208,7 +219,7 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
         ipCameraHandler.lockCurrentSnapshot.lock();
         try {
-            ByteBuf snapshotData = Unpooled.copiedBuffer(ipCameraHandler.currentSnapshot);
+            ByteBuf snapshotData = Unpooled.wrappedBuffer(ipCameraHandler.currentSnapshot);
             response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType);
             response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
             response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
@@ -283,6 +294,11 @@ public class StreamServerHandler extends ChannelInboundHandlerAdapter {
         if (ctx == null) {
             return;
         }
+        ByteBuf localJpeg = incomingJpeg;
+        if (localJpeg != null) {
+            incomingJpeg = null;
+            localJpeg.release();
+        }
         ctx.close();
         if (handlingMjpeg) {
             ipCameraHandler.setupMjpegStreaming(false, ctx);
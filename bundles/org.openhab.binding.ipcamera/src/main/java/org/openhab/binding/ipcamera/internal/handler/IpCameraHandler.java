@@ -26,15 +26,14 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -54,7 +53,9 @@ import org.openhab.binding.ipcamera.internal.InstarHandler;
 import org.openhab.binding.ipcamera.internal.IpCameraActions;
 import org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.FFmpegFormat;
 import org.openhab.binding.ipcamera.internal.IpCameraDynamicStateDescriptionProvider;
+import org.openhab.binding.ipcamera.internal.IpCameraEventLoops;
 import org.openhab.binding.ipcamera.internal.MyNettyAuthHandler;
+import org.openhab.binding.ipcamera.internal.SnapshotRing;
 import org.openhab.binding.ipcamera.internal.StreamServerHandler;
 import org.openhab.binding.ipcamera.internal.onvif.OnvifConnection;
 import org.openhab.core.library.types.DecimalType;
@@ -86,10 +87,8 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
@@ -125,9 +124,11 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 @NonNullByDefault
 public class IpCameraHandler extends BaseThingHandler {
+    private static final byte[] MJPEG_FRAME_FOOTER = "\r\n".getBytes(StandardCharsets.UTF_8);
     public final Logger logger = LoggerFactory.getLogger(getClass());
     public final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
-    private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(4);
+    private final IpCameraEventLoops eventLoops;
+    private final ScheduledExecutorService threadPool;
     private GroupTracker groupTracker;
     public CameraConfig cameraConfig = new CameraConfig();
 
@@ -136,6 +137,8 @@ public class IpCameraHandler extends BaseThingHandler {
     private final ChannelGroup snapshotMjpegChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     private final ChannelGroup autoSnapshotMjpegChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     public final ChannelGroup openChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    // the server and all connections of the stream server, closed when the server stops
+    private final ChannelGroup serverChannels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
     public @Nullable Ffmpeg ffmpegHLS = null;
     public @Nullable Ffmpeg ffmpegRecord = null;
     public @Nullable Ffmpeg ffmpegGIF = null;
@@ -151,8 +154,6 @@ public class IpCameraHandler extends BaseThingHandler {
     private @Nullable Bootstrap mainBootstrap;
     private @Nullable ServerBootstrap serverBootstrap;
 
-    private EventLoopGroup mainEventLoopGroup = new NioEventLoopGroup();
-    private EventLoopGroup serversLoopGroup = new NioEventLoopGroup();
     private FullHttpRequest putRequestWithBody = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, new HttpMethod("PUT"),
             "");
     private String gifFilename = "ipcamera";
@@ -163,7 +164,8 @@ public class IpCameraHandler extends BaseThingHandler {
     private String mp4Filename = "ipcamera";
     private int mp4RecordTime;
     private int gifRecordTime = 5;
-    private LinkedList<byte[]> fifoSnapshotBuffer = new LinkedList<byte[]>();
+    // Guarded by lockCurrentSnapshot
+    private final SnapshotRing fifoSnapshotBuffer = new SnapshotRing(1);
     private int snapCount;
     private boolean updateImageChannel = false;
     private boolean updateAutoFps = false;
@@ -198,6 +200,12 @@ public class IpCameraHandler extends BaseThingHandler {
     public boolean ffmpegSnapshotGeneration = false;
     public boolean snapshotPolling = false;
     public OnvifConnection onvifCamera = new OnvifConnection(this, "", "", "");
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final AtomicLong connectionFailures = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong framesReceived = new AtomicLong();
+    private final AtomicLong bytesCopied = new AtomicLong();
+    private int pollCount = 0;
 
     // These methods handle the response from all camera brands, nothing specific to 1 brand.
     private class CommonCameraHandler extends ChannelDuplexHandler {
@@ -267,6 +275,7 @@ public class IpCameraHandler extends BaseThingHandler {
                     }
                 }
                 if (msg instanceof HttpContent) {
+                    bytesReceived.addAndGet(((HttpContent) msg).content().readableBytes());
                     if (mjpegUri.equals(requestUrl)) {
                         // multiple MJPEG stream packets come back as this.
                         ReferenceCountUtil.retain(msg, 1);
@@ -275,9 +284,11 @@ public class IpCameraHandler extends BaseThingHandler {
                         HttpContent content = (HttpContent) msg;
                         // Found some cameras use Content-Type: image/jpg instead of image/jpeg
                         if (contentType.contains("image/jp")) {
-                            for (int i = 0; i < content.content().capacity(); i++) {
-                                incomingJpeg[bytesAlreadyRecieved++] = content.content().getByte(i);
-                            }
+                            ByteBuf data = content.content();
+                            int length = Math.min(data.readableBytes(), incomingJpeg.length - bytesAlreadyRecieved);
+                            data.getBytes(data.readerIndex(), incomingJpeg, bytesAlreadyRecieved, length);
+                            bytesAlreadyRecieved += length;
+                            countCopiedBytes(length);
                             if (content instanceof LastHttpContent) {
                                 processSnapshot(incomingJpeg);
                                 // testing next line and if works need to do a full cleanup of this function.
@@ -395,9 +406,11 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public IpCameraHandler(Thing thing, @Nullable String ipAddress, GroupTracker groupTracker,
-            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider) {
+            IpCameraDynamicStateDescriptionProvider stateDescriptionProvider, IpCameraEventLoops eventLoops) {
         super(thing);
         this.stateDescriptionProvider = stateDescriptionProvider;
+        this.eventLoops = eventLoops;
+        this.threadPool = eventLoops.getScheduler();
         if (ipAddress != null) {
             hostIp = ipAddress;
         } else {
@@ -410,6 +423,91 @@ public class IpCameraHandler extends BaseThingHandler {
         return this;
     }
 
+    /**
+     * Returns the event loops and scheduler shared by all cameras.
+     */
+    public IpCameraEventLoops getEventLoops() {
+        return eventLoops;
+    }
+
+    /**
+     * Returns the number of connections to the camera that are currently open.
+     */
+    public int getOpenConnections() {
+        return openChannels.size();
+    }
+
+    /**
+     * Returns the number of open connections of the stream server, including the server socket.
+     */
+    public int getServerConnections() {
+        return serverChannels.size();
+    }
+
+    /**
+     * Returns the number of successful connections to the camera since the binding has started.
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public long getConnectionFailures() {
+        return connectionFailures.get();
+    }
+
+    /**
+     * Returns the number of HTTP content bytes received from the camera.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * Returns the number of bytes held by the current snapshot and the snapshots kept for the GIF preroll.
+     */
+    public long getSnapshotBufferBytes() {
+        lockCurrentSnapshot.lock();
+        try {
+            return currentSnapshot.length + fifoSnapshotBuffer.getBytes();
+        } finally {
+            lockCurrentSnapshot.unlock();
+        }
+    }
+
+    /**
+     * Counts bytes of a received picture that had to be copied from one buffer to another.
+     */
+    public void countCopiedBytes(long bytes) {
+        bytesCopied.addAndGet(bytes);
+    }
+
+    /**
+     * Counts a received picture, either a snapshot or a frame of a MJPEG stream created by FFmpeg.
+     */
+    public void countFrame() {
+        framesReceived.incrementAndGet();
+    }
+
+    public long getFramesReceived() {
+        return framesReceived.get();
+    }
+
+    /**
+     * Returns the average number of bytes copied per received picture.
+     */
+    public long getBytesCopiedPerFrame() {
+        long frames = framesReceived.get();
+        return frames == 0 ? 0 : bytesCopied.get() / frames;
+    }
+
+    private void logStatistics() {
+        logger.debug(
+                "Camera {}: {} open connections, {} connections made, {} failed, {} stream server connections, {} bytes received, {} bytes of snapshots buffered, {} pictures with {} bytes copied per picture, shared threads: {} client, {} server",
+                cameraConfig.getIp(), getOpenConnections(), getConnectionCount(), getConnectionFailures(),
+                getServerConnections(), getBytesReceived(), getSnapshotBufferBytes(), getFramesReceived(),
+                getBytesCopiedPerFrame(), eventLoops.getClientThreads(), eventLoops.getServerThreads());
+    }
+
     // false clears the stored user/pass hash, true creates the hash
     public boolean setBasicAuth(boolean useBasic) {
         if (!useBasic) {
@@ -503,7 +601,7 @@ public class IpCameraHandler extends BaseThingHandler {
 
         if (mainBootstrap == null) {
             mainBootstrap = new Bootstrap();
-            mainBootstrap.group(mainEventLoopGroup);
+            mainBootstrap.group(eventLoops.getClientGroup());
             mainBootstrap.channel(NioSocketChannel.class);
             mainBootstrap.option(ChannelOption.SO_KEEPALIVE, true);
             mainBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 4500);
@@ -584,6 +682,7 @@ public class IpCameraHandler extends BaseThingHandler {
                             return;
                         }
                         if (future.isDone() && future.isSuccess()) {
+                            connectionCount.incrementAndGet();
                             Channel ch = future.channel();
                             openChannels.add(ch);
                             if (!isOnline) {
@@ -610,6 +709,7 @@ public class IpCameraHandler extends BaseThingHandler {
                             }
                             ch.writeAndFlush(request);
                         } else { // an error occured
+                            connectionFailures.incrementAndGet();
                             cameraCommunicationError(
                                     "Connection Timeout: Check your IP and PORT are correct and the camera can be reached.");
                         }
@@ -618,14 +718,13 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void processSnapshot(byte[] incommingSnapshot) {
+        countFrame();
         lockCurrentSnapshot.lock();
         try {
             currentSnapshot = incommingSnapshot;
             if (cameraConfig.getGifPreroll() > 0) {
+                fifoSnapshotBuffer.setCapacity(cameraConfig.getGifPreroll() + gifRecordTime);
                 fifoSnapshotBuffer.add(incommingSnapshot);
-                if (fifoSnapshotBuffer.size() > (cameraConfig.getGifPreroll() + gifRecordTime)) {
-                    fifoSnapshotBuffer.removeFirst();
-                }
             }
         } finally {
             lockCurrentSnapshot.unlock();
@@ -656,7 +755,7 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void stopStreamServer() {
-        serversLoopGroup.shutdownGracefully();
+        serverChannels.close();
         serverBootstrap = null;
     }
 
@@ -664,15 +763,15 @@ public class IpCameraHandler extends BaseThingHandler {
     public void startStreamServer() {
         if (serverBootstrap == null) {
             try {
-                serversLoopGroup = new NioEventLoopGroup();
                 serverBootstrap = new ServerBootstrap();
-                serverBootstrap.group(serversLoopGroup);
+                serverBootstrap.group(eventLoops.getServerGroup());
                 serverBootstrap.channel(NioServerSocketChannel.class);
                 // IP "0.0.0.0" will bind the server to all network connections//
                 serverBootstrap.localAddress(new InetSocketAddress("0.0.0.0", cameraConfig.getServerPort()));
                 serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel socketChannel) throws Exception {
+                        serverChannels.add(socketChannel);
                         socketChannel.pipeline().addLast("idleStateHandler", new IdleStateHandler(0, 60, 0));
                         socketChannel.pipeline().addLast("HttpServerCodec", new HttpServerCodec());
                         socketChannel.pipeline().addLast("ChunkedWriteHandler", new ChunkedWriteHandler());
@@ -681,6 +780,7 @@ public class IpCameraHandler extends BaseThingHandler {
                 });
                 serverFuture = serverBootstrap.bind().sync();
                 serverFuture.await(4000);
+                serverChannels.add(serverFuture.channel());
                 logger.debug("File server for camera at {} has started on port {} for all NIC's.", cameraConfig.getIp(),
                         cameraConfig.getServerPort());
                 updateState(CHANNEL_MJPEG_URL,
@@ -752,12 +852,12 @@ public class IpCameraHandler extends BaseThingHandler {
                     sendMjpegFirstPacket(ctx);
                     setupFfmpegFormat(FFmpegFormat.MJPEG);
                 } else {
-                    try {
-                        // fix Dahua reboots when refreshing a mjpeg stream.
-                        TimeUnit.MILLISECONDS.sleep(500);
-                    } catch (InterruptedException e) {
-                    }
-                    sendHttpGET(mjpegUri);
+                    // fix Dahua reboots when refreshing a mjpeg stream, the server event loop must not wait.
+                    threadPool.schedule(() -> {
+                        if (isOnline) {
+                            sendHttpGET(mjpegUri);
+                        }
+                    }, 500, TimeUnit.MILLISECONDS);
                 }
             } else if (ffmpegMjpeg != null) {// not first stream and we will use ffmpeg
                 sendMjpegFirstPacket(ctx);
@@ -836,16 +936,25 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void sendMjpegFrame(byte[] jpg, ChannelGroup channelGroup) {
+        // the picture is never changed once received, so it is wrapped instead of copied
+        sendMjpegFrame(Unpooled.wrappedBuffer(jpg), channelGroup);
+    }
+
+    /**
+     * Sends a picture as a frame of a MJPEG stream to all channels of the group. The frame is written once, every
+     * channel only gets a duplicate of the buffer. The buffer is released once all channels have sent it.
+     *
+     * @param jpg the picture, this method takes over the reference
+     * @param channelGroup the channels to send the frame to
+     */
+    public void sendMjpegFrame(ByteBuf jpg, ChannelGroup channelGroup) {
         final String boundary = "thisMjpegStream";
-        ByteBuf imageByteBuf = Unpooled.copiedBuffer(jpg);
-        int length = imageByteBuf.readableBytes();
+        int length = jpg.readableBytes();
         String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: " + length
                 + "\r\n\r\n";
         ByteBuf headerBbuf = Unpooled.copiedBuffer(header, 0, header.length(), StandardCharsets.UTF_8);
-        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
-        streamToGroup(headerBbuf, channelGroup, false);
-        streamToGroup(imageByteBuf, channelGroup, false);
-        streamToGroup(footerBbuf, channelGroup, true);
+        ByteBuf footerBbuf = Unpooled.wrappedBuffer(MJPEG_FRAME_FOOTER);
+        streamToGroup(Unpooled.wrappedBuffer(headerBbuf, jpg, footerBbuf), channelGroup, true);
     }
 
     public void streamToGroup(Object msg, ChannelGroup channelGroup, boolean flush) {
@@ -860,7 +969,7 @@ public class IpCameraHandler extends BaseThingHandler {
         // Need to lock as fifoSnapshotBuffer is not thread safe and new snapshots can be incoming.
         lockCurrentSnapshot.lock();
         try {
-            for (byte[] foo : fifoSnapshotBuffer) {
+            for (byte[] foo : fifoSnapshotBuffer.toList()) {
                 File file = new File(cameraConfig.getFfmpegOutput() + "snapshot" + count + ".jpg");
                 count++;
                 try {
@@ -1414,10 +1523,13 @@ public class IpCameraHandler extends BaseThingHandler {
 
         if (cameraConfig.getGifPreroll() > 0 || cameraConfig.getUpdateImageWhen().contains("1")) {
             snapshotPolling = true;
-            snapshotJob = threadPool.scheduleAtFixedRate(this::snapshotRunnable, 1000, cameraConfig.getPollTime(),
-                    TimeUnit.MILLISECONDS);
+            scheduleSnapshotPolling(1000);
         }
 
+        localFuture = pollCameraJob;
+        if (localFuture != null) {
+            localFuture.cancel(false);
+        }
         pollCameraJob = threadPool.scheduleWithFixedDelay(this::pollCameraRunnable, 1000, 8000, TimeUnit.MILLISECONDS);
 
         if (!rtspUri.isEmpty()) {
@@ -1537,13 +1649,21 @@ public class IpCameraHandler extends BaseThingHandler {
         }
         if (streamingSnapshotMjpeg || streamingAutoFps) {
             snapshotPolling = true;
-            snapshotJob = threadPool.scheduleAtFixedRate(this::snapshotRunnable, 200, cameraConfig.getPollTime(),
-                    TimeUnit.MILLISECONDS);
+            scheduleSnapshotPolling(200);
         } else if (cameraConfig.getUpdateImageWhen().contains("4")) { // During Motion Alarms
             snapshotPolling = true;
-            snapshotJob = threadPool.scheduleAtFixedRate(this::snapshotRunnable, 200, cameraConfig.getPollTime(),
-                    TimeUnit.MILLISECONDS);
+            scheduleSnapshotPolling(200);
+        }
+    }
+
+    // The pool is shared by all cameras, a job that is not cancelled keeps polling after the camera was disposed.
+    private void scheduleSnapshotPolling(long initialDelay) {
+        Future<?> localFuture = snapshotJob;
+        if (localFuture != null) {
+            localFuture.cancel(false);
         }
+        snapshotJob = threadPool.scheduleAtFixedRate(this::snapshotRunnable, initialDelay, cameraConfig.getPollTime(),
+                TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -1619,6 +1739,10 @@ public class IpCameraHandler extends BaseThingHandler {
             logger.debug("There are {} open Channels being tracked.", openChannels.size());
             cleanChannels();
         }
+        // about once a minute
+        if (++pollCount % 8 == 0 && logger.isDebugEnabled()) {
+            logStatistics();
+        }
     }
 
     @Override
@@ -1721,17 +1845,18 @@ public class IpCameraHandler extends BaseThingHandler {
         Future<?> localFuture = pollCameraJob;
         if (localFuture != null) {
             localFuture.cancel(true);
+            pollCameraJob = null;
         }
         localFuture = snapshotJob;
         if (localFuture != null) {
             localFuture.cancel(true);
+            snapshotJob = null;
         }
         localFuture = cameraConnectionJob;
         if (localFuture != null) {
             localFuture.cancel(true);
+            cameraConnectionJob = null;
         }
-        threadPool.shutdown();
-        threadPool = Executors.newScheduledThreadPool(4);
 
         groupTracker.listOfOnlineCameraHandlers.remove(this);
         groupTracker.listOfOnlineCameraUID.remove(getThing().getUID().getId());
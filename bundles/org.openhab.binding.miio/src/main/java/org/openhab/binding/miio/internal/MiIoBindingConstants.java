@@ -106,6 +106,7 @@ public final class MiIoBindingConstants {
     public static final String PROPERTY_REFRESH_INTERVAL = "refreshInterval";
     public static final String PROPERTY_TIMEOUT = "timeout";
     public static final String PROPERTY_CLOUDSERVER = "cloudServer";
+    public static final String PROPERTY_COMMUNICATION_STATISTICS = "communicationStatistics";
 
     public static final Set<String> PERSISTENT_CHANNELS = Collections.unmodifiableSet(
             Stream.of(CHANNEL_COMMAND, CHANNEL_RPC, CHANNEL_SSID, CHANNEL_BSSID, CHANNEL_RSSI, CHANNEL_LIFE)
@@ -39,6 +39,7 @@ import org.openhab.binding.miio.internal.Utils;
 import org.openhab.binding.miio.internal.basic.MiIoDatabaseWatchService;
 import org.openhab.binding.miio.internal.cloud.CloudConnector;
 import org.openhab.binding.miio.internal.transport.MiIoAsyncCommunication;
+import org.openhab.binding.miio.internal.transport.MiIoTransport.DeviceStatistics;
 import org.openhab.core.cache.ExpiringCache;
 import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.Configuration;
@@ -152,6 +153,7 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
             pollingJob = miIoScheduler.scheduleWithFixedDelay(() -> {
                 try {
                     updateData();
+                    updateCommunicationStatistics();
                 } catch (Exception e) {
                     logger.debug("Unexpected error during refresh.", e);
                 }
@@ -204,6 +206,7 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
         final @Nullable MiIoAsyncCommunication miioCom = this.miioCom;
         if (miioCom != null) {
             lastId = miioCom.getId();
+            logger.debug("Communication statistics of '{}': {}", getThing().getUID(), miioCom.getStatistics());
             miioCom.unregisterListener(this);
             miioCom.close();
             this.miioCom = null;
@@ -211,6 +214,17 @@ public abstract class MiIoAbstractHandler extends BaseThingHandler implements Mi
         miIoScheduler.shutdownNow();
     }
 
+    /**
+     * Publishes the round trip times and timeouts of the communication with the device as thing property.
+     */
+    private void updateCommunicationStatistics() {
+        final @Nullable MiIoAsyncCommunication miioCom = this.miioCom;
+        final @Nullable DeviceStatistics statistics = miioCom != null ? miioCom.getStatistics() : null;
+        if (statistics != null) {
+            updateProperty(PROPERTY_COMMUNICATION_STATISTICS, statistics.toString());
+        }
+    }
+
     protected int sendCommand(MiIoCommand command) {
         return sendCommand(command, "[]");
     }
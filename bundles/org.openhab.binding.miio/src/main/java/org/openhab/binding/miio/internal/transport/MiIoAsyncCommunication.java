@@ -13,19 +13,17 @@
 package org.openhab.binding.miio.internal.transport;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
-import java.net.SocketException;
-import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -41,6 +39,8 @@ import org.openhab.binding.miio.internal.MiIoSendCommand;
 import org.openhab.binding.miio.internal.Utils;
 import org.openhab.binding.miio.internal.cloud.CloudConnector;
 import org.openhab.binding.miio.internal.cloud.MiCloudException;
+import org.openhab.binding.miio.internal.transport.MiIoTransport.DeviceStatistics;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
 import org.slf4j.Logger;
@@ -54,19 +54,23 @@ import com.google.gson.JsonSyntaxException;
 /**
  * The {@link MiIoAsyncCommunication} is responsible for communications with the Mi IO devices
  *
+ * The commands are sent through the {@link MiIoTransport} shared by all devices. The next command is sent as soon as
+ * the reply to the previous one has been handled, the replies are handled on the thread pool of the binding. Pings
+ * that are needed while handling a reply are chained on the transport instead of waiting for their answers.
+ *
  * @author Marcel Verpaalen - Initial contribution
  */
 @NonNullByDefault
 public class MiIoAsyncCommunication {
 
-    private static final int MSG_BUFFER_SIZE = 2048;
-
     private final Logger logger = LoggerFactory.getLogger(MiIoAsyncCommunication.class);
 
     private final String ip;
     private final byte[] token;
     private byte[] deviceId;
-    private @Nullable DatagramSocket socket;
+    private @Nullable MiIoTransport transport;
+    private @Nullable InetAddress address;
+    private final ExecutorService executor = ThreadPoolManager.getPool(MiIoBindingConstants.BINDING_ID);
 
     private List<MiIoMessageListener> listeners = new CopyOnWriteArrayList<>();
 
@@ -74,12 +78,14 @@ public class MiIoAsyncCommunication {
     private int timeDelta;
     private int timeStamp;
     private final JsonParser parser;
-    private @Nullable MessageSenderThread senderThread;
+    private boolean commandInFlight;
     private boolean connected;
     private ThingStatusDetail status = ThingStatusDetail.NONE;
     private int errorCounter;
     private int timeout;
     private boolean needPing = true;
+    private boolean closed;
+    private static final int PING_ATTEMPTS = 3;
     private static final int MAX_ERRORS = 3;
     private static final int MAX_ID = 15000;
     private final CloudConnector cloudConnector;
@@ -95,7 +101,6 @@ public class MiIoAsyncCommunication {
         this.cloudConnector = cloudConnector;
         setId(id);
         parser = new JsonParser();
-        startReceiver();
     }
 
     protected List<MiIoMessageListener> getListeners() {
@@ -104,13 +109,11 @@ public class MiIoAsyncCommunication {
 
     /**
      * Registers a {@link MiIoMessageListener} to be called back, when data is received.
-     * If no {@link MessageSenderThread} exists, when the method is called, it is being set up.
      *
      * @param listener {@link MiIoMessageListener} to be called back
      */
     public synchronized void registerListener(MiIoMessageListener listener) {
         needPing = true;
-        startReceiver();
         if (!getListeners().contains(listener)) {
             logger.trace("Adding socket listener {}", listener);
             getListeners().add(listener);
@@ -119,7 +122,7 @@ public class MiIoAsyncCommunication {
 
     /**
      * Unregisters a {@link MiIoMessageListener}. If there are no listeners left,
-     * the {@link MessageSenderThread} is being closed.
+     * the communication is being closed.
      *
      * @param listener {@link MiIoMessageListener} to be unregistered
      */
@@ -162,8 +165,10 @@ public class MiIoAsyncCommunication {
                         cloudServer.isBlank() ? "" : " Send via cloudserver: ", cloudServer);
             }
             if (needPing && cloudServer.isBlank()) {
-                sendPing(ip);
+                // the ping is sent before the command, its answer updates the time stamp of the command
+                pingInBackground();
             }
+            sendNextCommand();
             return cmdId;
         } catch (JsonSyntaxException e) {
             logger.warn("Send command '{}' with parameters {} -> {} (Device: {}) gave error {}", command, params, ip,
@@ -172,19 +177,103 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    MiIoSendCommand sendMiIoSendCommand(MiIoSendCommand miIoSendCommand) {
-        String errorMsg = "Unknown Error while sending command";
-        String decryptedResponse = "";
+    /**
+     * Provides the decrypted response to a command.
+     */
+    @FunctionalInterface
+    private interface ResponseSource {
+        String getResponse() throws MiIoCryptoException, IOException, MiCloudException;
+    }
+
+    /**
+     * Sends the next queued command, unless a command is in flight.
+     */
+    private void sendNextCommand() {
+        final MiIoSendCommand miIoSendCommand;
+        synchronized (this) {
+            if (commandInFlight) {
+                return;
+            }
+            miIoSendCommand = concurrentLinkedQueue.poll();
+            if (miIoSendCommand == null) {
+                return;
+            }
+            commandInFlight = true;
+        }
         try {
             if (miIoSendCommand.getCloudServer().isBlank()) {
-                decryptedResponse = sendCommand(miIoSendCommand.getCommandString(), token, ip, deviceId);
+                getTransport().send(getAddress(), () -> createMessage(miIoSendCommand.getCommandString()),
+                        response -> isResponseTo(response, miIoSendCommand.getId()), timeout)
+                        .thenApply(this::responseReceived).whenCompleteAsync((response, error) -> {
+                            commandFinished(sendMiIoSendCommand(miIoSendCommand,
+                                    () -> decryptResponse(miIoSendCommand.getCommandString(), response, error)));
+                        }, executor);
             } else {
-                decryptedResponse = cloudConnector.sendRPCCommand(Utils.getHex(deviceId),
-                        miIoSendCommand.getCloudServer(), miIoSendCommand);
-                logger.debug("Command {} send via cloudserver {}", miIoSendCommand.getCommandString(),
-                        miIoSendCommand.getCloudServer());
-                updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE);
+                executor.execute(() -> commandFinished(sendMiIoSendCommand(miIoSendCommand, () -> {
+                    String response = cloudConnector.sendRPCCommand(Utils.getHex(deviceId),
+                            miIoSendCommand.getCloudServer(), miIoSendCommand);
+                    logger.debug("Command {} send via cloudserver {}", miIoSendCommand.getCommandString(),
+                            miIoSendCommand.getCloudServer());
+                    updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE);
+                    return response;
+                })));
+            }
+        } catch (IOException e) {
+            executor.execute(() -> commandFinished(sendMiIoSendCommand(miIoSendCommand, () -> {
+                throw e;
+            })));
+        } catch (RuntimeException e) {
+            logger.warn("Error while sending message", e);
+            synchronized (this) {
+                commandInFlight = false;
+            }
+        }
+    }
+
+    private void commandFinished(MiIoSendCommand miIoSendCommand) {
+        for (MiIoMessageListener listener : listeners) {
+            logger.trace("inform listener {}, data {}", listener, miIoSendCommand);
+            try {
+                listener.onMessageReceived(miIoSendCommand);
+            } catch (Exception e) {
+                logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
+            }
+        }
+        synchronized (this) {
+            commandInFlight = false;
+        }
+        sendNextCommand();
+    }
+
+    /**
+     * Checks if a received message is the response to a command. Late responses to earlier commands are not, any
+     * other message is handled as response, invalid messages are reported by the handling of the response.
+     */
+    private boolean isResponseTo(byte[] response, int commandId) {
+        if (response.length <= 32) {
+            return true;
+        }
+        try {
+            Message message = new Message(response);
+            if (!message.isChecksumValid()) {
+                return true;
+            }
+            String decrypted = new String(MiIoCrypto.decrypt(message.getData(), token), StandardCharsets.UTF_8);
+            JsonElement json = parser.parse(decrypted.trim().replace(",,", ","));
+            if (json.isJsonObject() && json.getAsJsonObject().has("id")) {
+                return json.getAsJsonObject().get("id").getAsInt() >= commandId;
             }
+        } catch (MiIoCryptoException | RuntimeException e) {
+            // handled with the response
+        }
+        return true;
+    }
+
+    MiIoSendCommand sendMiIoSendCommand(MiIoSendCommand miIoSendCommand, ResponseSource responseSource) {
+        String errorMsg = "Unknown Error while sending command";
+        String decryptedResponse = "";
+        try {
+            decryptedResponse = responseSource.getResponse();
             // hack due to avoid invalid json errors from some misbehaving device firmwares
             decryptedResponse = decryptedResponse.replace(",,", ",");
             JsonElement response;
@@ -237,61 +326,28 @@ public class MiIoAsyncCommunication {
         return miIoSendCommand;
     }
 
-    public synchronized void startReceiver() {
-        MessageSenderThread senderThread = this.senderThread;
-        if (senderThread == null || !senderThread.isAlive()) {
-            senderThread = new MessageSenderThread();
-            senderThread.start();
-            this.senderThread = senderThread;
+    private synchronized MiIoTransport getTransport() throws IOException {
+        if (closed) {
+            throw new IOException("The communication with " + ip + " has been closed");
         }
-    }
-
-    /**
-     * The {@link MessageSenderThread} is responsible for consuming messages from the queue and sending these to the
-     * device
-     *
-     */
-    private class MessageSenderThread extends Thread {
-        public MessageSenderThread() {
-            super("Mi IO MessageSenderThread");
-            setDaemon(true);
+        MiIoTransport transport = this.transport;
+        if (transport == null) {
+            transport = MiIoTransport.acquire();
+            this.transport = transport;
         }
+        return transport;
+    }
 
-        @Override
-        public void run() {
-            logger.debug("Starting Mi IO MessageSenderThread");
-            while (!interrupted()) {
-                try {
-                    if (concurrentLinkedQueue.isEmpty()) {
-                        Thread.sleep(100);
-                        continue;
-                    }
-                    MiIoSendCommand queuedMessage = concurrentLinkedQueue.remove();
-                    MiIoSendCommand miIoSendCommand = sendMiIoSendCommand(queuedMessage);
-                    for (MiIoMessageListener listener : listeners) {
-                        logger.trace("inform listener {}, data {} from {}", listener, queuedMessage, miIoSendCommand);
-                        try {
-                            listener.onMessageReceived(miIoSendCommand);
-                        } catch (Exception e) {
-                            logger.debug("Could not inform listener {}: {}: ", listener, e.getMessage(), e);
-                        }
-                    }
-                } catch (NoSuchElementException e) {
-                    // ignore
-                } catch (InterruptedException e) {
-                    // That's our signal to stop
-                    break;
-                } catch (Exception e) {
-                    logger.warn("Error while polling/sending message", e);
-                }
-            }
-            closeSocket();
-            logger.debug("Finished Mi IO MessageSenderThread");
+    private synchronized InetAddress getAddress() throws IOException {
+        InetAddress address = this.address;
+        if (address == null) {
+            address = InetAddress.getByName(ip);
+            this.address = address;
         }
+        return address;
     }
 
-    private String sendCommand(String command, byte[] token, String ip, byte[] deviceId)
-            throws MiIoCryptoException, IOException {
+    private byte[] createMessage(String command) throws MiIoCryptoException {
         byte[] sendMsg = new byte[0];
         if (!command.isBlank()) {
             byte[] encr;
@@ -299,18 +355,25 @@ public class MiIoAsyncCommunication {
             timeStamp = (int) Instant.now().getEpochSecond();
             sendMsg = Message.createMsgData(encr, token, deviceId, timeStamp + timeDelta);
         }
-        Message miIoResponseMsg = sendData(sendMsg, ip);
+        return sendMsg;
+    }
+
+    private String decryptResponse(String command, @Nullable Message miIoResponseMsg, @Nullable Throwable error)
+            throws MiIoCryptoException, IOException {
+        if (error != null) {
+            throw getIOException(error);
+        }
         if (miIoResponseMsg == null) {
             if (logger.isTraceEnabled()) {
                 logger.trace("No response from device {} at {} for command {}.\r\n{}", Utils.getHex(deviceId), ip,
-                        command, (new Message(sendMsg)).toSting());
+                        command, getStatistics());
             } else {
                 logger.debug("No response from device {} at {} for command {}.", Utils.getHex(deviceId), ip, command);
             }
             errorCounter++;
             if (errorCounter > MAX_ERRORS) {
                 status = ThingStatusDetail.CONFIGURATION_ERROR;
-                sendPing(ip);
+                pingInBackground();
             }
             return "{\"error\":\"No Response\"}";
         }
@@ -330,17 +393,59 @@ public class MiIoAsyncCommunication {
         return decryptedResponse;
     }
 
+    /**
+     * Pings the device and waits for the answer.
+     *
+     * @param ip the address of the device
+     * @return the answer of the device or null if it has not answered
+     */
     public @Nullable Message sendPing(String ip) throws IOException {
-        for (int i = 0; i < 3; i++) {
-            logger.debug("Sending Ping {} ({})", Utils.getHex(deviceId), ip);
-            Message resp = sendData(MiIoBindingConstants.DISCOVER_STRING, ip);
-            if (resp != null) {
-                pingSuccess();
-                return resp;
+        try {
+            return sendPingAsync(ip, PING_ATTEMPTS).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response of " + ip);
+        } catch (ExecutionException e) {
+            throw getIOException(e.getCause());
+        }
+    }
+
+    /**
+     * Pings the device without waiting for the answer, the status is updated when the ping has finished.
+     */
+    private void pingInBackground() {
+        sendPingAsync(ip, PING_ATTEMPTS).whenComplete((response, error) -> {
+            if (error != null) {
+                logger.debug("Ping {} ({}) not possible: {}", Utils.getHex(deviceId), ip,
+                        getIOException(error).getMessage());
             }
+        });
+    }
+
+    /**
+     * Sends a ping and, while the device does not answer, the remaining attempts. Each attempt is chained on the reply
+     * or timeout of the previous one, no thread waits for the device.
+     */
+    private CompletableFuture<@Nullable Message> sendPingAsync(String ip, int attempts) {
+        logger.debug("Sending Ping {} ({})", Utils.getHex(deviceId), ip);
+        CompletableFuture<byte[]> request;
+        try {
+            request = getTransport().send(InetAddress.getByName(ip), () -> MiIoBindingConstants.DISCOVER_STRING,
+                    response -> true, timeout);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        pingFail();
-        return null;
+        return request.thenApply(this::responseReceived).thenComposeAsync(response -> {
+            if (response != null) {
+                pingSuccess();
+                return CompletableFuture.completedFuture(response);
+            }
+            if (attempts > 1) {
+                return sendPingAsync(ip, attempts - 1);
+            }
+            pingFail();
+            return CompletableFuture.completedFuture(null);
+        }, executor);
     }
 
     private void pingFail() {
@@ -377,8 +482,19 @@ public class MiIoAsyncCommunication {
         }
     }
 
-    private @Nullable Message sendData(byte[] sendMsg, String ip) throws IOException {
-        byte[] response = comms(sendMsg, ip);
+    private IOException getIOException(@Nullable Throwable error) {
+        Throwable cause = error instanceof CompletionException || error instanceof ExecutionException
+                ? error.getCause()
+                : error;
+        return cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+
+    /**
+     * Handles the header of a received message, called by the transport before the next message is created.
+     *
+     * @return the message or null if no valid message has been received
+     */
+    private @Nullable Message responseReceived(byte[] response) {
         if (response.length >= 32) {
             Message miIoResponse = new Message(response);
             timeStamp = (int) TimeUnit.MILLISECONDS.toSeconds(Calendar.getInstance().getTime().getTime());
@@ -387,71 +503,22 @@ public class MiIoAsyncCommunication {
             return miIoResponse;
         } else {
             logger.trace("Reponse length <32 : {}", response.length);
-            return null;
-        }
-    }
-
-    private synchronized byte[] comms(byte[] message, String ip) throws IOException {
-        InetAddress ipAddress = InetAddress.getByName(ip);
-        DatagramSocket clientSocket = getSocket();
-        DatagramPacket receivePacket = new DatagramPacket(new byte[MSG_BUFFER_SIZE], MSG_BUFFER_SIZE);
-        try {
-            logger.trace("Connection {}:{}", ip, clientSocket.getLocalPort());
-            if (message.length > 0) {
-                byte[] sendData = new byte[MSG_BUFFER_SIZE];
-                sendData = message;
-                DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, ipAddress,
-                        MiIoBindingConstants.PORT);
-                clientSocket.send(sendPacket);
-                sendPacket.setData(new byte[MSG_BUFFER_SIZE]);
-            }
-            clientSocket.receive(receivePacket);
-            byte[] response = Arrays.copyOfRange(receivePacket.getData(), receivePacket.getOffset(),
-                    receivePacket.getOffset() + receivePacket.getLength());
-            return response;
-        } catch (SocketTimeoutException e) {
-            logger.debug("Communication error for Mi device at {}: {}", ip, e.getMessage());
-            needPing = true;
-            return new byte[0];
-        }
-    }
-
-    private DatagramSocket getSocket() throws SocketException {
-        @Nullable
-        DatagramSocket socket = this.socket;
-        if (socket == null || socket.isClosed()) {
-            socket = new DatagramSocket();
-            socket.setSoTimeout(timeout);
-            logger.debug("Opening socket on port: {} ", socket.getLocalPort());
-            this.socket = socket;
-            return socket;
-        } else {
-            return socket;
-        }
-    }
-
-    public void close() {
-        try {
-            final MessageSenderThread senderThread = this.senderThread;
-            if (senderThread != null) {
-                senderThread.interrupt();
+            if (response.length == 0) {
+                // the request has timed out
+                needPing = true;
             }
-        } catch (SecurityException e) {
-            logger.debug("Error while closing: {} ", e.getMessage());
+            return null;
         }
-        closeSocket();
     }
 
-    public void closeSocket() {
-        try {
-            final DatagramSocket socket = this.socket;
-            if (socket != null) {
-                logger.debug("Closing socket for port: {} ", socket.getLocalPort());
-                socket.close();
-                this.socket = null;
-            }
-        } catch (SecurityException e) {
-            logger.debug("Error while closing: {} ", e.getMessage());
+    /**
+     * Releases the transport, the communication can not be used afterwards.
+     */
+    public synchronized void close() {
+        closed = true;
+        if (transport != null) {
+            MiIoTransport.release();
+            transport = null;
         }
     }
 
@@ -489,4 +556,13 @@ public class MiIoAsyncCommunication {
     public int getQueueLength() {
         return concurrentLinkedQueue.size();
     }
+
+    /**
+     * Returns the statistics of the communication with the device, e.g. the round trip time and the timeouts.
+     */
+    public synchronized @Nullable DeviceStatistics getStatistics() {
+        MiIoTransport transport = this.transport;
+        InetAddress address = this.address;
+        return transport == null || address == null ? null : transport.getStatistics(address);
+    }
 }
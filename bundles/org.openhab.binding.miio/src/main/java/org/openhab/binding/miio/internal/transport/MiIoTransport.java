@@ -0,0 +1,429 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.miio.internal.transport;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.miio.internal.MiIoBindingConstants;
+import org.openhab.binding.miio.internal.MiIoCryptoException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MiIoTransport} sends the messages of all Mi IO devices through a single non-blocking UDP channel, served
+ * by a single thread, instead of a socket and a thread per device.
+ *
+ * The replies are routed to the request by the address of the device. A device only handles one request at a time,
+ * so per device only one request is in flight, further requests wait in the queue of the device and are sent as soon
+ * as the reply of the previous request has been received or it has timed out. Replies rejected by the response matcher
+ * of the request, e.g. late replies to an earlier request, are dropped and the request keeps waiting.
+ *
+ * The transport is opened when the first device communication acquires it and closed when the last one releases it.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MiIoTransport {
+    private static final int MSG_BUFFER_SIZE = 2048;
+
+    private static @Nullable MiIoTransport instance;
+    private static int users;
+
+    /**
+     * Creates the message of a request, right before it is sent, so it is encrypted with the latest device time.
+     */
+    @FunctionalInterface
+    public interface MessageFactory {
+        byte[] createMessage() throws MiIoCryptoException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MiIoTransport.class);
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private final Map<InetAddress, Device> devices = new HashMap<>();
+
+    private MiIoTransport() throws IOException {
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(null);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+        thread = new Thread(this::run, "OH-binding-" + MiIoBindingConstants.BINDING_ID + "-transport");
+        thread.setDaemon(true);
+        thread.start();
+        logger.debug("Opened Mi IO transport on port {}", channel.socket().getLocalPort());
+    }
+
+    /**
+     * Returns the transport, it is opened if it is not used yet. Each call must be paired with a call of
+     * {@link #release()}.
+     */
+    public static synchronized MiIoTransport acquire() throws IOException {
+        MiIoTransport transport = instance;
+        if (transport == null) {
+            transport = new MiIoTransport();
+            instance = transport;
+        }
+        users++;
+        return transport;
+    }
+
+    /**
+     * Releases the transport, it is closed when it is not used any more.
+     */
+    public static synchronized void release() {
+        MiIoTransport transport = instance;
+        if (transport != null && --users <= 0) {
+            users = 0;
+            instance = null;
+            transport.close();
+        }
+    }
+
+    /**
+     * Sends a message to a device, once the previous requests to this device have been answered or have timed out.
+     *
+     * @param address the address of the device
+     * @param messageFactory creates the message, an empty message only waits for a reply
+     * @param responseMatcher accepts the reply to this request
+     * @param timeout the time in milliseconds to wait for the reply after the message has been sent
+     * @return the reply, an empty array if the request has timed out
+     */
+    public CompletableFuture<byte[]> send(InetAddress address, MessageFactory messageFactory,
+            Predicate<byte[]> responseMatcher, int timeout) {
+        Request request = new Request(messageFactory, responseMatcher, timeout);
+        if (closed) {
+            request.future.completeExceptionally(new IOException("The Mi IO transport is closed"));
+            return request.future;
+        }
+        boolean idle;
+        synchronized (this) {
+            Device device = devices.computeIfAbsent(address, Device::new);
+            device.queue.add(request);
+            idle = device.current == null;
+        }
+        if (idle) {
+            sendNext(address);
+        }
+        return request.future;
+    }
+
+    /**
+     * Returns the statistics of a device or null if nothing has been sent to it yet.
+     */
+    public synchronized @Nullable DeviceStatistics getStatistics(InetAddress address) {
+        Device device = devices.get(address);
+        return device == null ? null : device.statistics.copy();
+    }
+
+    /**
+     * Returns the number of requests waiting or in flight for a device.
+     */
+    public synchronized int getQueueLength(InetAddress address) {
+        Device device = devices.get(address);
+        return device == null ? 0 : device.queue.size() + (device.current == null ? 0 : 1);
+    }
+
+    /**
+     * Sends the next request of a device, if no request is in flight.
+     */
+    private void sendNext(InetAddress address) {
+        while (true) {
+            Request request;
+            synchronized (this) {
+                Device device = devices.get(address);
+                if (device == null || device.current != null || device.queue.isEmpty()) {
+                    return;
+                }
+                request = device.queue.remove();
+                device.current = request;
+            }
+            try {
+                byte[] message = request.messageFactory.createMessage();
+                synchronized (this) {
+                    Device device = devices.get(address);
+                    if (device == null || device.current != request) {
+                        throw new IOException("The Mi IO transport is closed");
+                    }
+                    if (message.length > 0) {
+                        channel.send(ByteBuffer.wrap(message),
+                                new InetSocketAddress(address, MiIoBindingConstants.PORT));
+                    }
+                    request.sent = System.nanoTime();
+                    request.deadline = request.sent + TimeUnit.MILLISECONDS.toNanos(request.timeout);
+                    device.statistics.requests++;
+                }
+                // the transport thread has to wait for the new deadline
+                selector.wakeup();
+                return;
+            } catch (MiIoCryptoException | IOException | RuntimeException e) {
+                synchronized (this) {
+                    Device device = devices.get(address);
+                    if (device != null && device.current == request) {
+                        device.current = null;
+                    }
+                }
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocate(MSG_BUFFER_SIZE);
+        while (!closed) {
+            try {
+                selector.select(getWaitTime());
+                selector.selectedKeys().clear();
+                SocketAddress sender;
+                while ((sender = receive(buffer)) != null) {
+                    byte[] data = new byte[buffer.remaining()];
+                    buffer.get(data);
+                    if (sender instanceof InetSocketAddress) {
+                        responseReceived(((InetSocketAddress) sender).getAddress(), data);
+                    }
+                }
+                expireRequests();
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    logger.warn("Error in the Mi IO transport: {}", e.getMessage(), e);
+                }
+            }
+        }
+        logger.debug("Closed Mi IO transport");
+    }
+
+    private @Nullable SocketAddress receive(ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        SocketAddress sender = channel.receive(buffer);
+        buffer.flip();
+        return sender;
+    }
+
+    /**
+     * Returns the time until the earliest deadline of the requests in flight, 0 to wait until a reply is received.
+     */
+    private synchronized long getWaitTime() {
+        long now = System.nanoTime();
+        long wait = 0;
+        for (Device device : devices.values()) {
+            Request request = device.current;
+            if (request != null && request.deadline != 0) {
+                long remaining = Math.max(1, TimeUnit.NANOSECONDS.toMillis(request.deadline - now) + 1);
+                wait = wait == 0 ? remaining : Math.min(wait, remaining);
+            }
+        }
+        return wait;
+    }
+
+    private void responseReceived(InetAddress address, byte[] data) {
+        Request request;
+        synchronized (this) {
+            Device device = devices.get(address);
+            request = device == null ? null : device.current;
+            if (device == null || request == null || request.deadline == 0) {
+                logger.trace("Dropping unexpected message from {} ({} bytes)", address, data.length);
+                return;
+            }
+            if (!request.responseMatcher.test(data)) {
+                logger.trace("Dropping message from {}, it does not belong to the request in flight", address);
+                device.statistics.droppedResponses++;
+                return;
+            }
+            device.current = null;
+            device.statistics.responseReceived(System.nanoTime() - request.sent);
+        }
+        request.future.complete(data);
+        sendNext(address);
+    }
+
+    private void expireRequests() {
+        List<InetAddress> expired = new ArrayList<>();
+        List<Request> expiredRequests = new ArrayList<>();
+        long now = System.nanoTime();
+        synchronized (this) {
+            for (Device device : devices.values()) {
+                Request request = device.current;
+                if (request != null && request.deadline != 0 && request.deadline - now <= 0) {
+                    device.current = null;
+                    device.statistics.timeouts++;
+                    expired.add(device.address);
+                    expiredRequests.add(request);
+                }
+            }
+        }
+        for (int i = 0; i < expired.size(); i++) {
+            logger.debug("Communication error for Mi device at {}: Receive timed out", expired.get(i));
+            expiredRequests.get(i).future.complete(new byte[0]);
+            sendNext(expired.get(i));
+        }
+    }
+
+    private void close() {
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            selector.close();
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error while closing the Mi IO transport: {}", e.getMessage());
+        }
+        List<Request> pending = new ArrayList<>();
+        synchronized (this) {
+            for (Device device : devices.values()) {
+                Request request = device.current;
+                if (request != null) {
+                    pending.add(request);
+                }
+                pending.addAll(device.queue);
+            }
+            devices.clear();
+        }
+        pending.forEach(request -> request.future.completeExceptionally(new IOException("Transport closed")));
+    }
+
+    /**
+     * The requests of a single device.
+     */
+    private static class Device {
+        private final InetAddress address;
+        private final ArrayDeque<Request> queue = new ArrayDeque<>();
+        private @Nullable Request current;
+        private final DeviceStatistics statistics = new DeviceStatistics();
+
+        private Device(InetAddress address) {
+            this.address = address;
+        }
+    }
+
+    private static class Request {
+        private final MessageFactory messageFactory;
+        private final Predicate<byte[]> responseMatcher;
+        private final int timeout;
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        private long sent;
+        // 0 until the request has been sent
+        private long deadline;
+
+        private Request(MessageFactory messageFactory, Predicate<byte[]> responseMatcher, int timeout) {
+            this.messageFactory = messageFactory;
+            this.responseMatcher = responseMatcher;
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * The number of requests, replies and timeouts of a device and the round trip times of the replies.
+     */
+    public static class DeviceStatistics {
+        private long requests;
+        private long responses;
+        private long timeouts;
+        private long droppedResponses;
+        private long totalRoundTripNanos;
+        private long lastRoundTripNanos;
+        private long maxRoundTripNanos;
+
+        private void responseReceived(long roundTripNanos) {
+            responses++;
+            totalRoundTripNanos += roundTripNanos;
+            lastRoundTripNanos = roundTripNanos;
+            maxRoundTripNanos = Math.max(maxRoundTripNanos, roundTripNanos);
+        }
+
+        private DeviceStatistics copy() {
+            DeviceStatistics copy = new DeviceStatistics();
+            copy.requests = requests;
+            copy.responses = responses;
+            copy.timeouts = timeouts;
+            copy.droppedResponses = droppedResponses;
+            copy.totalRoundTripNanos = totalRoundTripNanos;
+            copy.lastRoundTripNanos = lastRoundTripNanos;
+            copy.maxRoundTripNanos = maxRoundTripNanos;
+            return copy;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getResponses() {
+            return responses;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        /**
+         * Returns the number of replies that did not belong to the request in flight, e.g. late replies.
+         */
+        public long getDroppedResponses() {
+            return droppedResponses;
+        }
+
+        /**
+         * Returns the average round trip time in milliseconds.
+         */
+        public double getAverageRoundTripTime() {
+            return responses == 0 ? 0 : totalRoundTripNanos / 1000000.0 / responses;
+        }
+
+        /**
+         * Returns the round trip time of the last reply in milliseconds.
+         */
+        public double getLastRoundTripTime() {
+            return lastRoundTripNanos / 1000000.0;
+        }
+
+        /**
+         * Returns the longest round trip time in milliseconds.
+         */
+        public double getMaxRoundTripTime() {
+            return maxRoundTripNanos / 1000000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d requests, %d responses, %d timeouts, %d dropped, round trip %.1f ms average, %.1f ms max",
+                    requests, responses, timeouts, droppedResponses, getAverageRoundTripTime(),
+                    getMaxRoundTripTime());
+        }
+    }
+}
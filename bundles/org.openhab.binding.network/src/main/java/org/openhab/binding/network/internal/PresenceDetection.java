@@ -17,10 +17,12 @@ import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -51,8 +53,10 @@ public class PresenceDetection implements IPRequestReceivedCallback {
 
     public static final double NOT_REACHABLE = -1;
     public static final int DESTINATION_TTL = 300 * 1000; // in ms, 300 s
+    private static final int TCP_KNOCK_TIMEOUT = 1000; // in ms
 
     NetworkUtils networkUtils = new NetworkUtils();
+    PresenceDetectionEngine engine = PresenceDetectionEngine.getInstance();
     private final Logger logger = LoggerFactory.getLogger(PresenceDetection.class);
 
     /// Configuration variables
@@ -279,14 +283,20 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         cache.getValue(callback);
     }
 
+    /**
+     * Returns the executor for the checks of a single presence detection. The checks of all detections share the
+     * threads of the {@link PresenceDetectionEngine}.
+     *
+     * @param threadCount The number of checks of the detection
+     */
     public ExecutorService getThreadsFor(int threadCount) {
-        return Executors.newFixedThreadPool(threadCount);
+        return engine.newDetection();
     }
 
     /**
      * Perform a presence detection with ICMP-, ARP ping and
-     * TCP connection attempts simultaneously. A fixed thread pool will be created with as many
-     * thread as necessary to perform all tests at once.
+     * TCP connection attempts simultaneously. The checks are run on the shared threads of the
+     * {@link PresenceDetectionEngine}, equal checks of different detections are only performed once at a time.
      *
      * This is a NO-OP, if there is already an ongoing detection or if the cached value
      * is not expired yet.
@@ -295,6 +305,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * - ARP pings are only executed on IPv4 addresses.
      * - Non system / Java pings are not recommended at all
      * (not interruptible, useless TCP echo service fall back)
+     * - Before a system ping or ARP ping, a TCP connection attempt is made and the ARP cache of the system is checked.
+     * The ping processes are only forked if the host has neither answered the connection attempt nor is in the ARP
+     * cache.
      *
      * @param waitForDetectionToFinish If you want to synchronously wait for the result, set this to true
      * @return Return true if a presence detection is performed and false otherwise.
@@ -311,16 +324,16 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             return false;
         }
 
-        Set<String> interfaceNames = null;
+        final boolean systemPing = pingMethod != null && pingMethod != IpPingMethodEnum.JAVA_PING;
+        final boolean arpPing = arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL;
 
         currentCheck = 0;
         detectionChecks = tcpPorts.size();
-        if (pingMethod != null) {
+        if (pingMethod == IpPingMethodEnum.JAVA_PING) {
             detectionChecks += 1;
         }
-        if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
-            interfaceNames = networkUtils.getInterfaceNames();
-            detectionChecks += interfaceNames.size();
+        if (systemPing || arpPing) {
+            detectionChecks += 1;
         }
 
         if (detectionChecks == 0) {
@@ -331,50 +344,90 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         this.executorService = executorService;
 
         for (Integer tcpPort : tcpPorts) {
-            executorService.execute(() -> {
+            executeCheck(executorService, () -> {
                 Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
                 performServicePing(tcpPort);
-                checkIfFinished();
             });
         }
 
+        // The TCP knock and the ARP cache do not fork a process, the ping processes are only forked if both fail
+        if (systemPing || arpPing) {
+            executeCheck(executorService, () -> {
+                Thread.currentThread().setName("presenceDetectionKnock_" + hostname);
+                if (!performTcpKnock() && !performArpCacheCheck()) {
+                    executePingProcesses(executorService, systemPing, arpPing);
+                }
+            });
+        }
+
+        // Java ping
+        if (pingMethod == IpPingMethodEnum.JAVA_PING) {
+            executeCheck(executorService, this::performJavaPing);
+        }
+
+        if (waitForDetectionToFinish) {
+            waitForPresenceDetection();
+        }
+
+        return true;
+    }
+
+    /**
+     * Forks the ARP ping and the system ping processes. The checks are added to the running detection.
+     */
+    private void executePingProcesses(ExecutorService executorService, boolean systemPing, boolean arpPing) {
+        List<Runnable> checks = new ArrayList<>();
         // ARP ping for IPv4 addresses. Use single executor for Windows tool and
         // each own executor for each network interface for other tools
         if (arpPingMethod == ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
-            executorService.execute(() -> {
+            checks.add(() -> {
                 Thread.currentThread().setName("presenceDetectionARP_" + hostname + " ");
                 // arp-ping.exe tool capable of handling multiple interfaces by itself
                 performARPping("");
-                checkIfFinished();
             });
-        } else if (interfaceNames != null) {
-            for (final String interfaceName : interfaceNames) {
-                executorService.execute(() -> {
+        } else if (arpPing) {
+            for (final String interfaceName : networkUtils.getInterfaceNames()) {
+                checks.add(() -> {
                     Thread.currentThread().setName("presenceDetectionARP_" + hostname + " " + interfaceName);
                     performARPping(interfaceName);
-                    checkIfFinished();
                 });
             }
         }
-
         // ICMP ping
-        if (pingMethod != null) {
-            executorService.execute(() -> {
-                if (pingMethod != IpPingMethodEnum.JAVA_PING) {
-                    Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
-                    performSystemPing();
-                } else {
-                    performJavaPing();
-                }
-                checkIfFinished();
+        if (systemPing) {
+            checks.add(() -> {
+                Thread.currentThread().setName("presenceDetectionICMP_" + hostname);
+                performSystemPing();
             });
         }
 
-        if (waitForDetectionToFinish) {
-            waitForPresenceDetection();
+        synchronized (this) {
+            if (this.executorService != executorService) {
+                // the detection has already finished
+                return;
+            }
+            detectionChecks += checks.size();
         }
+        checks.forEach(check -> executeCheck(executorService, check));
+    }
 
-        return true;
+    /**
+     * Runs a check of the detection. A check that is rejected because the shared threads are overloaded counts as
+     * finished without a result.
+     */
+    private void executeCheck(ExecutorService executorService, Runnable check) {
+        try {
+            executorService.execute(() -> {
+                try {
+                    check.run();
+                } finally {
+                    checkIfFinished();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("Skipping a presence detection check for {}: {}", hostname, e.getMessage());
+            checkIfFinished();
+        }
     }
 
     /**
@@ -478,21 +531,76 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         try {
             InetAddress destinationAddress = destination.getValue();
             if (destinationAddress != null) {
-                networkUtils.servicePing(destinationAddress.getHostAddress(), tcpPort, timeoutInMS).ifPresent(o -> {
-                    if (o.isSuccess()) {
-                        PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
-                                getLatency(o, preferResponseTimeAsLatency));
-                        v.addReachableTcpService(tcpPort);
-                        updateListener.partialDetectionResult(v);
-                    }
-                });
+                String hostAddress = destinationAddress.getHostAddress();
+                engine.probe("TCP", hostAddress + ":" + tcpPort,
+                        () -> networkUtils.servicePing(hostAddress, tcpPort, timeoutInMS)).ifPresent(o -> {
+                            if (o.isSuccess()) {
+                                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
+                                        getLatency(o, preferResponseTimeAsLatency));
+                                v.addReachableTcpService(tcpPort);
+                                updateListener.partialDetectionResult(v);
+                            }
+                        });
             }
         } catch (IOException e) {
             // This should not happen and might be a user configuration issue, we log a warning message therefore.
             logger.warn("Could not create a socket connection", e);
+        } catch (InterruptedException ignored) {
+            // This can be ignored, the thread will end anyway
         }
     }
 
+    /**
+     * Tries a TCP connection to the destination before the ping processes are forked. A host that accepts or refuses
+     * the connection is present.
+     *
+     * @return true if the host has answered
+     */
+    protected boolean performTcpKnock() {
+        logger.trace("Perform TCP knock presence detection for {}", hostname);
+        try {
+            InetAddress destinationAddress = destination.getValue();
+            if (destinationAddress == null) {
+                return false;
+            }
+            return engine.probe("TCP_KNOCK", destinationAddress.getHostAddress(),
+                    () -> networkUtils.tcpKnock(destinationAddress, Math.min(timeoutInMS, TCP_KNOCK_TIMEOUT)))
+                    .map(o -> reportSuccess(o, PresenceDetectionType.TCP_KNOCK)).orElse(false);
+        } catch (IOException | InterruptedException ignored) {
+            // The TCP knock does not throw, the thread will end anyway
+            return false;
+        }
+    }
+
+    /**
+     * Checks the ARP cache of the system for the destination, the entry is refreshed by the preceding TCP knock.
+     *
+     * @return true if the destination has a resolved entry in the ARP cache
+     */
+    protected boolean performArpCacheCheck() {
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null || arpPingMethod == ArpPingUtilEnum.UNKNOWN_TOOL) {
+            return false;
+        }
+        logger.trace("Perform ARP cache presence detection for {}", hostname);
+        try {
+            return engine.probe("ARP_CACHE", destinationAddress.getHostAddress(),
+                    () -> networkUtils.arpCacheLookup(destinationAddress))
+                    .map(o -> reportSuccess(o, PresenceDetectionType.ARP_PING)).orElse(false);
+        } catch (IOException | InterruptedException ignored) {
+            // The ARP cache lookup does not throw, the thread will end anyway
+            return false;
+        }
+    }
+
+    private boolean reportSuccess(PingResult pingResult, PresenceDetectionType type) {
+        if (pingResult.isSuccess()) {
+            PresenceDetectionValue v = updateReachableValue(type, getLatency(pingResult, preferResponseTimeAsLatency));
+            updateListener.partialDetectionResult(v);
+        }
+        return pingResult.isSuccess();
+    }
+
     /**
      * Performs an "ARP ping" (ARP request) on the given interface.
      * If it is an iOS device, the {@see NetworkUtils.wakeUpIOS()} method is
@@ -512,9 +620,9 @@ public class PresenceDetection implements IPRequestReceivedCallback {
                 networkUtils.wakeUpIOS(destinationAddress);
                 Thread.sleep(50);
             }
-
-            networkUtils.nativeARPPing(arpPingMethod, arpPingUtilPath, interfaceName,
-                    destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
+            String hostAddress = destinationAddress.getHostAddress();
+            engine.probe("ARP", hostAddress + "%" + interfaceName, () -> networkUtils.nativeARPPing(arpPingMethod,
+                    arpPingUtilPath, interfaceName, hostAddress, timeoutInMS)).ifPresent(o -> {
                         if (o.isSuccess()) {
                             PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ARP_PING,
                                     getLatency(o, preferResponseTimeAsLatency));
@@ -542,13 +650,18 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             return;
         }
 
-        networkUtils.javaPing(timeoutInMS, destinationAddress).ifPresent(o -> {
-            if (o.isSuccess()) {
-                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                        getLatency(o, preferResponseTimeAsLatency));
-                updateListener.partialDetectionResult(v);
-            }
-        });
+        try {
+            engine.probe("JAVA_PING", destinationAddress.getHostAddress(),
+                    () -> networkUtils.javaPing(timeoutInMS, destinationAddress)).ifPresent(o -> {
+                        if (o.isSuccess()) {
+                            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
+                                    getLatency(o, preferResponseTimeAsLatency));
+                            updateListener.partialDetectionResult(v);
+                        }
+                    });
+        } catch (IOException | InterruptedException ignored) {
+            // The java ping does not throw, the thread will end anyway
+        }
     }
 
     protected void performSystemPing() {
@@ -558,14 +671,15 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             if (destinationAddress == null) {
                 return;
             }
-
-            networkUtils.nativePing(pingMethod, destinationAddress.getHostAddress(), timeoutInMS).ifPresent(o -> {
-                if (o.isSuccess()) {
-                    PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
-                            getLatency(o, preferResponseTimeAsLatency));
-                    updateListener.partialDetectionResult(v);
-                }
-            });
+            String hostAddress = destinationAddress.getHostAddress();
+            engine.probe("ICMP", hostAddress, () -> networkUtils.nativePing(pingMethod, hostAddress, timeoutInMS))
+                    .ifPresent(o -> {
+                        if (o.isSuccess()) {
+                            PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.ICMP_PING,
+                                    getLatency(o, preferResponseTimeAsLatency));
+                            updateListener.partialDetectionResult(v);
+                        }
+                    });
         } catch (IOException e) {
             logger.trace("Failed to execute a native ping for ip {}", hostname, e);
         } catch (InterruptedException e) {
@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.network.internal.utils.PingResult;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PresenceDetectionEngine} runs the checks of all presence detections of the binding on one bounded thread
+ * pool, instead of a new thread pool per detection.
+ *
+ * Equal probes, e.g. the ICMP ping of a host that is configured as ping device and as service device, are only
+ * performed once at a time. A probe requested while the same probe is in flight waits for and shares its result.
+ *
+ * The pool and its queue are bounded, checks exceeding the {@link #QUEUE_CAPACITY} are rejected. The number of probes,
+ * their failures and their execution time are recorded per probe method.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceDetectionEngine {
+    public static final int THREAD_COUNT = Math.max(32, Runtime.getRuntime().availableProcessors() * 8);
+    // the checks of about 500 hosts may wait for a free thread, further checks are rejected
+    public static final int QUEUE_CAPACITY = 2000;
+
+    // how long the tasks of a detection may wait for a free thread before the detection is given up
+    private static final long MAX_QUEUE_DELAY_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long STATISTICS_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final PresenceDetectionEngine INSTANCE = new PresenceDetectionEngine(THREAD_COUNT);
+
+    /**
+     * A single probe, e.g. a ping or a TCP connection attempt.
+     */
+    @FunctionalInterface
+    public interface Probe {
+        Optional<PingResult> run() throws IOException, InterruptedException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceDetectionEngine.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Optional<PingResult>>> inFlightProbes = new ConcurrentHashMap<>();
+    private final Map<String, ProbeStatistics> statistics = new ConcurrentHashMap<>();
+    private final LongAdder sharedProbes = new LongAdder();
+    private final LongAdder rejectedChecks = new LongAdder();
+    private volatile long lastStatisticsLog = System.nanoTime();
+
+    PresenceDetectionEngine(int threadCount) {
+        this(threadCount, QUEUE_CAPACITY);
+    }
+
+    PresenceDetectionEngine(int threadCount, int queueCapacity) {
+        executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new NamedThreadFactory("network-presence", true),
+                (runnable, pool) -> {
+                    rejectedChecks.increment();
+                    throw new RejectedExecutionException("The presence detection queue is full");
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the engine shared by all presence detections of the binding.
+     */
+    public static PresenceDetectionEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates an executor for the checks of a single presence detection. The checks are run on the shared thread pool,
+     * shutting down the returned executor only cancels the checks of this detection.
+     */
+    public ExecutorService newDetection() {
+        return new Detection();
+    }
+
+    /**
+     * Performs a probe, unless the same probe is already in flight. In this case the result of the running probe is
+     * awaited and returned.
+     *
+     * @param method The probe method, used for the statistics
+     * @param target The probed target, e.g. the IP address and port
+     * @param probe The probe
+     * @return The result of the probe
+     */
+    public Optional<PingResult> probe(String method, String target, Probe probe)
+            throws IOException, InterruptedException {
+        String key = method + " " + target;
+        CompletableFuture<Optional<PingResult>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<PingResult>> running = inFlightProbes.putIfAbsent(key, future);
+        if (running != null) {
+            sharedProbes.increment();
+            logger.trace("Waiting for running probe {}", key);
+            return awaitProbe(running);
+        }
+
+        ProbeStatistics methodStatistics = statistics.computeIfAbsent(method, m -> new ProbeStatistics());
+        long start = System.nanoTime();
+        try {
+            Optional<PingResult> result = probe.run();
+            methodStatistics.record(result.map(PingResult::isSuccess).orElse(false), System.nanoTime() - start);
+            future.complete(result);
+            return result;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            methodStatistics.record(false, System.nanoTime() - start);
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightProbes.remove(key, future);
+            logStatistics();
+        }
+    }
+
+    private Optional<PingResult> awaitProbe(CompletableFuture<Optional<PingResult>> running)
+            throws IOException, InterruptedException {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            // the probe of the other detection has been interrupted, this one has no result either
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the statistics of all probe methods used so far.
+     */
+    public Map<String, ProbeStatistics> getStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(statistics));
+    }
+
+    /**
+     * Returns the number of probes that did not run themselves, but shared the result of an equal running probe.
+     */
+    public long getSharedProbes() {
+        return sharedProbes.sum();
+    }
+
+    /**
+     * Returns the number of checks waiting for a free thread.
+     */
+    public int getQueuedChecks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of checks that were rejected, because too many checks were waiting for a free thread.
+     */
+    public long getRejectedChecks() {
+        return rejectedChecks.sum();
+    }
+
+    /**
+     * Returns a summary of the statistics, e.g. to be published as property.
+     */
+    public String getStatisticsSummary() {
+        return String.format("%s, shared probes: %d, rejected checks: %d, active threads: %d, queued checks: %d",
+                getStatistics(), getSharedProbes(), getRejectedChecks(), executor.getActiveCount(), getQueuedChecks());
+    }
+
+    private void logStatistics() {
+        long now = System.nanoTime();
+        if (logger.isDebugEnabled() && now - lastStatisticsLog >= STATISTICS_LOG_INTERVAL_NANOS) {
+            lastStatisticsLog = now;
+            logger.debug("Presence detection statistics: {}", getStatisticsSummary());
+        }
+    }
+
+    /**
+     * Statistics of a single probe method.
+     */
+    public static class ProbeStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalTimeNanos = new LongAdder();
+
+        void record(boolean success, long timeNanos) {
+            count.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalTimeNanos.add(timeNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Returns the average execution time in milliseconds.
+         */
+        public double getAverageTime() {
+            long probes = count.sum();
+            return probes == 0 ? 0 : totalTimeNanos.sum() / 1000000.0 / probes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d probes, %d failed, %.1f ms", getCount(), getFailures(), getAverageTime());
+        }
+    }
+
+    /**
+     * The checks of a single presence detection.
+     */
+    private class Detection extends AbstractExecutorService {
+        private final Set<Future<?>> tasks = ConcurrentHashMap.newKeySet();
+        private volatile boolean shutdown;
+        private volatile boolean cancelled;
+        private int pendingTasks;
+        private int queuedTasks;
+        private long lastStart;
+
+        @Override
+        public void execute(Runnable command) {
+            if (shutdown) {
+                throw new RejectedExecutionException("The presence detection has already finished");
+            }
+            synchronized (this) {
+                pendingTasks++;
+                queuedTasks++;
+            }
+            try {
+                tasks.add(executor.submit(() -> run(command)));
+            } catch (RejectedExecutionException e) {
+                finished(false);
+                throw e;
+            }
+        }
+
+        private void run(Runnable command) {
+            synchronized (this) {
+                queuedTasks--;
+                lastStart = System.nanoTime();
+            }
+            // the checks name the thread after their target, the pool thread keeps its own name
+            String threadName = Thread.currentThread().getName();
+            try {
+                if (!cancelled) {
+                    command.run();
+                }
+            } finally {
+                Thread.currentThread().setName(threadName);
+                finished(true);
+            }
+        }
+
+        private synchronized void finished(boolean started) {
+            pendingTasks--;
+            if (!started) {
+                queuedTasks--;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            cancelled = true;
+            tasks.forEach(task -> task.cancel(true));
+            tasks.clear();
+            synchronized (this) {
+                notifyAll();
+            }
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && pendingTasks == 0;
+        }
+
+        /**
+         * Waits until all checks have finished. Checks that are still waiting for a free thread get the full timeout
+         * once they have been started, but at most {@link #MAX_QUEUE_DELAY_NANOS}.
+         */
+        @Override
+        public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long timeoutNanos = unit.toNanos(timeout);
+            long start = System.nanoTime();
+            long maxDeadline = start + timeoutNanos + MAX_QUEUE_DELAY_NANOS;
+            while (pendingTasks > 0 && !tasks.isEmpty()) {
+                long deadline = queuedTasks > 0 ? maxDeadline
+                        : Math.min(maxDeadline, Math.max(start, lastStart) + timeoutNanos);
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+}
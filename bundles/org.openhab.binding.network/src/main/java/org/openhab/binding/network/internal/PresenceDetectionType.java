@@ -25,5 +25,6 @@ public enum PresenceDetectionType {
     ARP_PING,
     ICMP_PING,
     TCP_CONNECTION,
+    TCP_KNOCK,
     DHCP_REQUEST
 }
@@ -14,13 +14,16 @@ package org.openhab.binding.network.internal.discovery;
 
 import static org.openhab.binding.network.internal.NetworkBindingConstants.*;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -48,7 +51,8 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link NetworkDiscoveryService} is responsible for discovering devices on
  * the current Network. It uses every Network Interface which is connected to a network.
- * It tries common TCP ports to connect to, ICMP pings and ARP pings.
+ * It tries common TCP ports to connect to with a {@link TcpSweepScanner} first. Only addresses that did not answer
+ * any connection attempt are checked with ICMP pings and ARP pings afterwards.
  *
  * @author Marc Mettke - Initial contribution
  * @author David Graeff - Rewritten
@@ -58,6 +62,7 @@ import org.slf4j.LoggerFactory;
 public class NetworkDiscoveryService extends AbstractDiscoveryService implements PresenceDetectionListener {
     static final int PING_TIMEOUT_IN_MS = 500;
     static final int MAXIMUM_IPS_PER_INTERFACE = 255;
+    static final String PARAMETER_MAX_CONNECTIONS = "maxConnections";
     private static final long DISCOVERY_RESULT_TTL = TimeUnit.MINUTES.toSeconds(10);
     private final Logger logger = LoggerFactory.getLogger(NetworkDiscoveryService.class);
 
@@ -68,6 +73,9 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
             .unmodifiableSet(Stream.of(80, 548, 554, 1025).collect(Collectors.toSet()));
     private AtomicInteger scannedIPcount = new AtomicInteger(0);
     private @Nullable ExecutorService executorService = null;
+    private volatile @Nullable TcpSweepScanner sweepScanner = null;
+    private int maxConnections = TcpSweepScanner.DEFAULT_MAX_CONNECTIONS;
+    private final Set<String> reportedPingDevices = ConcurrentHashMap.newKeySet();
     private final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
     private final NetworkUtils networkUtils = new NetworkUtils();
 
@@ -92,6 +100,16 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         // configuration, the values are automatically available in all handlers. Because they all
         // share the same instance.
         configuration.update(new Configuration(config).as(NetworkBindingConfiguration.class));
+
+        Object maxConnectionsValue = config != null ? config.get(PARAMETER_MAX_CONNECTIONS) : null;
+        try {
+            maxConnections = maxConnectionsValue != null ? Integer.parseInt(maxConnectionsValue.toString())
+                    : TcpSweepScanner.DEFAULT_MAX_CONNECTIONS;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid value '{}' for {}, using {}", maxConnectionsValue, PARAMETER_MAX_CONNECTIONS,
+                    TcpSweepScanner.DEFAULT_MAX_CONNECTIONS);
+            maxConnections = TcpSweepScanner.DEFAULT_MAX_CONNECTIONS;
+        }
     }
 
     @Override
@@ -136,35 +154,84 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
         logger.trace("Starting Network Device Discovery");
 
         final Set<String> networkIPs = networkUtils.getNetworkIPs(MAXIMUM_IPS_PER_INTERFACE);
+        final TcpSweepScanner scanner = new TcpSweepScanner(maxConnections, PING_TIMEOUT_IN_MS);
+        sweepScanner = scanner;
         scannedIPcount.set(0);
+        reportedPingDevices.clear();
+
+        service.execute(() -> {
+            Thread.currentThread().setName("Discovery sweep");
+            Set<String> foundHosts;
+            try {
+                foundHosts = scanner.scan(networkIPs, tcpServicePorts, new TcpSweepScanner.SweepListener() {
+                    @Override
+                    public void hostFound(String ip) {
+                        newPingDevice(ip);
+                    }
+
+                    @Override
+                    public void serviceFound(String ip, int port) {
+                        newServiceDevice(ip, port);
+                    }
+                });
+            } catch (IOException e) {
+                logger.warn("TCP sweep of the network failed, pinging all addresses", e);
+                foundHosts = Collections.emptySet();
+            }
+            if (sweepScanner != scanner) {
+                // the scan has been stopped
+                return;
+            }
+            pingSilentHosts(service, networkIPs, foundHosts);
+        });
+    }
+
+    /**
+     * Checks all addresses that did not answer to the TCP sweep with ICMP and ARP pings.
+     */
+    private void pingSilentHosts(ExecutorService service, Set<String> networkIPs, Set<String> foundHosts) {
+        final Set<String> silentIPs = networkIPs.stream().filter(ip -> !foundHosts.contains(ip))
+                .collect(Collectors.toSet());
+        if (silentIPs.isEmpty()) {
+            stopScan();
+            return;
+        }
 
-        for (String ip : networkIPs) {
+        for (String ip : silentIPs) {
             final PresenceDetection s = new PresenceDetection(this, 2000);
             s.setHostname(ip);
             s.setIOSDevice(true);
             s.setUseDhcpSniffing(false);
             s.setTimeout(PING_TIMEOUT_IN_MS);
-            // Ping devices
+            // Ping devices, the TCP services have already been checked by the sweep
             s.setUseIcmpPing(true);
             s.setUseArpPing(true, configuration.arpPingToolPath, configuration.arpPingUtilMethod);
-            // TCP devices
-            s.setServicePorts(tcpServicePorts);
-
-            service.execute(() -> {
-                Thread.currentThread().setName("Discovery thread " + ip);
-                s.performPresenceDetection(true);
-                int count = scannedIPcount.incrementAndGet();
-                if (count == networkIPs.size()) {
-                    logger.trace("Scan of {} IPs successful", scannedIPcount);
-                    stopScan();
-                }
-            });
+
+            try {
+                service.execute(() -> {
+                    Thread.currentThread().setName("Discovery thread " + ip);
+                    s.performPresenceDetection(true);
+                    int count = scannedIPcount.incrementAndGet();
+                    if (count == silentIPs.size()) {
+                        logger.trace("Scan of {} IPs successful", networkIPs.size());
+                        stopScan();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the scan has been stopped
+                return;
+            }
         }
     }
 
     @Override
     protected synchronized void stopScan() {
         super.stopScan();
+        final TcpSweepScanner scanner = sweepScanner;
+        if (scanner != null) {
+            scanner.stop();
+            sweepScanner = null;
+        }
         final ExecutorService service = executorService;
         if (service == null) {
             return;
@@ -233,6 +300,9 @@ public class NetworkDiscoveryService extends AbstractDiscoveryService implements
      * @param ip The device IP
      */
     public void newPingDevice(String ip) {
+        if (!reportedPingDevices.add(ip)) {
+            return;
+        }
         logger.trace("Found pingable network device with IP address {}", ip);
 
         Map<String, Object> properties = new HashMap<>();
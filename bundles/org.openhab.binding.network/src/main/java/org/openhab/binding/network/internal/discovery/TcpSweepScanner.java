@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TcpSweepScanner} tries non-blocking TCP connections to a number of ports on many addresses at once.
+ * All connection attempts are handled by a single thread with a {@link Selector}, at most the configured number of
+ * connection attempts are in flight at the same time.
+ *
+ * A host that accepts a connection provides a service on this port. A host that refuses the connection has no service
+ * on this port, but is present. Results are reported to the {@link SweepListener} as soon as they are known.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TcpSweepScanner {
+    public static final int DEFAULT_MAX_CONNECTIONS = 256;
+
+    /**
+     * Receives the results of a sweep.
+     */
+    public interface SweepListener {
+        /**
+         * Called once per address that has answered any connection attempt.
+         */
+        void hostFound(String ip);
+
+        /**
+         * Called for every port that has accepted a connection.
+         */
+        void serviceFound(String ip, int port);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(TcpSweepScanner.class);
+
+    private final int maxConnections;
+    private final int timeoutInMS;
+    private volatile boolean stopped;
+    private volatile @Nullable Selector selector;
+
+    private long probeCount;
+    private long scanTimeInMS;
+
+    /**
+     * @param maxConnections Maximum number of connection attempts in flight at the same time
+     * @param timeoutInMS Time to wait for an answer to a connection attempt
+     */
+    public TcpSweepScanner(int maxConnections, int timeoutInMS) {
+        this.maxConnections = Math.max(1, maxConnections);
+        this.timeoutInMS = timeoutInMS;
+    }
+
+    /**
+     * Tries to connect to every port on every address. Blocks until all connection attempts are answered or timed out,
+     * or until the sweep is stopped.
+     *
+     * @param ips The addresses to scan
+     * @param ports The TCP ports to scan on each address
+     * @param listener Receives the results
+     * @return The addresses that have answered
+     * @throws IOException If the selector could not be opened
+     */
+    public Set<String> scan(Collection<String> ips, Collection<Integer> ports, SweepListener listener)
+            throws IOException {
+        Set<String> foundHosts = new HashSet<>();
+        ArrayDeque<Probe> inFlight = new ArrayDeque<>();
+        long start = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+        long probes = 0;
+        int active = 0;
+
+        try (Selector localSelector = Selector.open()) {
+            selector = localSelector;
+            Iterator<String> ipIterator = ips.iterator();
+            Iterator<Integer> portIterator = Collections.emptyIterator();
+            String ip = "";
+
+            while (!stopped) {
+                // start new connection attempts, ports of the same address one after another
+                while (active < maxConnections) {
+                    if (!portIterator.hasNext()) {
+                        if (!ipIterator.hasNext()) {
+                            break;
+                        }
+                        ip = ipIterator.next();
+                        portIterator = ports.iterator();
+                        if (!portIterator.hasNext()) {
+                            break;
+                        }
+                    }
+                    Probe probe = new Probe(ip, portIterator.next(), System.nanoTime() + timeoutNanos);
+                    probes++;
+                    if (probe.connect(localSelector)) {
+                        inFlight.add(probe);
+                        active++;
+                    } else {
+                        handleResult(probe, foundHosts, listener);
+                    }
+                }
+                if (active == 0) {
+                    break;
+                }
+
+                long waitInMS = TimeUnit.NANOSECONDS.toMillis(inFlight.getFirst().deadline - System.nanoTime());
+                localSelector.select(Math.max(1, waitInMS));
+                for (Iterator<SelectionKey> it = localSelector.selectedKeys().iterator(); it.hasNext();) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    Probe probe = (Probe) key.attachment();
+                    probe.finishConnect();
+                    active--;
+                    handleResult(probe, foundHosts, listener);
+                }
+
+                // the deadlines are ascending, all timed out attempts are at the head of the queue
+                long now = System.nanoTime();
+                while (!inFlight.isEmpty() && (inFlight.getFirst().isDone() || inFlight.getFirst().deadline <= now)) {
+                    Probe probe = inFlight.removeFirst();
+                    if (!probe.isDone()) {
+                        probe.close();
+                        active--;
+                    }
+                }
+            }
+        } finally {
+            inFlight.forEach(Probe::close);
+            selector = null;
+            synchronized (this) {
+                probeCount = probes;
+                scanTimeInMS = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+        }
+
+        logger.debug("Scanned {} addresses with {} connection attempts in {} ms ({} per second), {} hosts answered",
+                ips.size(), probes, getScanTime(), getProbeRate(), foundHosts.size());
+        return foundHosts;
+    }
+
+    private void handleResult(Probe probe, Set<String> foundHosts, SweepListener listener) {
+        if (probe.open || probe.refused) {
+            if (foundHosts.add(probe.ip)) {
+                listener.hostFound(probe.ip);
+            }
+        }
+        if (probe.open) {
+            listener.serviceFound(probe.ip, probe.port);
+        }
+    }
+
+    /**
+     * Stops a running sweep. Connection attempts in flight are abandoned.
+     */
+    public void stop() {
+        stopped = true;
+        Selector localSelector = selector;
+        if (localSelector != null) {
+            localSelector.wakeup();
+        }
+    }
+
+    /**
+     * Returns the number of connection attempts of the last sweep.
+     */
+    public synchronized long getProbeCount() {
+        return probeCount;
+    }
+
+    /**
+     * Returns the duration of the last sweep in milliseconds.
+     */
+    public synchronized long getScanTime() {
+        return scanTimeInMS;
+    }
+
+    /**
+     * Returns the connection attempts per second of the last sweep.
+     */
+    public synchronized long getProbeRate() {
+        return scanTimeInMS == 0 ? probeCount : probeCount * 1000 / scanTimeInMS;
+    }
+
+    /**
+     * A single connection attempt.
+     */
+    private class Probe {
+        private final String ip;
+        private final int port;
+        private final long deadline;
+        private @Nullable SocketChannel channel;
+        private boolean open;
+        private boolean refused;
+
+        private Probe(String ip, int port, long deadline) {
+            this.ip = ip;
+            this.port = port;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Starts the connection attempt.
+         *
+         * @return true if the attempt is in flight, false if the result is already known
+         */
+        private boolean connect(Selector selector) {
+            try {
+                SocketChannel localChannel = SocketChannel.open();
+                channel = localChannel;
+                localChannel.configureBlocking(false);
+                if (localChannel.connect(new InetSocketAddress(ip, port))) {
+                    open = true;
+                    close();
+                    return false;
+                }
+                localChannel.register(selector, SelectionKey.OP_CONNECT, this);
+                return true;
+            } catch (IOException e) {
+                handleException(e);
+                close();
+                return false;
+            }
+        }
+
+        private void finishConnect() {
+            SocketChannel localChannel = channel;
+            if (localChannel == null) {
+                return;
+            }
+            try {
+                open = localChannel.finishConnect();
+            } catch (IOException e) {
+                handleException(e);
+            }
+            close();
+        }
+
+        private void handleException(IOException e) {
+            // the host has answered with a reset
+            refused = e instanceof ConnectException;
+            if (!refused) {
+                logger.trace("Connection attempt to {}:{} failed: {}", ip, port, e.getMessage());
+            }
+        }
+
+        private boolean isDone() {
+            return channel == null;
+        }
+
+        private void close() {
+            SocketChannel localChannel = channel;
+            if (localChannel != null) {
+                try {
+                    localChannel.close();
+                } catch (IOException ignored) {
+                    // the attempt is finished anyway
+                }
+                channel = null;
+            }
+        }
+    }
+}
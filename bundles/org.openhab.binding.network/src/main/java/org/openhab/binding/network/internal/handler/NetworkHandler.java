@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.network.internal.NetworkBindingConfiguration;
@@ -27,6 +28,7 @@ import org.openhab.binding.network.internal.NetworkBindingConfigurationListener;
 import org.openhab.binding.network.internal.NetworkBindingConstants;
 import org.openhab.binding.network.internal.NetworkHandlerConfiguration;
 import org.openhab.binding.network.internal.PresenceDetection;
+import org.openhab.binding.network.internal.PresenceDetectionEngine;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
 import org.openhab.binding.network.internal.WakeOnLanPacketSender;
@@ -60,6 +62,9 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class NetworkHandler extends BaseThingHandler
         implements PresenceDetectionListener, NetworkBindingConfigurationListener {
+    // the statistics of the presence detection engine are published at most every 10 minutes
+    private static final long STATISTICS_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+
     private final Logger logger = LoggerFactory.getLogger(NetworkHandler.class);
     private @NonNullByDefault({}) PresenceDetection presenceDetection;
     private @NonNullByDefault({}) WakeOnLanPacketSender wakeOnLanPacketSender;
@@ -71,6 +76,7 @@ public class NetworkHandler extends BaseThingHandler
     int retries;
     // Retry counter. Will be reset as soon as a device presence detection succeed.
     private int retryCounter = 0;
+    private long lastStatisticsUpdate = 0;
     private NetworkHandlerConfiguration handlerConfiguration = new NetworkHandlerConfiguration();
 
     /**
@@ -214,6 +220,12 @@ public class NetworkHandler extends BaseThingHandler
         properties.put(NetworkBindingConstants.PROPERTY_PRESENCE_DETECTION_TYPE, "");
         properties.put(NetworkBindingConstants.PROPERTY_IOS_WAKEUP, presenceDetection.isIOSdevice() ? "Yes" : "No");
         properties.put(NetworkBindingConstants.PROPERTY_DHCP_STATE, presenceDetection.getDhcpState());
+        long now = System.currentTimeMillis();
+        if (now - lastStatisticsUpdate >= STATISTICS_INTERVAL_MS) {
+            lastStatisticsUpdate = now;
+            properties.put(NetworkBindingConstants.PROPERTY_PRESENCE_ENGINE_STATISTICS,
+                    PresenceDetectionEngine.getInstance().getStatisticsSummary());
+        }
         updateProperties(properties);
     }
 
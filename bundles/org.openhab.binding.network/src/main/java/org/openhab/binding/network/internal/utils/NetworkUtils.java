@@ -28,10 +28,15 @@ import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -54,6 +59,13 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class NetworkUtils {
+    // TCP echo port, the port is usually closed and the connection refused by a present host
+    private static final int TCP_KNOCK_PORT = 7;
+    // the ARP cache of the Linux kernel
+    private static final Path ARP_CACHE = Paths.get("/proc/net/arp");
+    // flag of a resolved entry of the ARP cache
+    private static final int ATF_COM = 0x2;
+
     private final Logger logger = LoggerFactory.getLogger(NetworkUtils.class);
 
     private LatencyParser latencyParser = new LatencyParser();
@@ -169,6 +181,71 @@ public class NetworkUtils {
         }
     }
 
+    /**
+     * Try to establish a tcp connection to the TCP echo port. A host that accepts or actively refuses the connection is
+     * present, so the presence of most hosts is detected without waiting for a ping process.
+     *
+     * @param address The address to check
+     * @param timeout Timeout in ms
+     * @return Ping result information. The result is successful if the host has answered.
+     */
+    public Optional<PingResult> tcpKnock(InetAddress address, int timeout) {
+        double execStartTimeInMS = System.currentTimeMillis();
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(address, TCP_KNOCK_PORT), timeout);
+            return Optional.of(new PingResult(true, System.currentTimeMillis() - execStartTimeInMS));
+        } catch (ConnectException e) {
+            // the host has answered with a reset
+            return Optional.of(new PingResult(true, System.currentTimeMillis() - execStartTimeInMS));
+        } catch (IOException e) {
+            return Optional.of(new PingResult(false, System.currentTimeMillis() - execStartTimeInMS));
+        }
+    }
+
+    /**
+     * Checks if the ARP cache of the system has a resolved entry for the address. The cache is read from the file
+     * system, so this check does not fork a process. It is only available on Linux and for IPv4 addresses.
+     *
+     * The entry is usually refreshed by a preceding connection attempt, e.g. the {@link #tcpKnock(InetAddress, int)}.
+     *
+     * @param address The address to check
+     * @return Ping result information. Optional is empty if the ARP cache is not available.
+     */
+    public Optional<PingResult> arpCacheLookup(InetAddress address) {
+        if (!(address instanceof Inet4Address) || !Files.isReadable(ARP_CACHE)) {
+            return Optional.empty();
+        }
+        double execStartTimeInMS = System.currentTimeMillis();
+        try {
+            boolean resolved = isResolvedInArpCache(Files.readAllLines(ARP_CACHE, StandardCharsets.US_ASCII),
+                    address.getHostAddress());
+            return Optional.of(new PingResult(resolved, System.currentTimeMillis() - execStartTimeInMS));
+        } catch (IOException e) {
+            logger.debug("Reading the ARP cache failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks the lines of /proc/net/arp for a resolved entry of the address.
+     * The format is "IP address, HW type, Flags, HW address, Mask, Device", the first line is the header.
+     */
+    static boolean isResolvedInArpCache(List<String> arpCache, String hostAddress) {
+        for (String line : arpCache.subList(Math.min(1, arpCache.size()), arpCache.size())) {
+            String[] columns = line.trim().split("\\s+");
+            if (columns.length >= 4 && columns[0].equals(hostAddress)) {
+                try {
+                    int flags = Integer.decode(columns[2]);
+                    return (flags & ATF_COM) != 0 && !columns[3].equals("00:00:00:00:00:00");
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Return the working method for the native system ping. If no native ping
      * works JavaPing is returned.
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.network.internal.utils.PingResult;
+
+/**
+ * Tests cases for {@link PresenceDetectionEngine}
+ *
+ * @author agent - Initial contribution
+ */
+public class PresenceDetectionEngineTest {
+
+    @Test
+    public void equalProbesArePerformedOnce() throws Exception {
+        PresenceDetectionEngine engine = new PresenceDetectionEngine(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        PresenceDetectionEngine.Probe probe = () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            release.await();
+            return Optional.of(new PingResult(true, 10));
+        };
+
+        CompletableFuture<Optional<PingResult>> first = CompletableFuture
+                .supplyAsync(() -> probe(engine, "ICMP", "192.168.0.1", probe));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Optional<PingResult>> second = CompletableFuture
+                .supplyAsync(() -> probe(engine, "ICMP", "192.168.0.1", probe));
+        // a different target is not shared
+        Optional<PingResult> other = engine.probe("ICMP", "192.168.0.2", () -> Optional.of(new PingResult(false, 1)));
+
+        while (engine.getSharedProbes() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).get().isSuccess());
+        assertTrue(second.get(5, TimeUnit.SECONDS).get().isSuccess());
+        assertFalse(other.get().isSuccess());
+        assertThat(runs.get(), is(1));
+        assertThat(engine.getSharedProbes(), is(1L));
+        assertThat(engine.getStatistics().get("ICMP").getCount(), is(2L));
+        assertThat(engine.getStatistics().get("ICMP").getFailures(), is(1L));
+
+        // the probe is performed again once the running one has finished
+        engine.probe("ICMP", "192.168.0.1", probe);
+        assertThat(runs.get(), is(2));
+    }
+
+    @Test
+    public void awaitTerminationWaitsForRunningChecks() throws InterruptedException {
+        PresenceDetectionEngine engine = new PresenceDetectionEngine(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService detection = engine.newDetection();
+        detection.execute(() -> await(release));
+        detection.shutdown();
+
+        assertFalse(detection.awaitTermination(100, TimeUnit.MILLISECONDS));
+        assertFalse(detection.isTerminated());
+
+        release.countDown();
+        assertTrue(detection.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(detection.isTerminated());
+    }
+
+    @Test
+    public void awaitTerminationWaitsForQueuedChecks() throws InterruptedException {
+        PresenceDetectionEngine engine = new PresenceDetectionEngine(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService blocking = engine.newDetection();
+        blocking.execute(() -> await(release));
+
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService detection = engine.newDetection();
+        detection.execute(runs::incrementAndGet);
+        detection.shutdown();
+        assertThat(engine.getQueuedChecks(), is(1));
+
+        // the check waiting for a free thread does not use up the timeout of the detection
+        CompletableFuture.runAsync(() -> {
+            sleep(300);
+            release.countDown();
+        });
+        assertTrue(detection.awaitTermination(100, TimeUnit.MILLISECONDS));
+        assertThat(runs.get(), is(1));
+    }
+
+    @Test
+    public void checksExceedingTheQueueAreRejected() throws InterruptedException {
+        PresenceDetectionEngine engine = new PresenceDetectionEngine(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService detection = engine.newDetection();
+        detection.execute(() -> await(release));
+        detection.execute(() -> {
+        });
+
+        assertThrows(RejectedExecutionException.class, () -> detection.execute(() -> {
+        }));
+        assertThat(engine.getRejectedChecks(), is(1L));
+        assertThat(engine.getQueuedChecks(), is(1));
+
+        // the rejected check does not block the detection
+        release.countDown();
+        detection.shutdown();
+        assertTrue(detection.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shutdownNowCancelsChecks() throws InterruptedException {
+        PresenceDetectionEngine engine = new PresenceDetectionEngine(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        ExecutorService detection = engine.newDetection();
+        detection.execute(() -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        Thread.sleep(100);
+
+        detection.shutdownNow();
+        assertTrue(detection.awaitTermination(100, TimeUnit.MILLISECONDS));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> detection.execute(() -> {
+        }));
+    }
+
+    private static Optional<PingResult> probe(PresenceDetectionEngine engine, String method, String target,
+            PresenceDetectionEngine.Probe probe) {
+        try {
+            return engine.probe(method, target, probe);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ignored) {
+            // the check has been cancelled
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ignored) {
+            // the test is ending
+        }
+    }
+}
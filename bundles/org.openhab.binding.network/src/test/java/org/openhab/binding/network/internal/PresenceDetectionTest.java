@@ -99,11 +99,12 @@ public class PresenceDetectionTest {
         doNothing().when(subject).performJavaPing();
         doNothing().when(subject).performSystemPing();
         doNothing().when(subject).performServicePing(anyInt());
+        doReturn(true).when(subject).performTcpKnock();
 
         subject.performPresenceDetection(false);
 
-        // Thread count: ARP + ICMP + 1*TCP
-        assertThat(subject.detectionChecks, is(3));
+        // Thread count: TCP knock + 1*TCP, the ping processes are not needed
+        assertThat(subject.detectionChecks, is(2));
         assertNotNull(subject.executorService);
 
         subject.waitForPresenceDetection();
@@ -123,6 +124,8 @@ public class PresenceDetectionTest {
         subject.waitForPresenceDetection();
 
         verify(subject, times(0)).performJavaPing();
+        verify(subject).performTcpKnock();
+        verify(subject).performArpCacheCheck();
         verify(subject).performSystemPing();
         verify(subject).performARPping(any());
         verify(subject).performServicePing(anyInt());
@@ -134,6 +137,40 @@ public class PresenceDetectionTest {
         assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("ARP_PING, ICMP_PING, TCP_CONNECTION"));
     }
 
+    @Test
+    public void tcpKnockAvoidsPingProcesses() throws InterruptedException, IOException {
+        doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).tcpKnock(any(), anyInt());
+        doReturn(Optional.of(new PingResult(false, 10))).when(networkUtils).servicePing(anyString(), anyInt(),
+                anyInt());
+
+        assertTrue(subject.performPresenceDetection(false));
+        subject.waitForPresenceDetection();
+
+        verify(subject, never()).performArpCacheCheck();
+        verify(subject, never()).performSystemPing();
+        verify(subject, never()).performARPping(any());
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("TCP_KNOCK"));
+    }
+
+    @Test
+    public void arpCacheAvoidsPingProcesses() throws InterruptedException, IOException {
+        doReturn(Optional.of(new PingResult(false, 10))).when(networkUtils).tcpKnock(any(), anyInt());
+        doReturn(Optional.of(new PingResult(true, 1))).when(networkUtils).arpCacheLookup(any());
+        doReturn(Optional.of(new PingResult(false, 10))).when(networkUtils).servicePing(anyString(), anyInt(),
+                anyInt());
+
+        assertTrue(subject.performPresenceDetection(false));
+        subject.waitForPresenceDetection();
+
+        verify(subject, never()).performSystemPing();
+        verify(subject, never()).performARPping(any());
+        ArgumentCaptor<PresenceDetectionValue> capture = ArgumentCaptor.forClass(PresenceDetectionValue.class);
+        verify(listener, times(1)).finalDetectionResult(capture.capture());
+        assertThat(capture.getValue().getSuccessfulDetectionTypes(), is("ARP_PING"));
+    }
+
     @Test
     public void cacheTest() throws InterruptedException, IOException {
         doReturn(Optional.of(new PingResult(true, 10))).when(networkUtils).nativePing(eq(IpPingMethodEnum.WINDOWS_PING),
@@ -153,12 +190,18 @@ public class PresenceDetectionTest {
         // There should be no straight callback yet
         verify(callback, times(0)).accept(any());
 
-        // Perform the different presence detection threads now
+        // Perform the different presence detection threads now: TCP knock + 1*TCP
         ArgumentCaptor<Runnable> capture = ArgumentCaptor.forClass(Runnable.class);
-        verify(executorService, times(3)).execute(capture.capture());
+        verify(executorService, times(2)).execute(capture.capture());
         for (Runnable r : capture.getAllValues()) {
             r.run();
         }
+        // The TCP knock has failed, the ping processes are started: ARP + ICMP
+        capture = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService, times(4)).execute(capture.capture());
+        for (Runnable r : capture.getAllValues().subList(2, 4)) {
+            r.run();
+        }
         // "Wait" for the presence detection to finish
         subject.waitForPresenceDetection();
 
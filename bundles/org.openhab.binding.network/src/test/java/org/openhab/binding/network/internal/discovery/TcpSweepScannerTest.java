@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.discovery;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests cases for {@link TcpSweepScanner}
+ *
+ * @author agent - Initial contribution
+ */
+public class TcpSweepScannerTest {
+    private final String ip = "127.0.0.1";
+
+    @Test
+    public void openAndRefusedPortsAreReported() throws IOException {
+        TcpSweepScanner.SweepListener listener = mock(TcpSweepScanner.SweepListener.class);
+
+        int closedPort;
+        try (ServerSocket closed = new ServerSocket(0, 1, InetAddress.getByName(ip))) {
+            closedPort = closed.getLocalPort();
+        }
+        try (ServerSocket open = new ServerSocket(0, 50, InetAddress.getByName(ip))) {
+            int openPort = open.getLocalPort();
+            TcpSweepScanner scanner = new TcpSweepScanner(1, 1000);
+
+            Set<String> hosts = scanner.scan(List.of(ip), List.of(closedPort, openPort), listener);
+
+            assertThat(hosts, is(Set.of(ip)));
+            verify(listener, times(1)).hostFound(ip);
+            verify(listener).serviceFound(ip, openPort);
+            verify(listener, never()).serviceFound(ip, closedPort);
+            assertThat(scanner.getProbeCount(), is(2L));
+        }
+    }
+
+    @Test
+    public void noPortsNoProbes() throws IOException {
+        TcpSweepScanner.SweepListener listener = mock(TcpSweepScanner.SweepListener.class);
+        TcpSweepScanner scanner = new TcpSweepScanner(10, 1000);
+
+        assertThat(scanner.scan(List.of(ip), List.of(), listener).isEmpty(), is(true));
+        verifyNoInteractions(listener);
+        assertThat(scanner.getProbeCount(), is(0L));
+    }
+}
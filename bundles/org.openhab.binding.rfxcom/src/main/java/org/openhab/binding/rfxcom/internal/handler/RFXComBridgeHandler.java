@@ -12,15 +12,22 @@
  */
 package org.openhab.binding.rfxcom.internal.handler;
 
+import static org.openhab.binding.rfxcom.internal.RFXComBindingConstants.PACKET_TYPE_THING_TYPE_UID_MAP;
+
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.openhab.binding.rfxcom.internal.DeviceMessageListener;
@@ -48,6 +55,7 @@ import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
+import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.binding.BaseBridgeHandler;
 import org.openhab.core.thing.binding.ThingHandlerService;
 import org.openhab.core.types.Command;
@@ -70,6 +78,13 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
 
     private List<DeviceMessageListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
 
+    // listeners of a single device by thing type and device id, a device message only reaches the things of its device
+    private final Map<ThingTypeUID, Map<String, Set<DeviceMessageListener>>> thingListeners = new ConcurrentHashMap<>();
+
+    private final LongAdder receivedMessages = new LongAdder();
+    private final LongAdder dispatchedMessages = new LongAdder();
+    private final LongAdder unmatchedMessages = new LongAdder();
+
     private RFXComBridgeConfiguration configuration = null;
     private ScheduledFuture<?> connectorTask;
 
@@ -130,11 +145,15 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
 
     @Override
     public synchronized void dispose() {
-        logger.debug("Handler disposed.");
+        logger.debug("Handler disposed, received {} messages, {} dispatched to their thing, {} without thing",
+                getReceivedMessages(), getDispatchedMessages(), getUnmatchedMessages());
 
         for (DeviceMessageListener deviceStatusListener : deviceStatusListeners) {
             unregisterDeviceStatusListener(deviceStatusListener);
         }
+        synchronized (thingListeners) {
+            thingListeners.clear();
+        }
 
         if (connector != null) {
             connector.removeEventListener(eventListener);
@@ -244,6 +263,7 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
         public void packetReceived(byte[] packet) {
             try {
                 RFXComMessage message = RFXComMessageFactory.createMessage(packet);
+                receivedMessages.increment();
                 logger.debug("Message received: {}", message);
 
                 if (message instanceof RFXComInterfaceMessage) {
@@ -307,15 +327,15 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
 
                     transmitQueue.sendNext();
                 } else if (message instanceof RFXComDeviceMessage) {
-                    for (DeviceMessageListener deviceStatusListener : deviceStatusListeners) {
-                        try {
-                            deviceStatusListener.onDeviceMessageReceived(getThing().getUID(),
-                                    (RFXComDeviceMessage) message);
-                        } catch (Exception e) {
-                            // catch all exceptions give all handlers a fair chance of handling the messages
-                            logger.error("An exception occurred while calling the DeviceStatusListener", e);
-                        }
+                    RFXComDeviceMessage deviceMessage = (RFXComDeviceMessage) message;
+                    Set<DeviceMessageListener> listeners = getDeviceListeners(deviceMessage);
+                    if (listeners.isEmpty()) {
+                        unmatchedMessages.increment();
+                    } else {
+                        dispatchedMessages.increment();
                     }
+                    notifyListeners(listeners, deviceMessage);
+                    notifyListeners(deviceStatusListeners, deviceMessage);
                 } else {
                     logger.warn("The received message cannot be processed, please create an "
                             + "issue at the relevant tracker. Received message: {}", message);
@@ -329,6 +349,26 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
             }
         }
 
+        private Set<DeviceMessageListener> getDeviceListeners(RFXComDeviceMessage message) {
+            ThingTypeUID thingTypeUID = PACKET_TYPE_THING_TYPE_UID_MAP.get(message.getPacketType());
+            Map<String, Set<DeviceMessageListener>> thingTypeListeners = thingTypeUID == null ? null
+                    : thingListeners.get(thingTypeUID);
+            Set<DeviceMessageListener> listeners = thingTypeListeners == null ? null
+                    : thingTypeListeners.get(message.getDeviceId());
+            return listeners == null ? Collections.emptySet() : listeners;
+        }
+
+        private void notifyListeners(Collection<DeviceMessageListener> listeners, RFXComDeviceMessage message) {
+            for (DeviceMessageListener deviceStatusListener : listeners) {
+                try {
+                    deviceStatusListener.onDeviceMessageReceived(getThing().getUID(), message);
+                } catch (Exception e) {
+                    // catch all exceptions give all handlers a fair chance of handling the messages
+                    logger.error("An exception occurred while calling the DeviceStatusListener", e);
+                }
+            }
+        }
+
         @Override
         public void errorOccurred(String error) {
             logger.error("Error occurred: {}", error);
@@ -343,11 +383,63 @@ public class RFXComBridgeHandler extends BaseBridgeHandler {
         return !deviceStatusListeners.contains(deviceStatusListener) && deviceStatusListeners.add(deviceStatusListener);
     }
 
+    /**
+     * Registers a listener for the messages of a single device only, e.g. the handler of a thing.
+     *
+     * @param deviceStatusListener the listener
+     * @param thingTypeUID the thing type of the device
+     * @param deviceId the id of the device
+     * @return true if the listener has not been registered for this device before
+     */
+    public boolean registerDeviceStatusListener(DeviceMessageListener deviceStatusListener, ThingTypeUID thingTypeUID,
+            String deviceId) {
+        if (deviceStatusListener == null) {
+            throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
+        }
+        synchronized (thingListeners) {
+            return thingListeners.computeIfAbsent(thingTypeUID, type -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(deviceId, id -> new CopyOnWriteArraySet<>()).add(deviceStatusListener);
+        }
+    }
+
+    /**
+     * Unregisters a listener, regardless whether it has been registered for all messages or for a single device.
+     */
     public boolean unregisterDeviceStatusListener(DeviceMessageListener deviceStatusListener) {
         if (deviceStatusListener == null) {
             throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
         }
-        return deviceStatusListeners.remove(deviceStatusListener);
+        boolean removed = deviceStatusListeners.remove(deviceStatusListener);
+        synchronized (thingListeners) {
+            for (Map<String, Set<DeviceMessageListener>> thingTypeListeners : thingListeners.values()) {
+                for (Set<DeviceMessageListener> listeners : thingTypeListeners.values()) {
+                    removed |= listeners.remove(deviceStatusListener);
+                }
+                thingTypeListeners.values().removeIf(Set::isEmpty);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of messages received from the transceiver.
+     */
+    public long getReceivedMessages() {
+        return receivedMessages.sum();
+    }
+
+    /**
+     * Returns the number of device messages that have been dispatched to the handler of their thing.
+     */
+    public long getDispatchedMessages() {
+        return dispatchedMessages.sum();
+    }
+
+    /**
+     * Returns the number of device messages without a thing, they are only passed to the discovery.
+     */
+    public long getUnmatchedMessages() {
+        return unmatchedMessages.sum();
     }
 
     public RFXComBridgeConfiguration getConfiguration() {
@@ -12,11 +12,9 @@
  */
 package org.openhab.binding.rfxcom.internal.messages;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
 import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
@@ -28,65 +26,92 @@ import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType
  */
 public class RFXComMessageFactory {
 
-    @SuppressWarnings("serial")
-    private static final Map<PacketType, Class<? extends RFXComMessage>> MESSAGE_CLASSES = Collections
-            .unmodifiableMap(new HashMap<PacketType, Class<? extends RFXComMessage>>() {
-                {
-                    put(PacketType.INTERFACE_CONTROL, RFXComInterfaceControlMessage.class);
-                    put(PacketType.INTERFACE_MESSAGE, RFXComInterfaceMessage.class);
-                    put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage.class);
-                    put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage.class);
-                    put(PacketType.LIGHTING1, RFXComLighting1Message.class);
-                    put(PacketType.LIGHTING2, RFXComLighting2Message.class);
-                    // put(PacketType.LIGHTING3, RFXComLighting3Message.class);
-                    put(PacketType.LIGHTING4, RFXComLighting4Message.class);
-                    put(PacketType.LIGHTING5, RFXComLighting5Message.class);
-                    put(PacketType.LIGHTING6, RFXComLighting6Message.class);
-                    put(PacketType.CHIME, RFXComChimeMessage.class);
-                    put(PacketType.FAN, RFXComFanMessage.class);
-                    // put(PacketType.FAN_SF01, RFXComFanMessage.class);
-                    // put(PacketType.FAN_ITHO, RFXComFanMessage.class);
-                    // put(PacketType.FAN_SEAV, RFXComFanMessage.class);
-                    put(PacketType.FAN_LUCCI_DC, RFXComFanMessage.class);
-                    // put(PacketType.FAN_FT1211R, RFXComFanMessage.class);
-                    put(PacketType.FAN_FALMEC, RFXComFanMessage.class);
-                    put(PacketType.FAN_LUCCI_DC_II, RFXComFanMessage.class);
-                    put(PacketType.CURTAIN1, RFXComCurtain1Message.class);
-                    put(PacketType.BLINDS1, RFXComBlinds1Message.class);
-                    put(PacketType.RFY, RFXComRfyMessage.class);
-                    put(PacketType.HOME_CONFORT, RFXComHomeConfortMessage.class);
-                    put(PacketType.SECURITY1, RFXComSecurity1Message.class);
-                    put(PacketType.SECURITY2, RFXComSecurity2Message.class);
-                    // put(PacketType.CAMERA1, RFXComCamera1Message.class);
-                    // put(PacketType.REMOTE_CONTROL, RFXComRemoteControlMessage.class);
-                    put(PacketType.THERMOSTAT1, RFXComThermostat1Message.class);
-                    // put(PacketType.THERMOSTAT2, RFXComThermostat2Message.class);
-                    put(PacketType.THERMOSTAT3, RFXComThermostat3Message.class);
-                    // put(PacketType.RADIATOR1, RFXComRadiator1Message.class);
-                    put(PacketType.BBQ, RFXComBBQTemperatureMessage.class);
-                    put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage.class);
-                    put(PacketType.TEMPERATURE, RFXComTemperatureMessage.class);
-                    put(PacketType.HUMIDITY, RFXComHumidityMessage.class);
-                    put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage.class);
-                    // put(PacketType.BAROMETRIC, RFXComBarometricMessage.class);
-                    put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, RFXComTemperatureHumidityBarometricMessage.class);
-                    put(PacketType.RAIN, RFXComRainMessage.class);
-                    put(PacketType.WIND, RFXComWindMessage.class);
-                    put(PacketType.UV, RFXComUVMessage.class);
-                    put(PacketType.DATE_TIME, RFXComDateTimeMessage.class);
-                    put(PacketType.CURRENT, RFXComCurrentMessage.class);
-                    put(PacketType.ENERGY, RFXComEnergyMessage.class);
-                    put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage.class);
-                    // put(PacketType.POWER, RFXComPowerMessage.class);
-                    // put(PacketType.WEIGHT, RFXComWeightMessage.class);
-                    // put(PacketType.GAS, RFXComGasMessage.class);
-                    // put(PacketType.WATER, RFXComWaterMessage.class);
-                    put(PacketType.RFXSENSOR, RFXComRFXSensorMessage.class);
-                    // put(PacketType.RFXMETER, RFXComRFXMeterMessage.class);
-                    // put(PacketType.FS20, RFXComFS20Message.class);
-                    // put(PacketType.IO_LINES, RFXComIOLinesMessage.class);
-                }
-            });
+    /**
+     * Creates a message from a received packet.
+     */
+    @FunctionalInterface
+    private interface PacketConstructor {
+        RFXComMessage create(byte[] packet) throws RFXComException;
+    }
+
+    /**
+     * The constructors of a message class. Messages to send are created empty, received messages from the packet.
+     * The interface messages can only be received, they have no empty constructor.
+     */
+    private static class MessageConstructors {
+        private final Supplier<RFXComMessage> emptyConstructor;
+        private final PacketConstructor packetConstructor;
+
+        MessageConstructors(Supplier<RFXComMessage> emptyConstructor, PacketConstructor packetConstructor) {
+            this.emptyConstructor = emptyConstructor;
+            this.packetConstructor = packetConstructor;
+        }
+    }
+
+    private static final Map<PacketType, MessageConstructors> MESSAGE_CONSTRUCTORS = new EnumMap<>(PacketType.class);
+
+    static {
+        put(PacketType.INTERFACE_CONTROL, null, RFXComInterfaceControlMessage::new);
+        put(PacketType.INTERFACE_MESSAGE, null, RFXComInterfaceMessage::new);
+        put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage::new, RFXComTransmitterMessage::new);
+        put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage::new, RFXComUndecodedRFMessage::new);
+        put(PacketType.LIGHTING1, RFXComLighting1Message::new, RFXComLighting1Message::new);
+        put(PacketType.LIGHTING2, RFXComLighting2Message::new, RFXComLighting2Message::new);
+        // put(PacketType.LIGHTING3, RFXComLighting3Message::new, RFXComLighting3Message::new);
+        put(PacketType.LIGHTING4, RFXComLighting4Message::new, RFXComLighting4Message::new);
+        put(PacketType.LIGHTING5, RFXComLighting5Message::new, RFXComLighting5Message::new);
+        put(PacketType.LIGHTING6, RFXComLighting6Message::new, RFXComLighting6Message::new);
+        put(PacketType.CHIME, RFXComChimeMessage::new, RFXComChimeMessage::new);
+        put(PacketType.FAN, RFXComFanMessage::new, RFXComFanMessage::new);
+        // put(PacketType.FAN_SF01, RFXComFanMessage::new, RFXComFanMessage::new);
+        // put(PacketType.FAN_ITHO, RFXComFanMessage::new, RFXComFanMessage::new);
+        // put(PacketType.FAN_SEAV, RFXComFanMessage::new, RFXComFanMessage::new);
+        put(PacketType.FAN_LUCCI_DC, RFXComFanMessage::new, RFXComFanMessage::new);
+        // put(PacketType.FAN_FT1211R, RFXComFanMessage::new, RFXComFanMessage::new);
+        put(PacketType.FAN_FALMEC, RFXComFanMessage::new, RFXComFanMessage::new);
+        put(PacketType.FAN_LUCCI_DC_II, RFXComFanMessage::new, RFXComFanMessage::new);
+        put(PacketType.CURTAIN1, RFXComCurtain1Message::new, RFXComCurtain1Message::new);
+        put(PacketType.BLINDS1, RFXComBlinds1Message::new, RFXComBlinds1Message::new);
+        put(PacketType.RFY, RFXComRfyMessage::new, RFXComRfyMessage::new);
+        put(PacketType.HOME_CONFORT, RFXComHomeConfortMessage::new, RFXComHomeConfortMessage::new);
+        put(PacketType.SECURITY1, RFXComSecurity1Message::new, RFXComSecurity1Message::new);
+        put(PacketType.SECURITY2, RFXComSecurity2Message::new, RFXComSecurity2Message::new);
+        // put(PacketType.CAMERA1, RFXComCamera1Message::new, RFXComCamera1Message::new);
+        // put(PacketType.REMOTE_CONTROL, RFXComRemoteControlMessage::new, RFXComRemoteControlMessage::new);
+        put(PacketType.THERMOSTAT1, RFXComThermostat1Message::new, RFXComThermostat1Message::new);
+        // put(PacketType.THERMOSTAT2, RFXComThermostat2Message::new, RFXComThermostat2Message::new);
+        put(PacketType.THERMOSTAT3, RFXComThermostat3Message::new, RFXComThermostat3Message::new);
+        // put(PacketType.RADIATOR1, RFXComRadiator1Message::new, RFXComRadiator1Message::new);
+        put(PacketType.BBQ, RFXComBBQTemperatureMessage::new, RFXComBBQTemperatureMessage::new);
+        put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage::new, RFXComTemperatureRainMessage::new);
+        put(PacketType.TEMPERATURE, RFXComTemperatureMessage::new, RFXComTemperatureMessage::new);
+        put(PacketType.HUMIDITY, RFXComHumidityMessage::new, RFXComHumidityMessage::new);
+        put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage::new,
+                RFXComTemperatureHumidityMessage::new);
+        // put(PacketType.BAROMETRIC, RFXComBarometricMessage::new, RFXComBarometricMessage::new);
+        put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, RFXComTemperatureHumidityBarometricMessage::new,
+                RFXComTemperatureHumidityBarometricMessage::new);
+        put(PacketType.RAIN, RFXComRainMessage::new, RFXComRainMessage::new);
+        put(PacketType.WIND, RFXComWindMessage::new, RFXComWindMessage::new);
+        put(PacketType.UV, RFXComUVMessage::new, RFXComUVMessage::new);
+        put(PacketType.DATE_TIME, RFXComDateTimeMessage::new, RFXComDateTimeMessage::new);
+        put(PacketType.CURRENT, RFXComCurrentMessage::new, RFXComCurrentMessage::new);
+        put(PacketType.ENERGY, RFXComEnergyMessage::new, RFXComEnergyMessage::new);
+        put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage::new, RFXComCurrentEnergyMessage::new);
+        // put(PacketType.POWER, RFXComPowerMessage::new, RFXComPowerMessage::new);
+        // put(PacketType.WEIGHT, RFXComWeightMessage::new, RFXComWeightMessage::new);
+        // put(PacketType.GAS, RFXComGasMessage::new, RFXComGasMessage::new);
+        // put(PacketType.WATER, RFXComWaterMessage::new, RFXComWaterMessage::new);
+        put(PacketType.RFXSENSOR, RFXComRFXSensorMessage::new, RFXComRFXSensorMessage::new);
+        // put(PacketType.RFXMETER, RFXComRFXMeterMessage::new, RFXComRFXMeterMessage::new);
+        // put(PacketType.FS20, RFXComFS20Message::new, RFXComFS20Message::new);
+        // put(PacketType.IO_LINES, RFXComIOLinesMessage::new, RFXComIOLinesMessage::new);
+    }
+
+    private static void put(PacketType packetType, Supplier<RFXComMessage> emptyConstructor,
+            PacketConstructor packetConstructor) {
+        MESSAGE_CONSTRUCTORS.put(packetType, new MessageConstructors(emptyConstructor, packetConstructor));
+    }
 
     /**
      * Command to reset RFXCOM controller.
@@ -117,38 +142,34 @@ public class RFXComMessageFactory {
             0x00, 0x00, 0x00, 0x00, 0x00 };
 
     public static RFXComMessage createMessage(PacketType packetType) throws RFXComException {
-        try {
-            Class<? extends RFXComMessage> cl = MESSAGE_CLASSES.get(packetType);
-            if (cl == null) {
-                throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
-            }
-            return cl.newInstance();
-        } catch (IllegalAccessException | InstantiationException e) {
-            throw new RFXComException(e);
+        Supplier<RFXComMessage> constructor = getConstructors(packetType).emptyConstructor;
+        if (constructor == null) {
+            throw new RFXComException("Message " + packetType + " can only be created from a received packet");
         }
+        return constructor.get();
     }
 
     public static RFXComMessage createMessage(byte[] packet) throws RFXComException {
         PacketType packetType = ByteEnumUtil.fromByte(PacketType.class, packet[1]);
 
+        PacketConstructor constructor = getConstructors(packetType).packetConstructor;
         try {
-            Class<? extends RFXComMessage> cl = MESSAGE_CLASSES.get(packetType);
-            if (cl == null) {
-                throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
-            }
-            Constructor<?> c = cl.getConstructor(byte[].class);
-            return (RFXComMessage) c.newInstance(packet);
-        } catch (InvocationTargetException e) {
-            if (e.getCause() instanceof RFXComException) {
-                throw (RFXComException) e.getCause();
-            } else {
-                throw new RFXComException(e);
-            }
-        } catch (NoSuchMethodException | IllegalAccessException | InstantiationException e) {
+            return constructor.create(packet);
+        } catch (RuntimeException e) {
+            // e.g. a packet that is too short for its type
             throw new RFXComException(e);
         }
     }
 
+    private static MessageConstructors getConstructors(PacketType packetType)
+            throws RFXComMessageNotImplementedException {
+        MessageConstructors constructors = MESSAGE_CONSTRUCTORS.get(packetType);
+        if (constructors == null) {
+            throw new RFXComMessageNotImplementedException("Message " + packetType + " not implemented");
+        }
+        return constructors;
+    }
+
     public static PacketType convertPacketType(String packetType) throws IllegalArgumentException {
         for (PacketType p : PacketType.values()) {
             if (p.toString().replace("_", "").equals(packetType.replace("_", ""))) {
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.rfxcom.internal.messages;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComException;
+import org.openhab.binding.rfxcom.internal.exceptions.RFXComMessageNotImplementedException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
+import org.openhab.core.util.HexUtils;
+
+/**
+ * Test for the {@link RFXComMessageFactory}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RFXComMessageFactoryTest {
+
+    @Test
+    public void testCreateEmptyMessages() throws RFXComException {
+        assertThat(RFXComMessageFactory.createMessage(PacketType.LIGHTING2), instanceOf(RFXComLighting2Message.class));
+        assertThat(RFXComMessageFactory.createMessage(PacketType.FAN_FALMEC), instanceOf(RFXComFanMessage.class));
+    }
+
+    @Test
+    public void testInterfaceMessagesCannotBeCreatedEmpty() {
+        assertThrows(RFXComException.class, () -> RFXComMessageFactory.createMessage(PacketType.INTERFACE_MESSAGE));
+        assertThrows(RFXComException.class, () -> RFXComMessageFactory.createMessage(PacketType.INTERFACE_CONTROL));
+    }
+
+    @Test
+    public void testNotImplementedMessage() {
+        assertThrows(RFXComMessageNotImplementedException.class,
+                () -> RFXComMessageFactory.createMessage(PacketType.POWER));
+    }
+
+    @Test
+    public void testTooShortPacket() {
+        byte[] message = HexUtils.hexToBytes("0B1100");
+        assertThrows(RFXComException.class, () -> RFXComMessageFactory.createMessage(message));
+    }
+}
@@ -179,6 +179,9 @@ public class ShellyBindingConstants {
     public static final String PROPERTY_COAP_VERSION = "coapVersion";
     public static final String PROPERTY_STATS_TIMEOUTS = "statsTimeoutErrors";
     public static final String PROPERTY_STATS_TRECOVERED = "statsTimeoutsRecovered";
+    public static final String PROPERTY_STATS_COIOT_PACKETS = "statsCoiotPackets";
+    public static final String PROPERTY_STATS_COIOT_SERVER = "statsCoiotServer";
+    public static final String PROPERTY_STATS_CHANNEL_UPDATES = "statsChannelUpdates";
     public static final String PROPERTY_COIOTAUTO = "coiotAutoEnable";
     public static final String PROPERTY_COIOTREFRESH = "coiotAutoRefresh";
 
@@ -336,5 +339,6 @@ public class ShellyBindingConstants {
     public static final int UPDATE_SKIP_COUNT = 20; // update every x triggers or when a key was pressed
     public static final int UPDATE_MIN_DELAY = 15;// update every x triggers or when a key was pressed
     public static final int UPDATE_SETTINGS_INTERVAL_SECONDS = 60; // check for updates every x sec
+    public static final int UPDATE_COIOT_SILENCE_SECONDS = 60; // resume polling when no CoIoT update was received
     public static final int HEALTH_CHECK_INTERVAL_SEC = 300; // Health check interval, 5min
 }
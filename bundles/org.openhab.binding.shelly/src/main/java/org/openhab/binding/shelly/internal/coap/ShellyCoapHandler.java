@@ -18,6 +18,8 @@ import static org.openhab.binding.shelly.internal.util.ShellyUtils.*;
 
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.californium.core.CoapClient;
 import org.eclipse.californium.core.coap.CoAP.Code;
@@ -58,6 +60,9 @@ import com.google.gson.JsonSyntaxException;
 public class ShellyCoapHandler implements ShellyCoapListener {
     private static final byte[] EMPTY_BYTE = new byte[0];
 
+    // Parsed device descriptions per model/firmware/mode, devices of the same kind send the same description
+    private static final Map<String, CachedDescription> DESCRIPTION_CACHE = new ConcurrentHashMap<>();
+
     private final Logger logger = LoggerFactory.getLogger(ShellyCoapHandler.class);
     private final ShellyBaseHandler thingHandler;
     private ShellyThingConfiguration config = new ShellyThingConfiguration();
@@ -80,6 +85,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private Map<String, CoIotDescrBlk> blkMap = new LinkedHashMap<>();
     private Map<String, CoIotDescrSen> sensorMap = new LinkedHashMap<>();
     private final ShellyDeviceProfile profile;
+    private final AtomicLong packetCount = new AtomicLong();
 
     public ShellyCoapHandler(ShellyBaseHandler thingHandler, ShellyCoapServer coapServer) {
         this.thingHandler = thingHandler;
@@ -110,7 +116,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             }
 
             logger.debug("{}: Starting CoAP Listener", thingName);
-            coapServer.start(config.localIp, this);
+            coapServer.start(config.localIp, config.deviceIp, this);
             statusClient = new CoapClient(completeUrl(config.deviceIp, COLOIT_URI_DEVSTATUS))
                     .setTimeout((long) SHELLY_API_TIMEOUT_MS).useNONs().setEndpoint(coapServer.getEndpoint());
             discover();
@@ -132,12 +138,9 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     @Override
     public void processResponse(@Nullable Response response) {
         if (response == null) {
-            return; // other device instance
-        }
-        String ip = response.getSourceContext().getPeerAddress().toString();
-        if (!ip.contains(config.deviceIp)) {
             return;
         }
+        packetCount.incrementAndGet();
 
         String payload = "";
         String devId = "";
@@ -206,6 +209,13 @@ public class ShellyCoapHandler implements ShellyCoapListener {
                 // If we received a CoAP message successful the thing must be online
                 thingHandler.setThingOnline();
 
+                boolean statusUpdate = uri.equalsIgnoreCase(COLOIT_URI_DEVSTATUS)
+                        || (uri.isEmpty() && payload.contains(COIOT_TAG_GENERIC));
+                if (statusUpdate && !blkMap.isEmpty()) {
+                    // also a repeated packet shows that the device is sending updates
+                    thingHandler.coiotUpdateReceived();
+                }
+
                 // The device changes the serial on every update, receiving a message with the same serial is a
                 // duplicate, excep for battery devices! Those reset the serial every time when they wake-up
                 if ((serial == lastSerial) && payload.equals(lastPayload)
@@ -219,8 +229,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
 
                 if (uri.equalsIgnoreCase(COLOIT_URI_DEVDESC) || (uri.isEmpty() && payload.contains(COIOT_TAG_BLK))) {
                     handleDeviceDescription(devId, payload);
-                } else if (uri.equalsIgnoreCase(COLOIT_URI_DEVSTATUS)
-                        || (uri.isEmpty() && payload.contains(COIOT_TAG_GENERIC))) {
+                } else if (statusUpdate) {
                     handleStatusUpdate(devId, payload, serial);
                 }
             } else {
@@ -256,7 +265,7 @@ public class ShellyCoapHandler implements ShellyCoapListener {
             boolean valid = true;
 
             // Decode Json
-            CoIotDevDescription descr = gson.fromJson(payload, CoIotDevDescription.class);
+            CoIotDevDescription descr = parseDeviceDescription(payload);
             for (int i = 0; i < descr.blk.size(); i++) {
                 CoIotDescrBlk blk = descr.blk.get(i);
                 logger.debug("{}:    id={}: {}", thingName, blk.id, blk.desc);
@@ -304,6 +313,29 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         }
     }
 
+    /**
+     * Decode a device description. Devices with the same model, firmware and mode send the same description, so the
+     * parsed result is cached and each device gets its own copy.
+     *
+     * @param payload Device desciption in JSon format
+     * @return Decoded device description
+     */
+    private CoIotDevDescription parseDeviceDescription(String payload) {
+        ShellyDeviceProfile profile = thingHandler.getProfile();
+        String key = profile.deviceType + "/" + profile.fwVersion + "/" + profile.mode;
+        CachedDescription cached = DESCRIPTION_CACHE.get(key);
+        if (cached != null && cached.payload.equals(payload)) {
+            logger.trace("{}: Using cached device description for {}", thingName, key);
+            return cached.description.copy();
+        }
+
+        CoIotDevDescription descr = gson.fromJson(payload, CoIotDevDescription.class);
+        if (descr != null && !profile.deviceType.isEmpty() && !profile.fwVersion.isEmpty()) {
+            DESCRIPTION_CACHE.put(key, new CachedDescription(payload, descr.copy()));
+        }
+        return descr;
+    }
+
     /**
      * Add a new sensor to the sensor table
      *
@@ -430,9 +462,10 @@ public class ShellyCoapHandler implements ShellyCoapListener {
 
             // Old firmware release are lacking various status values, which are not updated using CoIoT.
             // In this case we keep a refresh so it gets polled using REST. Beginning with Firmware 1.6 most
-            // of the values are available
-            if ((!thingHandler.autoCoIoT && (thingHandler.scheduledUpdates <= 1))
-                    || (thingHandler.autoCoIoT && !profile.isLight && !profile.hasBattery)) {
+            // of the values are available, CoIoT version 2 (firmware 1.8) provides the full status
+            boolean complete = (coiotVers >= COIOT_VERSION_2) && thingHandler.isCoIoTHealthy();
+            if (!complete && ((!thingHandler.autoCoIoT && (thingHandler.scheduledUpdates <= 1))
+                    || (thingHandler.autoCoIoT && !profile.isLight && !profile.hasBattery))) {
                 thingHandler.requestUpdates(1, false);
             }
         } else {
@@ -532,6 +565,20 @@ public class ShellyCoapHandler implements ShellyCoapListener {
         lastPayload = "";
     }
 
+    /**
+     * Returns the number of CoIoT packets received from the device.
+     */
+    public long getPacketCount() {
+        return packetCount.get();
+    }
+
+    /**
+     * Returns the statistics of the CoIoT listener shared by all devices.
+     */
+    public String getServerStatistics() {
+        return coapServer.getStatistics();
+    }
+
     public int getVersion() {
         return coiotVers;
     }
@@ -565,4 +612,14 @@ public class ShellyCoapHandler implements ShellyCoapListener {
     private static String completeUrl(String ipAddress, String uri) {
         return "coap://" + ipAddress + ":" + COIOT_PORT + uri;
     }
+
+    private static class CachedDescription {
+        private final String payload;
+        private final CoIotDevDescription description;
+
+        private CachedDescription(String payload, CoIotDevDescription description) {
+            this.payload = payload;
+            this.description = description;
+        }
+    }
 }
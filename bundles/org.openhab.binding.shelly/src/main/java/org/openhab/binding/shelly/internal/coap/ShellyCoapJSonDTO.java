@@ -107,6 +107,39 @@ public class ShellyCoapJSonDTO {
             blk = new ArrayList<>();
             sen = new ArrayList<>();
         }
+
+        /**
+         * Creates a deep copy, the entries are modified when the description is fixed for a device
+         *
+         * @return copy of this description
+         */
+        public CoIotDevDescription copy() {
+            CoIotDevDescription copy = new CoIotDevDescription();
+            if (blk != null) {
+                for (CoIotDescrBlk b : blk) {
+                    CoIotDescrBlk c = new CoIotDescrBlk();
+                    c.id = b.id;
+                    c.desc = b.desc;
+                    c.type = b.type;
+                    c.range = b.range;
+                    c.links = b.links;
+                    copy.blk.add(c);
+                }
+            }
+            if (sen != null) {
+                for (CoIotDescrSen s : sen) {
+                    CoIotDescrSen c = new CoIotDescrSen();
+                    c.id = s.id;
+                    c.desc = s.desc;
+                    c.type = s.type;
+                    c.range = s.range;
+                    c.links = s.links;
+                    c.unit = s.unit;
+                    copy.sen.add(c);
+                }
+            }
+            return copy;
+        }
     }
 
     public static class CoIotSensor {
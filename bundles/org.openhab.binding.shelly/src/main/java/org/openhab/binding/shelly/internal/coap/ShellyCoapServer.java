@@ -17,7 +17,12 @@ import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_P
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
@@ -32,12 +37,16 @@ import org.eclipse.californium.core.network.config.NetworkConfig;
 import org.eclipse.californium.elements.UdpMulticastConnector;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.jetty.util.ConcurrentHashSet;
+import org.openhab.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages)
+ * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages). Packets
+ * are routed by their source address to the listener of the device, so each packet is processed only once.
+ * If packets are received from an unknown address, the addresses of the devices are resolved again in the background
+ * (at most once per minute), e.g. the address of a device configured by host name may have been changed by DHCP. The
+ * packet itself is discarded, the receive thread never waits for the name resolution.
  *
  * @author Markus Michels - Initial contribution
  */
@@ -49,7 +58,17 @@ public class ShellyCoapServer {
     private CoapEndpoint statusEndpoint = new CoapEndpoint.Builder().build();
     private @Nullable UdpMulticastConnector statusConnector;
     private final CoapServer server = new CoapServer(NetworkConfig.getStandard(), COIOT_PORT);;
-    private final Set<ShellyCoapListener> coapListeners = new ConcurrentHashSet<>();
+    private final Map<String, ShellyCoapListener> coapListeners = new ConcurrentHashMap<>(); // device IP -> listener
+    private final Map<ShellyCoapListener, String> deviceNames = new ConcurrentHashMap<>(); // listener -> configured
+    private static final long RESOLVE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final String THREADPOOL_NAME = "shellyCoap";
+    private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THREADPOOL_NAME);
+    private final AtomicBoolean resolvePending = new AtomicBoolean();
+    private volatile long lastResolve;
+
+    private final AtomicLong packetsReceived = new AtomicLong();
+    private final AtomicLong packetsRouted = new AtomicLong();
+    private final AtomicLong packetsUnmatched = new AtomicLong();
 
     protected class ShellyStatusListener extends CoapResource {
         private ShellyCoapServer listener;
@@ -76,7 +95,16 @@ public class ShellyCoapServer {
         }
     }
 
-    public synchronized void start(String localIp, ShellyCoapListener listener) throws UnknownHostException {
+    /**
+     * Start the listener (if not yet running) and register a device
+     *
+     * @param localIp IP address of the network interface to listen on
+     * @param deviceIp IP address or host name of the device
+     * @param listener Listener receiving the packets sent by the device
+     * @throws UnknownHostException
+     */
+    public synchronized void start(String localIp, String deviceIp, ShellyCoapListener listener)
+            throws UnknownHostException {
         if (!started) {
             logger.debug("Initializing CoIoT listener (local IP={}:{})", localIp, COIOT_PORT);
             NetworkConfig nc = NetworkConfig.getStandard();
@@ -94,13 +122,69 @@ public class ShellyCoapServer {
             started = true;
         }
 
-        if (!coapListeners.contains(listener)) {
-            coapListeners.add(listener);
-        }
+        String deviceAddress = InetAddress.getByName(deviceIp).getHostAddress();
+        coapListeners.values().remove(listener); // device IP might have changed
+        coapListeners.put(deviceAddress, listener);
+        deviceNames.put(listener, deviceIp);
     }
 
     protected void processResponse(Response response) {
-        coapListeners.forEach(listener -> listener.processResponse(response));
+        packetsReceived.incrementAndGet();
+        InetAddress peerAddress = response.getSourceContext().getPeerAddress().getAddress();
+        ShellyCoapListener listener = coapListeners.get(peerAddress.getHostAddress());
+        if (listener != null) {
+            packetsRouted.incrementAndGet();
+            listener.processResponse(response);
+        } else {
+            packetsUnmatched.incrementAndGet();
+            logger.trace("CoIoT packet from unknown device {} discarded", peerAddress.getHostAddress());
+            scheduleResolve();
+        }
+    }
+
+    /**
+     * Schedules the resolution of the device addresses, at most once per {@link #RESOLVE_INTERVAL_MS}.
+     */
+    private void scheduleResolve() {
+        long now = System.currentTimeMillis();
+        if (now - lastResolve >= RESOLVE_INTERVAL_MS && resolvePending.compareAndSet(false, true)) {
+            lastResolve = now;
+            scheduler.execute(() -> {
+                try {
+                    resolveDeviceAddresses();
+                } finally {
+                    resolvePending.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Resolves the addresses of the registered devices again.
+     */
+    private void resolveDeviceAddresses() {
+        for (Map.Entry<ShellyCoapListener, String> device : deviceNames.entrySet()) {
+            ShellyCoapListener listener = device.getKey();
+            try {
+                String deviceAddress = InetAddress.getByName(device.getValue()).getHostAddress();
+                if (coapListeners.get(deviceAddress) != listener) {
+                    logger.debug("Address of device {} has changed to {}", device.getValue(), deviceAddress);
+                    coapListeners.values().remove(listener);
+                    coapListeners.put(deviceAddress, listener);
+                }
+            } catch (UnknownHostException e) {
+                logger.debug("Unable to resolve the address of device {}: {}", device.getValue(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of the listener: the received packets, the packets routed to a device and the packets
+     * from unknown devices.
+     */
+    public String getStatistics() {
+        return String.format("%d received, %d routed, %d from unknown devices", packetsReceived.get(),
+                packetsRouted.get(), packetsUnmatched.get());
     }
 
     public static Response createResponse(Request request) {
@@ -122,7 +206,8 @@ public class ShellyCoapServer {
      * Cancel pending requests and shutdown the client
      */
     public void stop(ShellyCoapListener listener) {
-        coapListeners.remove(listener);
+        coapListeners.values().remove(listener);
+        deviceNames.remove(listener);
         if (coapListeners.isEmpty()) {
             stop();
         }
@@ -134,8 +219,9 @@ public class ShellyCoapServer {
             server.stop();
             statusEndpoint.stop();
             coapListeners.clear();
+            deviceNames.clear();
             started = false;
-            logger.debug("CoAP Listener stopped");
+            logger.debug("CoAP Listener stopped ({})", getStatistics());
         }
     }
 
@@ -32,10 +32,12 @@ public class ShellyBindingConfiguration {
     public static final String CONFIG_DEF_HTTP_USER = "defaultUserId";
     public static final String CONFIG_DEF_HTTP_PWD = "defaultPassword";
     public static final String CONFIG_AUTOCOIOT = "autoCoIoT";
+    public static final String CONFIG_ADAPTIVE_POLLING = "adaptivePolling";
 
     public String defaultUserId = ""; // default for http basic user id
     public String defaultPassword = ""; // default for http basic auth password
     public boolean autoCoIoT = true;
+    public boolean adaptivePolling = true;
 
     public void updateFromProperties(Map<String, Object> properties) {
         for (Map.Entry<String, Object> e : properties.entrySet()) {
@@ -52,6 +54,9 @@ public class ShellyBindingConfiguration {
                 case CONFIG_AUTOCOIOT:
                     autoCoIoT = (boolean) e.getValue();
                     break;
+                case CONFIG_ADAPTIVE_POLLING:
+                    adaptivePolling = (boolean) e.getValue();
+                    break;
             }
 
         }
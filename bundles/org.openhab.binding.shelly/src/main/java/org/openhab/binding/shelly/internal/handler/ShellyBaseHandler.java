@@ -91,6 +91,8 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
     private long lastUptime = 0;
     private long lastAlarmTs = 0;
     private long lastTimeoutErros = -1;
+    private long lastCoiotPackets = -1;
+    private long lastUpdatesPosted = -1;
     private final StopWatch watchdog = new StopWatch();
 
     private @Nullable ScheduledFuture<?> statusJob;
@@ -98,6 +100,7 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
     private int skipCount = UPDATE_SKIP_COUNT;
     private int skipUpdate = 0;
     private boolean refreshSettings = false;
+    private volatile long lastCoIoTUpdate = 0;
 
     private @Nullable ScheduledFuture<?> asyncButtonRelease;
 
@@ -351,7 +354,11 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
             skipUpdate++;
             ThingStatus thingStatus = getThing().getStatus();
 
-            if (refreshSettings || (scheduledUpdates > 0) || (skipUpdate % skipCount == 0)) {
+            // While CoIoT updates are received the status is only polled to refresh values not included in CoIoT
+            boolean regularUpdate = isCoIoTHealthy()
+                    ? skipUpdate % Math.max(skipCount, HEALTH_CHECK_INTERVAL_SEC / UPDATE_STATUS_INTERVAL_SECONDS) == 0
+                    : skipUpdate % skipCount == 0;
+            if (refreshSettings || (scheduledUpdates > 0) || regularUpdate) {
                 if (!profile.isInitialized() || ((thingStatus == ThingStatus.OFFLINE))
                         || (thingStatus == ThingStatus.UNKNOWN)) {
                     logger.debug("{}: Status update triggered thing initialization", thingName);
@@ -436,6 +443,24 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
         return getThing().getStatus() == ThingStatus.ONLINE;
     }
 
+    /**
+     * Called when a valid CoIoT status update was received from the device
+     */
+    public void coiotUpdateReceived() {
+        lastCoIoTUpdate = System.currentTimeMillis();
+    }
+
+    /**
+     * Check if status polling can be reduced, because the device is continuously sending CoIoT updates. Battery
+     * devices are not included, they are sleeping most of the time.
+     *
+     * @return true if a CoIoT update was received recently
+     */
+    public boolean isCoIoTHealthy() {
+        return bindingConfig.adaptivePolling && !profile.hasBattery && (lastCoIoTUpdate > 0)
+                && (System.currentTimeMillis() - lastCoIoTUpdate < UPDATE_COIOT_SILENCE_SECONDS * 1000L);
+    }
+
     public boolean isThingOffline() {
         return getThing().getStatus() == ThingStatus.OFFLINE;
     }
@@ -498,6 +523,16 @@ public class ShellyBaseHandler extends BaseThingHandler implements ShellyDeviceL
             propertyUpdates.put(PROPERTY_STATS_TRECOVERED, new Integer(api.getTimeoutsRecovered()).toString());
             lastTimeoutErros = api.getTimeoutErrors();
         }
+        if (lastCoiotPackets != coap.getPacketCount()) {
+            lastCoiotPackets = coap.getPacketCount();
+            propertyUpdates.put(PROPERTY_STATS_COIOT_PACKETS, String.valueOf(lastCoiotPackets));
+            propertyUpdates.put(PROPERTY_STATS_COIOT_SERVER, coap.getServerStatistics());
+        }
+        if (lastUpdatesPosted != cache.getUpdatesPosted()) {
+            lastUpdatesPosted = cache.getUpdatesPosted();
+            propertyUpdates.put(PROPERTY_STATS_CHANNEL_UPDATES,
+                    lastUpdatesPosted + " posted, " + cache.getUpdatesSuppressed() + " suppressed");
+        }
 
         // Check various device indicators like overheating
         if ((status.uptime < lastUptime) && (profile.isInitialized()) && !profile.hasBattery) {
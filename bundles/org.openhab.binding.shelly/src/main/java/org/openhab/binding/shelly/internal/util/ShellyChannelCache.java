@@ -16,6 +16,7 @@ import static org.openhab.binding.shelly.internal.util.ShellyUtils.mkChannelId;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.shelly.internal.handler.ShellyBaseHandler;
@@ -25,7 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The {@link ShellyChannelCache} implements a caching layer for channel updates.
+ * The {@link ShellyChannelCache} implements a caching layer for channel updates. Once enabled, unchanged values are
+ * not posted to the event bus again, no matter if they were received by CoIoT or the status polling.
  *
  * @author Markus Michels - Initial contribution
  */
@@ -37,6 +39,8 @@ public class ShellyChannelCache {
     private final Map<String, State> channelData = new ConcurrentHashMap<>();
     private String thingName = "";
     private boolean enabled = false;
+    private final AtomicLong updatesPosted = new AtomicLong();
+    private final AtomicLong updatesSuppressed = new AtomicLong();
 
     public ShellyChannelCache(ShellyBaseHandler thingHandler) {
         this.thingHandler = thingHandler;
@@ -70,30 +74,31 @@ public class ShellyChannelCache {
      * @return true, if successful
      */
     public boolean updateChannel(String channelId, State newValue, Boolean forceUpdate) {
+        // swap the value in a single step, so concurrent updates from CoIoT and polling post a value only once
+        State current = channelData.put(channelId, newValue);
+        if ((current != null) && ((current.getClass().isEnum() && (current == newValue)) // special case for OnOffType
+                || (enabled && !forceUpdate && current.equals(newValue)))) {
+            updatesSuppressed.incrementAndGet();
+            return false;
+        }
+
         try {
-            State current = null;
-            if (channelData.containsKey(channelId)) {
-                current = channelData.get(channelId);
-            }
-            if (!enabled || forceUpdate || (current == null) || !current.equals(newValue)) {
-                if ((current != null) && current.getClass().isEnum() && (current == newValue)) {
-                    return false; // special case for OnOffType
-                }
-                // For channels that support multiple types (like brightness) a suffix is added
-                // this gets removed to get the channelId for updateState
-                thingHandler.publishState(channelId, newValue);
-                if (current == null) {
-                    channelData.put(channelId, newValue);
-                } else {
-                    channelData.replace(channelId, newValue);
-                }
-                logger.debug("{}: Channel {} updated with {} (type {}).", thingName, channelId, newValue,
-                        newValue.getClass());
-                return true;
-            }
+            // For channels that support multiple types (like brightness) a suffix is added
+            // this gets removed to get the channelId for updateState
+            thingHandler.publishState(channelId, newValue);
+            updatesPosted.incrementAndGet();
+            logger.debug("{}: Channel {} updated with {} (type {}).", thingName, channelId, newValue,
+                    newValue.getClass());
+            return true;
         } catch (IllegalArgumentException e) {
             logger.debug("{}: Unable to update channel {} with {} (type {}): {} ({})", thingName, channelId, newValue,
                     newValue.getClass(), ShellyUtils.getMessage(e), e.getClass());
+            // value was not posted, keep the previous one
+            if (current != null) {
+                channelData.replace(channelId, newValue, current);
+            } else {
+                channelData.remove(channelId, newValue);
+            }
         }
         return false;
     }
@@ -129,4 +134,12 @@ public class ShellyChannelCache {
     public void clear() {
         channelData.clear();
     }
+
+    public long getUpdatesPosted() {
+        return updatesPosted.get();
+    }
+
+    public long getUpdatesSuppressed() {
+        return updatesSuppressed.get();
+    }
 }
@@ -17,11 +17,15 @@ import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,6 +62,31 @@ public class SonosXMLParser {
                     + "<desc id=\"cdudn\" nameSpace=\"urn:schemas-rinconnetworks-com:metadata-1-0/\">" + "{4}</desc>"
                     + "</item></DIDL-Lite>");
 
+    /**
+     * Track meta data is sent again with every AV transport event of every member of a group, the parsed meta data of
+     * the most recent DIDL-Lite documents is therefore kept.
+     */
+    private static final int METADATA_CACHE_SIZE = 64;
+    private static final int MAX_CACHED_METADATA_LENGTH = 16 * 1024;
+    private static final Map<String, SonosMetaData> METADATA_CACHE = Collections
+            .synchronizedMap(new LinkedHashMap<String, SonosMetaData>(METADATA_CACHE_SIZE, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.@Nullable Entry<String, SonosMetaData> eldest) {
+                    return size() > METADATA_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Creating an {@link XMLReader} is expensive, the readers are therefore kept in small pools for further documents.
+     * The pools belong to the binding, no reader is left on the threads of the UPnP stack.
+     */
+    private static final int READER_POOL_SIZE = 4;
+    private static final ReaderPool READERS = new ReaderPool(false);
+    private static final ReaderPool SECURE_READERS = new ReaderPool(true);
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
     private enum Element {
         TITLE,
         CLASS,
@@ -83,6 +112,59 @@ public class SonosXMLParser {
         desc
     }
 
+    private static void parse(String xml, DefaultHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler, READERS);
+    }
+
+    private static void parse(InputSource source, DefaultHandler handler, ReaderPool readers)
+            throws IOException, SAXException {
+        XMLReader reader = readers.acquire();
+        boolean success = false;
+        try {
+            reader.setContentHandler(handler);
+            reader.parse(source);
+            success = true;
+        } finally {
+            if (success) {
+                // the state of the reader is unknown after a failure, it is only reused after a success
+                readers.release(reader);
+            }
+        }
+    }
+
+    /**
+     * A bounded pool of reusable {@link XMLReader}s. A reader is used by one thread at a time, nested parsing (e.g. the
+     * resource meta data of an entry) gets another reader.
+     */
+    private static class ReaderPool {
+        private final boolean secure;
+        private final BlockingQueue<XMLReader> readers = new ArrayBlockingQueue<>(READER_POOL_SIZE);
+
+        ReaderPool(boolean secure) {
+            this.secure = secure;
+        }
+
+        XMLReader acquire() throws SAXException {
+            XMLReader reader = readers.poll();
+            return reader != null ? reader : createReader();
+        }
+
+        void release(XMLReader reader) {
+            // do not keep the handler and its results
+            reader.setContentHandler(NO_HANDLER);
+            // the reader is dropped if the pool is full
+            readers.offer(reader);
+        }
+
+        private XMLReader createReader() throws SAXException {
+            XMLReader newReader = XMLReaderFactory.createXMLReader();
+            if (secure) {
+                newReader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            }
+            return newReader;
+        }
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -92,9 +174,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -112,9 +192,7 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -133,12 +211,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static @Nullable SonosResourceMetaData getResourceMetaData(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
-        reader.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
         ResourceMetaDataHandler handler = new ResourceMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(new InputSource(new StringReader(xml)), handler, SECURE_READERS);
         } catch (IOException e) {
             LOGGER.error("Could not parse Resource MetaData from String '{}'", xml);
         } catch (SAXException s) {
@@ -157,9 +232,7 @@ public class SonosXMLParser {
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -173,9 +246,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -189,9 +260,7 @@ public class SonosXMLParser {
     public static Map<String, String> getRenderingControlFromXML(String xml) {
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
@@ -204,9 +273,7 @@ public class SonosXMLParser {
     public static Map<String, String> getAVTransportFromXML(String xml) {
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
@@ -217,27 +284,33 @@ public class SonosXMLParser {
     }
 
     public static SonosMetaData getMetaDataFromXML(String xml) {
+        SonosMetaData cachedMetaData = METADATA_CACHE.get(xml);
+        if (cachedMetaData != null) {
+            return cachedMetaData;
+        }
+
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
         } catch (SAXException s) {
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
+            return handler.getMetaData();
         }
 
-        return handler.getMetaData();
+        SonosMetaData metaData = handler.getMetaData();
+        if (xml.length() <= MAX_CACHED_METADATA_LENGTH) {
+            METADATA_CACHE.put(xml, metaData);
+        }
+        return metaData;
     }
 
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -936,10 +1009,8 @@ public class SonosXMLParser {
     public static @Nullable String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), roomNameHandler, READERS);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -975,10 +1046,8 @@ public class SonosXMLParser {
     public static @Nullable String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), modelNameHandler, READERS);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
@@ -26,9 +26,11 @@ public class ZonePlayerConfiguration {
     public static final String REFRESH = "refresh";
     public static final String NOTIFICATION_TIMEOUT = "notificationTimeout";
     public static final String NOTIFICATION_VOLUME = "notificationVolume";
+    public static final String EVENT_DRIVEN_POLLING = "eventDrivenPolling";
 
     public @Nullable String udn;
     public int refresh = 60;
     public int notificationTimeout = 20;
     public @Nullable Integer notificationVolume;
+    public boolean eventDrivenPolling = true;
 }
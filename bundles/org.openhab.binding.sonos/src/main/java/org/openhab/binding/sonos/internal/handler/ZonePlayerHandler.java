@@ -26,6 +26,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
@@ -117,6 +118,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             SERVICE_AV_TRANSPORT, SERVICE_ZONE_GROUP_TOPOLOGY, SERVICE_GROUP_MANAGEMENT, SERVICE_RENDERING_CONTROL,
             SERVICE_AUDIO_IN, SERVICE_HT_CONTROL, SERVICE_CONTENT_DIRECTORY);
     protected static final int SUBSCRIPTION_DURATION = 1800;
+    private static final int MAX_POLLS_WITHOUT_EVENT = 3;
 
     private static final String ACTION_GET_ZONE_ATTRIBUTES = "GetZoneAttributes";
     private static final String ACTION_GET_ZONE_INFO = "GetZoneInfo";
@@ -186,6 +188,18 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
     private Map<String, Boolean> subscriptionState = new HashMap<>();
 
+    /**
+     * Time of the last value received through a GENA event and of the last complete poll
+     */
+    private volatile long lastEventReceived;
+    private volatile long lastFullPoll;
+
+    /**
+     * Zone groups parsed from the last ZoneGroupState. All players of a household receive the same zone group
+     * topology, so it is shared by all handlers and parsed only once per change.
+     */
+    private static volatile @Nullable ZoneGroups zoneGroupsCache;
+
     /**
      * Thing handler instance of the coordinator speaker used for control delegation
      */
@@ -273,9 +287,17 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
                 addSubscription();
 
-                if (isLinked(ZONENAME)) {
-                    updateCurrentZoneName();
+                // While the GENA events are received, the zone attributes are kept up to date by the events.
+                // The availability of the player (zone info) is checked above at every poll.
+                if (configuration.eventDrivenPolling && isEventStreamHealthy()) {
+                    logger.debug("{}: Events received, skipping the polling of the zone attributes", getUDN());
+                } else {
+                    lastFullPoll = System.currentTimeMillis();
+                    if (isLinked(ZONENAME)) {
+                        updateCurrentZoneName();
+                    }
                 }
+                // Changes of the LED state and the sleep timer are not evented
                 if (isLinked(LED)) {
                     updateLed();
                 }
@@ -289,6 +311,30 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         }
     }
 
+    /**
+     * Checks whether all GENA subscriptions are established and an event has been received within the last
+     * {@link #MAX_POLLS_WITHOUT_EVENT} refresh intervals. A complete poll is still done once per subscription period
+     * to catch changes that were missed.
+     *
+     * @return true if polling the zone attributes can be skipped
+     */
+    private boolean isEventStreamHealthy() {
+        if (getThing().getStatus() != ThingStatus.ONLINE) {
+            return false;
+        }
+        synchronized (upnpLock) {
+            for (String subscription : SERVICE_SUBSCRIPTIONS) {
+                if (!Boolean.TRUE.equals(subscriptionState.get(subscription))) {
+                    return false;
+                }
+            }
+        }
+        long now = System.currentTimeMillis();
+        long eventWindow = TimeUnit.SECONDS.toMillis((long) configuration.refresh * MAX_POLLS_WITHOUT_EVENT);
+        return now - lastEventReceived < eventWindow
+                && now - lastFullPoll < TimeUnit.SECONDS.toMillis(SUBSCRIPTION_DURATION);
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
@@ -466,6 +512,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
     @Override
     public void onValueReceived(@Nullable String variable, @Nullable String value, @Nullable String service) {
+        // called by the UPnP IO service for the values of a GENA event
+        lastEventReceived = System.currentTimeMillis();
+        handleValue(variable, value, service);
+    }
+
+    private void handleValue(@Nullable String variable, @Nullable String value, @Nullable String service) {
         if (variable == null || value == null || service == null) {
             return;
         }
@@ -488,26 +540,26 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                     // Update the transport state after the update of the media information
                     // to not break the notification mechanism
                     if (!variable1.equals("TransportState")) {
-                        onValueReceived(variable1, value1, service);
+                        handleValue(variable1, value1, service);
                     }
                     // Translate AVTransportURI/AVTransportURIMetaData to CurrentURI/CurrentURIMetaData
                     // for a compatibility with the result of the action GetMediaInfo
                     if (variable1.equals("AVTransportURI")) {
-                        onValueReceived("CurrentURI", value1, service);
+                        handleValue("CurrentURI", value1, service);
                     } else if (variable1.equals("AVTransportURIMetaData")) {
-                        onValueReceived("CurrentURIMetaData", value1, service);
+                        handleValue("CurrentURIMetaData", value1, service);
                     }
                 });
                 updateMediaInformation();
                 if (parsedValues.get("TransportState") != null) {
-                    onValueReceived("TransportState", parsedValues.get("TransportState"), service);
+                    handleValue("TransportState", parsedValues.get("TransportState"), service);
                 }
             }
 
             if (service.equals(SERVICE_RENDERING_CONTROL) && variable.equals("LastChange")) {
                 Map<String, String> parsedValues = SonosXMLParser.getRenderingControlFromXML(value);
                 parsedValues.forEach((variable1, value1) -> {
-                    onValueReceived(variable1, value1, service);
+                    handleValue(variable1, value1, service);
                 });
             }
 
@@ -519,12 +571,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                     updateChannel(STATE);
                     updateChannel(CONTROL);
                     updateChannel(STOP);
-                    dispatchOnAllGroupMembers(variable, value, service);
+                    dispatchOnAllGroupMembers(Map.of(variable, value));
                     break;
                 case "CurrentPlayMode":
                     updateChannel(SHUFFLE);
                     updateChannel(REPEAT);
-                    dispatchOnAllGroupMembers(variable, value, service);
+                    dispatchOnAllGroupMembers(Map.of(variable, value));
                     break;
                 case "CurrentLEDState":
                     updateChannel(LED);
@@ -540,15 +592,19 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                     // Update coordinator after a change is made to the grouping of Sonos players
                     updateGroupCoordinator();
                     updateMediaInformation();
-                    // Update state and control channels for the group members with the coordinator values
+                    // Update state, control, shuffle and repeat channels for the group members
+                    // with the coordinator values
+                    Map<String, String> groupState = new LinkedHashMap<>();
                     String transportState = getTransportState();
                     if (transportState != null) {
-                        dispatchOnAllGroupMembers("TransportState", transportState, SERVICE_AV_TRANSPORT);
+                        groupState.put("TransportState", transportState);
                     }
-                    // Update shuffle and repeat channels for the group members with the coordinator values
                     String playMode = getPlayMode();
                     if (playMode != null) {
-                        dispatchOnAllGroupMembers("CurrentPlayMode", playMode, SERVICE_AV_TRANSPORT);
+                        groupState.put("CurrentPlayMode", playMode);
+                    }
+                    if (!groupState.isEmpty()) {
+                        dispatchOnAllGroupMembers(Collections.unmodifiableMap(groupState));
                     }
                     break;
                 case "LocalGroupUUID":
@@ -695,13 +751,18 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         }
     }
 
-    private void dispatchOnAllGroupMembers(String variable, String value, String service) {
+    /**
+     * Pushes AV transport values of the coordinator to the other members of its group.
+     *
+     * @param groupState the AV transport values of the coordinator
+     */
+    private void dispatchOnAllGroupMembers(Map<String, String> groupState) {
         if (isCoordinator()) {
             for (String member : getOtherZoneGroupMembers()) {
                 try {
                     ZonePlayerHandler memberHandler = getHandlerByName(member);
                     if (ThingStatus.ONLINE.equals(memberHandler.getThing().getStatus())) {
-                        memberHandler.onValueReceived(variable, value, service);
+                        memberHandler.onGroupStateReceived(groupState);
                     }
                 } catch (IllegalStateException e) {
                     logger.debug("Cannot update channel for group member ({})", e.getMessage());
@@ -710,6 +771,16 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         }
     }
 
+    /**
+     * Applies AV transport values pushed by the coordinator of the group. The values are already parsed by the
+     * coordinator, only the state and the channels of this player are updated.
+     *
+     * @param groupState the values of the coordinator
+     */
+    private void onGroupStateReceived(Map<String, String> groupState) {
+        groupState.forEach((variable, value) -> handleValue(variable, value, SERVICE_AV_TRANSPORT));
+    }
+
     private @Nullable String getAlbumArtUrl() {
         String url = null;
         String albumArtURI = stateMap.get("CurrentAlbumArtURI");
@@ -1076,7 +1147,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
     private Map<String, String> executeAction(String serviceId, String actionId, @Nullable Map<String, String> inputs) {
         Map<String, String> result = service.invokeAction(this, serviceId, actionId, inputs);
         result.forEach((variable, value) -> {
-            this.onValueReceived(variable, value, serviceId);
+            this.handleValue(variable, value, serviceId);
         });
         return result;
     }
@@ -1128,7 +1199,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         result.put("RunningAlarmProperties", newStringValue);
 
         result.forEach((variable, value) -> {
-            this.onValueReceived(variable, value, SERVICE_AV_TRANSPORT);
+            this.handleValue(variable, value, SERVICE_AV_TRANSPORT);
         });
     }
 
@@ -1277,6 +1348,17 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                 ? currentTrack.getAlbumArtUri()
                 : "";
 
+        Map<String, String> mediaInformation = new LinkedHashMap<>();
+        mediaInformation.put("CurrentTuneInStationId", (stationID != null) ? stationID : "");
+        if (needsUpdating) {
+            mediaInformation.put("CurrentArtist", (artist != null) ? artist : "");
+            mediaInformation.put("CurrentAlbum", (album != null) ? album : "");
+            mediaInformation.put("CurrentTitle", (title != null) ? title : "");
+            mediaInformation.put("CurrentURIFormatted", (resultString != null) ? resultString : "");
+            mediaInformation.put("CurrentAlbumArtURI", albumArtURI);
+        }
+        Map<String, String> groupState = Collections.unmodifiableMap(mediaInformation);
+
         ZonePlayerHandler handlerForImageUpdate = null;
         for (String member : getZoneGroupMembers()) {
             try {
@@ -1286,19 +1368,7 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                             && hasValueChanged(albumArtURI, memberHandler.stateMap.get("CurrentAlbumArtURI"))) {
                         handlerForImageUpdate = memberHandler;
                     }
-                    memberHandler.onValueReceived("CurrentTuneInStationId", (stationID != null) ? stationID : "",
-                            SERVICE_AV_TRANSPORT);
-                    if (needsUpdating) {
-                        memberHandler.onValueReceived("CurrentArtist", (artist != null) ? artist : "",
-                                SERVICE_AV_TRANSPORT);
-                        memberHandler.onValueReceived("CurrentAlbum", (album != null) ? album : "",
-                                SERVICE_AV_TRANSPORT);
-                        memberHandler.onValueReceived("CurrentTitle", (title != null) ? title : "",
-                                SERVICE_AV_TRANSPORT);
-                        memberHandler.onValueReceived("CurrentURIFormatted", (resultString != null) ? resultString : "",
-                                SERVICE_AV_TRANSPORT);
-                        memberHandler.onValueReceived("CurrentAlbumArtURI", albumArtURI, SERVICE_AV_TRANSPORT);
-                    }
+                    memberHandler.onGroupStateReceived(groupState);
                 }
             } catch (IllegalStateException e) {
                 logger.debug("Cannot update media data for group member ({})", e.getMessage());
@@ -1862,7 +1932,15 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
 
     private Collection<SonosZoneGroup> getZoneGroups() {
         String zoneGroupState = stateMap.get("ZoneGroupState");
-        return zoneGroupState == null ? Collections.emptyList() : SonosXMLParser.getZoneGroupFromXML(zoneGroupState);
+        if (zoneGroupState == null) {
+            return Collections.emptyList();
+        }
+        ZoneGroups zoneGroups = zoneGroupsCache;
+        if (zoneGroups == null || !zoneGroups.zoneGroupState.equals(zoneGroupState)) {
+            zoneGroups = new ZoneGroups(zoneGroupState, SonosXMLParser.getZoneGroupFromXML(zoneGroupState));
+            zoneGroupsCache = zoneGroups;
+        }
+        return zoneGroups.zoneGroups;
     }
 
     /**
@@ -3147,6 +3225,8 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             }
         } else {
             logger.info("UPnP device {} is absent (thing {})", getUDN(), getThing().getUID());
+            lastEventReceived = 0;
+            lastFullPoll = 0;
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.COMMUNICATION_ERROR);
         }
     }
@@ -3225,4 +3305,17 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         int seconds = Integer.parseInt(units[2]);
         return 3600 * hours + 60 * minutes + seconds;
     }
+
+    /**
+     * Zone groups parsed from a ZoneGroupState value
+     */
+    private static class ZoneGroups {
+        private final String zoneGroupState;
+        private final Collection<SonosZoneGroup> zoneGroups;
+
+        private ZoneGroups(String zoneGroupState, List<SonosZoneGroup> zoneGroups) {
+            this.zoneGroupState = zoneGroupState;
+            this.zoneGroups = Collections.unmodifiableList(zoneGroups);
+        }
+    }
 }
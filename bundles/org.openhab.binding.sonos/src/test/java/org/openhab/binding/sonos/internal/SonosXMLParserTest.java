@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SonosXMLParser} based on event payloads captured from Sonos zone players.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SonosXMLParserTest {
+
+    private static final String TRACK_META_DATA = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\"><item id=\"-1\" parentID=\"-1\" "
+            + "restricted=\"true\"><res protocolInfo=\"x-file-cifs:*:audio/x-ms-wma:*\" duration=\"0:03:02\">"
+            + "x-file-cifs://192.168.1.1/Music/Broken%20Box.wma</res><r:streamContent></r:streamContent>"
+            + "<dc:title>Broken Box</dc:title><upnp:class>object.item.audioItem.musicTrack</upnp:class>"
+            + "<dc:creator>Queens Of The Stone Age</dc:creator><upnp:album>Lullabies To Paralyze</upnp:album>"
+            + "<r:albumArtist>Queens Of The Stone Age</r:albumArtist></item></DIDL-Lite>";
+
+    private static final String AV_TRANSPORT_EVENT = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\"><InstanceID val=\"0\">"
+            + "<TransportState val=\"PLAYING\"/><CurrentPlayMode val=\"NORMAL\"/><CurrentTrack val=\"12\"/>"
+            + "<CurrentTrackMetaData val=\"" + escape(TRACK_META_DATA) + "\"/>"
+            + "<AVTransportURI val=\"x-rincon-queue:RINCON_000E5812BC1801400#0\"/></InstanceID></Event>";
+
+    private static final String RENDERING_CONTROL_EVENT = "<Event xmlns=\"urn:schemas-upnp-org:metadata-1-0/RCS/\">"
+            + "<InstanceID val=\"0\"><Volume channel=\"Master\" val=\"24\"/><Mute channel=\"Master\" val=\"0\"/>"
+            + "<Bass val=\"0\"/><Treble val=\"2\"/><PresetNameList>FactoryDefaults</PresetNameList></InstanceID>"
+            + "</Event>";
+
+    private static final String FAVORITES = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+            + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
+            + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+            + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\"><item id=\"FV:2/13\" parentID=\"FV:2\" "
+            + "restricted=\"false\"><dc:title>Radio 1</dc:title><upnp:class>object.itemobject.item.sonos-favorite"
+            + "</upnp:class><res protocolInfo=\"x-rincon-mp3radio:*:*:*\">x-rincon-mp3radio://radio1.example</res>"
+            + "<r:type>instantPlay</r:type><r:resMD>"
+            + escape("<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\" "
+                    + "xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\" "
+                    + "xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\" "
+                    + "xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\"><item id=\"F00092020s12345\" "
+                    + "parentID=\"F00082064y1%3apopular\" restricted=\"true\"><dc:title>Radio 1</dc:title>"
+                    + "<upnp:class>object.item.audioItem.audioBroadcast</upnp:class><desc id=\"cdudn\" "
+                    + "nameSpace=\"urn:schemas-rinconnetworks-com:metadata-1-0/\">SA_RINCON65031_</desc></item>"
+                    + "</DIDL-Lite>")
+            + "</r:resMD></item></DIDL-Lite>";
+
+    @Test
+    public void testAVTransportEventWithTrackMetaData() {
+        Map<String, String> changes = SonosXMLParser.getAVTransportFromXML(AV_TRANSPORT_EVENT);
+        assertThat(changes.get("TransportState"), is("PLAYING"));
+        assertThat(changes.get("CurrentTrack"), is("12"));
+
+        String metaDataXml = changes.get("CurrentTrackMetaData");
+        assertThat(metaDataXml, is(TRACK_META_DATA));
+        SonosMetaData metaData = SonosXMLParser.getMetaDataFromXML(TRACK_META_DATA);
+        assertThat(metaData.getTitle(), is("Broken Box"));
+        assertThat(metaData.getAlbum(), is("Lullabies To Paralyze"));
+        assertThat(metaData.getAlbumArtist(), is("Queens Of The Stone Age"));
+
+        // the same meta data is sent again with every event of every group member
+        assertThat(SonosXMLParser.getMetaDataFromXML(new String(TRACK_META_DATA)), is(sameInstance(metaData)));
+    }
+
+    @Test
+    public void testRenderingControlEvent() {
+        Map<String, String> changes = SonosXMLParser.getRenderingControlFromXML(RENDERING_CONTROL_EVENT);
+        assertThat(changes.get("VolumeMaster"), is("24"));
+        assertThat(changes.get("MuteMaster"), is("0"));
+        assertThat(changes.get("Treble"), is("2"));
+        assertThat(changes.get("PresetNameList"), is("FactoryDefaults"));
+    }
+
+    @Test
+    public void testEntriesWithNestedResourceMetaData() {
+        List<SonosEntry> entries = SonosXMLParser.getEntriesFromString(FAVORITES);
+        assertThat(entries.size(), is(1));
+        SonosEntry entry = entries.get(0);
+        assertThat(entry.getTitle(), is("Radio 1"));
+        SonosResourceMetaData resourceMetaData = entry.getResourceMetaData();
+        assertThat(resourceMetaData, is(notNullValue()));
+        assertThat(resourceMetaData.getDesc(), is("SA_RINCON65031_"));
+        assertThat(resourceMetaData.getUpnpClass(), is("object.item.audioItem.audioBroadcast"));
+
+        // the readers returned to the pool by the nested parsing are still usable
+        assertThat(SonosXMLParser.getEntriesFromString(FAVORITES).size(), is(1));
+    }
+
+    @Test
+    public void testReaderIsUsableAfterInvalidDocument() {
+        // truncated event, the values parsed before the error are returned
+        assertThat(SonosXMLParser.getAVTransportFromXML("<Event><InstanceID val=\"0\"><TransportState").size(), is(1));
+
+        Map<String, String> changes = SonosXMLParser.getAVTransportFromXML(AV_TRANSPORT_EVENT);
+        assertThat(changes.get("TransportState"), is("PLAYING"));
+    }
+
+    private static String escape(String xml) {
+        return xml.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
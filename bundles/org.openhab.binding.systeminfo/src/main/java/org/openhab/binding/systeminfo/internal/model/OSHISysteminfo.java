@@ -13,6 +13,11 @@
 package org.openhab.binding.systeminfo.internal.model;
 
 import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -42,6 +47,9 @@ import oshi.util.EdidUtil;
  * This implementation of {@link SysteminfoInterface} is using the open source library OSHI to provide system
  * information. OSHI is a free JNA-based (native) Operating System and Hardware Information library for Java.
  *
+ * The network interfaces, file stores, power sources and processes are refreshed at most once per refresh cycle of a
+ * thing, see {@link #refresh()}. The refresh time of each subsystem is recorded and logged periodically.
+ *
  * @author Svilen Valkanov - Initial contribution
  * @author Lyubomir Papazov - Move the initialization logic that could potentially take long time to the
  *         initializeSysteminfo method
@@ -75,6 +83,27 @@ public class OSHISysteminfo implements SysteminfoInterface {
 
     public static final int PRECISION_AFTER_DECIMAL_SIGN = 1;
 
+    private static final long STATISTICS_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    /**
+     * The subsystems that are refreshed once per refresh cycle.
+     */
+    enum Subsystem {
+        NETWORK,
+        STORAGE,
+        POWER_SOURCE,
+        PROCESS
+    }
+
+    // the start of the refresh cycle of the calling thread, i.e. of the update of a systeminfo thing
+    private final ThreadLocal<Long> refreshCycleStart = new ThreadLocal<>();
+    // the time each network interface, file store and power source has been refreshed last
+    private final Map<Object, Long> refreshedDevices = new IdentityHashMap<>();
+    private final Map<Integer, RefreshedProcess> processes = new HashMap<>();
+    private final Map<Subsystem, RefreshStatistics> refreshStatistics = new EnumMap<>(Subsystem.class);
+    private long refreshCycles;
+    private long lastStatisticsLog = System.nanoTime();
+
     /**
      * Some of the methods used in this constructor execute native code and require execute permissions
      *
@@ -111,14 +140,62 @@ public class OSHISysteminfo implements SysteminfoInterface {
         return devices[index];
     }
 
-    private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+    @Override
+    public synchronized void refresh() {
+        refreshCycleStart.set(System.nanoTime());
+        refreshCycles++;
+        logRefreshStatistics();
+    }
+
+    /**
+     * Checks if a device has to be refreshed in the refresh cycle of the calling thread. A device refreshed since the
+     * start of the cycle, e.g. by the update of another thing, is not refreshed again.
+     */
+    private boolean needsRefresh(@Nullable Long lastRefresh) {
+        Long cycleStart = refreshCycleStart.get();
+        return cycleStart == null || lastRefresh == null || lastRefresh - cycleStart < 0;
+    }
+
+    /**
+     * Refreshes the information of a device, unless it has already been refreshed in the current refresh cycle.
+     */
+    private synchronized void refreshDevice(Subsystem subsystem, Object device, Runnable update) {
+        if (needsRefresh(refreshedDevices.get(device))) {
+            long start = System.nanoTime();
+            update.run();
+            refreshedDevices.put(device, start);
+            recordRefresh(subsystem, System.nanoTime() - start);
+        }
+    }
+
+    private synchronized OSProcess getProcess(int pid) throws DeviceNotFoundException {
+        RefreshedProcess refreshedProcess = processes.get(pid);
+        if (refreshedProcess == null || needsRefresh(refreshedProcess.refreshTime)) {
+            long start = System.nanoTime();
+            refreshedProcess = new RefreshedProcess(operatingSystem.getProcess(pid), start);
+            recordRefresh(Subsystem.PROCESS, System.nanoTime() - start);
+            processes.put(pid, refreshedProcess);
+        }
+        OSProcess process = refreshedProcess.process;
         if (process == null) {
             throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
         }
         return process;
     }
 
+    private void recordRefresh(Subsystem subsystem, long timeNanos) {
+        refreshStatistics.computeIfAbsent(subsystem, s -> new RefreshStatistics()).record(timeNanos);
+        logger.trace("Refreshed {} in {} us", subsystem, TimeUnit.NANOSECONDS.toMicros(timeNanos));
+    }
+
+    private void logRefreshStatistics() {
+        long now = System.nanoTime();
+        if (logger.isDebugEnabled() && now - lastStatisticsLog >= STATISTICS_LOG_INTERVAL_NANOS) {
+            lastStatisticsLog = now;
+            logger.debug("Refresh statistics after {} refresh cycles: {}", refreshCycles, refreshStatistics);
+        }
+    }
+
     @Override
     public StringType getOsFamily() {
         String osFamily = operatingSystem.getFamily();
@@ -196,7 +273,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
+        refreshDevice(Subsystem.STORAGE, fileStore, fileStore::updateAtrributes);
         long totalSpace = fileStore.getTotalSpace();
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
@@ -205,7 +282,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
+        refreshDevice(Subsystem.STORAGE, fileStore, fileStore::updateAtrributes);
         long freeSpace = fileStore.getUsableSpace();
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
@@ -214,7 +291,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        fileStore.updateAtrributes();
+        refreshDevice(Subsystem.STORAGE, fileStore, fileStore::updateAtrributes);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -225,7 +302,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        fileStore.updateAtrributes();
+        refreshDevice(Subsystem.STORAGE, fileStore, fileStore::updateAtrributes);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         if (totalSpace > 0) {
@@ -240,7 +317,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
         OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        fileStore.updateAtrributes();
+        refreshDevice(Subsystem.STORAGE, fileStore, fileStore::updateAtrributes);
         long totalSpace = fileStore.getTotalSpace();
         long freeSpace = fileStore.getUsableSpace();
         long usedSpace = totalSpace - freeSpace;
@@ -277,7 +354,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public StringType getNetworkIp(int index) throws DeviceNotFoundException {
         NetworkIF netInterface = (NetworkIF) getDevice(networks, index);
-        netInterface.updateAttributes();
+        refreshDevice(Subsystem.NETWORK, netInterface, netInterface::updateAttributes);
         String[] ipAddresses = netInterface.getIPv4addr();
         String ipv4 = (String) getDevice(ipAddresses, 0);
         return new StringType(ipv4);
@@ -337,7 +414,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public @Nullable DecimalType getBatteryRemainingTime(int index) throws DeviceNotFoundException {
         PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
-        powerSource.updateAttributes();
+        refreshDevice(Subsystem.POWER_SOURCE, powerSource, powerSource::updateAttributes);
         double remainingTimeInSeconds = powerSource.getTimeRemainingEstimated();
         // The getTimeRemaining() method returns (-1.0) if is calculating or (-2.0) if the time is unlimited.
         BigDecimal remainingTime = getTimeInMinutes(remainingTimeInSeconds);
@@ -347,7 +424,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getBatteryRemainingCapacity(int index) throws DeviceNotFoundException {
         PowerSource powerSource = (PowerSource) getDevice(powerSources, index);
-        powerSource.updateAttributes();
+        refreshDevice(Subsystem.POWER_SOURCE, powerSource, powerSource::updateAttributes);
         double remainingCapacity = powerSource.getRemainingCapacityPercent();
         BigDecimal remainingCapacityPercents = getPercentsValue(remainingCapacity);
         return new DecimalType(remainingCapacityPercents);
@@ -551,7 +628,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        refreshDevice(Subsystem.NETWORK, network, network::updateAttributes);
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
@@ -559,7 +636,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        refreshDevice(Subsystem.NETWORK, network, network::updateAttributes);
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
@@ -567,7 +644,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        refreshDevice(Subsystem.NETWORK, network, network::updateAttributes);
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
@@ -575,7 +652,7 @@ public class OSHISysteminfo implements SysteminfoInterface {
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
         NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateAttributes();
+        refreshDevice(Subsystem.NETWORK, network, network::updateAttributes);
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
@@ -636,4 +713,55 @@ public class OSHISysteminfo implements SysteminfoInterface {
             return null;
         }
     }
+
+    /**
+     * A process and the time it has been requested from the operating system.
+     */
+    private static class RefreshedProcess {
+        private final @Nullable OSProcess process;
+        private final long refreshTime;
+
+        private RefreshedProcess(@Nullable OSProcess process, long refreshTime) {
+            this.process = process;
+            this.refreshTime = refreshTime;
+        }
+    }
+
+    /**
+     * The number of refreshes of a subsystem and the time they have taken.
+     */
+    private static class RefreshStatistics {
+        private long count;
+        private long totalTimeNanos;
+        private long maxTimeNanos;
+
+        private void record(long timeNanos) {
+            count++;
+            totalTimeNanos += timeNanos;
+            maxTimeNanos = Math.max(maxTimeNanos, timeNanos);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the average refresh time in milliseconds.
+         */
+        public double getAverageTime() {
+            return count == 0 ? 0 : totalTimeNanos / 1000000.0 / count;
+        }
+
+        /**
+         * Returns the longest refresh time in milliseconds.
+         */
+        public double getMaxTime() {
+            return maxTimeNanos / 1000000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d refreshes, %.2f ms average, %.2f ms max", count, getAverageTime(), getMaxTime());
+        }
+    }
 }
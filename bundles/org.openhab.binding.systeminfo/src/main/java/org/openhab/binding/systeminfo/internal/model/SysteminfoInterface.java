@@ -31,6 +31,14 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Starts a new refresh cycle for the calling thread, e.g. for the update of the channels of a thing. The dynamic
+     * information of each device, e.g. a network interface or a process, is refreshed at most once per cycle, when it
+     * is requested first. Information refreshed since the start of the cycle, e.g. by the cycle of another thing, is
+     * not refreshed again. The cycles of different threads do not invalidate each other.
+     */
+    public void refresh();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
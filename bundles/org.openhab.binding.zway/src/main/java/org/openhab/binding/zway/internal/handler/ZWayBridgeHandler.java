@@ -14,9 +14,13 @@ package org.openhab.binding.zway.internal.handler;
 
 import static org.openhab.binding.zway.internal.ZWayBindingConstants.*;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openhab.binding.zway.internal.config.ZWayBridgeConfiguration;
@@ -62,6 +66,9 @@ import de.fh_zwickau.informatik.sensor.model.zwaveapi.devices.ZWaveDevice;
  * - authenticate to the Z-Way server
  * - initialize all containing device things
  *
+ * The bridge polls the device list of the Z-Way server once per polling interval and pushes the devices that have
+ * been updated since the last poll to the device things, instead of every thing polling each of its channels.
+ *
  * @author Patrick Hecker - Initial contribution, remove observer mechanism
  * @author Johannes Einig - Bridge now stores DeviceList
  */
@@ -80,7 +87,13 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
     private ZWayBridgeConfiguration mConfig;
     private IZWayApi mZWayApi;
 
-    private DeviceList deviceList;
+    private volatile DeviceList deviceList;
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final AtomicBoolean pushAllPending = new AtomicBoolean();
+
+    // update time of every device at the last poll, by device id, only accessed by the running poll
+    private final Map<String, Integer> deviceUpdateTimes = new HashMap<>();
 
     /**
      * Initializer authenticate the Z-Way API instance with bridge configuration.
@@ -186,15 +199,19 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
         if (channelUID.getId().equals(ACTIONS_CHANNEL)) {
             if (command.toString().equals(ACTIONS_CHANNEL_OPTION_REFRESH)) {
                 logger.debug("Handle bridge refresh command for all configured devices ...");
-                for (Thing thing : getThing().getThings()) {
-                    ZWayDeviceHandler handler = (ZWayDeviceHandler) thing.getHandler();
-                    if (handler != null) {
-                        logger.debug("Refreshing device: {}", thing.getLabel());
-                        handler.refreshAllChannels();
-                    } else {
-                        logger.warn("Refreshing device failed (DeviceHandler is null): {}", thing.getLabel());
+                scheduler.execute(() -> {
+                    // the device list is loaded before the device things refresh their remaining channels
+                    pollDevices(true);
+                    for (Thing thing : getThing().getThings()) {
+                        ZWayDeviceHandler handler = (ZWayDeviceHandler) thing.getHandler();
+                        if (handler != null) {
+                            logger.debug("Refreshing device: {}", thing.getLabel());
+                            handler.refreshAllChannels();
+                        } else {
+                            logger.warn("Refreshing device failed (DeviceHandler is null): {}", thing.getLabel());
+                        }
                     }
-                }
+                });
             }
         } else if (channelUID.getId().equals(SECURE_INCLUSION_CHANNEL)) {
             if (command.equals(OnOffType.ON)) {
@@ -280,6 +297,7 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
             logger.debug("Starting polling for bridge: {}", getThing().getLabel());
             if (getThing().getStatus().equals(ThingStatus.ONLINE)) {
                 updateControllerData();
+                pollDevices(false);
             } else {
                 logger.debug("Polling not possible, bridge isn't ONLINE");
             }
@@ -319,6 +337,78 @@ public class ZWayBridgeHandler extends BaseBridgeHandler implements IZWayApiCall
         }
     }
 
+    /**
+     * Loads the device list and pushes all devices to the device things, e.g. after a REFRESH command. Requests that
+     * arrive while a refresh is waiting to be executed are served by this refresh.
+     */
+    public void refreshDevices() {
+        if (refreshPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                refreshPending.set(false);
+                pollDevices(true);
+            });
+        }
+    }
+
+    /**
+     * Loads the device list with a single request and pushes the devices to the device things. Only one poll runs at
+     * a time, a poll requested meanwhile is skipped. If all devices have been requested meanwhile, the running poll
+     * polls again afterwards.
+     *
+     * @param all true to push all devices, false to push only the devices updated since the last poll
+     */
+    private void pollDevices(boolean all) {
+        if (all) {
+            pushAllPending.set(true);
+        }
+        while (polling.compareAndSet(false, true)) {
+            try {
+                loadDevices(pushAllPending.getAndSet(false));
+            } finally {
+                polling.set(false);
+            }
+            if (!pushAllPending.get()) {
+                break;
+            }
+        }
+    }
+
+    private void loadDevices(boolean all) {
+        DeviceList devices = mZWayApi.getDevices();
+        if (devices == null) {
+            logger.debug("Devices not loaded");
+            return;
+        }
+        deviceList = devices;
+
+        Set<String> updatedDeviceIds = new HashSet<>();
+        Set<String> deviceIds = new HashSet<>();
+        for (Device device : devices.getDevices()) {
+            deviceIds.add(device.getDeviceId());
+            Integer previousUpdateTime = deviceUpdateTimes.put(device.getDeviceId(), device.getUpdateTime());
+            if (all || previousUpdateTime == null || !previousUpdateTime.equals(device.getUpdateTime())) {
+                updatedDeviceIds.add(device.getDeviceId());
+            }
+        }
+        deviceUpdateTimes.keySet().retainAll(deviceIds);
+        logger.debug("Polled {} devices, {} updated since the last poll", deviceIds.size(), updatedDeviceIds.size());
+
+        if (updatedDeviceIds.isEmpty()) {
+            return;
+        }
+        for (Thing thing : getThing().getThings()) {
+            ThingHandler handler = thing.getHandler();
+            if (handler instanceof ZWayDeviceHandler) {
+                try {
+                    ((ZWayDeviceHandler) handler).devicesUpdated(devices, updatedDeviceIds);
+                } catch (RuntimeException e) {
+                    // the other things are updated anyway
+                    logger.warn("Updating device {} failed: {}", thing.getLabel(), e.getMessage());
+                }
+            }
+        }
+    }
+
     /**
      * Inclusion/Exclusion must be reset manually, also channel states.
      */
@@ -19,6 +19,7 @@ import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -67,6 +68,9 @@ import de.fh_zwickau.informatik.sensor.model.zwaveapi.devices.ZWaveDevice;
  * The {@link ZWayDeviceHandler} is responsible for handling commands, which are
  * sent to one of the channels.
  *
+ * The states of the channels of ZAutomation devices are pushed by the bridge handler, which polls the device list of
+ * all devices at once. The device polling only refreshes the channels of Z-Wave command classes.
+ *
  * @author Patrick Hecker - Initial contribution, remove observer mechanism
  * @author Johannes Einig - Now uses the bridge handler cached device list
  */
@@ -77,7 +81,12 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
     private ScheduledFuture<?> pollingJob;
     protected Calendar lastUpdate;
 
-    protected abstract void refreshLastUpdate();
+    /**
+     * Updates the last update property of the thing.
+     *
+     * @param deviceList the device list that has just been pushed by the bridge
+     */
+    protected abstract void refreshLastUpdate(DeviceList deviceList);
 
     /**
      * Initialize polling job
@@ -108,6 +117,12 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
                     // Called when thing or bridge updated ...
                     logger.debug("Polling is allready active");
                 }
+
+                // Initial states from the device list of the bridge, afterwards the bridge pushes updated devices
+                DeviceList deviceList = zwayBridgeHandler.getDeviceList();
+                if (deviceList != null) {
+                    updateDeviceChannels(deviceList, null);
+                }
             } catch (Throwable t) {
                 if (t instanceof Exception) {
                     logger.error("{}", t.getMessage());
@@ -214,8 +229,11 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
         public void run() {
             logger.debug("Starting polling for device: {}", getThing().getLabel());
             if (getThing().getStatus().equals(ThingStatus.ONLINE)) {
-                // Refresh device states
+                // Refresh device states, the channels of ZAutomation devices are updated by the bridge
                 for (Channel channel : getThing().getChannels()) {
+                    if (channel.getProperties().get("deviceId") != null) {
+                        continue;
+                    }
                     logger.debug("Checking link state of channel: {}", channel.getLabel());
                     if (isLinked(channel.getUID().getId())) {
                         logger.debug("Refresh items that linked with channel: {}", channel.getLabel());
@@ -244,15 +262,71 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
                                 channel.getLabel());
                     }
                 }
-
-                // Refresh last update
-                refreshLastUpdate();
             } else {
                 logger.debug("Polling not possible, Z-Way device isn't ONLINE");
             }
         }
     }
 
+    /**
+     * Called by the bridge handler with the devices that have been updated since its last poll.
+     *
+     * @param deviceList all devices of the Z-Way server
+     * @param updatedDeviceIds the ids of the updated devices
+     */
+    protected void devicesUpdated(DeviceList deviceList, Set<String> updatedDeviceIds) {
+        if (getThing().getStatus().equals(ThingStatus.ONLINE)) {
+            updateDeviceChannels(deviceList, updatedDeviceIds);
+        } else {
+            logger.debug("Update not possible, Z-Way device isn't ONLINE");
+        }
+    }
+
+    /**
+     * Updates the linked channels of the updated devices from the device list, without any request to the server.
+     *
+     * @param deviceList all devices of the Z-Way server
+     * @param updatedDeviceIds the ids of the updated devices or null to update all channels
+     */
+    private void updateDeviceChannels(DeviceList deviceList, Set<String> updatedDeviceIds) {
+        boolean updated = false;
+        for (Channel channel : getThing().getChannels()) {
+            String deviceId = channel.getProperties().get("deviceId");
+            if (deviceId == null || (updatedDeviceIds != null && !updatedDeviceIds.contains(deviceId))
+                    || !isLinked(channel.getUID().getId())) {
+                continue;
+            }
+            Device device = deviceList.getDeviceById(deviceId);
+            if (device == null) {
+                logger.debug("ZAutomation device not found.");
+                continue;
+            }
+            updateDeviceChannel(device, channel);
+            updated = true;
+        }
+
+        if (updated) {
+            // Refresh last update
+            refreshLastUpdate(deviceList);
+        }
+    }
+
+    private void updateDeviceChannel(Device device, Channel channel) {
+        try {
+            updateState(channel.getUID(), ZWayDeviceStateConverter.toState(device, channel));
+        } catch (IllegalArgumentException iae) {
+            logger.debug(
+                    "IllegalArgumentException ({}) during refresh channel for device: {} (level: {}) with channel: {}",
+                    iae.getMessage(), device.getMetrics().getTitle(), device.getMetrics().getLevel(),
+                    channel.getChannelTypeUID());
+
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
+                    "Channel refresh for device: " + device.getMetrics().getTitle() + " (level: "
+                            + device.getMetrics().getLevel() + ") with channel: " + channel.getChannelTypeUID()
+                            + " failed!");
+        }
+    }
+
     private synchronized void setLocation() {
         Map<String, String> properties = getThing().getProperties();
         // Load location from properties
@@ -266,6 +340,10 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Refreshes the channels of the command classes. The channels of the ZAutomation devices are not refreshed, they
+     * are updated by the bridge with the device list it has loaded before.
+     */
     protected void refreshAllChannels() {
         scheduler.execute(new DevicePolling());
     }
@@ -281,30 +359,16 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
         // Check device id associated with channel
         String deviceId = channel.getProperties().get("deviceId");
         if (deviceId != null) {
-            // Load and check device from Z-Way server
-            DeviceList deviceList = zwayBridgeHandler.getZWayApi().getDevices();
+            // Check device in the device list of the bridge
+            DeviceList deviceList = zwayBridgeHandler.getDeviceList();
             if (deviceList != null) {
-                // 1.) Load only the current value from Z-Way server
                 Device device = deviceList.getDeviceById(deviceId);
                 if (device == null) {
                     logger.debug("ZAutomation device not found.");
                     return;
                 }
 
-                try {
-                    updateState(channel.getUID(), ZWayDeviceStateConverter.toState(device, channel));
-                } catch (IllegalArgumentException iae) {
-                    logger.debug(
-                            "IllegalArgumentException ({}) during refresh channel for device: {} (level: {}) with channel: {}",
-                            iae.getMessage(), device.getMetrics().getTitle(), device.getMetrics().getLevel(),
-                            channel.getChannelTypeUID());
-
-                    updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.NONE,
-                            "Channel refresh for device: " + device.getMetrics().getTitle() + " (level: "
-                                    + device.getMetrics().getLevel() + ") with channel: " + channel.getChannelTypeUID()
-                                    + " failed!");
-                }
-                // 2.) Trigger update function, soon as the value has been updated, openHAB will be notified
+                // 1.) Trigger update function of the device on the Z-Way server
                 try {
                     device.update();
                 } catch (Exception e) {
@@ -312,8 +376,10 @@ public abstract class ZWayDeviceHandler extends BaseThingHandler {
                             device.getMetrics().getTitle());
                 }
             } else {
-                logger.warn("Devices not loaded");
+                logger.debug("Devices not loaded yet, loading them for refresh");
             }
+            // 2.) Load the current values from the Z-Way server, the bridge pushes them to the channels
+            zwayBridgeHandler.refreshDevices();
         } else {
             // Check channel for command classes
             // Channel thermostat mode
@@ -161,7 +161,7 @@ public class ZWayZAutomationDeviceHandler extends ZWayDeviceHandler {
     }
 
     @Override
-    protected void refreshLastUpdate() {
+    protected void refreshLastUpdate(DeviceList deviceList) {
         logger.debug("Refresh last update for virtual device");
 
         // Check Z-Way bridge handler
@@ -171,8 +171,7 @@ public class ZWayZAutomationDeviceHandler extends ZWayDeviceHandler {
             return;
         }
 
-        // Load and check device from Z-Way server
-        DeviceList deviceList = zwayBridgeHandler.getZWayApi().getDevices();
+        // Check device in the device list that has just been pushed by the bridge
         if (deviceList != null) {
             Device device = deviceList.getDeviceById(mConfig.getDeviceId());
             if (device == null) {
@@ -193,7 +193,7 @@ public class ZWayZWaveDeviceHandler extends ZWayDeviceHandler {
     }
 
     @Override
-    protected void refreshLastUpdate() {
+    protected void refreshLastUpdate(DeviceList deviceList) {
         logger.debug("Refresh last update for Z-Wave device");
 
         // Check Z-Way bridge handler
@@ -49,6 +49,11 @@ public interface Homekit {
      */
     List<HomekitAccessory> getAccessories();
 
+    /**
+     * returns statistics of the state changes notified to HomeKit clients.
+     */
+    String getNotificationStatistics();
+
     /**
      * clear all pairings with HomeKit clients
      */
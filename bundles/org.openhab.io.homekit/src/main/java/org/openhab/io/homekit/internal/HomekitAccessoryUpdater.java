@@ -12,10 +12,18 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.StateChangeListener;
@@ -31,11 +39,40 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * HomeKit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * State changes are not passed to HomeKit immediately but collected for the configured notification delay. All
+ * characteristics changed within this window are notified at once, each of them only once with its latest value. The
+ * updates of a scene changing many items are therefore sent in one go and intermediate values are dropped.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
+    private static final long STATISTICS_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = ThreadPoolManager
+            .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
+    private final Map<ItemKey, HomekitCharacteristicChangeCallback> pendingNotifications = new LinkedHashMap<>();
+    private ScheduledFuture<?> flushJob;
+    private boolean stopped;
+    private volatile int notificationDelay = HomekitSettings.DEFAULT_NOTIFICATION_DELAY;
+
+    private final long startTime = System.nanoTime();
+    private final AtomicLong changeCount = new AtomicLong();
+    private final AtomicLong notificationCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+    private final AtomicLong lastStatisticsLog = new AtomicLong(startTime);
+
+    /**
+     * Sets the time in milliseconds state changes are collected before they are notified, 0 notifies immediately.
+     *
+     * @param notificationDelay delay in milliseconds
+     */
+    public void setNotificationDelay(int notificationDelay) {
+        this.notificationDelay = Math.max(0, notificationDelay);
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -57,7 +94,7 @@ public class HomekitAccessoryUpdater {
                 unsubscribe(item, key);
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = (changedItem, oldState, newState) -> notifyChanged(itemKey, callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -71,11 +108,132 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
+        ItemKey itemKey = new ItemKey(item, key);
+        subscriptionsByName.computeIfPresent(itemKey, (k, v) -> {
             logger.trace("Removing existing subscription for {} / {}", item, key);
             item.removeStateChangeListener(v);
             return null;
         });
+        synchronized (pendingNotifications) {
+            pendingNotifications.remove(itemKey);
+        }
+    }
+
+    private void notifyChanged(ItemKey itemKey, HomekitCharacteristicChangeCallback callback) {
+        changeCount.incrementAndGet();
+        int delay = notificationDelay;
+        if (delay == 0) {
+            sendNotification(itemKey, callback);
+            batchCount.incrementAndGet();
+            logStatistics();
+            return;
+        }
+        synchronized (pendingNotifications) {
+            // a pending notification of the same characteristic is superseded, the callback sends the latest value
+            if (stopped) {
+                return;
+            }
+            pendingNotifications.put(itemKey, callback);
+            if (flushJob == null) {
+                flushJob = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Cancels the notification of the collected state changes, changes received afterwards are no longer notified.
+     */
+    public void stop() {
+        synchronized (pendingNotifications) {
+            stopped = true;
+            ScheduledFuture<?> job = flushJob;
+            if (job != null) {
+                job.cancel(false);
+                flushJob = null;
+            }
+            pendingNotifications.clear();
+        }
+    }
+
+    private void flush() {
+        Map<ItemKey, HomekitCharacteristicChangeCallback> notifications;
+        synchronized (pendingNotifications) {
+            notifications = new LinkedHashMap<>(pendingNotifications);
+            pendingNotifications.clear();
+            flushJob = null;
+        }
+        if (notifications.isEmpty()) {
+            return;
+        }
+        logger.trace("Sending {} collected characteristic notifications", notifications.size());
+        notifications.forEach(this::sendNotification);
+        batchCount.incrementAndGet();
+        maxBatchSize.accumulateAndGet(notifications.size(), Math::max);
+        logStatistics();
+    }
+
+    private void sendNotification(ItemKey itemKey, HomekitCharacteristicChangeCallback callback) {
+        try {
+            callback.changed();
+            notificationCount.incrementAndGet();
+        } catch (RuntimeException e) {
+            logger.debug("Could not notify HomeKit about change of {} / {}: {}", itemKey.item, itemKey.key,
+                    e.getMessage());
+        }
+    }
+
+    private void logStatistics() {
+        long now = System.nanoTime();
+        long last = lastStatisticsLog.get();
+        // the state changes of several items are notified concurrently, only one of them logs the statistics
+        if (logger.isDebugEnabled() && now - last >= STATISTICS_INTERVAL
+                && lastStatisticsLog.compareAndSet(last, now)) {
+            logger.debug("HomeKit notifications: {}", getStatistics());
+        }
+    }
+
+    /**
+     * Returns the statistics of the state changes and notifications as text.
+     */
+    public String getStatistics() {
+        return String.format(
+                "%d state changes, %d notifications (%d per minute), average batch size %.1f, max batch size %d",
+                getChangeCount(), getNotificationCount(), getNotificationRate(), getAverageBatchSize(),
+                getMaxBatchSize());
+    }
+
+    /**
+     * Returns the number of state changes of subscribed items.
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Returns the number of notifications sent to HomeKit, superseded changes are not notified.
+     */
+    public long getNotificationCount() {
+        return notificationCount.get();
+    }
+
+    /**
+     * Returns the average number of notifications per minute since the updater has been created.
+     */
+    public long getNotificationRate() {
+        long minutes = Math.max(1, TimeUnit.NANOSECONDS.toMinutes(System.nanoTime() - startTime));
+        return notificationCount.get() / minutes;
+    }
+
+    /**
+     * Returns the average number of notifications sent at once.
+     */
+    public double getAverageBatchSize() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : (double) notificationCount.get() / batches;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize.get();
     }
 
     @FunctionalInterface
@@ -14,16 +14,28 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.json.JsonObject;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.common.registry.RegistryChangeListener;
 import org.openhab.core.items.GroupItem;
@@ -40,12 +52,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.hapjava.accessories.HomekitAccessory;
+import io.github.hapjava.characteristics.Characteristic;
 import io.github.hapjava.server.impl.HomekitRoot;
+import io.github.hapjava.services.Service;
 
 /**
  * Listens for changes to the item and metadata registry. When changes are detected, check
  * for HomeKit tags and, if present, add the items to the HomekitAccessoryRegistry.
  *
+ * An accessory is only replaced if its items, their HomeKit metadata or its layout, i.e. its services and the
+ * description of their characteristics, have changed. The configuration revision, which makes the HomeKit clients
+ * reload all accessories, is only increased if the layout of an accessory has changed or accessories have been added
+ * or removed.
+ *
  * @author Andy Lintner - Initial contribution
  */
 @NonNullByDefault
@@ -53,6 +72,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final static String REVISION_CONFIG = "revision";
     private final static String ACCESSORY_COUNT = "accessory_count";
+    private final static int PARALLEL_BUILD_THRESHOLD = 500;
+    private final static long LAYOUT_TIMEOUT_MS = 1000;
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private final MetadataRegistry metadataRegistry;
@@ -63,6 +84,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private int lastAccessoryCount;
 
     private final Set<String> pendingUpdates = new HashSet<>();
+    private final Map<String, AccessoryState> accessoryStates = new HashMap<>();
 
     private final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
@@ -82,6 +104,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
         this.metadataRegistry = metadataRegistry;
+        updater.setNotificationDelay(settings.notificationDelay);
         storage = storageService.getStorage(HomekitAuthInfoImpl.STORAGE_KEY);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
@@ -118,11 +141,39 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         };
         itemRegistry.addRegistryChangeListener(this);
         metadataRegistry.addRegistryChangeListener(metadataChangeListener);
-        itemRegistry.getItems().forEach(this::createRootAccessories);
+        createInitialAccessories();
         initialiseRevision();
         logger.info("Created {} HomeKit items.", accessoryRegistry.getAllAccessories().size());
     }
 
+    /**
+     * Creates the accessories of all items. Large installations create the accessories in parallel, they are registered
+     * afterwards one by one.
+     */
+    private synchronized void createInitialAccessories() {
+        final List<Item> taggedItems = itemRegistry.getItems().stream()
+                .filter(item -> !HomekitAccessoryFactory.getAccessoryTypes(item, metadataRegistry).isEmpty())
+                .collect(Collectors.toList());
+        final Stream<Item> stream;
+        if (taggedItems.size() >= PARALLEL_BUILD_THRESHOLD) {
+            logger.debug("Creating accessories of {} HomeKit items in parallel", taggedItems.size());
+            stream = taggedItems.parallelStream();
+        } else {
+            stream = taggedItems.stream();
+        }
+        final List<Entry<Item, List<HomekitAccessory>>> created = stream
+                .<Entry<Item, List<HomekitAccessory>>> map(item -> Map.entry(item, createRootAccessories(item)))
+                .collect(Collectors.toList());
+        for (Entry<Item, List<HomekitAccessory>> entry : created) {
+            final Item item = entry.getKey();
+            final List<HomekitAccessory> accessories = entry.getValue();
+            if (!accessories.isEmpty()) {
+                addRootAccessories(item.getName(), accessories);
+                accessoryStates.put(item.getName(), new AccessoryState(getLayout(accessories), getItemState(item)));
+            }
+        }
+    }
+
     private void initialiseRevision() {
         int revision;
         try {
@@ -154,8 +205,12 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     }
 
     @Override
-    public void allItemsChanged(Collection<String> oldItemNames) {
-        clearAccessories();
+    public synchronized void allItemsChanged(Collection<String> oldItemNames) {
+        // all item instances have been replaced, the accessories are compared with the existing ones after the
+        // debounce period
+        pendingUpdates.addAll(oldItemNames);
+        itemRegistry.getItems().forEach(item -> pendingUpdates.add(item.getName()));
+        applyUpdatesDebouncer.call();
     }
 
     /**
@@ -199,15 +254,45 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         storage.put(ACCESSORY_COUNT, "" + lastAccessoryCount);
     }
 
-    private synchronized void applyUpdates() {
+    synchronized void applyUpdates() {
         logger.trace("apply updates");
+        int replaced = 0;
+        int layoutChanges = 0;
         for (final String name : pendingUpdates) {
+            final Optional<Item> item = getItemOptional(name);
+            final @Nullable AccessoryState oldState = accessoryStates.get(name);
+            final @Nullable List<Object> itemState = item.map(this::getItemState).orElse(null);
+            if (oldState != null && oldState.itemState.equals(itemState)) {
+                // same item instances and metadata, the existing accessory can be kept without building it again
+                logger.trace(" accessory {} unchanged", name);
+                continue;
+            }
+            final List<HomekitAccessory> accessories = item.map(this::createRootAccessories).orElse(List.of());
+            final @Nullable AccessoryState newState = itemState != null && !accessories.isEmpty()
+                    ? new AccessoryState(getLayout(accessories), itemState)
+                    : null;
+            if (oldState == null && newState == null) {
+                continue;
+            }
+            logger.trace(" replace accessory {}", name);
             accessoryRegistry.remove(name);
-            logger.trace(" add items {}", name);
-            getItemOptional(name).ifPresent(this::createRootAccessories);
+            addRootAccessories(name, accessories);
+            replaced++;
+            if (newState != null) {
+                accessoryStates.put(name, newState);
+            } else {
+                accessoryStates.remove(name);
+            }
+            if (oldState == null || newState == null || !oldState.layout.equals(newState.layout)) {
+                layoutChanges++;
+            }
         }
-        if (!pendingUpdates.isEmpty()) {
+        if (layoutChanges > 0) {
             makeNewConfigurationRevision();
+        }
+        if (!pendingUpdates.isEmpty()) {
+            logger.debug("Applied updates of {} items: {} accessories replaced, {} with a changed layout",
+                    pendingUpdates.size(), replaced, layoutChanges);
             pendingUpdates.clear();
         }
     }
@@ -224,6 +309,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public synchronized void clearAccessories() {
         accessoryRegistry.clear();
+        // the accessories are no longer known to the bridge, force their registration on the next update
+        accessoryStates.clear();
     }
 
     public synchronized void setBridge(HomekitRoot bridge) {
@@ -237,21 +324,28 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setNotificationDelay(settings.notificationDelay);
     }
 
     public void stop() {
         this.itemRegistry.removeRegistryChangeListener(this);
         this.metadataRegistry.removeRegistryChangeListener(metadataChangeListener);
+        updater.stop();
     }
 
     public Map<String, HomekitAccessory> getAccessories() {
         return this.accessoryRegistry.getAllAccessories();
     }
 
+    public String getNotificationStatistics() {
+        return updater.getStatistics();
+    }
+
     public int getConfigurationRevision() {
         return this.accessoryRegistry.getConfigurationRevision();
     }
@@ -280,8 +374,10 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * Switch light "Light" (gLight) {homekit="Lighting.OnState"}
      *
      * @param item openHAB item
+     * @return the created accessories, they are not yet registered
      */
-    private void createRootAccessories(Item item) {
+    private List<HomekitAccessory> createRootAccessories(Item item) {
+        final List<HomekitAccessory> accessories = new ArrayList<>();
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
@@ -290,16 +386,116 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             logger.trace("Item {} is a HomeKit accessory of types {}", item.getName(), accessoryTypes);
             final HomekitOHItemProxy itemProxy = new HomekitOHItemProxy(item);
             accessoryTypes.forEach(rootAccessory -> createRootAccessory(new HomekitTaggedItem(itemProxy,
-                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry))));
+                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry)))
+                            .ifPresent(accessories::add));
         }
+        return accessories;
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private Optional<HomekitAccessory> createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
+            return Optional.of(HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
         } catch (HomekitException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void addRootAccessories(String itemName, List<HomekitAccessory> accessories) {
+        accessories.forEach(accessory -> accessoryRegistry.addRootAccessory(itemName, accessory));
+    }
+
+    /**
+     * Describes the item of a root accessory and its group members: the item instances and their HomeKit metadata.
+     * An accessory whose item state has not changed still works with the current items.
+     */
+    private List<Object> getItemState(Item item) {
+        final List<Object> state = new ArrayList<>();
+        final List<Item> items = new ArrayList<>();
+        items.add(item);
+        if (item instanceof GroupItem) {
+            items.addAll(((GroupItem) item).getMembers());
+        }
+        for (Item i : items) {
+            state.add(new ItemReference(i));
+            state.add(HomekitAccessoryFactory.getAccessoryTypes(i, metadataRegistry));
+            state.add(Objects.requireNonNullElse(HomekitAccessoryFactory.getItemConfiguration(i, metadataRegistry),
+                    Map.of()));
+        }
+        return state;
+    }
+
+    /**
+     * Returns the layout of the accessories as it is seen by the HomeKit clients: the name, the services and the
+     * description of the characteristics without their current values.
+     */
+    private String getLayout(List<HomekitAccessory> accessories) {
+        final StringBuilder layout = new StringBuilder();
+        for (HomekitAccessory accessory : accessories) {
+            layout.append(accessory.getId()).append(':').append(join(accessory.getName(), accessory));
+            for (Service service : accessory.getServices()) {
+                layout.append('[').append(service.getType());
+                for (Characteristic characteristic : service.getCharacteristics()) {
+                    layout.append(getLayout(characteristic));
+                }
+                layout.append(']');
+            }
+            layout.append(';');
+        }
+        return layout.toString();
+    }
+
+    private String getLayout(Characteristic characteristic) {
+        final @Nullable JsonObject json = join(characteristic.toJson(0), characteristic);
+        if (json != null) {
+            return json.entrySet().stream().filter(e -> !"value".equals(e.getKey()))
+                    .map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(",", "{", "}"));
+        }
+        return "{" + characteristic.getClass().getName() + "}";
+    }
+
+    /**
+     * Waits for a description of an accessory or characteristic, which is usually completed at once.
+     */
+    private <T> @Nullable T join(CompletableFuture<T> future, Object source) {
+        try {
+            return future.get(LAYOUT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            logger.debug("Could not get description of {}: {}", source, e.getMessage());
+        }
+        return null;
+    }
+
+    private static class AccessoryState {
+        private final String layout;
+        private final List<Object> itemState;
+
+        AccessoryState(String layout, List<Object> itemState) {
+            this.layout = layout;
+            this.itemState = itemState;
+        }
+    }
+
+    /**
+     * Compares items by identity, an updated item is a new instance.
+     */
+    private static class ItemReference {
+        private final Item item;
+
+        ItemReference(Item item) {
+            this.item = item;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return obj instanceof ItemReference && ((ItemReference) obj).item == item;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item);
         }
     }
 }
@@ -38,6 +38,7 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
     private static final String SUBCMD_LIST_ACCESSORIES = "list";
     private static final String SUBCMD_PRINT_ACCESSORY = "show";
     private static final String SUBCMD_ALLOW_UNAUTHENTICATED = "allowUnauthenticated";
+    private static final String SUBCMD_STATISTICS = "statistics";
 
     private final Logger logger = LoggerFactory.getLogger(HomekitCommandExtension.class);
 
@@ -74,6 +75,9 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
                         console.println("accessory id or name is required as an argument");
                     }
                     break;
+                case SUBCMD_STATISTICS:
+                    console.println(homekit.getNotificationStatistics());
+                    break;
                 default:
                     console.println("Unknown command '" + subCommand + "'");
                     printUsage(console);
@@ -91,7 +95,8 @@ public class HomekitCommandExtension extends AbstractConsoleCommandExtension {
                         "print additional details of the accessories which partially match provided ID or name."),
                 buildCommandUsage(SUBCMD_CLEAR_PAIRINGS, "removes all pairings with HomeKit clients."),
                 buildCommandUsage(SUBCMD_ALLOW_UNAUTHENTICATED + " <boolean>",
-                        "enables or disables unauthenticated access to facilitate debugging"));
+                        "enables or disables unauthenticated access to facilitate debugging"),
+                buildCommandUsage(SUBCMD_STATISTICS, "print statistics of the notifications sent to HomeKit clients"));
     }
 
     @Reference
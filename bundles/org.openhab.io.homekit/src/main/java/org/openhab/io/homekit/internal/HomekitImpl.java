@@ -246,6 +246,11 @@ public class HomekitImpl implements Homekit {
         return new ArrayList<>(this.changeListener.getAccessories().values());
     }
 
+    @Override
+    public String getNotificationStatistics() {
+        return changeListener.getNotificationStatistics();
+    }
+
     @Override
     public void clearHomekitPairings() {
         try {
@@ -23,6 +23,7 @@ public class HomekitSettings {
     public static final String SERIAL_NUMBER = "none";
     public static final String MODEL = "openHAB";
     public static final String HARDWARE_REVISION = "3.0";
+    public static final int DEFAULT_NOTIFICATION_DELAY = 100;
 
     public String name = "openHAB";
     public int port = 9123;
@@ -30,6 +31,7 @@ public class HomekitSettings {
     public String setupId;
     public String qrCode;
     public int startDelay = 30;
+    public int notificationDelay = DEFAULT_NOTIFICATION_DELAY;
     public boolean useFahrenheitTemperature = false;
     public double minimumTemperature = -100;
     public double maximumTemperature = 100;
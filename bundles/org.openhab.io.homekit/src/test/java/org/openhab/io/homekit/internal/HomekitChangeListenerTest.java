@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.Metadata;
+import org.openhab.core.items.MetadataKey;
+import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.storage.Storage;
+import org.openhab.core.storage.StorageService;
+import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
+
+import io.github.hapjava.accessories.HomekitAccessory;
+
+/**
+ * Tests that the configuration revision is only increased if the layout of an accessory changes.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitChangeListenerTest {
+
+    private static final String ITEM_NAME = "light";
+
+    private final Map<String, Item> items = new HashMap<>();
+    private final Map<String, Metadata> metadata = new HashMap<>();
+    private final Map<String, String> storedValues = new HashMap<>();
+
+    private @NonNullByDefault({}) HomekitChangeListener listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ItemNotFoundException {
+        ItemRegistry itemRegistry = mock(ItemRegistry.class);
+        when(itemRegistry.getItems()).thenAnswer(invocation -> List.copyOf(items.values()));
+        when(itemRegistry.get(anyString())).thenAnswer(invocation -> items.get(invocation.getArgument(0)));
+        when(itemRegistry.getItem(anyString())).thenAnswer(invocation -> {
+            Item item = items.get(invocation.getArgument(0));
+            if (item == null) {
+                throw new ItemNotFoundException(invocation.getArgument(0));
+            }
+            return item;
+        });
+
+        MetadataRegistry metadataRegistry = mock(MetadataRegistry.class);
+        when(metadataRegistry.get(any()))
+                .thenAnswer(invocation -> metadata.get(((MetadataKey) invocation.getArgument(0)).getItemName()));
+
+        Storage<String> storage = mock(Storage.class);
+        when(storage.get(anyString())).thenAnswer(invocation -> storedValues.get(invocation.getArgument(0)));
+        when(storage.put(anyString(), anyString())).thenAnswer(
+                invocation -> storedValues.put(invocation.getArgument(0), invocation.getArgument(1)));
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.<String> getStorage(anyString())).thenReturn(storage);
+
+        addItem(new SwitchItem(ITEM_NAME), "Lighting");
+        listener = new HomekitChangeListener(itemRegistry, new HomekitSettings(), metadataRegistry, storageService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listener.unsetBridge();
+    }
+
+    @Test
+    public void testReAddedItemWithChangedStateKeepsAccessory() {
+        HomekitAccessory accessory = getAccessory();
+        int revision = listener.getConfigurationRevision();
+
+        items.get(ITEM_NAME).setState(OnOffType.ON);
+        listener.added(items.get(ITEM_NAME));
+        listener.applyUpdates();
+
+        assertThat(getAccessory(), is(sameInstance(accessory)));
+        assertThat(listener.getConfigurationRevision(), is(revision));
+    }
+
+    @Test
+    public void testUpdatedItemKeepsRevision() {
+        HomekitAccessory accessory = getAccessory();
+        int revision = listener.getConfigurationRevision();
+
+        Item oldItem = items.get(ITEM_NAME);
+        Item newItem = new SwitchItem(ITEM_NAME);
+        addItem(newItem, "Lighting");
+        listener.updated(oldItem, newItem);
+        listener.applyUpdates();
+
+        // the accessory is rebuilt for the new item instance, but HomeKit clients see the same layout
+        assertThat(getAccessory(), is(not(sameInstance(accessory))));
+        assertThat(listener.getConfigurationRevision(), is(revision));
+    }
+
+    @Test
+    public void testLayoutChangeIncreasesRevision() {
+        int revision = listener.getConfigurationRevision();
+
+        Item oldItem = items.get(ITEM_NAME);
+        Item newItem = new SwitchItem(ITEM_NAME);
+        addItem(newItem, "Switchable");
+        listener.updated(oldItem, newItem);
+        listener.applyUpdates();
+
+        assertThat(listener.getConfigurationRevision(), is(revision + 1));
+        assertThat(storedValues.get("revision"), is(String.valueOf(revision + 1)));
+    }
+
+    private void addItem(Item item, String accessoryType) {
+        items.put(item.getName(), item);
+        metadata.put(item.getName(),
+                new Metadata(new MetadataKey(HomekitAccessoryFactory.METADATA_KEY, item.getName()), accessoryType,
+                        Map.of()));
+    }
+
+    private HomekitAccessory getAccessory() {
+        final @Nullable HomekitAccessory accessory = listener.getAccessories().get(ITEM_NAME);
+        assertThat(accessory, is(notNullValue()));
+        return accessory;
+    }
+}
@@ -13,16 +13,19 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.items.StringItem;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.StateUtils;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueStateChange;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
@@ -57,6 +60,14 @@ public class HueLightEntry {
     public transient @Nullable Command lastCommand = null;
     public transient @Nullable HueStateChange lastHueChange = null;
 
+    // the last serialized JSON and the values it depends on
+    private transient @Nullable String json;
+    private transient @Nullable GenericItem jsonItem;
+    private transient @Nullable State jsonItemState;
+    private transient @Nullable String jsonLabel;
+    private transient @Nullable Command jsonCommand;
+    private transient @Nullable HueStateChange jsonHueChange;
+
     public static class Config {
         public final String archetype = "classicbulb";
         public final String function = "functional";
@@ -181,6 +192,30 @@ public class HueLightEntry {
         }
     }
 
+    /**
+     * Returns the JSON representation of this light. The light is only serialized again if the item, its state or label
+     * or the last command have changed since the last call.
+     *
+     * @param gson The gson instance with the registered {@link Serializer}
+     * @return The JSON object of this light
+     */
+    public synchronized String toJson(Gson gson) {
+        State itemState = item.getState();
+        String label = item.getLabel();
+        String localJson = json;
+        if (localJson == null || jsonItem != item || jsonItemState != itemState || jsonCommand != lastCommand
+                || jsonHueChange != lastHueChange || !Objects.equals(jsonLabel, label)) {
+            localJson = gson.toJson(this);
+            json = localJson;
+            jsonItem = item;
+            jsonItemState = itemState;
+            jsonLabel = label;
+            jsonCommand = lastCommand;
+            jsonHueChange = lastHueChange;
+        }
+        return localJson;
+    }
+
     /**
      * Replaces the associated openHAB item of this hue device with the given once
      * and also synchronizes/updates the color information of this hue device with the item.
@@ -12,9 +12,13 @@
  */
 package org.openhab.io.hueemulation.internal.rest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,8 +30,11 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -91,6 +98,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
  * </p>
  *
  * <p>
+ * The light list is polled frequently by some clients. It is assembled from the JSON of the single lights, which is
+ * only serialized again if the light has changed, and carries an ETag to allow conditional requests.
  * </p>
  *
  * @author David Graeff - Initial contribution
@@ -118,6 +127,14 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @Reference(policy = ReferencePolicy.DYNAMIC, cardinality = ReferenceCardinality.OPTIONAL)
     protected volatile @Nullable EventPublisher eventPublisher;
 
+    private @Nullable LightList lightList;
+    private long lightListVersion = System.currentTimeMillis();
+    private final AtomicLong lightListRequests = new AtomicLong();
+    private final AtomicLong lightListNotModified = new AtomicLong();
+    private final AtomicLong lightListBytes = new AtomicLong();
+    private final AtomicLong lightListTotalTime = new AtomicLong();
+    private volatile long lightListMaxTime;
+
     /**
      * Registers to the {@link ItemRegistry} and enumerates currently existing items.
      */
@@ -247,12 +264,85 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/lights")
     @Operation(summary = "Return all lights", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @Parameter(description = "username") String username) {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        long start = System.nanoTime();
+        LightList list = getLightList();
+        ResponseBuilder notModified = request.evaluatePreconditions(list.eTag);
+        Response response;
+        if (notModified != null) {
+            lightListNotModified.incrementAndGet();
+            response = notModified.build();
+        } else {
+            lightListBytes.addAndGet(list.body.length);
+            response = Response.ok(list.body).tag(list.eTag).build();
+        }
+        long time = System.nanoTime() - start;
+        lightListRequests.incrementAndGet();
+        lightListTotalTime.addAndGet(time);
+        if (time > lightListMaxTime) {
+            lightListMaxTime = time;
+        }
+        logger.trace("Light list request: {} bytes, {} µs, modified: {}", list.body.length,
+                TimeUnit.NANOSECONDS.toMicros(time), notModified == null);
+        return response;
+    }
+
+    /**
+     * Returns the current light list. Only lights that have changed are serialized again, the response is only
+     * assembled again if any light has changed.
+     */
+    private synchronized LightList getLightList() {
+        List<String> fragments = new ArrayList<>(cs.ds.lights.size() * 2);
+        for (Map.Entry<String, HueLightEntry> entry : cs.ds.lights.entrySet()) {
+            fragments.add(entry.getKey());
+            fragments.add(entry.getValue().toJson(cs.gson));
+        }
+        LightList list = lightList;
+        if (list == null || !list.fragments.equals(fragments)) {
+            list = new LightList(fragments, ++lightListVersion);
+            lightList = list;
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of light list requests.
+     */
+    public long getLightListRequests() {
+        return lightListRequests.get();
+    }
+
+    /**
+     * Returns the number of light list requests answered with "304 Not Modified".
+     */
+    public long getLightListNotModified() {
+        return lightListNotModified.get();
+    }
+
+    /**
+     * Returns the number of bytes sent in light list responses.
+     */
+    public long getLightListBytes() {
+        return lightListBytes.get();
+    }
+
+    /**
+     * Returns the average time in microseconds to answer a light list request.
+     */
+    public long getLightListAverageTime() {
+        long requests = lightListRequests.get();
+        return requests == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(lightListTotalTime.get() / requests);
+    }
+
+    /**
+     * Returns the maximum time in microseconds to answer a light list request.
+     */
+    public long getLightListMaxTime() {
+        return TimeUnit.NANOSECONDS.toMicros(lightListMaxTime);
     }
 
     @GET
@@ -288,7 +378,8 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        return Response.ok(hueDevice != null ? hueDevice.toJson(cs.gson) : cs.gson.toJson(hueDevice)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -525,4 +616,27 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.NOT_AVAILABLE, "Group does not exist");
         }
     }
+
+    /**
+     * The serialized light list. Consists of alternating light ids and light JSON objects.
+     */
+    private class LightList {
+        private final List<String> fragments;
+        private final byte[] body;
+        private final EntityTag eTag;
+
+        LightList(List<String> fragments, long version) {
+            this.fragments = fragments;
+            StringBuilder builder = new StringBuilder("{");
+            for (int i = 0; i < fragments.size(); i += 2) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(cs.gson.toJson(fragments.get(i))).append(':').append(fragments.get(i + 1));
+            }
+            builder.append('}');
+            this.body = builder.toString().getBytes(StandardCharsets.UTF_8);
+            this.eTag = new EntityTag(Long.toHexString(version) + "-" + Integer.toHexString(fragments.hashCode()));
+        }
+    }
 }
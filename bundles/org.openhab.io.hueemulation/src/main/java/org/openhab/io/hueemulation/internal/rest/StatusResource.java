@@ -49,7 +49,7 @@ import org.slf4j.LoggerFactory;
  * This class is used by the status REST API for troubleshoot purposes.
  * <p>
  * The UPNP announcement is tested, the /description.xml reachability is checked,
- * and some statistics are gathered.
+ * and some statistics are gathered, e.g. how the light list requests have been answered.
  *
  * @author David Graeff - Initial contribution
  */
@@ -65,6 +65,8 @@ public class StatusResource implements RegistryListener {
     protected @NonNullByDefault({}) ConfigStore cs;
     @Reference
     protected @NonNullByDefault({}) UpnpService upnpService;
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policyOption = ReferencePolicyOption.GREEDY)
+    protected @Nullable LightsAndGroups lightsAndGroups;
 
     private enum upnpStatus {
         service_not_registered,
@@ -142,6 +144,7 @@ public class StatusResource implements RegistryListener {
                 + //
                 "%d published lights (see <a href='%s/api/testuser/lights'>%s/api/testuser/lights</a>)<br>" + //
                 "%d published sensors (see <a href='%s/api/testuser/sensors'>%s/api/testuser/sensors</a>)<br>" + //
+                "%s<br>" + //
                 "<h2>UPnP discovery test</h2>" + //
                 "<p>%s</p>" + //
                 "<table style='border:1px solid black'><tr><td>serial no</td><td>name</td></tr>%s</table>" + //
@@ -170,13 +173,21 @@ public class StatusResource implements RegistryListener {
             upnps = TR(TD("service not available") + TD(""));
         }
 
+        LightsAndGroups localLightsAndGroups = lightsAndGroups;
+        String lightListStatistics = localLightsAndGroups == null ? ""
+                : String.format(
+                        "%d light list requests, %d not modified, %d bytes sent, %d µs average, %d µs maximum time",
+                        localLightsAndGroups.getLightListRequests(), localLightsAndGroups.getLightListNotModified(),
+                        localLightsAndGroups.getLightListBytes(), localLightsAndGroups.getLightListAverageTime(),
+                        localLightsAndGroups.getLightListMaxTime());
+
         if (!localDiscovery.upnpAnnouncementThreadRunning()) {
             selfTestUpnpFound = upnpStatus.upnp_announcement_thread_not_running;
         }
 
         return String.format(format, cs.ds.config.linkbutton ? "On" : "Off",
                 cs.getConfig().temporarilyEmulateV1bridge ? "V1" : "V2", url, url, //
-                cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, //
+                cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, lightListStatistics, //
                 selfTestUpnpFound.name().replace('_', ' '), //
                 upnps, reachable, users);
     }
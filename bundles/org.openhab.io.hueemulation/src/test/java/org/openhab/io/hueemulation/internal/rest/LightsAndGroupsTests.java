@@ -335,6 +335,43 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsConditionalRequest() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        String eTag = response.getHeaderString("ETag");
+        String body = response.readEntity(String.class);
+        assertThat(eTag, is(notNullValue()));
+
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", eTag).get();
+        assertEquals(304, response.getStatus());
+
+        // a changed light is serialized again and results in a new ETag
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", eTag).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getHeaderString("ETag"), is(not(eTag)));
+        assertThat(response.readEntity(String.class), is(not(body)));
+
+        assertThat(subject.getLightListRequests(), is(3L));
+        assertThat(subject.getLightListNotModified(), is(1L));
+    }
+
+    @Test
+    public void lightJsonIsOnlySerializedOnChange() {
+        HueLightEntry light = cs.ds.lights.get("1");
+        String json = light.toJson(cs.gson);
+        assertThat(light.toJson(cs.gson), is(sameInstance(json)));
+        assertThat(json, is(cs.gson.toJson(light)));
+
+        light.item.setLabel("renamed");
+        String renamed = light.toJson(cs.gson);
+        assertThat(renamed, is(not(json)));
+        assertThat(renamed, containsString("renamed"));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;